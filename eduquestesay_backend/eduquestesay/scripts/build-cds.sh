@@ -0,0 +1,32 @@
+#!/usr/bin/env bash
+# Builds the AOT-processed jar, extracts it and records a class-data-sharing
+# archive with a training run that stops right after the context refresh.
+#
+#   scripts/build-cds.sh            -> target/cds/application/eduquestesay.jar + application.jsa
+#
+# Start the result with:
+#   java -XX:SharedArchiveFile=target/cds/application.jsa -Dspring.aot.enabled=true \
+#        -Dspring.profiles.active=prod -jar target/cds/application/eduquestesay.jar
+#
+# The training run refreshes the context, so Flyway and Hibernate validation need a
+# database. By default it points at the local MySQL from application.properties;
+# set SPRING_DATASOURCE_URL / _USERNAME / _PASSWORD to train against another one.
+# Rebuild the archive whenever the jar or the JDK changes; a stale archive is ignored
+# by the JVM (with a warning) rather than failing startup.
+set -euo pipefail
+
+cd "$(dirname "$0")/.."
+
+mvn -B -q -Paot package -DskipTests
+
+rm -rf target/cds
+java -Djarmode=tools -jar target/eduquestesay-0.0.1-SNAPSHOT.jar \
+    extract --destination target/cds/application --application-filename eduquestesay.jar
+
+java -XX:ArchiveClassesAtExit=target/cds/application.jsa \
+    -Dspring.context.exit=onRefresh \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=prod \
+    -jar target/cds/application/eduquestesay.jar
+
+echo "CDS archive written to target/cds/application.jsa"
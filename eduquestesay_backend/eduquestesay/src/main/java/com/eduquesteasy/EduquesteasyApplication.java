@@ -1,9 +1,13 @@
 package com.eduquesteasy;
 
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
 import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.ResourceHttpMessageConverter;
 import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
 import org.springframework.web.servlet.config.annotation.EnableWebMvc;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
@@ -14,13 +18,24 @@ import java.util.List;
 @EnableWebMvc  // Add this annotation
 public class EduquesteasyApplication implements WebMvcConfigurer {
 
+    // See config.JacksonConfig
+    @Autowired
+    private MappingJackson2HttpMessageConverter jsonMessageConverter;
+
     public static void main(String[] args) {
-        SpringApplication.run(EduquesteasyApplication.class, args);
+        SpringApplication app = new SpringApplication(EduquesteasyApplication.class);
+        // Records startup steps for the startup report (see startup.StartupReport)
+        app.setApplicationStartup(new BufferingApplicationStartup(8192));
+        app.run(args);
     }
 
-    // Configure message converters
+    // Configure message converters; byte[] bodies are JSON pre-serialized by
+    // responsecache.JsonResponseCache and are written as they are, resources are
+    // files sent for download (flight recordings)
     @Override
     public void configureMessageConverters(List<HttpMessageConverter<?>> converters) {
-        converters.add(new MappingJackson2HttpMessageConverter());
+        converters.add(new ByteArrayHttpMessageConverter());
+        converters.add(new ResourceHttpMessageConverter());
+        converters.add(jsonMessageConverter);
     }
 }
\ No newline at end of file
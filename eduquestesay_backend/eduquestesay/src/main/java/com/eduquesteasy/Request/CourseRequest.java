@@ -10,7 +10,6 @@ public class CourseRequest {
     private String category;
     private String imageUrl;
     private String level;
-    private double rating;
     private int duration;
     private String teacherEmail;
 
@@ -0,0 +1,31 @@
+package com.eduquesteasy.Request;
+
+import lombok.Data;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class ProgressSyncRequest {
+    private String studentEmail;
+    private List<ProgressEvent> events = new ArrayList<>();
+
+    public ProgressSyncRequest() {
+    }
+
+    /**
+     * One progress update recorded on the device while offline
+     */
+    @Data
+    public static class ProgressEvent {
+        private Long courseId;
+        private Double progress;
+        // Per-device counter, increasing with every recorded event
+        private long sequence;
+        private Instant clientTimestamp;
+
+        public ProgressEvent() {
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.eduquesteasy.admission;
+
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Admission control for {@code /api/*}. Disable with {@code eduquest.admission.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "eduquest.admission", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionConfig {
+
+    @Bean
+    public ClientRateLimiter studentRateLimiter(AdmissionProperties properties) {
+        return new ClientRateLimiter("student", properties.getStudent(), properties.getIdleBucketEvictMs());
+    }
+
+    @Bean
+    public ClientRateLimiter teacherRateLimiter(AdmissionProperties properties) {
+        return new ClientRateLimiter("teacher", properties.getTeacher(), properties.getIdleBucketEvictMs());
+    }
+
+    @Bean
+    public Bulkheads bulkheads(AdmissionProperties properties) {
+        return new Bulkheads(properties);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionFilter> admissionFilter(ClientRateLimiter studentRateLimiter,
+                                                                   ClientRateLimiter teacherRateLimiter,
+                                                                   Bulkheads bulkheads) {
+        FilterRegistrationBean<AdmissionFilter> registration = new FilterRegistrationBean<>(
+                new AdmissionFilter(studentRateLimiter, teacherRateLimiter, bulkheads));
+        registration.addUrlPatterns("/api/*");
+        // Ahead of the read-your-writes filter: rejected requests never touch routing state
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 5);
+        return registration;
+    }
+}
@@ -0,0 +1,131 @@
+package com.eduquesteasy.admission;
+
+import com.eduquesteasy.datasource.ReadYourWritesFilter;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Admission control in front of the controllers: per-student and per-teacher rate
+ * limits (429) first, then a concurrency bulkhead per endpoint class (503). Both
+ * rejections carry {@code Retry-After} and happen before any connection is taken.
+ */
+public class AdmissionFilter extends OncePerRequestFilter {
+
+    public static final String TEACHER_HEADER = "X-Teacher-Email";
+
+    // /api/teacher/dashboard/{email}, /api/teacher/{email}/analytics, /api/courses/teacher/{email}
+    private static final Pattern TEACHER_PATH = Pattern.compile(
+            "^/api/(?:teacher/dashboard/([^/]+)|teacher/([^/]+)/analytics|courses/teacher/([^/]+))");
+
+    // Dashboard, analytics and per-course aggregates under /api/teacher
+    private static final Pattern ANALYTICS_PATH = Pattern.compile(
+            "^/api/teacher/(?:dashboard/[^/]+|[^/]+/analytics|course/[^/]+/(?:details|students))$");
+
+    private final ClientRateLimiter studentLimiter;
+    private final ClientRateLimiter teacherLimiter;
+    private final Bulkheads bulkheads;
+
+    public AdmissionFilter(ClientRateLimiter studentLimiter, ClientRateLimiter teacherLimiter,
+                           Bulkheads bulkheads) {
+        this.studentLimiter = studentLimiter;
+        this.teacherLimiter = teacherLimiter;
+        this.bulkheads = bulkheads;
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        // Admin endpoints must stay reachable while the API is shedding load
+        return request.getRequestURI().startsWith("/api/admin/")
+                || "OPTIONS".equals(request.getMethod());
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String student = ReadYourWritesFilter.resolveClientKey(request);
+        if (student != null && reject(response, studentLimiter.tryAcquire(student), "student")) {
+            return;
+        }
+        String teacher = resolveTeacherKey(request);
+        if (teacher != null && reject(response, teacherLimiter.tryAcquire(teacher), "teacher")) {
+            return;
+        }
+
+        Bulkhead bulkhead = bulkheads.get(classify(request));
+        boolean entered;
+        try {
+            entered = bulkhead.tryEnter();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            entered = false;
+        }
+        if (!entered) {
+            writeRejection(response, HttpStatus.SERVICE_UNAVAILABLE, "overloaded",
+                    bulkhead.getEndpointClass().name().toLowerCase(),
+                    TimeUnit.MILLISECONDS.toNanos(Math.max(1_000, bulkhead.getMaxWaitMs())));
+            return;
+        }
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            bulkhead.release();
+        }
+    }
+
+    static EndpointClass classify(HttpServletRequest request) {
+        String method = request.getMethod();
+        if (!"GET".equals(method) && !"HEAD".equals(method)) {
+            return EndpointClass.WRITE;
+        }
+        return ANALYTICS_PATH.matcher(request.getRequestURI()).matches()
+                ? EndpointClass.ANALYTICS
+                : EndpointClass.READ;
+    }
+
+    static String resolveTeacherKey(HttpServletRequest request) {
+        String header = request.getHeader(TEACHER_HEADER);
+        if (header != null && !header.isBlank()) {
+            return header;
+        }
+        Matcher matcher = TEACHER_PATH.matcher(request.getRequestURI());
+        if (matcher.find()) {
+            for (int group = 1; group <= matcher.groupCount(); group++) {
+                if (matcher.group(group) != null) {
+                    return UriUtils.decode(matcher.group(group), StandardCharsets.UTF_8);
+                }
+            }
+        }
+        return null;
+    }
+
+    private static boolean reject(HttpServletResponse response, long waitNanos, String scope) throws IOException {
+        if (waitNanos == 0) {
+            return false;
+        }
+        writeRejection(response, HttpStatus.TOO_MANY_REQUESTS, "rate_limited", scope, waitNanos);
+        return true;
+    }
+
+    private static void writeRejection(HttpServletResponse response, HttpStatus status, String error,
+                                       String scope, long retryAfterNanos) throws IOException {
+        long retryAfterMs = Math.max(1, TimeUnit.NANOSECONDS.toMillis(retryAfterNanos));
+        response.setStatus(status.value());
+        // Retry-After is in whole seconds; round up so clients never come back early
+        response.setHeader("Retry-After", String.valueOf((retryAfterMs + 999) / 1000));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + error + "\",\"scope\":\"" + scope
+                + "\",\"retryAfterMs\":" + retryAfterMs + "}");
+    }
+}
@@ -0,0 +1,65 @@
+package com.eduquesteasy.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Rate limits and bulkhead sizes for API admission control (prefix {@code eduquest.admission}).
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.admission")
+public class AdmissionProperties {
+
+    private boolean enabled = true;
+
+    private Limit student = new Limit(20, 10.0);
+    private Limit teacher = new Limit(10, 5.0);
+
+    private Map<EndpointClass, Compartment> bulkheads = new EnumMap<>(Map.of(
+            EndpointClass.ANALYTICS, new Compartment(3, 100, 6),
+            EndpointClass.READ, new Compartment(8, 250, 32),
+            EndpointClass.WRITE, new Compartment(4, 500, 16)));
+
+    // Buckets idle for this long are full again and are dropped
+    private long idleBucketEvictMs = 60_000;
+
+    @Data
+    public static class Limit {
+        // Burst size: requests a client may send back to back
+        private int capacity;
+        // Sustained requests per second
+        private double refillPerSecond;
+
+        public Limit() {
+        }
+
+        public Limit(int capacity, double refillPerSecond) {
+            this.capacity = capacity;
+            this.refillPerSecond = refillPerSecond;
+        }
+    }
+
+    @Data
+    public static class Compartment {
+        // Requests executing at the same time
+        private int maxConcurrent;
+        // Longest a request may wait for a slot before it is shed with 503
+        private long maxWaitMs;
+        // Requests allowed to wait at all; beyond this they are shed immediately
+        private int maxWaiting;
+
+        public Compartment() {
+        }
+
+        public Compartment(int maxConcurrent, long maxWaitMs, int maxWaiting) {
+            this.maxConcurrent = maxConcurrent;
+            this.maxWaitMs = maxWaitMs;
+            this.maxWaiting = maxWaiting;
+        }
+    }
+}
@@ -0,0 +1,91 @@
+package com.eduquesteasy.admission;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Caps how many requests of one {@link EndpointClass} run at once. A request waits
+ * at most {@code maxWaitMs} for a slot, and is turned away without waiting when
+ * {@code maxWaiting} requests are already queued, so an overloaded compartment
+ * sheds load instead of piling up Tomcat threads.
+ */
+public class Bulkhead {
+
+    private final EndpointClass endpointClass;
+    private final AdmissionProperties.Compartment compartment;
+    private final Semaphore permits;
+    private final AtomicInteger waiting = new AtomicInteger();
+
+    private final LongAdder admitted = new LongAdder();
+    private final LongAdder shedQueueFull = new LongAdder();
+    private final LongAdder shedTimeout = new LongAdder();
+
+    public Bulkhead(EndpointClass endpointClass, AdmissionProperties.Compartment compartment) {
+        this.endpointClass = endpointClass;
+        this.compartment = compartment;
+        this.permits = new Semaphore(compartment.getMaxConcurrent());
+    }
+
+    /**
+     * @return true if a slot was taken; the caller must then {@link #release()} it
+     */
+    public boolean tryEnter() throws InterruptedException {
+        if (permits.tryAcquire()) {
+            admitted.increment();
+            return true;
+        }
+        if (waiting.incrementAndGet() > compartment.getMaxWaiting()) {
+            waiting.decrementAndGet();
+            shedQueueFull.increment();
+            return false;
+        }
+        try {
+            if (permits.tryAcquire(compartment.getMaxWaitMs(), TimeUnit.MILLISECONDS)) {
+                admitted.increment();
+                return true;
+            }
+            shedTimeout.increment();
+            return false;
+        } finally {
+            waiting.decrementAndGet();
+        }
+    }
+
+    public void release() {
+        permits.release();
+    }
+
+    public EndpointClass getEndpointClass() {
+        return endpointClass;
+    }
+
+    public long getMaxWaitMs() {
+        return compartment.getMaxWaitMs();
+    }
+
+    public int getMaxConcurrent() {
+        return compartment.getMaxConcurrent();
+    }
+
+    public int getInUse() {
+        return compartment.getMaxConcurrent() - permits.availablePermits();
+    }
+
+    public int getWaiting() {
+        return waiting.get();
+    }
+
+    public long getAdmitted() {
+        return admitted.sum();
+    }
+
+    public long getShedQueueFull() {
+        return shedQueueFull.sum();
+    }
+
+    public long getShedTimeout() {
+        return shedTimeout.sum();
+    }
+}
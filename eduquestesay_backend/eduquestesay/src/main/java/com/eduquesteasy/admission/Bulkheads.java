@@ -0,0 +1,31 @@
+package com.eduquesteasy.admission;
+
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * The bulkhead of every {@link EndpointClass}, built from {@link AdmissionProperties}.
+ */
+public class Bulkheads {
+
+    private final Map<EndpointClass, Bulkhead> byClass = new EnumMap<>(EndpointClass.class);
+
+    public Bulkheads(AdmissionProperties properties) {
+        for (EndpointClass endpointClass : EndpointClass.values()) {
+            AdmissionProperties.Compartment compartment = properties.getBulkheads().get(endpointClass);
+            if (compartment == null) {
+                throw new IllegalStateException("No bulkhead configured for " + endpointClass);
+            }
+            byClass.put(endpointClass, new Bulkhead(endpointClass, compartment));
+        }
+    }
+
+    public Bulkhead get(EndpointClass endpointClass) {
+        return byClass.get(endpointClass);
+    }
+
+    public Collection<Bulkhead> all() {
+        return byClass.values();
+    }
+}
@@ -0,0 +1,65 @@
+package com.eduquesteasy.admission;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One token bucket per client key. The map is only written when a client is first
+ * seen or evicted; the hot path is a lookup plus a CAS on that client's bucket.
+ */
+public class ClientRateLimiter {
+
+    private final String name;
+    private final AdmissionProperties.Limit limit;
+    private final long idleEvictNanos;
+    private final Map<String, TokenBucket> buckets = new ConcurrentHashMap<>();
+
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder limited = new LongAdder();
+
+    public ClientRateLimiter(String name, AdmissionProperties.Limit limit, long idleEvictMs) {
+        this.name = name;
+        this.limit = limit;
+        this.idleEvictNanos = idleEvictMs * 1_000_000L;
+    }
+
+    /**
+     * @return 0 if the client may proceed, otherwise the nanoseconds it should wait
+     */
+    public long tryAcquire(String clientKey) {
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(clientKey);
+        if (bucket == null) {
+            bucket = buckets.computeIfAbsent(clientKey,
+                    k -> new TokenBucket(limit.getCapacity(), limit.getRefillPerSecond(), now));
+        }
+        long waitNanos = bucket.tryAcquire(now);
+        (waitNanos == 0 ? allowed : limited).increment();
+        return waitNanos;
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    public void evictIdle() {
+        long cutoff = System.nanoTime() - idleEvictNanos;
+        buckets.values().removeIf(bucket -> bucket.isIdle(cutoff));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public int getTrackedClients() {
+        return buckets.size();
+    }
+
+    public long getAllowed() {
+        return allowed.sum();
+    }
+
+    public long getLimited() {
+        return limited.sum();
+    }
+}
@@ -0,0 +1,12 @@
+package com.eduquesteasy.admission;
+
+/**
+ * Bulkhead an API request is admitted through. Analytics endpoints aggregate over
+ * whole courses or teachers and hold a connection far longer than a point read,
+ * so they get their own, smaller compartment.
+ */
+public enum EndpointClass {
+    ANALYTICS,
+    READ,
+    WRITE
+}
@@ -0,0 +1,33 @@
+package com.eduquesteasy.archive;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Enrollment archiving and partition upkeep (prefix {@code eduquest.archive}).
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.archive")
+public class ArchiveProperties {
+
+    private boolean enabled = true;
+
+    // Completed enrollments are archived this long after they started
+    private int completedAfterDays = 180;
+
+    // Enrollments never started are archived this long after they started
+    private int abandonedAfterDays = 365;
+
+    // Ids scanned per transaction; every matching row in the range is moved at once
+    private int batchSize = 2000;
+
+    // Pause between batches, so a run never holds the hot table for long
+    private long pauseMs = 50;
+
+    private long intervalMs = 3_600_000;
+
+    // Yearly partitions kept ready ahead of the current year (MySQL only)
+    private int partitionYearsAhead = 2;
+}
@@ -0,0 +1,203 @@
+package com.eduquesteasy.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keeps the enrollments table down to the enrollments students still work on.
+ *
+ * A run walks the table in id ranges; in each range it locks the cold rows
+ * (completed, or never started, long enough ago), copies them to
+ * enrollments_archive and deletes them, one short transaction per range.
+ * Archived rows keep their id. When a student enrolls again, records progress
+ * or withdraws, the enrollment is moved back first, inside that transaction.
+ */
+@Slf4j
+@Component
+public class EnrollmentArchiver {
+
+    private static final String COLUMNS = "id, course_id, student_email, student_id, enrollment_date, progress, version";
+
+    private static final String SELECT_COLD_SQL = """
+            SELECT id FROM enrollments
+            WHERE id > ? AND id <= ?
+              AND ((progress >= 100 AND enrollment_date < ?)
+                OR (COALESCE(progress, 0) = 0 AND enrollment_date < ?))
+            FOR UPDATE
+            """;
+
+    private static final String ARCHIVE_SQL = "INSERT INTO enrollments_archive (" + COLUMNS + ", archived_at) "
+            + "SELECT " + COLUMNS + ", :archivedAt FROM enrollments WHERE id IN (:ids)";
+
+    private static final String RESTORE_SQL = "INSERT INTO enrollments (" + COLUMNS + ") "
+            + "SELECT " + COLUMNS + " FROM enrollments_archive WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EnrollmentPartitionMaintainer partitionMaintainer;
+    private final ArchiveProperties properties;
+
+    private final AtomicBoolean running = new AtomicBoolean();
+    private volatile Map<String, Object> lastRun = Map.of();
+
+    public EnrollmentArchiver(JdbcTemplate jdbcTemplate,
+                              NamedParameterJdbcTemplate namedJdbcTemplate,
+                              PlatformTransactionManager transactionManager,
+                              EnrollmentPartitionMaintainer partitionMaintainer,
+                              ArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.partitionMaintainer = partitionMaintainer;
+        this.properties = properties;
+    }
+
+    @Scheduled(initialDelayString = "${eduquest.archive.interval-ms:3600000}",
+            fixedDelayString = "${eduquest.archive.interval-ms:3600000}")
+    public void scheduledRun() {
+        if (properties.isEnabled()) {
+            run();
+        }
+    }
+
+    /**
+     * Archive every cold enrollment, then add and drop partitions. Returns the run summary.
+     */
+    public Map<String, Object> run() {
+        if (!running.compareAndSet(false, true)) {
+            return Map.of("status", "already running");
+        }
+        try {
+            long started = System.nanoTime();
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime completedBefore = now.minusDays(properties.getCompletedAfterDays());
+            LocalDateTime abandonedBefore = now.minusDays(properties.getAbandonedAfterDays());
+
+            Long maxId = jdbcTemplate.queryForObject("SELECT MAX(id) FROM enrollments", Long.class);
+            long archived = 0;
+            int batches = 0;
+            int batchSize = Math.max(1, properties.getBatchSize());
+            for (long from = 0; maxId != null && from < maxId; from += batchSize) {
+                long to = from + batchSize;
+                long lower = from;
+                Integer moved = transactionTemplate.execute(status ->
+                        archiveRange(lower, to, completedBefore, abandonedBefore, now));
+                batches++;
+                if (moved != null && moved > 0) {
+                    archived += moved;
+                    pause();
+                }
+            }
+
+            // Only partitions older than both cut-offs can have been emptied by archiving
+            LocalDateTime dropBefore = completedBefore.isBefore(abandonedBefore) ? completedBefore : abandonedBefore;
+            Map<String, Object> partitions = partitionMaintainer.maintain(now, dropBefore);
+
+            Map<String, Object> summary = new LinkedHashMap<>();
+            summary.put("startedAt", now.toString());
+            summary.put("durationMs", (System.nanoTime() - started) / 1_000_000);
+            summary.put("batches", batches);
+            summary.put("archived", archived);
+            summary.put("partitions", partitions);
+            lastRun = summary;
+            if (archived > 0) {
+                log.info("Archived {} enrollments in {} batches ({} ms)", archived, batches, summary.get("durationMs"));
+            }
+            return summary;
+        } finally {
+            running.set(false);
+        }
+    }
+
+    /**
+     * Move a student's archived enrollments in the given courses back to the hot
+     * table, in the caller's transaction. Returns how many came back.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public int restore(long studentId, Collection<Long> courseIds) {
+        if (courseIds.isEmpty()) {
+            return 0;
+        }
+        List<Long> ids = namedJdbcTemplate.queryForList(
+                "SELECT id FROM enrollments_archive WHERE student_id = :studentId AND course_id IN (:courseIds) FOR UPDATE",
+                Map.of("studentId", studentId, "courseIds", courseIds), Long.class);
+        return moveBack(ids);
+    }
+
+    /**
+     * Move one archived enrollment back to the hot table, in the caller's transaction.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public boolean restore(Long enrollmentId) {
+        List<Long> ids = jdbcTemplate.queryForList(
+                "SELECT id FROM enrollments_archive WHERE id = ? FOR UPDATE", Long.class, enrollmentId);
+        return moveBack(ids) > 0;
+    }
+
+    /**
+     * Drop the archived enrollments of a deleted course.
+     */
+    @Transactional
+    public void courseDeleted(Long courseId) {
+        jdbcTemplate.update("DELETE FROM enrollments_archive WHERE course_id = ?", courseId);
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("running", running.get());
+        stats.put("hotRows", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments", Long.class));
+        stats.put("archivedRows", jdbcTemplate.queryForObject("SELECT COUNT(*) FROM enrollments_archive", Long.class));
+        stats.put("completedAfterDays", properties.getCompletedAfterDays());
+        stats.put("abandonedAfterDays", properties.getAbandonedAfterDays());
+        stats.put("partitions", partitionMaintainer.describe());
+        stats.put("lastRun", lastRun);
+        return stats;
+    }
+
+    private int archiveRange(long fromExclusive, long toInclusive, LocalDateTime completedBefore,
+                             LocalDateTime abandonedBefore, LocalDateTime archivedAt) {
+        List<Long> ids = jdbcTemplate.queryForList(SELECT_COLD_SQL, Long.class, fromExclusive, toInclusive,
+                Timestamp.valueOf(completedBefore), Timestamp.valueOf(abandonedBefore));
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        namedJdbcTemplate.update(ARCHIVE_SQL, Map.of("ids", ids, "archivedAt", Timestamp.valueOf(archivedAt)));
+        return namedJdbcTemplate.update("DELETE FROM enrollments WHERE id IN (:ids)", Map.of("ids", ids));
+    }
+
+    private int moveBack(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        namedJdbcTemplate.update(RESTORE_SQL, Map.of("ids", ids));
+        return namedJdbcTemplate.update("DELETE FROM enrollments_archive WHERE id IN (:ids)", Map.of("ids", ids));
+    }
+
+    private void pause() {
+        if (properties.getPauseMs() <= 0) {
+            return;
+        }
+        try {
+            Thread.sleep(properties.getPauseMs());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
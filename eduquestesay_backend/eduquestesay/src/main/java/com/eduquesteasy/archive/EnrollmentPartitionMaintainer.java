@@ -0,0 +1,140 @@
+package com.eduquesteasy.archive;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Upkeep of the yearly range partitions of enrollments on MySQL (see the mysql
+ * V6 migration): splits new years off p_future ahead of time, and drops year
+ * partitions the archiver has emptied, which frees their space at once instead
+ * of leaving holes in one large table. Does nothing where the table is not
+ * partitioned.
+ */
+@Slf4j
+@Component
+public class EnrollmentPartitionMaintainer {
+
+    private static final String PARTITIONS_SQL = """
+            SELECT partition_name, partition_description, table_rows
+            FROM information_schema.partitions
+            WHERE table_schema = DATABASE() AND table_name = 'enrollments' AND partition_name IS NOT NULL
+            ORDER BY partition_ordinal_position
+            """;
+
+    private static final String FUTURE_PARTITION = "p_future";
+    private static final Pattern YEAR_PARTITION = Pattern.compile("p(\\d{4})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ArchiveProperties properties;
+
+    private volatile Boolean partitioned;
+
+    public EnrollmentPartitionMaintainer(JdbcTemplate jdbcTemplate, ArchiveProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    /**
+     * Add the partitions for the coming years and drop empty ones wholly before dropBefore.
+     */
+    public synchronized Map<String, Object> maintain(LocalDateTime now, LocalDateTime dropBefore) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        if (!isPartitioned()) {
+            result.put("partitioned", false);
+            return result;
+        }
+
+        List<Partition> partitions = partitions();
+        List<String> added = new ArrayList<>();
+        int lastYear = partitions.stream().mapToInt(Partition::year).max().orElse(now.getYear() - 1);
+        int targetYear = now.getYear() + properties.getPartitionYearsAhead();
+        boolean hasFuture = partitions.stream().anyMatch(p -> p.name().equals(FUTURE_PARTITION));
+        if (hasFuture && lastYear < targetYear) {
+            StringBuilder ddl = new StringBuilder("ALTER TABLE enrollments REORGANIZE PARTITION ")
+                    .append(FUTURE_PARTITION).append(" INTO (");
+            for (int year = lastYear + 1; year <= targetYear; year++) {
+                ddl.append("PARTITION p").append(year)
+                        .append(" VALUES LESS THAN ('").append(year + 1).append("-01-01'), ");
+                added.add("p" + year);
+            }
+            ddl.append("PARTITION ").append(FUTURE_PARTITION).append(" VALUES LESS THAN (MAXVALUE))");
+            jdbcTemplate.execute(ddl.toString());
+            log.info("Added enrollment partitions {}", added);
+        }
+
+        List<String> dropped = new ArrayList<>();
+        for (Partition partition : partitions) {
+            boolean whollyBefore = partition.year() > 0
+                    && LocalDateTime.of(partition.year() + 1, 1, 1, 0, 0).isBefore(dropBefore);
+            if (!whollyBefore) {
+                continue;
+            }
+            // table_rows is an estimate; only an exact zero may drop a partition
+            Long rows = jdbcTemplate.queryForObject(
+                    "SELECT COUNT(*) FROM enrollments PARTITION (" + partition.name() + ")", Long.class);
+            if (rows != null && rows == 0) {
+                jdbcTemplate.execute("ALTER TABLE enrollments DROP PARTITION " + partition.name());
+                dropped.add(partition.name());
+            }
+        }
+        if (!dropped.isEmpty()) {
+            log.info("Dropped emptied enrollment partitions {}", dropped);
+        }
+
+        result.put("partitioned", true);
+        result.put("added", added);
+        result.put("dropped", dropped);
+        return result;
+    }
+
+    /**
+     * Partition names with their upper bound and estimated row count, or an empty list.
+     */
+    public List<Map<String, Object>> describe() {
+        List<Map<String, Object>> description = new ArrayList<>();
+        if (!isPartitioned()) {
+            return description;
+        }
+        for (Partition partition : partitions()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("name", partition.name());
+            entry.put("lessThan", partition.bound());
+            entry.put("estimatedRows", partition.estimatedRows());
+            description.add(entry);
+        }
+        return description;
+    }
+
+    private boolean isPartitioned() {
+        if (partitioned == null) {
+            boolean mysql = Boolean.TRUE.equals(jdbcTemplate.execute((ConnectionCallback<Boolean>) connection ->
+                    connection.getMetaData().getDatabaseProductName().toLowerCase().contains("mysql")));
+            partitioned = mysql && !partitions().isEmpty();
+        }
+        return partitioned;
+    }
+
+    private List<Partition> partitions() {
+        return jdbcTemplate.query(PARTITIONS_SQL, (rs, rowNum) ->
+                new Partition(rs.getString(1), rs.getString(2), rs.getLong(3)));
+    }
+
+    private record Partition(String name, String bound, long estimatedRows) {
+
+        // Calendar year of a pYYYY partition, 0 for p_old and p_future
+        int year() {
+            Matcher matcher = YEAR_PARTITION.matcher(name);
+            return matcher.matches() ? Integer.parseInt(matcher.group(1)) : 0;
+        }
+    }
+}
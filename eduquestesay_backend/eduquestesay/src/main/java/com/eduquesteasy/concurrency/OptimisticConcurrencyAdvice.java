@@ -0,0 +1,30 @@
+package com.eduquesteasy.concurrency;
+
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.Map;
+
+/**
+ * 412 when an If-Match version is stale before the write, 409 when another writer
+ * committed first and the version check on UPDATE caught it.
+ */
+@RestControllerAdvice
+public class OptimisticConcurrencyAdvice {
+
+    @ExceptionHandler(PreconditionFailedException.class)
+    public ResponseEntity<Map<String, Object>> preconditionFailed(PreconditionFailedException e) {
+        return ResponseEntity.status(HttpStatus.PRECONDITION_FAILED)
+                .eTag(ETags.of(e.getCurrentVersion()))
+                .body(Map.of("error", e.getMessage(), "currentVersion", e.getCurrentVersion()));
+    }
+
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> conflict(OptimisticLockingFailureException e) {
+        return ResponseEntity.status(HttpStatus.CONFLICT)
+                .body(Map.of("error", "Concurrent update, reload and retry"));
+    }
+}
@@ -0,0 +1,27 @@
+package com.eduquesteasy.concurrency;
+
+/**
+ * The client's If-Match version no longer matches the stored entity.
+ */
+public class PreconditionFailedException extends RuntimeException {
+
+    private final long currentVersion;
+
+    public PreconditionFailedException(String entity, long currentVersion) {
+        super(entity + " was modified (current version " + currentVersion + ")");
+        this.currentVersion = currentVersion;
+    }
+
+    public long getCurrentVersion() {
+        return currentVersion;
+    }
+
+    /**
+     * Throw unless expectedVersion is absent or equal to currentVersion.
+     */
+    public static void check(String entity, Long expectedVersion, long currentVersion) {
+        if (expectedVersion != null && expectedVersion != currentVersion) {
+            throw new PreconditionFailedException(entity, currentVersion);
+        }
+    }
+}
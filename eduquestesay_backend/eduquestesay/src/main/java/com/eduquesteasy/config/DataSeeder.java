@@ -8,6 +8,7 @@ import com.eduquesteasy.repositories.LessonRepository;
 import com.eduquesteasy.repositories.NewsRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
 import org.springframework.stereotype.Component;
 
 import java.time.LocalDateTime;
@@ -15,6 +16,7 @@ import java.util.Arrays;
 import java.util.List;
 
 @Component
+@Profile("!datagen & !prod")
 public class DataSeeder implements CommandLineRunner {
 
     @Autowired
@@ -63,7 +65,6 @@ public class DataSeeder implements CommandLineRunner {
         course.setCategory("Web Development");
         course.setImageUrl("https://images.unsplash.com/photo-1627398242454-45a1465c2479?w=500&h=300&fit=crop");
         course.setLevel("Beginner");
-        course.setRating(4.7);
         course.setDuration(45);
         course.setTeacherEmail("john.developer@eduquest.com");
 
@@ -104,7 +105,6 @@ public class DataSeeder implements CommandLineRunner {
         course.setCategory("Mobile Development");
         course.setImageUrl("https://images.unsplash.com/photo-1551650975-87deedd944c3?w=500&h=300&fit=crop");
         course.setLevel("Intermediate");
-        course.setRating(4.8);
         course.setDuration(38);
         course.setTeacherEmail("sarah.flutter@eduquest.com");
 
@@ -144,7 +144,6 @@ public class DataSeeder implements CommandLineRunner {
         course.setCategory("Data Science");
         course.setImageUrl("https://images.unsplash.com/photo-1551288049-bebda4e38f71?w=500&h=300&fit=crop");
         course.setLevel("Advanced");
-        course.setRating(4.6);
         course.setDuration(52);
         course.setTeacherEmail("mike.datascience@eduquest.com");
 
@@ -184,7 +183,6 @@ public class DataSeeder implements CommandLineRunner {
         course.setCategory("Design");
         course.setImageUrl("https://images.unsplash.com/photo-1561070791-2526d30994b5?w=500&h=300&fit=crop");
         course.setLevel("Beginner");
-        course.setRating(4.9);
         course.setDuration(28);
         course.setTeacherEmail("lisa.design@eduquest.com");
 
@@ -224,7 +222,6 @@ public class DataSeeder implements CommandLineRunner {
         course.setCategory("Backend Development");
         course.setImageUrl("https://images.unsplash.com/photo-1555066931-4365d14bab8c?w=500&h=300&fit=crop");
         course.setLevel("Intermediate");
-        course.setRating(4.5);
         course.setDuration(35);
         course.setTeacherEmail("david.backend@eduquest.com");
 
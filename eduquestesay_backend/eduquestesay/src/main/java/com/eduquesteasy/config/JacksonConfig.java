@@ -0,0 +1,49 @@
+package com.eduquesteasy.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.hibernate6.Hibernate6Module;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+/**
+ * The JSON converter behind every REST response. Its mapper is also what the
+ * pre-serialized response cache encodes with, so cached and uncached bodies are
+ * byte for byte the same. It is deliberately not Boot's ObjectMapper, which
+ * would change how dates are written.
+ *
+ * With open-session-in-view off, responses are written after the session has
+ * closed; the Hibernate module writes collections a service did not fetch (see
+ * CourseFetchPlan) as null rather than failing on them.
+ */
+@Slf4j
+@Configuration
+public class JacksonConfig {
+
+    @Bean
+    public MappingJackson2HttpMessageConverter jsonMessageConverter(
+            @Value("${eduquest.json.blackbird:false}") boolean blackbird) {
+        return new MappingJackson2HttpMessageConverter(responseObjectMapper(blackbird));
+    }
+
+    /**
+     * Mapper with the same settings as a default MappingJackson2HttpMessageConverter
+     * plus the Hibernate module, optionally with Blackbird, which replaces
+     * reflective getter calls with generated lambdas.
+     */
+    public static ObjectMapper responseObjectMapper(boolean blackbird) {
+        ObjectMapper mapper = Jackson2ObjectMapperBuilder.json().build();
+        // Never load lazily while writing; @Transient fields keep being written as before
+        mapper.registerModule(new Hibernate6Module()
+                .disable(Hibernate6Module.Feature.USE_TRANSIENT_ANNOTATION));
+        if (blackbird) {
+            mapper.registerModule(new BlackbirdModule());
+            log.info("Jackson Blackbird module enabled for REST responses");
+        }
+        return mapper;
+    }
+}
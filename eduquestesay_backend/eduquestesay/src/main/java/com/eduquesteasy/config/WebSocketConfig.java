@@ -0,0 +1,28 @@
+package com.eduquesteasy.config;
+
+import com.eduquesteasy.controllers.TeacherDashboardSocketHandler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.EnableWebSocket;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+@Configuration
+@EnableWebSocket
+@RequiredArgsConstructor
+public class WebSocketConfig implements WebSocketConfigurer {
+
+    private final TeacherDashboardSocketHandler teacherDashboardSocketHandler;
+
+    // Browser origins of the front end; clients that send no Origin header are not affected
+    @Value("${eduquest.dashboard.allowed-origins:http://localhost:[*]}")
+    private String[] allowedOrigins;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // ws://host:8099/ws/teacher/dashboard?teacherEmail=...
+        registry.addHandler(teacherDashboardSocketHandler, "/ws/teacher/dashboard")
+                .setAllowedOriginPatterns(allowedOrigins);
+    }
+}
@@ -0,0 +1,61 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.admission.Bulkhead;
+import com.eduquesteasy.admission.Bulkheads;
+import com.eduquesteasy.admission.ClientRateLimiter;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/admission")
+public class AdmissionStatsController {
+
+    private final ObjectProvider<ClientRateLimiter> rateLimiters;
+    private final ObjectProvider<Bulkheads> bulkheads;
+
+    public AdmissionStatsController(ObjectProvider<ClientRateLimiter> rateLimiters,
+                                    ObjectProvider<Bulkheads> bulkheads) {
+        this.rateLimiters = rateLimiters;
+        this.bulkheads = bulkheads;
+    }
+
+    /**
+     * Admission control state: rate-limited clients and bulkhead occupancy and shedding
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> getAdmissionStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        Bulkheads compartments = bulkheads.getIfAvailable();
+        stats.put("enabled", compartments != null);
+        if (compartments == null) {
+            return stats;
+        }
+
+        Map<String, Object> limiters = new LinkedHashMap<>();
+        rateLimiters.orderedStream().forEach(limiter -> {
+            Map<String, Object> limiterStats = new LinkedHashMap<>();
+            limiterStats.put("trackedClients", limiter.getTrackedClients());
+            limiterStats.put("allowed", limiter.getAllowed());
+            limiterStats.put("limited", limiter.getLimited());
+            limiters.put(limiter.getName(), limiterStats);
+        });
+        stats.put("rateLimits", limiters);
+
+        Map<String, Object> bulkheadStats = new LinkedHashMap<>();
+        for (Bulkhead bulkhead : compartments.all()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("maxConcurrent", bulkhead.getMaxConcurrent());
+            entry.put("inUse", bulkhead.getInUse());
+            entry.put("waiting", bulkhead.getWaiting());
+            entry.put("admitted", bulkhead.getAdmitted());
+            entry.put("shedQueueFull", bulkhead.getShedQueueFull());
+            entry.put("shedTimeout", bulkhead.getShedTimeout());
+            bulkheadStats.put(bulkhead.getEndpointClass().name(), entry);
+        }
+        stats.put("bulkheads", bulkheadStats);
+        return stats;
+    }
+}
@@ -0,0 +1,33 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.archive.EnrollmentArchiver;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/archive")
+public class ArchiveStatsController {
+
+    private final EnrollmentArchiver enrollmentArchiver;
+
+    public ArchiveStatsController(EnrollmentArchiver enrollmentArchiver) {
+        this.enrollmentArchiver = enrollmentArchiver;
+    }
+
+    /**
+     * Hot and archived row counts, enrollment partitions and the last archiving run
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return enrollmentArchiver.stats();
+    }
+
+    /**
+     * Archive cold enrollments now instead of waiting for the next scheduled run
+     */
+    @PostMapping("/run")
+    public Map<String, Object> run() {
+        return enrollmentArchiver.run();
+    }
+}
@@ -0,0 +1,82 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.dimensions.CourseDimensions;
+import com.eduquesteasy.identity.IdentityResolver;
+import com.eduquesteasy.responsecache.JsonResponseCache;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+public class CacheStatsController {
+
+    private final SessionFactory sessionFactory;
+    private final JsonResponseCache jsonResponseCache;
+    private final IdentityResolver identityResolver;
+    private final CourseDimensions courseDimensions;
+
+    public CacheStatsController(EntityManagerFactory entityManagerFactory, JsonResponseCache jsonResponseCache,
+                                IdentityResolver identityResolver, CourseDimensions courseDimensions) {
+        this.sessionFactory = entityManagerFactory.unwrap(SessionFactory.class);
+        this.jsonResponseCache = jsonResponseCache;
+        this.identityResolver = identityResolver;
+        this.courseDimensions = courseDimensions;
+    }
+
+    /**
+     * Second-level and query cache statistics, overall and per region
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        Statistics statistics = sessionFactory.getStatistics();
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        stats.put("secondLevelCacheHits", statistics.getSecondLevelCacheHitCount());
+        stats.put("secondLevelCacheMisses", statistics.getSecondLevelCacheMissCount());
+        stats.put("secondLevelCachePuts", statistics.getSecondLevelCachePutCount());
+        stats.put("queryCacheHits", statistics.getQueryCacheHitCount());
+        stats.put("queryCacheMisses", statistics.getQueryCacheMissCount());
+        stats.put("queryCachePuts", statistics.getQueryCachePutCount());
+        stats.put("entityLoads", statistics.getEntityLoadCount());
+        stats.put("collectionLoads", statistics.getCollectionLoadCount());
+
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics region = statistics.getDomainDataRegionStatistics(regionName);
+            if (region == null) {
+                continue;
+            }
+            Map<String, Object> regionStats = new LinkedHashMap<>();
+            regionStats.put("hits", region.getHitCount());
+            regionStats.put("misses", region.getMissCount());
+            regionStats.put("puts", region.getPutCount());
+            regions.put(regionName, regionStats);
+        }
+        stats.put("regions", regions);
+        stats.put("jsonResponses", jsonResponseCache.stats());
+        stats.put("identities", identityResolver.stats());
+        stats.put("dimensions", courseDimensions.stats());
+
+        return stats;
+    }
+
+    /**
+     * Drop every cached entity, collection and query result, the pre-serialized responses built from them
+     * and the resolved student, teacher, category and level ids
+     */
+    @DeleteMapping
+    public Map<String, String> evictAll() {
+        sessionFactory.getCache().evictAllRegions();
+        jsonResponseCache.invalidateAll();
+        identityResolver.invalidateAll();
+        courseDimensions.invalidateAll();
+        return Map.of("status", "evicted");
+    }
+}
@@ -0,0 +1,27 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.sync.CatalogSyncService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/sync")
+public class CatalogSyncController {
+
+    private static final int MAX_LIMIT = 2000;
+
+    private final CatalogSyncService catalogSyncService;
+
+    public CatalogSyncController(CatalogSyncService catalogSyncService) {
+        this.catalogSyncService = catalogSyncService;
+    }
+
+    // 🔹 Courses, lessons and news created, updated or deleted after version `since`.
+    //    Keep calling with `nextSince` while `hasMore`; on `reset`, drop the local cache first.
+    @GetMapping("/catalog")
+    public Map<String, Object> getCatalogChanges(@RequestParam(defaultValue = "0") long since,
+                                                 @RequestParam(defaultValue = "500") int limit) {
+        return catalogSyncService.changesSince(Math.max(since, 0), Math.max(1, Math.min(limit, MAX_LIMIT)));
+    }
+}
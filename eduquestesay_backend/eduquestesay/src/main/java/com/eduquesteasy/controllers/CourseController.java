@@ -1,37 +1,57 @@
 package com.eduquesteasy.controllers;
 
 import com.eduquesteasy.Request.CourseRequest;
+import com.eduquesteasy.concurrency.ETags;
+import com.eduquesteasy.concurrency.PreconditionFailedException;
+import com.eduquesteasy.facets.CourseFacet;
+import com.eduquesteasy.facets.CourseFacetService;
+import com.eduquesteasy.facets.CourseSort;
+import com.eduquesteasy.facets.FacetQuery;
 import com.eduquesteasy.models.Course;
+import com.eduquesteasy.responsecache.JsonResponseCache;
+import com.eduquesteasy.services.CourseFetchPlan;
 import com.eduquesteasy.services.CourseService;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.http.RequestEntity;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 @Slf4j
 @RestController
 @RequestMapping("/api/courses")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class CourseController {
 
     @Autowired
     private CourseService courseService;
 
-    // 🔹 Get all courses
+    @Autowired
+    private CourseFacetService courseFacetService;
+
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
+    private static final int MAX_FILTER_LIMIT = 100;
+
+    // 🔹 Get all courses (served pre-serialized, see JsonResponseCache);
+    //    every course list takes include=lessons to embed the lessons, which are null otherwise
     @GetMapping
-    public List<Course> getAllCourses() {
-        return courseService.getAllCourses();
+    public ResponseEntity<byte[]> getAllCourses(@RequestParam(required = false) String include) {
+        CourseFetchPlan plan = CourseFetchPlan.fromInclude(include);
+        return jsonResponseCache.get(JsonResponseCache.COURSES, plan.cacheKey("courses"),
+                () -> courseService.getAllCourses(plan));
     }
 
     // 🔹 Get course by ID
     @GetMapping("/{id}")
-    public ResponseEntity<Course> getCourseById(@PathVariable Long id) {
-        Optional<Course> course = courseService.getCourseById(id);
-        return course.map(ResponseEntity::ok)
+    public ResponseEntity<Course> getCourseById(@PathVariable Long id,
+                                                @RequestParam(required = false) String include) {
+        Optional<Course> course = courseService.getCourseById(id, CourseFetchPlan.fromInclude(include));
+        return course.map(c -> ResponseEntity.ok().eTag(ETags.of(c.getVersion())).body(c))
                 .orElse(ResponseEntity.notFound().build());
     }
 
@@ -52,7 +72,6 @@ public class CourseController {
             course.setCategory(courseRequest.getCategory());
             course.setImageUrl(courseRequest.getImageUrl());
             course.setLevel(courseRequest.getLevel());
-            course.setRating(courseRequest.getRating());
             course.setDuration(courseRequest.getDuration());
             course.setTeacherEmail(courseRequest.getTeacherEmail());
 
@@ -65,24 +84,27 @@ public class CourseController {
     }
 
 
-    // 🔹 Update course
+    // 🔹 Update course (If-Match: the ETag from GET; 412 if someone saved in between)
     @PutMapping("/{id}")
-    public ResponseEntity<Course> updateCourse(@PathVariable Long id, @RequestBody CourseRequest  courseDetails) {
+    public ResponseEntity<Course> updateCourse(
+            @PathVariable Long id,
+            @RequestBody CourseRequest  courseDetails,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         Optional<Course> existingCourse = courseService.getCourseById(id);
 
         if (existingCourse.isPresent()) {
             Course course = existingCourse.get();
+            PreconditionFailedException.check("Course", ETags.parseIfMatch(ifMatch), course.getVersion());
             course.setTitle(courseDetails.getTitle());
             course.setDescription(courseDetails.getDescription());
             course.setCategory(courseDetails.getCategory());
             course.setImageUrl(courseDetails.getImageUrl());
             course.setLevel(courseDetails.getLevel());
-            course.setRating(courseDetails.getRating());
             course.setDuration(courseDetails.getDuration());
             course.setTeacherEmail(courseDetails.getTeacherEmail());
 
             Course updatedCourse = courseService.saveCourse(course);
-            return ResponseEntity.ok(updatedCourse);
+            return ResponseEntity.ok().eTag(ETags.of(updatedCourse.getVersion())).body(updatedCourse);
         } else {
             return ResponseEntity.notFound().build();
         }
@@ -99,36 +121,90 @@ public class CourseController {
         }
     }
 
-    // 🔹 Get courses by category
+    // 🔹 Get courses by category (served pre-serialized, see JsonResponseCache)
     @GetMapping("/category/{category}")
-    public List<Course> getCoursesByCategory(@PathVariable String category) {
-        return courseService.getCoursesByCategory(category);
+    public ResponseEntity<byte[]> getCoursesByCategory(@PathVariable String category,
+                                                       @RequestParam(required = false) String include) {
+        CourseFetchPlan plan = CourseFetchPlan.fromInclude(include);
+        return jsonResponseCache.get(JsonResponseCache.COURSES, plan.cacheKey("courses:category:" + category),
+                () -> courseService.getCoursesByCategory(category, plan));
     }
 
     // 🔹 Get courses by level
     @GetMapping("/level/{level}")
-    public List<Course> getCoursesByLevel(@PathVariable String level) {
-        return courseService.getCoursesByLevel(level);
+    public List<Course> getCoursesByLevel(@PathVariable String level,
+                                          @RequestParam(required = false) String include) {
+        return courseService.getCoursesByLevel(level, CourseFetchPlan.fromInclude(include));
     }
 
     // 🔹 Get courses by teacher
     @GetMapping("/teacher/{teacherEmail}")
-    public List<Course> getCoursesByTeacher(@PathVariable String teacherEmail) {
-        return courseService.getCoursesByTeacherEmail(teacherEmail);
+    public List<Course> getCoursesByTeacher(@PathVariable String teacherEmail,
+                                            @RequestParam(required = false) String include) {
+        return courseService.getCoursesByTeacherEmail(teacherEmail, CourseFetchPlan.fromInclude(include));
+    }
+
+    // 🔹 Available categories with how many courses each has
+    @GetMapping("/categories")
+    public Map<String, Integer> getCategories() {
+        return courseService.getCategoryCounts();
+    }
+
+    // 🔹 Available levels with how many courses each has
+    @GetMapping("/levels")
+    public Map<String, Integer> getLevels() {
+        return courseService.getLevelCounts();
+    }
+
+    // 🔹 Filter by any combination of category, level, teacher, rating and duration
+    //    (comma-separated values are OR-ed, different attributes AND-ed), with facet counts;
+    //    sort=rating lists the best rated courses first
+    @GetMapping("/filter")
+    public ResponseEntity<?> filterCourses(@RequestParam(required = false) List<String> category,
+                                           @RequestParam(required = false) List<String> level,
+                                           @RequestParam(required = false) List<String> teacher,
+                                           @RequestParam(required = false) List<String> rating,
+                                           @RequestParam(required = false) List<String> duration,
+                                           @RequestParam(required = false) String sort,
+                                           @RequestParam(defaultValue = "0") int offset,
+                                           @RequestParam(defaultValue = "20") int limit,
+                                           @RequestParam(defaultValue = "20") int facetLimit) {
+        if (!courseFacetService.isReady()) {
+            return ResponseEntity.status(503).body(Map.of("error", "Course filters are still loading"));
+        }
+        Map<CourseFacet, Set<String>> filters = new EnumMap<>(CourseFacet.class);
+        putFilter(filters, CourseFacet.CATEGORY, category);
+        putFilter(filters, CourseFacet.LEVEL, level);
+        putFilter(filters, CourseFacet.TEACHER, teacher);
+        putFilter(filters, CourseFacet.RATING, rating);
+        putFilter(filters, CourseFacet.DURATION, duration);
+
+        FacetQuery query = new FacetQuery(filters, CourseSort.fromParam(sort), Math.max(offset, 0),
+                Math.max(0, Math.min(limit, MAX_FILTER_LIMIT)), Math.max(facetLimit, 0));
+        return ResponseEntity.ok(courseFacetService.search(query));
+    }
+
+    private static void putFilter(Map<CourseFacet, Set<String>> filters, CourseFacet facet, List<String> values) {
+        if (values != null && !values.isEmpty()) {
+            filters.put(facet, new HashSet<>(values));
+        }
     }
 
     // 🔹 Search courses by title
     @GetMapping("/search")
-    public List<Course> searchCourses(@RequestParam String title) {
-        return courseService.searchCoursesByTitle(title);
+    public List<Course> searchCourses(@RequestParam String title,
+                                      @RequestParam(required = false) String include) {
+        return courseService.searchCoursesByTitle(title, CourseFetchPlan.fromInclude(include));
     }
 
 
     @GetMapping("/get/enrollment/courses/{studentEmail}")
-    public ResponseEntity<?> getEnrollmentCourses(@PathVariable String studentEmail) {
+    public ResponseEntity<?> getEnrollmentCourses(@PathVariable String studentEmail,
+                                                  @RequestParam(required = false) String include) {
 
         try {
-            return ResponseEntity.ok().body(courseService.getEnrollmentCousesByStudentEmail(studentEmail));
+            return ResponseEntity.ok().body(courseService.getEnrollmentCousesByStudentEmail(
+                    studentEmail, CourseFetchPlan.fromInclude(include)));
         }
         catch (Exception e) {
             return ResponseEntity.internalServerError().body(e.getMessage());
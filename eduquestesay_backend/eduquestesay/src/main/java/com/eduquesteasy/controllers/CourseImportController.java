@@ -0,0 +1,65 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.imports.CourseImportService;
+import com.eduquesteasy.imports.ImportFormat;
+import com.eduquesteasy.imports.ImportJob;
+import com.eduquesteasy.imports.UploadTooLargeException;
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.net.URI;
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/teacher/{teacherEmail}/imports")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.LOCATION)
+@RequiredArgsConstructor
+public class CourseImportController {
+
+    private final CourseImportService courseImportService;
+
+    // 🔹 Upload courses with nested lessons as the raw request body: a JSON array
+    // (or {"courses": [...]}) or CSV with one lesson per row. Answers 202 with the
+    // job; poll its Location for progress and row errors.
+    @PostMapping
+    public ResponseEntity<Map<String, Object>> startImport(
+            @PathVariable String teacherEmail,
+            @RequestParam(required = false) String format,
+            HttpServletRequest request) {
+        try {
+            ImportFormat importFormat = ImportFormat.resolve(format, request.getContentType());
+            ImportJob job = courseImportService.start(teacherEmail, importFormat, request.getInputStream());
+            return ResponseEntity.accepted()
+                    .location(URI.create("/api/teacher/" + teacherEmail + "/imports/" + job.getId()))
+                    .body(job.snapshot(false));
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(Map.of("error", e.getMessage()));
+        } catch (UploadTooLargeException e) {
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.badRequest().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+
+    // 🔹 Progress of one import, with the rejected courses and why
+    @GetMapping("/{jobId}")
+    public ResponseEntity<Map<String, Object>> getImport(@PathVariable String teacherEmail, @PathVariable String jobId) {
+        return courseImportService.getJob(jobId)
+                .filter(job -> job.getTeacherEmail().equalsIgnoreCase(teacherEmail))
+                .map(job -> ResponseEntity.ok(job.snapshot(true)))
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    // 🔹 Recent imports of the teacher
+    @GetMapping
+    public List<Map<String, Object>> getImports(@PathVariable String teacherEmail) {
+        return courseImportService.getJobsByTeacher(teacherEmail).stream()
+                .map(job -> job.snapshot(false))
+                .toList();
+    }
+}
@@ -0,0 +1,48 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.ratings.CourseRatingService;
+import com.eduquesteasy.ratings.RatingSummary;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+import java.util.Optional;
+
+@RestController
+@RequestMapping("/api/courses/{courseId}/ratings")
+@CrossOrigin(origins = "*")
+public class CourseRatingController {
+
+    private final CourseRatingService courseRatingService;
+
+    public CourseRatingController(CourseRatingService courseRatingService) {
+        this.courseRatingService = courseRatingService;
+    }
+
+    /**
+     * Rating count, average and per-star distribution of a course
+     */
+    @GetMapping
+    public ResponseEntity<RatingSummary> getCourseRating(@PathVariable Long courseId) {
+        return courseRatingService.getCourseRating(courseId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    /**
+     * Rate a course from 1 to 5 stars as an enrolled student; rating again replaces
+     * the student's earlier rating. Returns the course's new aggregate.
+     */
+    @PutMapping
+    public ResponseEntity<?> rateCourse(@PathVariable Long courseId,
+                                        @RequestParam String studentEmail,
+                                        @RequestParam int stars) {
+        try {
+            Optional<RatingSummary> summary = courseRatingService.rate(courseId, studentEmail, stars);
+            return summary.<ResponseEntity<?>>map(ResponseEntity::ok)
+                    .orElse(ResponseEntity.notFound().build());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+}
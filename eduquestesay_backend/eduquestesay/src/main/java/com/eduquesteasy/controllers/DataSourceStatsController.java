@@ -0,0 +1,106 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.datasource.DataSourceRole;
+import com.eduquesteasy.datasource.PoolMetricsRegistry;
+import com.eduquesteasy.datasource.ReadWriteRoutingDataSource;
+import com.eduquesteasy.datasource.ReadYourWritesTracker;
+import com.eduquesteasy.datasource.ReplicaLagMonitor;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/datasource")
+public class DataSourceStatsController {
+
+    private final ObjectProvider<ReadWriteRoutingDataSource> routingDataSource;
+    private final ObjectProvider<ReplicaLagMonitor> replicaLagMonitor;
+    private final ObjectProvider<ReadYourWritesTracker> readYourWritesTracker;
+    private final ObjectProvider<HikariDataSource> pools;
+    private final ObjectProvider<PoolMetricsRegistry> poolMetricsRegistry;
+
+    public DataSourceStatsController(ObjectProvider<ReadWriteRoutingDataSource> routingDataSource,
+                                     ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+                                     ObjectProvider<ReadYourWritesTracker> readYourWritesTracker,
+                                     ObjectProvider<HikariDataSource> pools,
+                                     ObjectProvider<PoolMetricsRegistry> poolMetricsRegistry) {
+        this.routingDataSource = routingDataSource;
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        this.pools = pools;
+        this.poolMetricsRegistry = poolMetricsRegistry;
+    }
+
+    /**
+     * Read/write routing state: connections routed per role, replica lag and sticky clients
+     */
+    @GetMapping("/routing")
+    public Map<String, Object> getRoutingStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        ReadWriteRoutingDataSource routing = routingDataSource.getIfAvailable();
+        stats.put("routingEnabled", routing != null);
+        if (routing == null) {
+            return stats;
+        }
+
+        Map<String, Object> routed = new LinkedHashMap<>();
+        for (DataSourceRole role : DataSourceRole.values()) {
+            routed.put(role.name(), routing.getRoutedCount(role));
+        }
+        stats.put("routedConnections", routed);
+
+        stats.put("replicaConfigured", routing.isReplicaConfigured());
+        if (!routing.isReplicaConfigured()) {
+            return stats;
+        }
+        ReplicaLagMonitor monitor = replicaLagMonitor.getObject();
+        stats.put("replicaUsable", monitor.isReplicaUsable());
+        stats.put("replicaLagMs", monitor.getLastLagMs());
+        stats.put("maxLagMs", monitor.getMaxLagMs());
+        stats.put("stickyClients", readYourWritesTracker.getObject().getStickyClientCount());
+        return stats;
+    }
+
+    /**
+     * Saturation of every connection pool: live counts from Hikari plus acquire wait,
+     * hold time and timeouts recorded since startup
+     */
+    @GetMapping("/pools")
+    public Map<String, Object> getPoolStats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        PoolMetricsRegistry registry = poolMetricsRegistry.getIfAvailable();
+        pools.orderedStream().forEach(pool -> {
+            Map<String, Object> poolStats = new LinkedHashMap<>();
+            int max = pool.getMaximumPoolSize();
+            poolStats.put("maximumPoolSize", max);
+            poolStats.put("readOnly", pool.isReadOnly());
+
+            HikariPoolMXBean mxBean = pool.getHikariPoolMXBean();
+            if (mxBean != null) {
+                poolStats.put("active", mxBean.getActiveConnections());
+                poolStats.put("idle", mxBean.getIdleConnections());
+                poolStats.put("total", mxBean.getTotalConnections());
+                poolStats.put("threadsAwaitingConnection", mxBean.getThreadsAwaitingConnection());
+                poolStats.put("saturation", Math.round(mxBean.getActiveConnections() * 100.0 / max) / 100.0);
+            } else {
+                poolStats.put("started", false);
+            }
+
+            PoolMetricsRegistry.PoolMetrics metrics = registry != null ? registry.get(pool.getPoolName()) : null;
+            if (metrics != null) {
+                poolStats.put("acquired", metrics.getAcquired());
+                poolStats.put("meanAcquireMs", Math.round(metrics.getMeanAcquireMs() * 1000.0) / 1000.0);
+                poolStats.put("maxAcquireMs", Math.round(metrics.getMaxAcquireMs() * 1000.0) / 1000.0);
+                poolStats.put("acquireTimeouts", metrics.getTimeouts());
+                poolStats.put("meanUsageMs", Math.round(metrics.getMeanUsageMs() * 100.0) / 100.0);
+                poolStats.put("maxUsageMs", metrics.getMaxUsageMs());
+            }
+            stats.put(pool.getPoolName(), poolStats);
+        });
+        return stats;
+    }
+}
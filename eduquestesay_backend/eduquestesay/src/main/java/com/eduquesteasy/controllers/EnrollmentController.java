@@ -1,19 +1,27 @@
 package com.eduquesteasy.controllers;
 
+import com.eduquesteasy.Request.ProgressSyncRequest;
+import com.eduquesteasy.concurrency.ETags;
 import com.eduquesteasy.models.Enrollment;
 import com.eduquesteasy.services.EnrollmentService;
+import com.eduquesteasy.services.ProgressSyncService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/enrollments")
 public class EnrollmentController {
 
     private final EnrollmentService enrollmentService;
+    private final ProgressSyncService progressSyncService;
 
-    public EnrollmentController(EnrollmentService enrollmentService) {
+    public EnrollmentController(EnrollmentService enrollmentService, ProgressSyncService progressSyncService) {
         this.enrollmentService = enrollmentService;
+        this.progressSyncService = progressSyncService;
     }
 
     /**
@@ -43,6 +51,14 @@ public class EnrollmentController {
         return enrollmentService.getEnrollmentsByStudent(email);
     }
 
+    /**
+     * A student's active and archived enrollments (reads the archive, so slower)
+     */
+    @GetMapping("/student/{email}/history")
+    public Map<String, Object> getHistoryByStudent(@PathVariable String email) {
+        return enrollmentService.getEnrollmentHistoryByStudent(email);
+    }
+
     /**
      * Get all enrollments for a specific course
      */
@@ -51,6 +67,14 @@ public class EnrollmentController {
         return enrollmentService.getEnrollmentsByCourse(courseId);
     }
 
+    /**
+     * A course's active and archived enrollments (reads the archive, so slower)
+     */
+    @GetMapping("/course/{courseId}/history")
+    public Map<String, Object> getHistoryByCourse(@PathVariable Long courseId) {
+        return enrollmentService.getEnrollmentHistoryByCourse(courseId);
+    }
+
     /**
      * Withdraw a student from a course
      */
@@ -64,15 +88,32 @@ public class EnrollmentController {
     }
 
     /**
-     * Update progress for a student in a course
+     * Update progress for a student in a course. Without If-Match progress only
+     * moves forward; with it the value is set exactly if the version still matches.
      */
     @PutMapping("/progress")
-    public Enrollment updateProgress(
+    public ResponseEntity<Enrollment> updateProgress(
             @RequestParam String studentEmail,
             @RequestParam Long courseId,
-            @RequestParam double progress
+            @RequestParam double progress,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch
     ) {
-        return enrollmentService.updateProgress(studentEmail, courseId, progress);
+        Enrollment enrollment = enrollmentService.updateProgress(
+                studentEmail, courseId, progress, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(enrollment.getVersion())).body(enrollment);
+    }
+
+    /**
+     * Apply a batch of progress updates recorded offline; returns the server state
+     * of every affected enrollment
+     */
+    @PostMapping("/progress/sync")
+    public ResponseEntity<?> syncProgress(@RequestBody ProgressSyncRequest request) {
+        try {
+            return ResponseEntity.ok(progressSyncService.sync(request));
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
     }
 
 
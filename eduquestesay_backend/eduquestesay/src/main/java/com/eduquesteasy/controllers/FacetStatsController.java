@@ -0,0 +1,25 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.facets.CourseFacetService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/facets")
+public class FacetStatsController {
+
+    private final CourseFacetService courseFacetService;
+
+    public FacetStatsController(CourseFacetService courseFacetService) {
+        this.courseFacetService = courseFacetService;
+    }
+
+    /**
+     * Indexed courses, distinct values per facet and bitmap footprint
+     */
+    @GetMapping("/memory")
+    public Map<String, Object> getMemoryReport() {
+        return courseFacetService.memoryReport();
+    }
+}
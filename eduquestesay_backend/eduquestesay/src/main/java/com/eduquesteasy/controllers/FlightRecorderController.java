@@ -0,0 +1,81 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.jfr.FlightRecorderService;
+import com.eduquesteasy.jfr.JfrProperties;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.MessageDigest;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+public class FlightRecorderController {
+
+    public static final String TOKEN_HEADER = "X-Admin-Token";
+
+    private final FlightRecorderService flightRecorderService;
+    private final JfrProperties properties;
+
+    public FlightRecorderController(FlightRecorderService flightRecorderService, JfrProperties properties) {
+        this.flightRecorderService = flightRecorderService;
+        this.properties = properties;
+    }
+
+    /**
+     * Whether the continuous recording runs, its limits and event thresholds
+     */
+    @GetMapping("/status")
+    public Map<String, Object> getStatus() {
+        return flightRecorderService.status();
+    }
+
+    /**
+     * Dump the last minutes of the recording to a .jfr file on the server, or send
+     * it back with download=true. Requires the X-Admin-Token header to match
+     * eduquest.jfr.dump-token; refused while no token is configured.
+     */
+    @PostMapping("/dump")
+    public ResponseEntity<?> dump(@RequestParam(defaultValue = "10") int minutes,
+                                  @RequestParam(defaultValue = "false") boolean download,
+                                  @RequestHeader(value = TOKEN_HEADER, required = false) String token) {
+        String expected = properties.getDumpToken();
+        if (expected == null || expected.isBlank()) {
+            return ResponseEntity.status(HttpStatus.FORBIDDEN)
+                    .body(Map.of("error", "JFR dumps are disabled; set eduquest.jfr.dump-token"));
+        }
+        if (token == null || !MessageDigest.isEqual(
+                expected.getBytes(StandardCharsets.UTF_8), token.getBytes(StandardCharsets.UTF_8))) {
+            return ResponseEntity.status(HttpStatus.UNAUTHORIZED).body(Map.of("error", "Invalid admin token"));
+        }
+
+        try {
+            Path file = flightRecorderService.dump(minutes);
+            if (download) {
+                return ResponseEntity.ok()
+                        .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                        .header(HttpHeaders.CONTENT_DISPOSITION,
+                                ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                        .body(new FileSystemResource(file));
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("file", file.toString());
+            result.put("bytes", Files.size(file));
+            result.put("minutes", minutes);
+            return ResponseEntity.ok(result);
+        } catch (IllegalStateException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(Map.of("error", e.getMessage()));
+        } catch (Exception e) {
+            return ResponseEntity.internalServerError().body(Map.of("error", String.valueOf(e.getMessage())));
+        }
+    }
+}
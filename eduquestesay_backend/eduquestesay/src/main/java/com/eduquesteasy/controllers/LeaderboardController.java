@@ -0,0 +1,42 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.leaderboard.LeaderboardEntry;
+import com.eduquesteasy.leaderboard.LeaderboardMetric;
+import com.eduquesteasy.leaderboard.LeaderboardService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/leaderboard")
+public class LeaderboardController {
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    // 🔹 Top courses by popular | completions | trending, optionally within a category or level
+    @GetMapping("/{metric}")
+    public ResponseEntity<?> getLeaderboard(@PathVariable String metric,
+                                            @RequestParam(required = false) String category,
+                                            @RequestParam(required = false) String level,
+                                            @RequestParam(defaultValue = "10") int limit) {
+        LeaderboardMetric leaderboardMetric;
+        try {
+            leaderboardMetric = LeaderboardMetric.valueOf(metric.toUpperCase());
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", "Unknown leaderboard: " + metric));
+        }
+        int bounded = Math.max(1, Math.min(limit, leaderboardService.getTopK()));
+        List<LeaderboardEntry> entries = leaderboardService.getTop(leaderboardMetric, category, level, bounded);
+        return ResponseEntity.ok(Map.of(
+                "metric", leaderboardMetric,
+                "generatedAt", leaderboardService.getGeneratedAt().toString(),
+                "courses", entries
+        ));
+    }
+}
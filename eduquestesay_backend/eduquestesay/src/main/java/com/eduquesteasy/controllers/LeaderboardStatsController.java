@@ -0,0 +1,27 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.leaderboard.LeaderboardService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/leaderboard")
+public class LeaderboardStatsController {
+
+    private final LeaderboardService leaderboardService;
+
+    public LeaderboardStatsController(LeaderboardService leaderboardService) {
+        this.leaderboardService = leaderboardService;
+    }
+
+    /**
+     * Re-count from the database now and publish a fresh snapshot
+     */
+    @PostMapping("/reconcile")
+    public Map<String, Object> reconcile() {
+        leaderboardService.reconcile();
+        leaderboardService.refresh();
+        return Map.of("generatedAt", leaderboardService.getGeneratedAt().toString());
+    }
+}
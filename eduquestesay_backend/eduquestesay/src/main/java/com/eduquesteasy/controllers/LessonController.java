@@ -1,12 +1,15 @@
 package com.eduquesteasy.controllers;
 
 import com.eduquesteasy.models.Lesson;
+import com.eduquesteasy.responsecache.JsonResponseCache;
 import com.eduquesteasy.services.LessonService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @RestController
@@ -17,6 +20,9 @@ public class LessonController {
     @Autowired
     private LessonService lessonService;
 
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
     // 🔹 Get all lessons
     @GetMapping
     public List<Lesson> getAllLessons() {
@@ -31,10 +37,12 @@ public class LessonController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
-    // 🔹 Create new lesson
+    // 🔹 Create new lesson, added to the end of the course unless it names an orderIndex
     @PostMapping
-    public Lesson createLesson(@RequestBody Lesson lesson) {
-        return lessonService.saveLesson(lesson);
+    public ResponseEntity<Lesson> createLesson(@RequestBody Lesson lesson, @RequestParam(required = false) Long courseId) {
+        return lessonService.createLesson(lesson, courseId)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
     }
 
     // 🔹 Update lesson
@@ -48,8 +56,10 @@ public class LessonController {
             lesson.setContent(lessonDetails.getContent());
             lesson.setVideoUrl(lessonDetails.getVideoUrl());
             lesson.setPdfFile(lessonDetails.getPdfFile());
-            lesson.setOrderIndex(lessonDetails.getOrderIndex());
-            lesson.setCourse(lessonDetails.getCourse());
+            // No orderIndex keeps the lesson where it is; moves go through the reorder endpoint
+            if (lessonDetails.getOrderIndex() > 0) {
+                lesson.setOrderIndex(lessonDetails.getOrderIndex());
+            }
 
             Lesson updatedLesson = lessonService.saveLesson(lesson);
             return ResponseEntity.ok(updatedLesson);
@@ -69,9 +79,28 @@ public class LessonController {
         }
     }
 
-    // 🔹 Get lessons by course ID
+    // 🔹 Reorder the lessons of a course: the body lists every lesson id of the course in the new order.
+    //    Only lessons whose position really changed are written, usually just the one that moved.
+    @PutMapping("/course/{courseId}/order")
+    public ResponseEntity<?> reorderLessons(@PathVariable Long courseId, @RequestBody List<Long> lessonIds) {
+        try {
+            Optional<Integer> updated = lessonService.reorderLessons(courseId, lessonIds);
+            if (updated.isEmpty()) {
+                return ResponseEntity.notFound().build();
+            }
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("updated", updated.get());
+            result.put("lessons", lessonService.getLessonsByCourse(courseId));
+            return ResponseEntity.ok(result);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(Map.of("error", e.getMessage()));
+        }
+    }
+
+    // 🔹 Get lessons by course ID (served pre-serialized, see JsonResponseCache)
     @GetMapping("/course/{courseId}")
-    public List<Lesson> getLessonsByCourse(@PathVariable Long courseId) {
-        return lessonService.getLessonsByCourse(courseId);
+    public ResponseEntity<byte[]> getLessonsByCourse(@PathVariable Long courseId) {
+        return jsonResponseCache.get(JsonResponseCache.LESSONS, "lessons:course:" + courseId,
+                () -> lessonService.getLessonsByCourse(courseId));
     }
 }
\ No newline at end of file
@@ -1,14 +1,17 @@
 package com.eduquesteasy.controllers;
 
+import com.eduquesteasy.concurrency.ETags;
 import com.eduquesteasy.models.News;
 import com.eduquesteasy.services.NewsService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
 
 @RestController
 @RequestMapping("/api/news")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 public class NewsController {
 
     private final NewsService newsService;
@@ -28,8 +31,12 @@ public class NewsController {
     }
 
     @PutMapping("/{id}")
-    public News updateNews(@PathVariable Long id, @RequestBody News news) {
-        return newsService.updateNews(id, news);
+    public ResponseEntity<News> updateNews(
+            @PathVariable Long id,
+            @RequestBody News news,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
+        News updated = newsService.updateNews(id, news, ETags.parseIfMatch(ifMatch));
+        return ResponseEntity.ok().eTag(ETags.of(updated.getVersion())).body(updated);
     }
 
     @DeleteMapping("/{id}")
@@ -0,0 +1,33 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.events.OutboxDispatcher;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/outbox")
+public class OutboxStatsController {
+
+    private final OutboxDispatcher outboxDispatcher;
+
+    public OutboxStatsController(OutboxDispatcher outboxDispatcher) {
+        this.outboxDispatcher = outboxDispatcher;
+    }
+
+    /**
+     * Backlog, in-flight events, lane depths and delivery counters
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> getStats() {
+        return outboxDispatcher.stats();
+    }
+
+    /**
+     * Queue events parked after repeated subscriber failures for delivery again
+     */
+    @PostMapping("/retry-failed")
+    public Map<String, Object> retryFailed() {
+        return Map.of("requeued", outboxDispatcher.retryFailed());
+    }
+}
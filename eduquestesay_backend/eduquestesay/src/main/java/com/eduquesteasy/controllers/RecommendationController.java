@@ -0,0 +1,45 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.recommendations.CourseRecommendationService;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/recommendations")
+public class RecommendationController {
+
+    private static final int MAX_LIMIT = 50;
+
+    private final CourseRecommendationService recommendationService;
+
+    public RecommendationController(CourseRecommendationService recommendationService) {
+        this.recommendationService = recommendationService;
+    }
+
+    // 🔹 Students who took this course also took...
+    @GetMapping("/course/{courseId}")
+    public ResponseEntity<?> getSimilarCourses(@PathVariable Long courseId,
+                                               @RequestParam(defaultValue = "10") int limit) {
+        if (!recommendationService.isReady()) {
+            return ResponseEntity.status(503).body(Map.of("error", "Recommendations are still loading"));
+        }
+        List<Map<String, Object>> courses =
+                recommendationService.similarCourses(courseId, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(courses);
+    }
+
+    // 🔹 Courses a student has not taken, from what students with the same courses took
+    @GetMapping("/student/{studentEmail}")
+    public ResponseEntity<?> getStudentRecommendations(@PathVariable String studentEmail,
+                                                       @RequestParam(defaultValue = "10") int limit) {
+        if (!recommendationService.isReady()) {
+            return ResponseEntity.status(503).body(Map.of("error", "Recommendations are still loading"));
+        }
+        List<Map<String, Object>> courses =
+                recommendationService.recommendForStudent(studentEmail, Math.min(limit, MAX_LIMIT));
+        return ResponseEntity.ok(courses);
+    }
+}
@@ -0,0 +1,34 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.recommendations.CourseRecommendationService;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/recommendations")
+public class RecommendationStatsController {
+
+    private final CourseRecommendationService recommendationService;
+
+    public RecommendationStatsController(CourseRecommendationService recommendationService) {
+        this.recommendationService = recommendationService;
+    }
+
+    /**
+     * Size of the co-enrollment index and its estimated heap footprint
+     */
+    @GetMapping("/memory")
+    public Map<String, Object> getMemoryReport() {
+        return recommendationService.memoryReport();
+    }
+
+    /**
+     * Run a compaction now instead of waiting for the scheduled one
+     */
+    @PostMapping("/compact")
+    public Map<String, Object> compact() {
+        recommendationService.compact();
+        return recommendationService.memoryReport();
+    }
+}
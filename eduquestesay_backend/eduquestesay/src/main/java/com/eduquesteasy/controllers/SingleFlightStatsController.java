@@ -0,0 +1,39 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.singleflight.SingleFlightGroup;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+@RestController
+@RequestMapping("/api/admin/singleflight")
+public class SingleFlightStatsController {
+
+    private final SingleFlightGroup singleFlightGroup;
+
+    public SingleFlightStatsController(SingleFlightGroup singleFlightGroup) {
+        this.singleFlightGroup = singleFlightGroup;
+    }
+
+    /**
+     * Per coalesced method: computations run, callers that joined one in flight, and lingered results served
+     */
+    @GetMapping("/stats")
+    public Map<String, Object> getSingleFlightStats() {
+        Map<String, Object> methods = new TreeMap<>();
+        singleFlightGroup.getStats().forEach((name, flightStats) -> {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("computed", flightStats.getComputed());
+            entry.put("joined", flightStats.getJoined());
+            entry.put("lingerHits", flightStats.getLingerHits());
+            methods.put(name, entry);
+        });
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("activeFlights", singleFlightGroup.getActiveFlights());
+        stats.put("methods", methods);
+        return stats;
+    }
+}
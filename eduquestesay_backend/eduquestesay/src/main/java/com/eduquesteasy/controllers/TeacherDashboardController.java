@@ -1,10 +1,15 @@
 package com.eduquesteasy.controllers;
 
+import com.eduquesteasy.concurrency.ETags;
+import com.eduquesteasy.concurrency.PreconditionFailedException;
 import com.eduquesteasy.models.Course;
 import com.eduquesteasy.models.Enrollment;
 import com.eduquesteasy.models.Lesson;
+import com.eduquesteasy.ratings.RatingSummary;
 import com.eduquesteasy.services.TeacherDashboardService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
@@ -14,7 +19,7 @@ import java.util.Map;
 
 @RestController
 @RequestMapping("/api/teacher")
-@CrossOrigin(origins = "*")
+@CrossOrigin(origins = "*", exposedHeaders = HttpHeaders.ETAG)
 @RequiredArgsConstructor
 public class TeacherDashboardController {
 
@@ -30,7 +35,7 @@ public class TeacherDashboardController {
             long totalCourses = teacherDashboardService.countCoursesByTeacher(teacherEmail);
             long totalStudents = teacherDashboardService.countStudentsByTeacher(teacherEmail);
             long totalLessons = teacherDashboardService.countLessonsByTeacher(teacherEmail);
-            double averageRating = teacherDashboardService.getAverageRatingByTeacher(teacherEmail);
+            RatingSummary rating = teacherDashboardService.getRatingByTeacher(teacherEmail);
 
             // Recent courses
             List<Course> recentCourses = teacherDashboardService.getRecentCoursesByTeacher(teacherEmail, 5);
@@ -41,7 +46,8 @@ public class TeacherDashboardController {
             dashboardData.put("totalCourses", totalCourses);
             dashboardData.put("totalStudents", totalStudents);
             dashboardData.put("totalLessons", totalLessons);
-            dashboardData.put("averageRating", averageRating);
+            dashboardData.put("averageRating", rating.average());
+            dashboardData.put("ratingCount", rating.count());
             dashboardData.put("recentCourses", recentCourses);
             dashboardData.put("progressSummary", progressSummary);
 
@@ -55,23 +61,7 @@ public class TeacherDashboardController {
     @GetMapping("/course/{courseId}/details")
     public ResponseEntity<Map<String, Object>> getCourseDetails(@PathVariable Long courseId) {
         try {
-            Map<String, Object> courseDetails = new HashMap<>();
-
-            Course course = teacherDashboardService.getCourseById(courseId);
-            List<Enrollment> enrollments = teacherDashboardService.getEnrollmentsByCourse(courseId);
-            List<Lesson> lessons = teacherDashboardService.getLessonsByCourse(courseId);
-
-            // Calculate course statistics
-            double averageProgress = enrollments.stream()
-                    .mapToDouble(Enrollment::getProgress)
-                    .average()
-                    .orElse(0.0);
-
-            courseDetails.put("course", course);
-            courseDetails.put("enrollments", enrollments);
-            courseDetails.put("lessons", lessons);
-            courseDetails.put("totalStudents", enrollments.size());
-            courseDetails.put("averageProgress", averageProgress);
+            Map<String, Object> courseDetails = teacherDashboardService.getCourseDetails(courseId);
 
             return ResponseEntity.ok(courseDetails);
         } catch (Exception e) {
@@ -105,10 +95,15 @@ public class TeacherDashboardController {
     @PutMapping("/enrollment/{enrollmentId}/progress")
     public ResponseEntity<Enrollment> updateStudentProgress(
             @PathVariable Long enrollmentId,
-            @RequestParam Double progress) {
+            @RequestParam Double progress,
+            @RequestHeader(value = HttpHeaders.IF_MATCH, required = false) String ifMatch) {
         try {
-            Enrollment updatedEnrollment = teacherDashboardService.updateStudentProgress(enrollmentId, progress);
-            return ResponseEntity.ok(updatedEnrollment);
+            Enrollment updatedEnrollment = teacherDashboardService.updateStudentProgress(
+                    enrollmentId, progress, ETags.parseIfMatch(ifMatch));
+            return ResponseEntity.ok().eTag(ETags.of(updatedEnrollment.getVersion())).body(updatedEnrollment);
+        } catch (PreconditionFailedException | OptimisticLockingFailureException e) {
+            // Conflicts are answered with 412 / 409 by OptimisticConcurrencyAdvice
+            throw e;
         } catch (Exception e) {
             return ResponseEntity.badRequest().body(null);
         }
@@ -118,20 +113,7 @@ public class TeacherDashboardController {
     @GetMapping("/{teacherEmail}/analytics")
     public ResponseEntity<Map<String, Object>> getTeacherAnalytics(@PathVariable String teacherEmail) {
         try {
-            Map<String, Object> analytics = new HashMap<>();
-
-            // Course performance
-            List<Map<String, Object>> coursePerformance = teacherDashboardService.getCoursePerformance(teacherEmail);
-
-            // Student engagement
-            Map<String, Object> engagementStats = teacherDashboardService.getStudentEngagementStats(teacherEmail);
-
-            // Progress trends
-            List<Map<String, Object>> progressTrends = teacherDashboardService.getProgressTrends(teacherEmail);
-
-            analytics.put("coursePerformance", coursePerformance);
-            analytics.put("engagementStats", engagementStats);
-            analytics.put("progressTrends", progressTrends);
+            Map<String, Object> analytics = teacherDashboardService.getTeacherAnalytics(teacherEmail);
 
             return ResponseEntity.ok(analytics);
         } catch (Exception e) {
@@ -0,0 +1,77 @@
+package com.eduquesteasy.controllers;
+
+import com.eduquesteasy.services.TeacherDashboardDeltaService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+import org.springframework.web.util.UriComponentsBuilder;
+import org.springframework.web.util.UriUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+
+/**
+ * Plain WebSocket endpoint a teacher dashboard subscribes to in order to
+ * receive incremental updates instead of polling /api/teacher/dashboard.
+ *
+ * The teacher is the authenticated principal of the handshake when there is one;
+ * a teacherEmail parameter naming anyone else is refused. Without a principal the
+ * teacherEmail parameter identifies the teacher, as the email in the path does
+ * for the REST dashboard.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TeacherDashboardSocketHandler extends TextWebSocketHandler {
+
+    private static final String TEACHER_EMAIL = "teacherEmail";
+
+    private final TeacherDashboardDeltaService deltaService;
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+        Principal principal = session.getPrincipal();
+        String teacherEmail = teacherEmailOf(session);
+        if (principal != null) {
+            if (teacherEmail != null && !teacherEmail.equalsIgnoreCase(principal.getName())) {
+                session.close(CloseStatus.POLICY_VIOLATION.withReason("teacherEmail does not match the signed in user"));
+                return;
+            }
+            teacherEmail = principal.getName();
+        }
+        if (teacherEmail == null || teacherEmail.isBlank()) {
+            session.close(CloseStatus.BAD_DATA.withReason("teacherEmail query parameter is required"));
+            return;
+        }
+        // Remembered so the close unsubscribes exactly what was subscribed
+        session.getAttributes().put(TEACHER_EMAIL, teacherEmail);
+        deltaService.subscribe(teacherEmail, session);
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        String teacherEmail = (String) session.getAttributes().get(TEACHER_EMAIL);
+        if (teacherEmail != null) {
+            deltaService.unsubscribe(teacherEmail, session);
+        }
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession session, Throwable exception) {
+        log.debug("Dashboard socket error for session {}: {}", session.getId(), exception.getMessage());
+    }
+
+    private String teacherEmailOf(WebSocketSession session) {
+        if (session.getUri() == null) {
+            return null;
+        }
+        String raw = UriComponentsBuilder.fromUri(session.getUri())
+                .build()
+                .getQueryParams()
+                .getFirst("teacherEmail");
+        return raw != null ? UriUtils.decode(raw, StandardCharsets.UTF_8) : null;
+    }
+}
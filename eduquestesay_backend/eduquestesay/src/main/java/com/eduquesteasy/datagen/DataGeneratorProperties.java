@@ -0,0 +1,37 @@
+package com.eduquesteasy.datagen;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+
+/**
+ * Volumes and shape of the synthetic dataset (prefix {@code eduquest.datagen}).
+ * The same seed and volumes always produce the same rows, whatever the thread count.
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.datagen")
+public class DataGeneratorProperties {
+
+    private long seed = 42L;
+
+    private int teachers = 100;
+    private int courses = 2_000;
+    private int avgLessonsPerCourse = 25;
+    private int students = 20_000;
+    private long enrollments = 200_000;
+
+    // Zipf exponent for course popularity (0 = uniform, ~1 = strongly skewed)
+    private double popularitySkew = 1.0;
+
+    // Enrollment dates are spread over this many days before the anchor date
+    private int historyDays = 730;
+
+    // Fixed rather than today, so a seed produces the same dates whenever it runs
+    private LocalDate anchorDate = LocalDate.of(2026, 1, 1);
+
+    private int batchSize = 1_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+}
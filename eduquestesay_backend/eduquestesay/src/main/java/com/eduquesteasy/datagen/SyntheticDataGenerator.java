@@ -0,0 +1,449 @@
+package com.eduquesteasy.datagen;
+
+import com.eduquesteasy.dimensions.CourseDimensions;
+import com.eduquesteasy.ratings.CourseRatingService;
+import com.eduquesteasy.responsecache.JsonResponseCache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.context.annotation.Profile;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates large, reproducible datasets for benchmarks and capacity planning.
+ * Runs instead of {@link com.eduquesteasy.config.DataSeeder} under the
+ * {@code datagen} profile.
+ *
+ * Every row is derived from its own id and the configured seed, so the output
+ * does not depend on thread scheduling or batch size. Course popularity follows
+ * a Zipf distribution over a shuffled ranking, and per-student enrollment counts
+ * are geometric, which gives the long tail seen in real catalogs.
+ */
+@Slf4j
+@Component
+@Profile("datagen")
+public class SyntheticDataGenerator implements CommandLineRunner {
+
+    public static final List<String> CATEGORIES = List.of(
+            "Web Development", "Mobile Development", "Data Science", "Design",
+            "Backend Development", "DevOps", "AI news", "Business", "Marketing", "Languages"
+    );
+    private static final String[] LEVELS = {"Beginner", "Intermediate", "Advanced"};
+
+    // Independent random streams per kind of row
+    private static final long COURSE_STREAM = 0x9E3779B97F4A7C15L;
+    private static final long LESSON_COUNT_STREAM = 0xC2B2AE3D27D4EB4FL;
+    private static final long LESSON_STREAM = 0x165667B19E3779F9L;
+    private static final long ENROLLMENT_COUNT_STREAM = 0xD6E8FEB86659FD93L;
+    private static final long ENROLLMENT_STREAM = 0xFF51AFD7ED558CCDL;
+    private static final long PERMUTATION_STREAM = 0xC4CEB9FE1A85EC53L;
+    private static final long COURSE_QUALITY_STREAM = 0x2545F4914F6CDD1DL;
+    private static final long RATING_STREAM = 0x9FB21C651E98DF25L;
+
+    private final DataGeneratorProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JsonResponseCache jsonResponseCache;
+    private final CourseDimensions courseDimensions;
+    private final CourseRatingService courseRatingService;
+
+    private LocalDateTime anchor;
+
+    public SyntheticDataGenerator(DataGeneratorProperties properties,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager,
+                                  EntityManagerFactory entityManagerFactory,
+                                  JsonResponseCache jsonResponseCache,
+                                  CourseDimensions courseDimensions,
+                                  CourseRatingService courseRatingService) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.jsonResponseCache = jsonResponseCache;
+        this.courseDimensions = courseDimensions;
+        this.courseRatingService = courseRatingService;
+    }
+
+    @Override
+    public void run(String... args) throws Exception {
+        Long existing = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM courses", Long.class);
+        if (existing != null && existing > 0) {
+            log.info("Database already contains {} courses. Skipping synthetic data generation.", existing);
+            return;
+        }
+
+        anchor = properties.getAnchorDate().atStartOfDay();
+        log.info("Generating synthetic dataset: {}", properties);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()));
+        try {
+            generateIdentities(executor);
+            generateDimensions();
+            generateCourses(executor);
+            long[] lessonOffsets = lessonOffsets();
+            generateLessons(executor, lessonOffsets);
+            long[] enrollmentOffsets = enrollmentOffsets();
+            generateEnrollments(executor, enrollmentOffsets);
+        } finally {
+            executor.shutdownNow();
+        }
+        courseRatingService.rebuildAggregates();
+        restartIdentities("teachers", "students", "course_categories", "course_levels", "courses", "lessons",
+                "enrollments", "course_ratings");
+
+        // Rows were written behind Hibernate's back
+        entityManagerFactory.getCache().evictAll();
+        jsonResponseCache.invalidateAll();
+        courseDimensions.invalidateAll();
+        log.info("Synthetic dataset generated.");
+    }
+
+    // -----------------------
+    // TEACHERS & STUDENTS
+    // -----------------------
+
+    // Teacher n and student n get id n, so courses and enrollments can reference them directly
+    private void generateIdentities(ExecutorService executor) throws Exception {
+        runChunks("teachers", properties.getTeachers(), properties.getBatchSize(), executor, (from, to) -> {
+            List<Object[]> rows = new ArrayList<>((int) (to - from));
+            for (long id = from + 1; id <= to; id++) {
+                rows.add(new Object[]{id, teacherEmail((int) id)});
+            }
+            insert("INSERT INTO teachers (id, email) VALUES (?, ?)", rows);
+            return rows.size();
+        });
+        runChunks("students", properties.getStudents(), properties.getBatchSize(), executor, (from, to) -> {
+            List<Object[]> rows = new ArrayList<>((int) (to - from));
+            for (long id = from + 1; id <= to; id++) {
+                rows.add(new Object[]{id, studentEmail(id)});
+            }
+            insert("INSERT INTO students (id, email) VALUES (?, ?)", rows);
+            return rows.size();
+        });
+    }
+
+    // -----------------------
+    // CATEGORIES & LEVELS
+    // -----------------------
+
+    // Category and level n (in list order) get id n + 1
+    private void generateDimensions() {
+        List<Object[]> categories = new ArrayList<>();
+        for (int i = 0; i < CATEGORIES.size(); i++) {
+            categories.add(new Object[]{i + 1, CATEGORIES.get(i)});
+        }
+        insert("INSERT INTO course_categories (id, name) VALUES (?, ?)", categories);
+        List<Object[]> levels = new ArrayList<>();
+        for (int i = 0; i < LEVELS.length; i++) {
+            levels.add(new Object[]{i + 1, LEVELS[i]});
+        }
+        insert("INSERT INTO course_levels (id, name) VALUES (?, ?)", levels);
+    }
+
+    // -----------------------
+    // COURSES
+    // -----------------------
+
+    private void generateCourses(ExecutorService executor) throws Exception {
+        String sql = "INSERT INTO courses (id, title, description, category_id, image_url, level_id, duration, teacher_email, teacher_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+        ZipfSampler categorySampler = new ZipfSampler(CATEGORIES.size(), 0.8);
+        int total = properties.getCourses();
+
+        runChunks("courses", total, properties.getBatchSize(), executor, (from, to) -> {
+            List<Object[]> rows = new ArrayList<>((int) (to - from));
+            for (long id = from + 1; id <= to; id++) {
+                SplittableRandom random = rowRandom(COURSE_STREAM, id);
+                int categoryIndex = categorySampler.sample(random);
+                String category = CATEGORIES.get(categoryIndex);
+                int teacher = 1 + random.nextInt(properties.getTeachers());
+                rows.add(new Object[]{
+                        id,
+                        category + " Course #" + id,
+                        "Synthetic " + category.toLowerCase() + " course generated for load testing",
+                        categoryIndex + 1,
+                        "https://picsum.photos/seed/course" + id + "/500/300",
+                        pickLevel(random) + 1,
+                        5 + random.nextInt(76),
+                        teacherEmail(teacher),
+                        teacher
+                });
+            }
+            insert(sql, rows);
+            return rows.size();
+        });
+    }
+
+    // Index into LEVELS
+    private static int pickLevel(SplittableRandom random) {
+        double u = random.nextDouble();
+        return u < 0.5 ? 0 : u < 0.85 ? 1 : 2;
+    }
+
+    // -----------------------
+    // LESSONS
+    // -----------------------
+
+    private long[] lessonOffsets() {
+        int courses = properties.getCourses();
+        int avg = Math.max(1, properties.getAvgLessonsPerCourse());
+        long[] offsets = new long[courses + 1];
+        for (int c = 1; c <= courses; c++) {
+            int count = Math.max(1, avg / 2 + rowRandom(LESSON_COUNT_STREAM, c).nextInt(avg + 1));
+            offsets[c] = offsets[c - 1] + count;
+        }
+        return offsets;
+    }
+
+    private void generateLessons(ExecutorService executor, long[] offsets) throws Exception {
+        String sql = "INSERT INTO lessons (id, title, content, video_url, pdf_file, order_index, course_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+        int coursesPerChunk = Math.max(1, properties.getBatchSize() / Math.max(1, properties.getAvgLessonsPerCourse()));
+
+        runChunks("lessons", properties.getCourses(), coursesPerChunk, executor, (from, to) -> {
+            List<Object[]> rows = new ArrayList<>();
+            for (long courseId = from + 1; courseId <= to; courseId++) {
+                long first = offsets[(int) courseId - 1];
+                int count = (int) (offsets[(int) courseId] - first);
+                for (int order = 1; order <= count; order++) {
+                    long id = first + order;
+                    SplittableRandom random = rowRandom(LESSON_STREAM, id);
+                    rows.add(new Object[]{
+                            id,
+                            "Lesson " + order,
+                            "Synthetic lesson content " + Long.toHexString(random.nextLong()),
+                            "https://example.com/videos/" + id + ".mp4",
+                            random.nextInt(4) == 0 ? "https://example.com/pdf/" + id + ".pdf" : null,
+                            order,
+                            courseId
+                    });
+                    if (rows.size() >= properties.getBatchSize()) {
+                        insert(sql, rows);
+                        rows.clear();
+                    }
+                }
+            }
+            insert(sql, rows);
+            return offsets[(int) to] - offsets[(int) from];
+        });
+    }
+
+    // -----------------------
+    // ENROLLMENTS
+    // -----------------------
+
+    private long[] enrollmentOffsets() {
+        int students = properties.getStudents();
+        double mean = Math.max(1.0, (double) properties.getEnrollments() / students);
+        double p = 1.0 / mean;
+        long[] offsets = new long[students + 1];
+        for (int s = 1; s <= students; s++) {
+            // Geometric(p) on {1, 2, ...}: most students take a few courses, some take many
+            double u = 1.0 - rowRandom(ENROLLMENT_COUNT_STREAM, s).nextDouble();
+            int count = p >= 1.0 ? 1 : 1 + (int) Math.floor(Math.log(u) / Math.log(1.0 - p));
+            offsets[s] = offsets[s - 1] + Math.min(count, properties.getCourses());
+        }
+        return offsets;
+    }
+
+    private void generateEnrollments(ExecutorService executor, long[] offsets) throws Exception {
+        String sql = "INSERT INTO enrollments (id, enrollment_date, progress, student_email, student_id, course_id) "
+                + "VALUES (?, ?, ?, ?, ?, ?)";
+        int courses = properties.getCourses();
+        int[] courseByRank = popularityRanking(courses);
+        ZipfSampler popularity = new ZipfSampler(courses, properties.getPopularitySkew());
+        long mean = Math.max(1, properties.getEnrollments() / Math.max(1, properties.getStudents()));
+        int studentsPerChunk = (int) Math.max(1, properties.getBatchSize() / mean);
+
+        String ratingSql = "INSERT INTO course_ratings (id, course_id, student_id, stars, rated_at) VALUES (?, ?, ?, ?, ?)";
+
+        runChunks("enrollments", properties.getStudents(), studentsPerChunk, executor, (from, to) -> {
+            List<Object[]> rows = new ArrayList<>();
+            List<Object[]> ratings = new ArrayList<>();
+            for (long studentId = from + 1; studentId <= to; studentId++) {
+                long first = offsets[(int) studentId - 1];
+                int count = (int) (offsets[(int) studentId] - first);
+                String email = studentEmail(studentId);
+                SplittableRandom random = rowRandom(ENROLLMENT_STREAM, studentId);
+                int[] chosen = new int[count];
+                for (int i = 0; i < count; i++) {
+                    chosen[i] = pickDistinctCourse(random, popularity, courseByRank, chosen, i);
+                    long id = first + i + 1;
+                    LocalDateTime enrolledAt = anchor
+                            .minusDays(random.nextInt(Math.max(1, properties.getHistoryDays())))
+                            .plusSeconds(random.nextInt(86_400));
+                    double progress = pickProgress(random);
+                    rows.add(new Object[]{id, Timestamp.valueOf(enrolledAt), progress, email, studentId, chosen[i]});
+                    addRating(ratings, id, chosen[i], studentId, enrolledAt, progress);
+                    if (rows.size() >= properties.getBatchSize()) {
+                        insert(sql, rows);
+                        rows.clear();
+                        insert(ratingSql, ratings);
+                        ratings.clear();
+                    }
+                }
+            }
+            insert(sql, rows);
+            insert(ratingSql, ratings);
+            return offsets[(int) to] - offsets[(int) from];
+        });
+    }
+
+    // Rating n belongs to enrollment n. Most students who finished a course rate it, some halfway
+    // through; stars scatter around a quality fixed per course, so averages spread between 3 and 5
+    private void addRating(List<Object[]> ratings, long enrollmentId, int courseId, long studentId,
+                           LocalDateTime enrolledAt, double progress) {
+        SplittableRandom random = rowRandom(RATING_STREAM, enrollmentId);
+        double chance = progress >= 100.0 ? 0.6 : progress >= 50.0 ? 0.2 : 0.0;
+        if (random.nextDouble() >= chance) {
+            return;
+        }
+        double quality = 3.0 + 2.0 * Math.sqrt(rowRandom(COURSE_QUALITY_STREAM, courseId).nextDouble());
+        int stars = (int) Math.max(1, Math.min(5, Math.round(quality + 2.0 * (random.nextDouble() - 0.5))));
+        LocalDateTime ratedAt = enrolledAt.plusDays(1 + random.nextInt(30));
+        ratings.add(new Object[]{enrollmentId, courseId, studentId, stars,
+                Timestamp.valueOf(ratedAt.isAfter(anchor) ? anchor : ratedAt)});
+    }
+
+    // Deterministic shuffle so popular courses are spread over teachers and categories
+    private int[] popularityRanking(int courses) {
+        int[] ranking = new int[courses];
+        for (int i = 0; i < courses; i++) {
+            ranking[i] = i + 1;
+        }
+        SplittableRandom random = rowRandom(PERMUTATION_STREAM, 0);
+        for (int i = courses - 1; i > 0; i--) {
+            int j = random.nextInt(i + 1);
+            int tmp = ranking[i];
+            ranking[i] = ranking[j];
+            ranking[j] = tmp;
+        }
+        return ranking;
+    }
+
+    private static int pickDistinctCourse(SplittableRandom random, ZipfSampler popularity,
+                                          int[] courseByRank, int[] chosen, int alreadyChosen) {
+        while (true) {
+            int candidate = courseByRank[popularity.sample(random)];
+            boolean duplicate = false;
+            for (int i = 0; i < alreadyChosen; i++) {
+                if (chosen[i] == candidate) {
+                    duplicate = true;
+                    break;
+                }
+            }
+            if (!duplicate) {
+                return candidate;
+            }
+            // Heavy skew can make popular courses collide; fall back to a uniform pick
+            if (random.nextInt(4) == 0) {
+                candidate = courseByRank[random.nextInt(courseByRank.length)];
+                boolean seen = false;
+                for (int i = 0; i < alreadyChosen; i++) {
+                    if (chosen[i] == candidate) {
+                        seen = true;
+                        break;
+                    }
+                }
+                if (!seen) {
+                    return candidate;
+                }
+            }
+        }
+    }
+
+    // ~30% not started, ~20% completed, the rest skewed towards early progress
+    private static double pickProgress(SplittableRandom random) {
+        double u = random.nextDouble();
+        if (u < 0.30) {
+            return 0.0;
+        }
+        if (u < 0.50) {
+            return 100.0;
+        }
+        double v = random.nextDouble();
+        return Math.max(1.0, Math.round(v * v * 9900.0) / 100.0);
+    }
+
+    // -----------------------
+    // PLUMBING
+    // -----------------------
+
+    @FunctionalInterface
+    private interface ChunkWriter {
+        // Writes rows for ids in (from, to] and returns how many rows were inserted
+        long write(long from, long to);
+    }
+
+    private void runChunks(String table, long total, int chunkSize, ExecutorService executor,
+                           ChunkWriter writer) throws Exception {
+        long started = System.nanoTime();
+        AtomicLong rows = new AtomicLong();
+        List<Future<?>> futures = new ArrayList<>();
+        for (long from = 0; from < total; from += chunkSize) {
+            long start = from;
+            long end = Math.min(total, from + chunkSize);
+            futures.add(executor.submit(() -> rows.addAndGet(writer.write(start, end))));
+        }
+        for (Future<?> future : futures) {
+            future.get();
+        }
+        double seconds = (System.nanoTime() - started) / 1e9;
+        log.info("Inserted {} {} in {} s ({} rows/s)", rows.get(), table,
+                String.format("%.1f", seconds), Math.round(rows.get() / Math.max(seconds, 1e-3)));
+    }
+
+    private void insert(String sql, List<Object[]> rows) {
+        if (rows.isEmpty()) {
+            return;
+        }
+        transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(sql, rows));
+    }
+
+    // MySQL moves AUTO_INCREMENT past explicit ids by itself; H2 identities must be restarted
+    private void restartIdentities(String... tables) {
+        String product = jdbcTemplate.execute((ConnectionCallback<String>) c -> c.getMetaData().getDatabaseProductName());
+        if (!"H2".equalsIgnoreCase(product)) {
+            return;
+        }
+        for (String table : tables) {
+            Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+            jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + (max + 1));
+        }
+    }
+
+    private SplittableRandom rowRandom(long stream, long id) {
+        return new SplittableRandom(mix(properties.getSeed() ^ stream) ^ mix(id + stream));
+    }
+
+    // SplitMix64 finalizer
+    private static long mix(long z) {
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+
+    public static String teacherEmail(int teacher) {
+        return "teacher" + teacher + "@datagen.eduquest.com";
+    }
+
+    public static String studentEmail(long student) {
+        return "student" + student + "@datagen.eduquest.com";
+    }
+}
@@ -0,0 +1,7 @@
+package com.eduquesteasy.datasource;
+
+public enum DataSourceRole {
+    PRIMARY,
+    REPLICA,
+    ANALYTICS
+}
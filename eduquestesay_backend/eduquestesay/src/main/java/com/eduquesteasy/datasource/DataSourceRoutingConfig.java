@@ -0,0 +1,176 @@
+package com.eduquesteasy.datasource;
+
+import com.zaxxer.hikari.HikariDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Workload-aware datasource routing: an OLTP primary pool, a small analytics pool
+ * with a statement timeout and a low fetch size for {@link Workload} ANALYTICS
+ * methods, and an optional read replica, enabled when
+ * {@code eduquest.datasource.replica.url} is set.
+ */
+@Slf4j
+@Configuration
+public class DataSourceRoutingConfig {
+
+    @Bean
+    public PoolMetricsRegistry poolMetricsRegistry() {
+        return new PoolMetricsRegistry();
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties, PoolMetricsRegistry poolMetricsRegistry) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder()
+                .type(HikariDataSource.class)
+                .build();
+        dataSource.setPoolName("primary");
+        dataSource.setMetricsTrackerFactory(poolMetricsRegistry);
+        return dataSource;
+    }
+
+    /**
+     * Reads from the primary unless its own url is set. The lag and read-your-writes
+     * checks guard only the replica role, so pointing this at a replica serves
+     * dashboards whatever that replica has caught up to.
+     */
+    @Bean
+    @ConfigurationProperties("eduquest.datasource.analytics.hikari")
+    public HikariDataSource analyticsDataSource(
+            @Value("${eduquest.datasource.analytics.url:${spring.datasource.url}}") String url,
+            @Value("${eduquest.datasource.analytics.username:${spring.datasource.username:}}") String username,
+            @Value("${eduquest.datasource.analytics.password:${spring.datasource.password:}}") String password,
+            @Value("${eduquest.datasource.analytics.statement-timeout-ms:10000}") long statementTimeoutMs,
+            @Value("${eduquest.datasource.analytics.fetch-size:100}") int fetchSize,
+            PoolMetricsRegistry poolMetricsRegistry) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(url)
+                .username(username)
+                .password(password)
+                .build();
+        dataSource.setPoolName("analytics");
+        dataSource.setReadOnly(true);
+        dataSource.setMetricsTrackerFactory(poolMetricsRegistry);
+
+        if (url.startsWith("jdbc:mysql:")) {
+            // Server-side timeout for SELECTs, and stream results in fetch-size chunks
+            // instead of buffering whole aggregates in the heap
+            dataSource.setConnectionInitSql("SET SESSION max_execution_time = " + statementTimeoutMs);
+            dataSource.addDataSourceProperty("useCursorFetch", "true");
+            dataSource.addDataSourceProperty("defaultFetchSize", String.valueOf(fetchSize));
+        } else if (url.startsWith("jdbc:h2:")) {
+            // H2 fetches lazily in chunks of 100 rows by default
+            dataSource.setConnectionInitSql("SET QUERY_TIMEOUT " + statementTimeoutMs);
+        } else {
+            log.warn("No statement timeout or fetch size support for analytics pool url {}", url);
+        }
+        return dataSource;
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource routingDataSource(
+            @Qualifier("primaryDataSource") DataSource primaryDataSource,
+            @Qualifier("analyticsDataSource") DataSource analyticsDataSource,
+            @Qualifier("replicaDataSource") ObjectProvider<DataSource> replicaDataSource,
+            ObjectProvider<ReplicaLagMonitor> replicaLagMonitor,
+            ObjectProvider<ReadYourWritesTracker> readYourWritesTracker) {
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(
+                replicaLagMonitor.getIfAvailable(), readYourWritesTracker.getIfAvailable());
+        Map<Object, Object> targets = new HashMap<>();
+        targets.put(DataSourceRole.PRIMARY, primaryDataSource);
+        targets.put(DataSourceRole.ANALYTICS, analyticsDataSource);
+        replicaDataSource.ifAvailable(replica -> targets.put(DataSourceRole.REPLICA, replica));
+        routing.setTargetDataSources(targets);
+        routing.setDefaultTargetDataSource(primaryDataSource);
+        return routing;
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(@Qualifier("routingDataSource") DataSource routingDataSource) {
+        // Defer the physical connection until the first statement, after the
+        // transaction's read-only flag and the workload have been bound
+        return new LazyConnectionDataSourceProxy(routingDataSource);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor workloadAdvisor() {
+        ComposablePointcut pointcut = new ComposablePointcut(new AnnotationMatchingPointcut(Workload.class, true))
+                .union(new AnnotationMatchingPointcut(null, Workload.class, true));
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, new WorkloadInterceptor());
+        // Outside the transaction interceptor, so the workload is bound before the transaction starts
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 100);
+        return advisor;
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnProperty(prefix = "eduquest.datasource.replica", name = "url")
+    static class ReplicaConfig {
+
+        @Bean
+        @ConfigurationProperties("eduquest.datasource.replica.hikari")
+        public HikariDataSource replicaDataSource(
+                @Value("${eduquest.datasource.replica.url}") String url,
+                @Value("${eduquest.datasource.replica.username:${spring.datasource.username:}}") String username,
+                @Value("${eduquest.datasource.replica.password:${spring.datasource.password:}}") String password,
+                PoolMetricsRegistry poolMetricsRegistry) {
+            HikariDataSource dataSource = DataSourceBuilder.create()
+                    .type(HikariDataSource.class)
+                    .url(url)
+                    .username(username)
+                    .password(password)
+                    .build();
+            dataSource.setPoolName("replica");
+            dataSource.setReadOnly(true);
+            dataSource.setMetricsTrackerFactory(poolMetricsRegistry);
+            return dataSource;
+        }
+
+        @Bean
+        public ReplicaLagMonitor replicaLagMonitor(
+                @Qualifier("replicaDataSource") DataSource replicaDataSource,
+                @Value("${eduquest.datasource.replica.max-lag-ms:2000}") long maxLagMs) {
+            return new ReplicaLagMonitor(replicaDataSource, maxLagMs);
+        }
+
+        @Bean
+        public ReadYourWritesTracker readYourWritesTracker(
+                @Value("${eduquest.datasource.replica.sticky-window-ms:5000}") long stickyWindowMs) {
+            return new ReadYourWritesTracker(stickyWindowMs);
+        }
+
+        @Bean
+        public FilterRegistrationBean<ReadYourWritesFilter> readYourWritesFilter(ReadYourWritesTracker tracker) {
+            FilterRegistrationBean<ReadYourWritesFilter> registration =
+                    new FilterRegistrationBean<>(new ReadYourWritesFilter(tracker));
+            registration.addUrlPatterns("/api/*");
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+            return registration;
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.eduquesteasy.datasource;
+
+import com.zaxxer.hikari.metrics.IMetricsTracker;
+import com.zaxxer.hikari.metrics.MetricsTrackerFactory;
+import com.zaxxer.hikari.metrics.PoolStats;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Hikari metrics tracker shared by all pools: records how long callers waited for a
+ * connection, how long they held it and how often acquisition timed out. Together
+ * with the pool's live counts this shows which pool is saturated.
+ */
+public class PoolMetricsRegistry implements MetricsTrackerFactory {
+
+    private final Map<String, PoolMetrics> pools = new ConcurrentHashMap<>();
+
+    @Override
+    public IMetricsTracker create(String poolName, PoolStats poolStats) {
+        return pools.computeIfAbsent(poolName, name -> new PoolMetrics());
+    }
+
+    public PoolMetrics get(String poolName) {
+        return pools.get(poolName);
+    }
+
+    public static class PoolMetrics implements IMetricsTracker {
+
+        private final LongAdder acquired = new LongAdder();
+        private final LongAdder acquireNanos = new LongAdder();
+        private final LongAccumulator maxAcquireNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder timeouts = new LongAdder();
+        private final LongAdder usageMillis = new LongAdder();
+        private final LongAccumulator maxUsageMillis = new LongAccumulator(Math::max, 0);
+
+        @Override
+        public void recordConnectionAcquiredNanos(long elapsedAcquiredNanos) {
+            acquired.increment();
+            acquireNanos.add(elapsedAcquiredNanos);
+            maxAcquireNanos.accumulate(elapsedAcquiredNanos);
+        }
+
+        @Override
+        public void recordConnectionUsageMillis(long elapsedBorrowedMillis) {
+            usageMillis.add(elapsedBorrowedMillis);
+            maxUsageMillis.accumulate(elapsedBorrowedMillis);
+        }
+
+        @Override
+        public void recordConnectionTimeout() {
+            timeouts.increment();
+        }
+
+        public long getAcquired() {
+            return acquired.sum();
+        }
+
+        public double getMeanAcquireMs() {
+            long count = acquired.sum();
+            return count == 0 ? 0.0 : acquireNanos.sum() / 1e6 / count;
+        }
+
+        public double getMaxAcquireMs() {
+            return maxAcquireNanos.get() / 1e6;
+        }
+
+        public long getTimeouts() {
+            return timeouts.sum();
+        }
+
+        public double getMeanUsageMs() {
+            long count = acquired.sum();
+            return count == 0 ? 0.0 : (double) usageMillis.sum() / count;
+        }
+
+        public long getMaxUsageMs() {
+            return maxUsageMillis.get();
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package com.eduquesteasy.datasource;
+
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Picks the connection pool for the current transaction. Read-only work inside an
+ * {@link WorkloadType#ANALYTICS} method goes to the analytics pool, which reads
+ * from the primary unless configured otherwise; other
+ * {@code @Transactional(readOnly = true)} work goes to the replica pool when one is
+ * configured, and everything else to the primary.
+ *
+ * Reads stay on the primary while the replica lags beyond the configured
+ * tolerance, or while the current client is inside its read-your-writes window,
+ * which a read-write transaction opens when it commits.
+ * Must sit behind a LazyConnectionDataSourceProxy so the read-only flag and the
+ * workload are known before the physical connection is picked.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource {
+
+    // Both null when no replica is configured
+    private final ReplicaLagMonitor replicaLagMonitor;
+    private final ReadYourWritesTracker readYourWritesTracker;
+
+    private final Map<DataSourceRole, LongAdder> routedCounts = new EnumMap<>(DataSourceRole.class);
+
+    public ReadWriteRoutingDataSource(ReplicaLagMonitor replicaLagMonitor,
+                                      ReadYourWritesTracker readYourWritesTracker) {
+        this.replicaLagMonitor = replicaLagMonitor;
+        this.readYourWritesTracker = readYourWritesTracker;
+        for (DataSourceRole role : DataSourceRole.values()) {
+            routedCounts.put(role, new LongAdder());
+        }
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        DataSourceRole role = chooseRole();
+        routedCounts.get(role).increment();
+        return role;
+    }
+
+    private DataSourceRole chooseRole() {
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            if (readYourWritesTracker != null) {
+                readYourWritesTracker.registerWrite();
+            }
+            return DataSourceRole.PRIMARY;
+        }
+        if (WorkloadContext.current() == WorkloadType.ANALYTICS) {
+            return DataSourceRole.ANALYTICS;
+        }
+        if (replicaLagMonitor == null || !replicaLagMonitor.isReplicaUsable()) {
+            return DataSourceRole.PRIMARY;
+        }
+        if (readYourWritesTracker.isCurrentClientSticky()) {
+            return DataSourceRole.PRIMARY;
+        }
+        return DataSourceRole.REPLICA;
+    }
+
+    public boolean isReplicaConfigured() {
+        return replicaLagMonitor != null;
+    }
+
+    public long getRoutedCount(DataSourceRole role) {
+        return routedCounts.get(role).sum();
+    }
+}
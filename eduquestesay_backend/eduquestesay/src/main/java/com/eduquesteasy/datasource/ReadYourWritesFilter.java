@@ -0,0 +1,61 @@
+package com.eduquesteasy.datasource;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.UriUtils;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Identifies the student behind a request, so that a read-write transaction
+ * committed on its behalf pins that student's later reads to the primary; see
+ * {@link ReadYourWritesTracker#registerWrite()}.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    public static final String CLIENT_HEADER = "X-Student-Email";
+
+    // /api/enrollments/student/{email}, /api/courses/get/enrollment/courses/{studentEmail}
+    private static final Pattern STUDENT_PATH =
+            Pattern.compile("/(?:student|enrollment/courses)/([^/]+)");
+
+    private final ReadYourWritesTracker tracker;
+
+    public ReadYourWritesFilter(ReadYourWritesTracker tracker) {
+        this.tracker = tracker;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        String clientKey = resolveClientKey(request);
+        tracker.bindCurrentClient(clientKey);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            tracker.clearCurrentClient();
+        }
+    }
+
+    public static String resolveClientKey(HttpServletRequest request) {
+        String header = request.getHeader(CLIENT_HEADER);
+        if (header != null && !header.isBlank()) {
+            return header;
+        }
+        String param = request.getParameter("studentEmail");
+        if (param != null && !param.isBlank()) {
+            return param;
+        }
+        Matcher matcher = STUDENT_PATH.matcher(request.getRequestURI());
+        if (matcher.find()) {
+            return UriUtils.decode(matcher.group(1), StandardCharsets.UTF_8);
+        }
+        return null;
+    }
+}
@@ -0,0 +1,98 @@
+package com.eduquesteasy.datasource;
+
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers which clients wrote recently so their reads can be pinned to the
+ * primary until the replica has had time to catch up.
+ *
+ * The client of the current request is bound by {@link ReadYourWritesFilter}. A
+ * write is recorded when a read-write transaction of that client commits, before
+ * the response is written, so the same request's later reads already go to the
+ * primary.
+ */
+public class ReadYourWritesTracker {
+
+    private static final ThreadLocal<String> CURRENT_CLIENT = new ThreadLocal<>();
+
+    private final long stickyWindowNanos;
+
+    // client key -> System.nanoTime() until which reads go to the primary
+    private final Map<String, Long> stickyUntil = new ConcurrentHashMap<>();
+
+    public ReadYourWritesTracker(long stickyWindowMs) {
+        this.stickyWindowNanos = stickyWindowMs * 1_000_000L;
+    }
+
+    public void bindCurrentClient(String clientKey) {
+        CURRENT_CLIENT.set(clientKey);
+    }
+
+    public void clearCurrentClient() {
+        CURRENT_CLIENT.remove();
+    }
+
+    /**
+     * Record a write for the current client once the current read-write transaction
+     * commits. Called by the routing datasource whenever such a transaction picks
+     * the primary; registers at most once per transaction.
+     */
+    public void registerWrite() {
+        String clientKey = CURRENT_CLIENT.get();
+        if (clientKey == null || stickyWindowNanos <= 0
+                || !TransactionSynchronizationManager.isActualTransactionActive()
+                || !TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof WriteSynchronization) {
+                return;
+            }
+        }
+        TransactionSynchronizationManager.registerSynchronization(new WriteSynchronization(clientKey));
+    }
+
+    public void recordWrite(String clientKey) {
+        if (clientKey != null && stickyWindowNanos > 0) {
+            stickyUntil.put(clientKey, System.nanoTime() + stickyWindowNanos);
+        }
+    }
+
+    public boolean isCurrentClientSticky() {
+        String clientKey = CURRENT_CLIENT.get();
+        if (clientKey == null) {
+            return false;
+        }
+        Long until = stickyUntil.get(clientKey);
+        return until != null && until - System.nanoTime() > 0;
+    }
+
+    public int getStickyClientCount() {
+        return stickyUntil.size();
+    }
+
+    @Scheduled(fixedDelay = 30_000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        stickyUntil.values().removeIf(until -> until - now <= 0);
+    }
+
+    private final class WriteSynchronization implements TransactionSynchronization {
+
+        private final String clientKey;
+
+        WriteSynchronization(String clientKey) {
+            this.clientKey = clientKey;
+        }
+
+        @Override
+        public void afterCommit() {
+            recordWrite(clientKey);
+        }
+    }
+}
@@ -0,0 +1,86 @@
+package com.eduquesteasy.datasource;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Periodically measures replication lag on the replica and decides whether
+ * read-only transactions may use it.
+ *
+ * A replica that is not configured for replication (e.g. a local embedded
+ * database) reports no status rows and is treated as having zero lag.
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final DataSource replicaDataSource;
+    private final long maxLagMs;
+
+    private volatile boolean replicaUsable = true;
+    private volatile long lastLagMs = 0;
+
+    public ReplicaLagMonitor(DataSource replicaDataSource, long maxLagMs) {
+        this.replicaDataSource = replicaDataSource;
+        this.maxLagMs = maxLagMs;
+    }
+
+    public boolean isReplicaUsable() {
+        return replicaUsable;
+    }
+
+    public long getLastLagMs() {
+        return lastLagMs;
+    }
+
+    public long getMaxLagMs() {
+        return maxLagMs;
+    }
+
+    @Scheduled(fixedDelayString = "${eduquest.datasource.replica.lag-check-interval-ms:1000}")
+    public void checkLag() {
+        try (Connection connection = replicaDataSource.getConnection()) {
+            Long lagSeconds = readLagSeconds(connection);
+            if (lagSeconds == null) {
+                // Replication configured but stopped / broken
+                lastLagMs = -1;
+                updateUsable(false);
+                return;
+            }
+            lastLagMs = lagSeconds * 1000;
+            updateUsable(lastLagMs <= maxLagMs);
+        } catch (SQLException e) {
+            lastLagMs = -1;
+            updateUsable(false);
+            log.warn("Replica lag check failed: {}", e.getMessage());
+        }
+    }
+
+    private Long readLagSeconds(Connection connection) throws SQLException {
+        String product = connection.getMetaData().getDatabaseProductName();
+        if (!"MySQL".equalsIgnoreCase(product)) {
+            return 0L;
+        }
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SHOW REPLICA STATUS")) {
+            if (!rs.next()) {
+                return 0L;
+            }
+            long lag = rs.getLong("Seconds_Behind_Source");
+            return rs.wasNull() ? null : lag;
+        }
+    }
+
+    private void updateUsable(boolean usable) {
+        if (usable != replicaUsable) {
+            log.info("Replica {} for reads (lag {} ms, tolerance {} ms)",
+                    usable ? "enabled" : "disabled", lastLagMs, maxLagMs);
+        }
+        replicaUsable = usable;
+    }
+}
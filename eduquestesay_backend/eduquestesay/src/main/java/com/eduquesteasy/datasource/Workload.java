@@ -0,0 +1,16 @@
+package com.eduquesteasy.datasource;
+
+import java.lang.annotation.*;
+
+/**
+ * Marks a service method (or every method of a class) with its workload type.
+ * Read-only transactions started inside an {@link WorkloadType#ANALYTICS} method get
+ * their connection from the analytics pool; everything else stays on the OLTP pools.
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface Workload {
+
+    WorkloadType value();
+}
@@ -0,0 +1,31 @@
+package com.eduquesteasy.datasource;
+
+/**
+ * Workload type of the code running on the current thread, bound by {@link WorkloadInterceptor}.
+ */
+public final class WorkloadContext {
+
+    private static final ThreadLocal<WorkloadType> CURRENT = new ThreadLocal<>();
+
+    private WorkloadContext() {
+    }
+
+    public static WorkloadType current() {
+        WorkloadType type = CURRENT.get();
+        return type != null ? type : WorkloadType.OLTP;
+    }
+
+    static WorkloadType bind(WorkloadType type) {
+        WorkloadType previous = CURRENT.get();
+        CURRENT.set(type);
+        return previous;
+    }
+
+    static void restore(WorkloadType previous) {
+        if (previous == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(previous);
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.eduquesteasy.datasource;
+
+/**
+ * Kind of database work a service method does, used to pick its connection pool.
+ */
+public enum WorkloadType {
+    // Short point reads and writes
+    OLTP,
+    // Long read-only scans and aggregations (dashboards, reports)
+    ANALYTICS
+}
@@ -0,0 +1,30 @@
+package com.eduquesteasy.dimensions;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Stores Course.category as the id of its course_categories row. Query
+ * parameters go through here too, so an unknown category matches nothing;
+ * DimensionListener registers new names before a course is written.
+ */
+@Converter
+public class CategoryConverter implements AttributeConverter<String, Integer> {
+
+    private final ObjectProvider<CourseDimensions> dimensions;
+
+    public CategoryConverter(ObjectProvider<CourseDimensions> dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String category) {
+        return category == null ? null : dimensions.getObject().categories().idOf(category);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : dimensions.getObject().categories().nameOf(id);
+    }
+}
@@ -0,0 +1,47 @@
+package com.eduquesteasy.dimensions;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * The in-memory dictionaries of the course category and level dimensions.
+ * Courses store small integer ids; the converters on Course translate them
+ * back to the names the API and the rest of the code work with.
+ */
+@Component
+public class CourseDimensions {
+
+    private final DimensionDictionary categories;
+    private final DimensionDictionary levels;
+
+    public CourseDimensions(JdbcTemplate jdbcTemplate) {
+        this.categories = new DimensionDictionary(jdbcTemplate, "course_categories");
+        this.levels = new DimensionDictionary(jdbcTemplate, "course_levels");
+    }
+
+    public DimensionDictionary categories() {
+        return categories;
+    }
+
+    public DimensionDictionary levels() {
+        return levels;
+    }
+
+    /**
+     * Forget every cached name; needed only when the tables were rewritten behind the application's back
+     */
+    public void invalidateAll() {
+        categories.clear();
+        levels.clear();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("categories", categories.size());
+        stats.put("levels", levels.size());
+        return stats;
+    }
+}
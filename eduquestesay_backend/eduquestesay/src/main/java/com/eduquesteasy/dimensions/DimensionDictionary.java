@@ -0,0 +1,171 @@
+package com.eduquesteasy.dimensions;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-way map between the names of one dimension table (id, name) and their
+ * ids, held in memory in full: these tables have a handful of rows and a name
+ * keeps its id for good. Names match case-insensitively, as MySQL compares them.
+ *
+ * A name registered inside a transaction is visible to that transaction at once
+ * and to everyone else after it commits, so a rollback never leaves an id in
+ * memory that the database lost.
+ */
+public class DimensionDictionary {
+
+    // Stands in for a name that has no id: matches no row
+    public static final int UNKNOWN = -1;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final Map<String, Integer> ids = new ConcurrentHashMap<>();
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+    DimensionDictionary(JdbcTemplate jdbcTemplate, String table) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+    }
+
+    /**
+     * The id of a name, or {@link #UNKNOWN}; never creates one.
+     */
+    public int idOf(String name) {
+        String key = key(name);
+        Integer id = ids.get(key);
+        if (id == null) {
+            id = pending().get(key);
+        }
+        if (id == null) {
+            id = load("SELECT id, name FROM " + table + " WHERE name = ?", name);
+        }
+        return id == null ? UNKNOWN : id;
+    }
+
+    /**
+     * The name of an id, or null if there is no such row.
+     */
+    public String nameOf(int id) {
+        String name = names.get(id);
+        if (name == null) {
+            name = pendingNames().get(id);
+        }
+        if (name == null) {
+            List<String> found = jdbcTemplate.queryForList(
+                    "SELECT name FROM " + table + " WHERE id = ?", String.class, id);
+            if (found.isEmpty()) {
+                return null;
+            }
+            name = found.get(0);
+            remember(name, id);
+        }
+        return name;
+    }
+
+    /**
+     * The id of a name, adding it to the table in the caller's transaction if it is new.
+     */
+    public int register(String name) {
+        int existing = idOf(name);
+        if (existing != UNKNOWN) {
+            return existing;
+        }
+        int id;
+        try {
+            KeyHolder keys = new GeneratedKeyHolder();
+            jdbcTemplate.update(connection -> {
+                PreparedStatement statement = connection.prepareStatement(
+                        "INSERT INTO " + table + " (name) VALUES (?)", new String[]{"id"});
+                statement.setString(1, name);
+                return statement;
+            }, keys);
+            id = keys.getKey().intValue();
+        } catch (DuplicateKeyException e) {
+            // Added concurrently and committed; a locking read sees it past this transaction's snapshot
+            Integer added = load("SELECT id, name FROM " + table + " WHERE name = ? FOR UPDATE", name);
+            if (added == null) {
+                throw e;
+            }
+            return added;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            remember(name, id);
+            return id;
+        }
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        if (pending == null) {
+            pending = new Pending();
+            TransactionSynchronizationManager.bindResource(this, pending);
+            Pending registered = pending;
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    registered.names.forEach((pendingId, pendingName) -> remember(pendingName, pendingId));
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(DimensionDictionary.this);
+                }
+            });
+        }
+        pending.ids.put(key(name), id);
+        pending.names.put(id, name);
+        return id;
+    }
+
+    public int size() {
+        return names.size();
+    }
+
+    void clear() {
+        ids.clear();
+        names.clear();
+    }
+
+    // Reads one row and remembers it under the name stored in the table
+    private Integer load(String sql, String name) {
+        List<Integer> found = jdbcTemplate.query(sql, (rs, rowNum) -> {
+            remember(rs.getString(2), rs.getInt(1));
+            return rs.getInt(1);
+        }, name);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private void remember(String name, int id) {
+        names.put(id, name);
+        ids.putIfAbsent(key(name), id);
+    }
+
+    private Map<String, Integer> pending() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        return pending == null ? Map.of() : pending.ids;
+    }
+
+    private Map<Integer, String> pendingNames() {
+        Pending pending = (Pending) TransactionSynchronizationManager.getResource(this);
+        return pending == null ? Map.of() : pending.names;
+    }
+
+    private static String key(String name) {
+        return name.toLowerCase(Locale.ROOT);
+    }
+
+    // Names this transaction added, by normalized name and by id
+    private static final class Pending {
+        private final Map<String, Integer> ids = new HashMap<>();
+        private final Map<Integer, String> names = new HashMap<>();
+    }
+}
@@ -0,0 +1,31 @@
+package com.eduquesteasy.dimensions;
+
+import com.eduquesteasy.models.Course;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Adds a course's category and level to their dimension tables before the
+ * course is written, so the converters find an id for them.
+ */
+public class DimensionListener {
+
+    private final ObjectProvider<CourseDimensions> dimensions;
+
+    public DimensionListener(ObjectProvider<CourseDimensions> dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void register(Course course) {
+        CourseDimensions dictionaries = dimensions.getObject();
+        if (course.getCategory() != null) {
+            dictionaries.categories().register(course.getCategory());
+        }
+        if (course.getLevel() != null) {
+            dictionaries.levels().register(course.getLevel());
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.eduquesteasy.dimensions;
+
+import jakarta.persistence.AttributeConverter;
+import jakarta.persistence.Converter;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Stores Course.level as the id of its course_levels row; works like
+ * {@link CategoryConverter}.
+ */
+@Converter
+public class LevelConverter implements AttributeConverter<String, Integer> {
+
+    private final ObjectProvider<CourseDimensions> dimensions;
+
+    public LevelConverter(ObjectProvider<CourseDimensions> dimensions) {
+        this.dimensions = dimensions;
+    }
+
+    @Override
+    public Integer convertToDatabaseColumn(String level) {
+        return level == null ? null : dimensions.getObject().levels().idOf(level);
+    }
+
+    @Override
+    public String convertToEntityAttribute(Integer id) {
+        return id == null ? null : dimensions.getObject().levels().nameOf(id);
+    }
+}
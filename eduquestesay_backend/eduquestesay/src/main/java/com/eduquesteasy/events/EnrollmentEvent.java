@@ -0,0 +1,12 @@
+package com.eduquesteasy.events;
+
+import java.time.LocalDateTime;
+
+/**
+ * An outbox row as handed to subscribers. For WITHDRAWN, oldProgress is the
+ * progress at the time of withdrawal.
+ */
+public record EnrollmentEvent(long id, EnrollmentEventType type, Long courseId, Long enrollmentId,
+                              String studentEmail, Double oldProgress, Double newProgress,
+                              LocalDateTime enrollmentDate, LocalDateTime occurredAt) {
+}
@@ -0,0 +1,96 @@
+package com.eduquesteasy.events;
+
+import com.eduquesteasy.models.Enrollment;
+import com.eduquesteasy.models.OutboxEvent;
+import com.eduquesteasy.repositories.OutboxEventRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+
+/**
+ * Records enrollment events in the outbox as part of the caller's transaction,
+ * so an event exists if and only if the change it describes was committed.
+ */
+@Component
+public class EnrollmentEventPublisher {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxDispatcher dispatcher;
+
+    public EnrollmentEventPublisher(OutboxEventRepository outboxEventRepository, OutboxDispatcher dispatcher) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.dispatcher = dispatcher;
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enrolled(Enrollment enrollment) {
+        OutboxEvent event = eventFor(EnrollmentEventType.ENROLLED, enrollment);
+        event.setNewProgress(enrollment.getProgress());
+        save(event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void withdrawn(Enrollment enrollment) {
+        OutboxEvent event = eventFor(EnrollmentEventType.WITHDRAWN, enrollment);
+        event.setOldProgress(enrollment.getProgress());
+        save(event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void progressChanged(Enrollment enrollment, Double oldProgress) {
+        OutboxEvent event = eventFor(EnrollmentEventType.PROGRESS_CHANGED, enrollment);
+        event.setOldProgress(oldProgress);
+        event.setNewProgress(enrollment.getProgress());
+        save(event);
+    }
+
+    /**
+     * Same as {@link #progressChanged(Enrollment, Double)} for writes that bypass the entity.
+     */
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void progressChanged(Long enrollmentId, Long courseId, String studentEmail,
+                                LocalDateTime enrollmentDate, Double oldProgress, Double newProgress) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(EnrollmentEventType.PROGRESS_CHANGED);
+        event.setEnrollmentId(enrollmentId);
+        event.setCourseId(courseId);
+        event.setStudentEmail(studentEmail);
+        event.setEnrollmentDate(enrollmentDate);
+        event.setOldProgress(oldProgress);
+        event.setNewProgress(newProgress);
+        save(event);
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void courseDeleted(Long courseId) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(EnrollmentEventType.COURSE_DELETED);
+        event.setCourseId(courseId);
+        save(event);
+    }
+
+    private OutboxEvent eventFor(EnrollmentEventType type, Enrollment enrollment) {
+        OutboxEvent event = new OutboxEvent();
+        event.setType(type);
+        event.setCourseId(enrollment.getCourse() != null ? enrollment.getCourse().getId() : null);
+        event.setEnrollmentId(enrollment.getId());
+        event.setStudentEmail(enrollment.getStudentEmail());
+        event.setEnrollmentDate(enrollment.getEnrollmentDate());
+        return event;
+    }
+
+    private void save(OutboxEvent event) {
+        outboxEventRepository.save(event);
+        // Don't wait for the next poll once the event is visible
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                dispatcher.wakeUp();
+            }
+        });
+    }
+}
@@ -0,0 +1,15 @@
+package com.eduquesteasy.events;
+
+import java.util.List;
+
+/**
+ * Receives enrollment events from the outbox dispatcher, off the request thread.
+ *
+ * Delivery is at-least-once: after a crash or a failed batch, events may be seen
+ * again. Events of the same course always arrive in the order they were written, in batches of
+ * consecutive events; events of different courses may be delivered concurrently.
+ */
+public interface EnrollmentEventSubscriber {
+
+    void onEvents(List<EnrollmentEvent> events);
+}
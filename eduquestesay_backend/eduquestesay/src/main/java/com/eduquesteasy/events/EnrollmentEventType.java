@@ -0,0 +1,9 @@
+package com.eduquesteasy.events;
+
+public enum EnrollmentEventType {
+    ENROLLED,
+    WITHDRAWN,
+    PROGRESS_CHANGED,
+    // All enrollments of the course went away with it
+    COURSE_DELETED
+}
@@ -0,0 +1,369 @@
+package com.eduquesteasy.events;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Collectors;
+
+/**
+ * Delivers outbox events to the {@link EnrollmentEventSubscriber}s.
+ *
+ * A poller thread reads pending rows in id order and hands each to the lane of its
+ * course; every lane is a single thread, so different courses proceed in
+ * parallel. That is not a commit order: ids are assigned at insert, so a
+ * transaction can commit, and be delivered, before one holding a lower id, and
+ * a parked event comes back only when retried, after later events of its
+ * course. Subscribers must not depend on event order. Rows are acknowledged
+ * (dispatched_at) only after every subscriber has accepted them, which makes
+ * delivery at-least-once. A parked row records the subscribers that did accept
+ * it (delivered_to), so retrying it reaches only the ones that failed. The poller
+ * stops reading while maxInFlight events are unacknowledged, so a slow subscriber
+ * lets the backlog grow in the table rather than in memory.
+ *
+ * Runs on a single instance; several instances would each deliver every event.
+ */
+@Slf4j
+@Component
+public class OutboxDispatcher {
+
+    private static final String PENDING_SQL = "SELECT id, type, course_id, enrollment_id, student_email, "
+            + "old_progress, new_progress, enrollment_date, occurred_at, delivered_to FROM outbox_events "
+            + "WHERE dispatched_at IS NULL AND failed_at IS NULL ORDER BY id LIMIT ?";
+
+    private static final RowMapper<EnrollmentEvent> EVENT_MAPPER = (rs, rowNum) -> new EnrollmentEvent(
+            rs.getLong(1),
+            EnrollmentEventType.valueOf(rs.getString(2)),
+            rs.getObject(3, Long.class),
+            rs.getObject(4, Long.class),
+            rs.getString(5),
+            rs.getObject(6, Double.class),
+            rs.getObject(7, Double.class),
+            toLocalDateTime(rs.getTimestamp(8)),
+            toLocalDateTime(rs.getTimestamp(9)));
+
+    private static final RowMapper<Pending> PENDING_MAPPER = (rs, rowNum) -> new Pending(
+            EVENT_MAPPER.mapRow(rs, rowNum), rs.getString(10));
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectProvider<EnrollmentEventSubscriber> subscriberProvider;
+    private final OutboxProperties properties;
+
+    private final Set<Long> inFlight = ConcurrentHashMap.newKeySet();
+    // Subscribers that accepted an in-flight event before it was parked
+    private final Map<Long, Set<String>> acceptedBy = new ConcurrentHashMap<>();
+    private final Queue<Long> acknowledged = new ConcurrentLinkedQueue<>();
+    private final Queue<Failure> failures = new ConcurrentLinkedQueue<>();
+    private final Semaphore signal = new Semaphore(0);
+
+    private final LongAdder deliveredCount = new LongAdder();
+    private final LongAdder failedCount = new LongAdder();
+    private final LongAdder batchCount = new LongAdder();
+
+    private List<EnrollmentEventSubscriber> subscribers = List.of();
+    private Lane[] lanes = new Lane[0];
+    private Thread poller;
+    private volatile boolean running;
+
+    public OutboxDispatcher(JdbcTemplate jdbcTemplate,
+                            ObjectProvider<EnrollmentEventSubscriber> subscriberProvider,
+                            OutboxProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.subscriberProvider = subscriberProvider;
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (running) {
+            return;
+        }
+        subscribers = subscriberProvider.orderedStream().toList();
+        running = true;
+        lanes = new Lane[properties.getLanes()];
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Lane(i);
+            lanes[i].thread.start();
+        }
+        poller = new Thread(this::pollLoop, "outbox-poller");
+        poller.setDaemon(true);
+        poller.start();
+        log.info("Outbox dispatcher started: {} lanes, subscribers {}", lanes.length,
+                subscribers.stream().map(OutboxDispatcher::name).toList());
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        poller.interrupt();
+        for (Lane lane : lanes) {
+            lane.thread.interrupt();
+        }
+        try {
+            poller.join(5000);
+            for (Lane lane : lanes) {
+                lane.thread.join(5000);
+            }
+            flushAcknowledgements();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // Unacknowledged events are simply delivered again after restart
+            log.warn("Could not acknowledge outbox events on shutdown: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Poll now instead of at the next interval; called after an event commits.
+     */
+    public void wakeUp() {
+        if (signal.availablePermits() == 0) {
+            signal.release();
+        }
+    }
+
+    private void pollLoop() {
+        while (running) {
+            try {
+                flushAcknowledgements();
+                int room = properties.getMaxInFlight() - inFlight.size();
+                int read = room > 0 ? poll(Math.min(room, properties.getBatchSize())) : 0;
+                if (read < properties.getBatchSize()) {
+                    signal.tryAcquire(properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                    signal.drainPermits();
+                }
+            } catch (InterruptedException e) {
+                return;
+            } catch (Exception e) {
+                log.warn("Outbox poll failed: {}", e.getMessage());
+                try {
+                    Thread.sleep(properties.getPollIntervalMs());
+                } catch (InterruptedException ie) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private int poll(int limit) throws InterruptedException {
+        // In-flight rows are still pending in the table and come back first
+        List<Pending> pending = jdbcTemplate.query(PENDING_SQL, PENDING_MAPPER, limit + inFlight.size());
+        int read = 0;
+        for (Pending row : pending) {
+            EnrollmentEvent event = row.event();
+            if (inFlight.add(event.id())) {
+                if (row.deliveredTo() != null && !row.deliveredTo().isEmpty()) {
+                    acceptedBy.put(event.id(), Set.of(row.deliveredTo().split(",")));
+                }
+                laneFor(event.courseId()).queue.put(event);
+                read++;
+            }
+        }
+        return read;
+    }
+
+    private Lane laneFor(Long courseId) {
+        return courseId == null ? lanes[0] : lanes[Math.floorMod(Long.hashCode(courseId), lanes.length)];
+    }
+
+    private void flushAcknowledgements() {
+        List<Long> delivered = drain(acknowledged);
+        if (!delivered.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate("UPDATE outbox_events SET dispatched_at = ? WHERE id = ?", delivered,
+                    delivered.size(), (ps, id) -> {
+                        ps.setTimestamp(1, now);
+                        ps.setLong(2, id);
+                    });
+            delivered.forEach(inFlight::remove);
+        }
+
+        List<Failure> failed = drain(failures);
+        if (!failed.isEmpty()) {
+            Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+            jdbcTemplate.batchUpdate(
+                    "UPDATE outbox_events SET failed_at = ?, attempts = attempts + ?, last_error = ?, delivered_to = ? "
+                            + "WHERE id = ?",
+                    failed, failed.size(), (ps, failure) -> {
+                        ps.setTimestamp(1, now);
+                        ps.setInt(2, failure.attempts());
+                        ps.setString(3, failure.error());
+                        ps.setString(4, failure.deliveredTo());
+                        ps.setLong(5, failure.eventId());
+                    });
+            failed.forEach(failure -> inFlight.remove(failure.eventId()));
+        }
+    }
+
+    private void deliver(List<EnrollmentEvent> batch) throws InterruptedException {
+        Map<Long, Failure> failed = new HashMap<>();
+        Map<Long, Set<String>> rejectedBy = new HashMap<>();
+        for (EnrollmentEventSubscriber subscriber : subscribers) {
+            String name = name(subscriber);
+            List<EnrollmentEvent> due = batch.stream()
+                    .filter(event -> !acceptedBy.getOrDefault(event.id(), Set.of()).contains(name))
+                    .toList();
+            if (due.isEmpty()) {
+                continue;
+            }
+            try {
+                subscriber.onEvents(due);
+            } catch (Exception e) {
+                log.debug("{} rejected a batch of {}, retrying one by one: {}", name, due.size(), e.getMessage());
+                deliverOneByOne(subscriber, due, failed, rejectedBy);
+            }
+        }
+        for (EnrollmentEvent event : batch) {
+            Failure failure = failed.get(event.id());
+            acceptedBy.remove(event.id());
+            if (failure != null) {
+                Set<String> rejected = rejectedBy.get(event.id());
+                String deliveredTo = subscribers.stream()
+                        .map(OutboxDispatcher::name)
+                        .filter(name -> !rejected.contains(name))
+                        .collect(Collectors.joining(","));
+                failures.add(new Failure(failure.eventId(), failure.attempts(), failure.error(),
+                        deliveredTo.isEmpty() ? null : deliveredTo));
+                failedCount.increment();
+            } else {
+                acknowledged.add(event.id());
+                deliveredCount.increment();
+            }
+        }
+        batchCount.increment();
+    }
+
+    private void deliverOneByOne(EnrollmentEventSubscriber subscriber, List<EnrollmentEvent> batch,
+                                 Map<Long, Failure> failed, Map<Long, Set<String>> rejectedBy)
+            throws InterruptedException {
+        for (EnrollmentEvent event : batch) {
+            for (int attempt = 1; ; attempt++) {
+                try {
+                    subscriber.onEvents(List.of(event));
+                    break;
+                } catch (Exception e) {
+                    if (attempt >= properties.getMaxAttempts()) {
+                        String error = name(subscriber) + ": " + e.getMessage();
+                        log.error("Outbox event {} ({}) failed {} times, parking it: {}",
+                                event.id(), event.type(), attempt, error);
+                        failed.putIfAbsent(event.id(), new Failure(event.id(), attempt,
+                                error.length() > 500 ? error.substring(0, 500) : error, null));
+                        rejectedBy.computeIfAbsent(event.id(), id -> new HashSet<>()).add(name(subscriber));
+                        break;
+                    }
+                    Thread.sleep(properties.getRetryBackoffMs() * attempt);
+                }
+            }
+        }
+    }
+
+    /**
+     * Put parked events back in the queue, e.g. once a broken subscriber is fixed.
+     * Each goes only to the subscribers that have not accepted it yet.
+     */
+    public int retryFailed() {
+        int requeued = jdbcTemplate.update("UPDATE outbox_events SET failed_at = NULL WHERE failed_at IS NOT NULL");
+        wakeUp();
+        return requeued;
+    }
+
+    @Scheduled(fixedDelayString = "${eduquest.outbox.purge-interval-ms:3600000}")
+    public void purgeDelivered() {
+        LocalDateTime cutoff = LocalDateTime.now().minusHours(properties.getRetentionHours());
+        int purged = jdbcTemplate.update("DELETE FROM outbox_events WHERE dispatched_at < ?",
+                Timestamp.valueOf(cutoff));
+        if (purged > 0) {
+            log.debug("Purged {} delivered outbox events", purged);
+        }
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("running", running);
+        stats.put("pending", jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE dispatched_at IS NULL AND failed_at IS NULL", Long.class));
+        stats.put("failed", jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE failed_at IS NOT NULL", Long.class));
+        Timestamp oldest = jdbcTemplate.queryForObject(
+                "SELECT MIN(occurred_at) FROM outbox_events WHERE dispatched_at IS NULL AND failed_at IS NULL",
+                Timestamp.class);
+        stats.put("oldestPendingAgeMs", oldest == null ? 0 : System.currentTimeMillis() - oldest.getTime());
+        stats.put("inFlight", inFlight.size());
+        stats.put("laneDepths", Arrays.stream(lanes).map(lane -> lane.queue.size()).toList());
+        stats.put("delivered", deliveredCount.sum());
+        stats.put("parked", failedCount.sum());
+        stats.put("batches", batchCount.sum());
+        stats.put("subscribers", subscribers.stream().map(OutboxDispatcher::name).toList());
+        return stats;
+    }
+
+    private static <T> List<T> drain(Queue<T> queue) {
+        List<T> drained = new ArrayList<>();
+        for (T item; (item = queue.poll()) != null; ) {
+            drained.add(item);
+        }
+        return drained;
+    }
+
+    private static String name(EnrollmentEventSubscriber subscriber) {
+        return ClassUtils.getUserClass(subscriber).getSimpleName();
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp == null ? null : timestamp.toLocalDateTime();
+    }
+
+    private final class Lane implements Runnable {
+
+        // Never fills up: the poller keeps at most maxInFlight events outstanding
+        final BlockingQueue<EnrollmentEvent> queue = new ArrayBlockingQueue<>(properties.getMaxInFlight());
+        final Thread thread;
+
+        Lane(int index) {
+            thread = new Thread(this, "outbox-lane-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<EnrollmentEvent> batch = new ArrayList<>(properties.getBatchSize());
+            while (running || !queue.isEmpty()) {
+                try {
+                    EnrollmentEvent first = queue.poll(properties.getPollIntervalMs(), TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    queue.drainTo(batch, properties.getBatchSize() - 1);
+                    deliver(batch);
+                    batch.clear();
+                    // Let the poller acknowledge and refill without waiting for its interval
+                    wakeUp();
+                } catch (InterruptedException e) {
+                    return;
+                }
+            }
+        }
+    }
+
+    private record Pending(EnrollmentEvent event, String deliveredTo) {
+    }
+
+    private record Failure(long eventId, int attempts, String error, String deliveredTo) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.eduquesteasy.events;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Outbox dispatcher tuning (prefix {@code eduquest.outbox}).
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.outbox")
+public class OutboxProperties {
+
+    // Delivery threads; events are assigned to a lane by course
+    private int lanes = 4;
+
+    // Most events handed to a subscriber in one call
+    private int batchSize = 100;
+
+    // Events read but not yet acknowledged; the poller stops reading beyond this
+    private int maxInFlight = 2000;
+
+    // Fallback poll when no commit has signalled new events
+    private long pollIntervalMs = 500;
+
+    // Attempts per event after a batch failed, before it is parked as failed
+    private int maxAttempts = 5;
+    private long retryBackoffMs = 200;
+
+    // Delivered events are kept this long, then purged
+    private int retentionHours = 24;
+}
@@ -0,0 +1,48 @@
+package com.eduquesteasy.facets;
+
+import java.util.function.Function;
+
+/**
+ * Course attributes the catalog can be filtered and counted by. Rating and
+ * duration are bucketed so each course falls into exactly one value per facet.
+ */
+public enum CourseFacet {
+
+    CATEGORY("category", CourseSummary::category),
+    LEVEL("level", CourseSummary::level),
+    TEACHER("teacher", CourseSummary::teacherEmail),
+    RATING("rating", course -> ratingBucket(course.rating(), course.ratingCount())),
+    DURATION("duration", course -> durationBucket(course.duration()));
+
+    private final String param;
+    private final Function<CourseSummary, String> extractor;
+
+    CourseFacet(String param, Function<CourseSummary, String> extractor) {
+        this.param = param;
+        this.extractor = extractor;
+    }
+
+    public String param() {
+        return param;
+    }
+
+    String valueOf(CourseSummary course) {
+        return extractor.apply(course);
+    }
+
+    static String ratingBucket(double rating, long ratingCount) {
+        if (ratingCount == 0) return "unrated";
+        if (rating >= 4.5) return "4.5+";
+        if (rating >= 4.0) return "4.0-4.5";
+        if (rating >= 3.5) return "3.5-4.0";
+        if (rating >= 3.0) return "3.0-3.5";
+        return "<3.0";
+    }
+
+    static String durationBucket(int hours) {
+        if (hours < 10) return "<10h";
+        if (hours < 20) return "10-20h";
+        if (hours < 40) return "20-40h";
+        return "40h+";
+    }
+}
@@ -0,0 +1,333 @@
+package com.eduquesteasy.facets;
+
+import org.roaringbitmap.PeekableIntIterator;
+import org.roaringbitmap.RoaringBitmap;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Inverted index from facet value to the set of courses having it, one Roaring
+ * bitmap per value. Courses get a dense ordinal on first insert so the bitmaps stay
+ * small regardless of how sparse the database ids are; the ordinal of a deleted
+ * course is not reused.
+ *
+ * Filters are evaluated entirely with bitmap unions and intersections. Facet
+ * counts follow the usual drill-down convention: the counts of a facet ignore the
+ * selection on that same facet, so the alternatives stay visible.
+ *
+ * Courses are also kept ordered by rating, so a listing sorted by rating walks
+ * that order instead of sorting the matches on every request.
+ */
+public class CourseFacetIndex {
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // All guarded by lock
+    private final Map<CourseFacet, Map<String, RoaringBitmap>> postings = new EnumMap<>(CourseFacet.class);
+    private final Map<Long, Integer> ordinals = new HashMap<>();
+    private final List<CourseSummary> courses = new ArrayList<>();
+    private final RoaringBitmap live = new RoaringBitmap();
+    private final TreeSet<Integer> byRating = new TreeSet<>(this::compareRating);
+
+    // Below this share of all courses, sorting the matches beats walking the rating order
+    private static final int SPARSE_MATCH_DIVISOR = 8;
+
+    public CourseFacetIndex() {
+        for (CourseFacet facet : CourseFacet.values()) {
+            postings.put(facet, new HashMap<>());
+        }
+    }
+
+    /**
+     * Insert a course, or re-index it if its attributes changed. An indexed course
+     * keeps its rating: a course save carries whatever rating the entity was read
+     * with, and ratings only change through {@link #updateRating}.
+     */
+    public void upsert(CourseSummary course) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(course.id());
+            if (ordinal == null) {
+                ordinal = courses.size();
+                ordinals.put(course.id(), ordinal);
+                courses.add(course);
+                live.add(ordinal);
+                addPostings(ordinal, course);
+                byRating.add(ordinal);
+                return;
+            }
+            CourseSummary indexed = courses.get(ordinal);
+            replace(ordinal, course.withRating(indexed.rating(), indexed.ratingCount()));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    // Caller holds the write lock
+    private void replace(int ordinal, CourseSummary course) {
+        byRating.remove(ordinal);
+        CourseSummary previous = courses.set(ordinal, course);
+        byRating.add(ordinal);
+        for (CourseFacet facet : CourseFacet.values()) {
+            String before = facet.valueOf(previous);
+            String after = facet.valueOf(course);
+            if (!Objects.equals(before, after)) {
+                removePosting(facet, before, ordinal);
+                addPosting(facet, after, ordinal);
+            }
+        }
+    }
+
+    /**
+     * Insert courses that are not indexed yet; already indexed ones carry newer data.
+     */
+    public void insertMissing(List<CourseSummary> batch, Set<Long> skip) {
+        lock.writeLock().lock();
+        try {
+            for (CourseSummary course : batch) {
+                if (ordinals.containsKey(course.id()) || skip.contains(course.id())) {
+                    continue;
+                }
+                int ordinal = courses.size();
+                ordinals.put(course.id(), ordinal);
+                courses.add(course);
+                live.add(ordinal);
+                addPostings(ordinal, course);
+                byRating.add(ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public void remove(long courseId) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.remove(courseId);
+            if (ordinal == null) {
+                return;
+            }
+            byRating.remove(ordinal);
+            CourseSummary previous = courses.set(ordinal, null);
+            live.remove(ordinal);
+            for (CourseFacet facet : CourseFacet.values()) {
+                removePosting(facet, facet.valueOf(previous), ordinal);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Change the rating of an indexed course; courses not indexed yet are left to the load.
+     */
+    public void updateRating(long courseId, double rating, long ratingCount) {
+        lock.writeLock().lock();
+        try {
+            Integer ordinal = ordinals.get(courseId);
+            if (ordinal != null) {
+                replace(ordinal, courses.get(ordinal).withRating(rating, ratingCount));
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Compress runs of consecutive ordinals, which bulk-loaded data has plenty of.
+     */
+    public void optimize() {
+        lock.writeLock().lock();
+        try {
+            live.runOptimize();
+            postings.values().forEach(values -> values.values().forEach(RoaringBitmap::runOptimize));
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public FacetResult search(FacetQuery query) {
+        lock.readLock().lock();
+        try {
+            Map<CourseFacet, RoaringBitmap> clauses = new EnumMap<>(CourseFacet.class);
+            query.filters().forEach((facet, values) -> clauses.put(facet, union(facet, values)));
+
+            RoaringBitmap matches = intersect(clauses, null);
+            Map<String, Map<String, Integer>> facets = new LinkedHashMap<>();
+            for (CourseFacet facet : CourseFacet.values()) {
+                RoaringBitmap base = clauses.containsKey(facet) ? intersect(clauses, facet) : matches;
+                facets.put(facet.param(), counts(facet, base, query.facetLimit()));
+            }
+            List<CourseSummary> page = query.sort() == CourseSort.RATING
+                    ? pageByRating(matches, query.offset(), query.limit())
+                    : page(matches, query.offset(), query.limit());
+            return new FacetResult(matches.getCardinality(), page, facets);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Every value of a facet with its number of courses, most used first.
+     */
+    public Map<String, Integer> valueCounts(CourseFacet facet) {
+        lock.readLock().lock();
+        try {
+            return counts(facet, live, Integer.MAX_VALUE);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    public Map<String, Object> memoryReport() {
+        lock.readLock().lock();
+        try {
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("courses", live.getCardinality());
+            report.put("ordinals", courses.size());
+            long bitmapBytes = live.getSizeInBytes();
+            for (CourseFacet facet : CourseFacet.values()) {
+                Map<String, RoaringBitmap> values = postings.get(facet);
+                report.put(facet.param() + "Values", values.size());
+                for (RoaringBitmap bitmap : values.values()) {
+                    bitmapBytes += bitmap.getSizeInBytes();
+                }
+            }
+            report.put("bitmapBytes", bitmapBytes);
+            return report;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private RoaringBitmap union(CourseFacet facet, Set<String> values) {
+        Map<String, RoaringBitmap> byValue = postings.get(facet);
+        List<RoaringBitmap> selected = new ArrayList<>(values.size());
+        for (String value : values) {
+            RoaringBitmap bitmap = byValue.get(value);
+            if (bitmap != null) {
+                selected.add(bitmap);
+            }
+        }
+        return RoaringBitmap.or(selected.iterator());
+    }
+
+    /**
+     * AND of all clauses except the excluded one; no clauses means every live course.
+     */
+    private RoaringBitmap intersect(Map<CourseFacet, RoaringBitmap> clauses, CourseFacet excluded) {
+        RoaringBitmap result = null;
+        for (Map.Entry<CourseFacet, RoaringBitmap> clause : clauses.entrySet()) {
+            if (clause.getKey() == excluded) {
+                continue;
+            }
+            result = result == null ? clause.getValue() : RoaringBitmap.and(result, clause.getValue());
+        }
+        return result == null ? live : result;
+    }
+
+    private Map<String, Integer> counts(CourseFacet facet, RoaringBitmap base, int limit) {
+        List<Map.Entry<String, Integer>> counted = new ArrayList<>();
+        boolean unfiltered = base == live;
+        for (Map.Entry<String, RoaringBitmap> value : postings.get(facet).entrySet()) {
+            int count = unfiltered
+                    ? value.getValue().getCardinality()
+                    : RoaringBitmap.andCardinality(value.getValue(), base);
+            if (count > 0) {
+                counted.add(Map.entry(value.getKey(), count));
+            }
+        }
+        counted.sort(Map.Entry.<String, Integer>comparingByValue().reversed()
+                .thenComparing(Map.Entry.comparingByKey()));
+        Map<String, Integer> result = new LinkedHashMap<>();
+        for (int i = 0; i < Math.min(limit, counted.size()); i++) {
+            result.put(counted.get(i).getKey(), counted.get(i).getValue());
+        }
+        return result;
+    }
+
+    private List<CourseSummary> page(RoaringBitmap matches, int offset, int limit) {
+        if (offset >= matches.getCardinality() || limit <= 0) {
+            return List.of();
+        }
+        List<CourseSummary> result = new ArrayList<>(Math.min(limit, matches.getCardinality() - offset));
+        PeekableIntIterator it = matches.getIntIterator();
+        if (offset > 0) {
+            it.advanceIfNeeded(matches.select(offset));
+        }
+        while (it.hasNext() && result.size() < limit) {
+            result.add(courses.get(it.next()));
+        }
+        return result;
+    }
+
+    private List<CourseSummary> pageByRating(RoaringBitmap matches, int offset, int limit) {
+        int total = matches.getCardinality();
+        if (offset >= total || limit <= 0) {
+            return List.of();
+        }
+        List<CourseSummary> result = new ArrayList<>(Math.min(limit, total - offset));
+        if (matches == live || total >= live.getCardinality() / SPARSE_MATCH_DIVISOR) {
+            int skipped = 0;
+            for (int ordinal : byRating) {
+                if (!matches.contains(ordinal) || skipped++ < offset) {
+                    continue;
+                }
+                result.add(courses.get(ordinal));
+                if (result.size() == limit) {
+                    break;
+                }
+            }
+            return result;
+        }
+        Integer[] sorted = new Integer[total];
+        int i = 0;
+        for (PeekableIntIterator it = matches.getIntIterator(); it.hasNext(); ) {
+            sorted[i++] = it.next();
+        }
+        Arrays.sort(sorted, this::compareRating);
+        for (int j = offset; j < Math.min(total, offset + limit); j++) {
+            result.add(courses.get(sorted[j]));
+        }
+        return result;
+    }
+
+    // Best rated first, then most rated, then catalog order
+    private int compareRating(Integer left, Integer right) {
+        CourseSummary a = courses.get(left);
+        CourseSummary b = courses.get(right);
+        int byAverage = Double.compare(b.rating(), a.rating());
+        if (byAverage != 0) {
+            return byAverage;
+        }
+        int byCount = Long.compare(b.ratingCount(), a.ratingCount());
+        return byCount != 0 ? byCount : Integer.compare(left, right);
+    }
+
+    private void addPostings(int ordinal, CourseSummary course) {
+        for (CourseFacet facet : CourseFacet.values()) {
+            addPosting(facet, facet.valueOf(course), ordinal);
+        }
+    }
+
+    private void addPosting(CourseFacet facet, String value, int ordinal) {
+        if (value != null) {
+            postings.get(facet).computeIfAbsent(value, v -> new RoaringBitmap()).add(ordinal);
+        }
+    }
+
+    private void removePosting(CourseFacet facet, String value, int ordinal) {
+        if (value == null) {
+            return;
+        }
+        Map<String, RoaringBitmap> byValue = postings.get(facet);
+        RoaringBitmap bitmap = byValue.get(value);
+        if (bitmap != null) {
+            bitmap.remove(ordinal);
+            if (bitmap.isEmpty()) {
+                byValue.remove(value);
+            }
+        }
+    }
+}
@@ -0,0 +1,42 @@
+package com.eduquesteasy.facets;
+
+import com.eduquesteasy.datasource.Workload;
+import com.eduquesteasy.datasource.WorkloadType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Streams the catalog columns the facet index needs, in id order.
+ */
+@Component
+public class CourseFacetLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CourseFacetLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Workload(WorkloadType.ANALYTICS)
+    @Transactional(readOnly = true)
+    public void forEachCourse(RowCallbackHandler handler) {
+        jdbcTemplate.query("SELECT c.id, c.title, cat.name, lvl.name, c.teacher_email, c.rating, c.rating_count, "
+                + "c.duration, c.image_url "
+                + "FROM courses c "
+                + "LEFT JOIN course_categories cat ON cat.id = c.category_id "
+                + "LEFT JOIN course_levels lvl ON lvl.id = c.level_id "
+                + "ORDER BY c.id", handler);
+    }
+
+    /**
+     * The committed rating and rating count of one course, read from the primary in
+     * a transaction of its own so it also works from an after-commit callback.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public void readRating(long courseId, RowCallbackHandler handler) {
+        jdbcTemplate.query("SELECT rating, rating_count FROM courses WHERE id = ?", handler, courseId);
+    }
+}
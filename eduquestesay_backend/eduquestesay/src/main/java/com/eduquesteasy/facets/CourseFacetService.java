@@ -0,0 +1,191 @@
+package com.eduquesteasy.facets;
+
+import com.eduquesteasy.models.Course;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+
+/**
+ * Multi-attribute catalog filtering served from the {@link CourseFacetIndex}.
+ *
+ * The index is loaded in the background once the application is ready and kept
+ * current by the course write paths after their transaction commits. Courses
+ * saved during the load win over the rows the load read; courses deleted during
+ * the load are skipped when the load's rows are inserted, and ratings changed
+ * during the load replace the ones it read.
+ *
+ * Course saves never change an indexed rating. A rating change is read back from
+ * the database after it commits, one course at a time, so callbacks of concurrent
+ * ratings that run out of order still leave the latest committed rating indexed.
+ */
+@Slf4j
+@Service
+public class CourseFacetService {
+
+    private final CourseFacetIndex index = new CourseFacetIndex();
+    private final CourseFacetLoader loader;
+
+    @Value("${eduquest.facets.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    private volatile boolean ready;
+
+    // Guarded by deletedDuringLoad
+    private boolean loading = true;
+    private final Set<Long> deletedDuringLoad = new HashSet<>();
+    private final Map<Long, Rating> ratedDuringLoad = new HashMap<>();
+
+    // Serializes reading a rating back with applying it
+    private final Object ratingRefresh = new Object();
+
+    public CourseFacetService(CourseFacetLoader loader) {
+        this.loader = loader;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread thread = new Thread(this::load, "facets-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        List<CourseSummary> batch = new ArrayList<>(loadBatchSize);
+        long[] rows = new long[1];
+        try {
+            loader.forEachCourse(rs -> {
+                batch.add(new CourseSummary(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                        rs.getString(5), rs.getDouble(6), rs.getLong(7), rs.getInt(8), rs.getString(9)));
+                if (batch.size() == loadBatchSize) {
+                    insertLoaded(batch);
+                    rows[0] += batch.size();
+                    batch.clear();
+                }
+            });
+            insertLoaded(batch);
+            rows[0] += batch.size();
+        } catch (Exception e) {
+            log.error("Loading course facet index failed; filtering stays unavailable", e);
+            return;
+        } finally {
+            synchronized (deletedDuringLoad) {
+                loading = false;
+                deletedDuringLoad.clear();
+                ratedDuringLoad.clear();
+            }
+        }
+        index.optimize();
+        ready = true;
+        log.info("Course facet index loaded: {} courses in {} ms, {}", rows[0],
+                (System.nanoTime() - started) / 1_000_000, index.memoryReport());
+    }
+
+    private void insertLoaded(List<CourseSummary> batch) {
+        synchronized (deletedDuringLoad) {
+            if (!ratedDuringLoad.isEmpty()) {
+                batch.replaceAll(course -> {
+                    Rating rated = ratedDuringLoad.get(course.id());
+                    return rated == null ? course : course.withRating(rated.average(), rated.count());
+                });
+            }
+            index.insertMissing(batch, deletedDuringLoad);
+        }
+    }
+
+    /**
+     * Index a created or updated course once the surrounding transaction has committed.
+     */
+    public void courseSaved(Course course) {
+        CourseSummary summary = CourseSummary.from(course);
+        afterCommit(() -> {
+            CourseSummary saved = summary;
+            synchronized (deletedDuringLoad) {
+                // Rated while the load runs and not indexed yet: the entity's rating may predate that
+                Rating rated = loading ? ratedDuringLoad.get(summary.id()) : null;
+                if (rated != null) {
+                    saved = summary.withRating(rated.average(), rated.count());
+                }
+            }
+            index.upsert(saved);
+        });
+    }
+
+    /**
+     * Re-index a course's rating once the rating write that changed it has committed.
+     */
+    public void courseRated(long courseId) {
+        afterCommit(() -> {
+            synchronized (ratingRefresh) {
+                Rating[] committed = new Rating[1];
+                loader.readRating(courseId, rs -> {
+                    committed[0] = new Rating(rs.getDouble(1), rs.getLong(2));
+                });
+                if (committed[0] == null) {
+                    return;
+                }
+                synchronized (deletedDuringLoad) {
+                    if (loading) {
+                        ratedDuringLoad.put(courseId, committed[0]);
+                    }
+                }
+                index.updateRating(courseId, committed[0].average(), committed[0].count());
+            }
+        });
+    }
+
+    /**
+     * Drop a deleted course once the surrounding transaction has committed.
+     */
+    public void courseDeleted(Long courseId) {
+        afterCommit(() -> {
+            synchronized (deletedDuringLoad) {
+                if (loading) {
+                    deletedDuringLoad.add(courseId);
+                }
+            }
+            index.remove(courseId);
+        });
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public FacetResult search(FacetQuery query) {
+        return index.search(query);
+    }
+
+    public Map<String, Integer> valueCounts(CourseFacet facet) {
+        return index.valueCounts(facet);
+    }
+
+    public Map<String, Object> memoryReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("ready", ready);
+        report.putAll(index.memoryReport());
+        return report;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private record Rating(double average, long count) {
+    }
+}
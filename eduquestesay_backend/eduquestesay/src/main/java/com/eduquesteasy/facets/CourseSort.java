@@ -0,0 +1,20 @@
+package com.eduquesteasy.facets;
+
+import java.util.Locale;
+
+/**
+ * The order of a filtered course listing.
+ */
+public enum CourseSort {
+    // Catalog order, oldest course first
+    DEFAULT,
+    // Best average rating first, more ratings first among equals; unrated courses last
+    RATING;
+
+    /**
+     * The sort for a {@code sort} request parameter; unknown values keep the catalog order.
+     */
+    public static CourseSort fromParam(String sort) {
+        return sort != null && "rating".equals(sort.trim().toLowerCase(Locale.ROOT)) ? RATING : DEFAULT;
+    }
+}
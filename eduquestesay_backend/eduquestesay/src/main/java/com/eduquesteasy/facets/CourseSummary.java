@@ -0,0 +1,20 @@
+package com.eduquesteasy.facets;
+
+import com.eduquesteasy.models.Course;
+
+/**
+ * The catalog fields a filtered listing returns, held in memory by the facet index.
+ */
+public record CourseSummary(long id, String title, String category, String level, String teacherEmail,
+                            double rating, long ratingCount, int duration, String imageUrl) {
+
+    public static CourseSummary from(Course course) {
+        return new CourseSummary(course.getId(), course.getTitle(), course.getCategory(), course.getLevel(),
+                course.getTeacherEmail(), course.getRating(), course.getRatingCount(), course.getDuration(),
+                course.getImageUrl());
+    }
+
+    public CourseSummary withRating(double rating, long ratingCount) {
+        return new CourseSummary(id, title, category, level, teacherEmail, rating, ratingCount, duration, imageUrl);
+    }
+}
@@ -0,0 +1,16 @@
+package com.eduquesteasy.facets;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Values selected per facet. Values of one facet are OR-ed, facets are AND-ed.
+ */
+public record FacetQuery(Map<CourseFacet, Set<String>> filters, CourseSort sort, int offset, int limit,
+                         int facetLimit) {
+
+    public FacetQuery {
+        filters = filters.isEmpty() ? Map.of() : new EnumMap<>(filters);
+    }
+}
@@ -0,0 +1,11 @@
+package com.eduquesteasy.facets;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One page of matching courses plus, per facet, how many courses each value
+ * would match given the selections on the other facets.
+ */
+public record FacetResult(int total, List<CourseSummary> courses, Map<String, Map<String, Integer>> facets) {
+}
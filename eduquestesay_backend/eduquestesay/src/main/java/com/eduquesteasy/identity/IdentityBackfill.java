@@ -0,0 +1,112 @@
+package com.eduquesteasy.identity;
+
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.responsecache.JsonResponseCache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+
+/**
+ * Gives ids to rows that were written with an email only: by an instance still
+ * on the previous version during a rolling deploy, or by hand. The V7 migration
+ * runs the same statements once for the existing data.
+ */
+@Slf4j
+@Component
+public class IdentityBackfill {
+
+    private static final String[] STUDENT_SQL = {
+            """
+            INSERT INTO students (email)
+            SELECT DISTINCT e.student_email FROM enrollments e
+            WHERE e.student_id IS NULL AND e.student_email IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM students s WHERE s.email = e.student_email)
+            """,
+            """
+            INSERT INTO students (email)
+            SELECT DISTINCT a.student_email FROM enrollments_archive a
+            WHERE a.student_id IS NULL AND a.student_email IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM students s WHERE s.email = a.student_email)
+            """,
+            """
+            UPDATE enrollments SET student_id = (SELECT s.id FROM students s WHERE s.email = enrollments.student_email)
+            WHERE student_id IS NULL AND student_email IS NOT NULL
+            """,
+            """
+            UPDATE enrollments_archive SET student_id = (SELECT s.id FROM students s WHERE s.email = enrollments_archive.student_email)
+            WHERE student_id IS NULL AND student_email IS NOT NULL
+            """
+    };
+
+    private static final String[] TEACHER_SQL = {
+            """
+            INSERT INTO teachers (email)
+            SELECT DISTINCT c.teacher_email FROM courses c
+            WHERE c.teacher_id IS NULL AND c.teacher_email IS NOT NULL
+              AND NOT EXISTS (SELECT 1 FROM teachers t WHERE t.email = c.teacher_email)
+            """,
+            """
+            UPDATE courses SET teacher_id = (SELECT t.id FROM teachers t WHERE t.email = courses.teacher_email)
+            WHERE teacher_id IS NULL AND teacher_email IS NOT NULL
+            """
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JsonResponseCache jsonResponseCache;
+
+    public IdentityBackfill(JdbcTemplate jdbcTemplate,
+                            PlatformTransactionManager transactionManager,
+                            EntityManagerFactory entityManagerFactory,
+                            JsonResponseCache jsonResponseCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.entityManagerFactory = entityManagerFactory;
+        this.jsonResponseCache = jsonResponseCache;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(initialDelayString = "${eduquest.identity.backfill-interval-ms:600000}",
+            fixedDelayString = "${eduquest.identity.backfill-interval-ms:600000}")
+    public void run() {
+        try {
+            int enrollments = execute(STUDENT_SQL);
+            int courses = execute(TEACHER_SQL);
+            if (courses > 0) {
+                // Courses were updated behind Hibernate's back
+                entityManagerFactory.getCache().evict(Course.class);
+                jsonResponseCache.invalidateAll();
+            }
+            if (enrollments + courses > 0) {
+                log.info("Backfilled identities of {} enrollment and {} course rows", enrollments, courses);
+            }
+        } catch (DuplicateKeyException e) {
+            // Another instance backfilled the same emails at the same time; the next run finishes
+            log.debug("Identity backfill raced another instance: {}", e.getMessage());
+        }
+    }
+
+    // Returns the rows given an id by the UPDATE statements
+    private int execute(String[] statements) {
+        Integer updated = transactionTemplate.execute(status -> {
+            int rows = 0;
+            for (String sql : statements) {
+                int count = jdbcTemplate.update(sql);
+                if (sql.stripLeading().startsWith("UPDATE")) {
+                    rows += count;
+                }
+            }
+            return rows;
+        });
+        return updated == null ? 0 : updated;
+    }
+}
@@ -0,0 +1,33 @@
+package com.eduquesteasy.identity;
+
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.models.Enrollment;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Keeps the numeric teacher and student ids of courses and enrollments in step
+ * with their emails, creating the identity on first use. Instantiated by
+ * Hibernate through Spring, which is why the resolver is looked up lazily.
+ */
+public class IdentityListener {
+
+    private final ObjectProvider<IdentityResolver> resolver;
+
+    public IdentityListener(ObjectProvider<IdentityResolver> resolver) {
+        this.resolver = resolver;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void resolve(Object entity) {
+        if (entity instanceof Course course) {
+            String email = course.getTeacherEmail();
+            course.setTeacherId(email == null || email.isBlank() ? null : resolver.getObject().teacherId(email));
+        } else if (entity instanceof Enrollment enrollment) {
+            String email = enrollment.getStudentEmail();
+            enrollment.setStudentId(email == null || email.isBlank() ? null : resolver.getObject().studentId(email));
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.eduquesteasy.identity;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Email to id resolution (prefix {@code eduquest.identity}).
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.identity")
+public class IdentityProperties {
+
+    // Emails kept in memory per kind (students, teachers); about 150 bytes each
+    private int cacheMaxEntries = 200_000;
+
+    // How often rows written with an email only are given their ids
+    private long backfillIntervalMs = 600_000;
+}
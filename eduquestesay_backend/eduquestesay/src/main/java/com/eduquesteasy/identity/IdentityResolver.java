@@ -0,0 +1,167 @@
+package com.eduquesteasy.identity;
+
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.PreparedStatement;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Resolves student and teacher emails to their numeric ids. An email keeps its
+ * id for good, so resolved ids are cached in memory without expiry, bounded by
+ * {@code eduquest.identity.cache-max-entries}.
+ *
+ * The find methods only look up; the others create the identity on first use,
+ * in the caller's transaction. A created id is cached once that transaction
+ * commits, so a rollback never leaves an id behind that the database lost.
+ */
+@Component
+public class IdentityResolver {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdentityProperties properties;
+    private final Directory students = new Directory("students");
+    private final Directory teachers = new Directory("teachers");
+
+    public IdentityResolver(JdbcTemplate jdbcTemplate, IdentityProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.properties = properties;
+    }
+
+    public Optional<Long> findStudentId(String email) {
+        return students.find(email);
+    }
+
+    public long studentId(String email) {
+        return students.resolve(email);
+    }
+
+    public Optional<Long> findTeacherId(String email) {
+        return teachers.find(email);
+    }
+
+    public long teacherId(String email) {
+        return teachers.resolve(email);
+    }
+
+    /**
+     * Forget every cached id; needed only when identity rows were rewritten behind the application's back
+     */
+    public void invalidateAll() {
+        students.ids.clear();
+        teachers.ids.clear();
+    }
+
+    public Map<String, Object> stats() {
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("maxEntries", properties.getCacheMaxEntries());
+        stats.put("students", students.stats());
+        stats.put("teachers", teachers.stats());
+        return stats;
+    }
+
+    private final class Directory {
+
+        private final String table;
+        private final String selectSql;
+        private final Map<String, Long> ids = new ConcurrentHashMap<>();
+        private final LongAdder hits = new LongAdder();
+        private final LongAdder misses = new LongAdder();
+        private final LongAdder created = new LongAdder();
+
+        Directory(String table) {
+            this.table = table;
+            this.selectSql = "SELECT id FROM " + table + " WHERE email = ?";
+        }
+
+        Optional<Long> find(String email) {
+            if (email == null) {
+                return Optional.empty();
+            }
+            Long id = ids.get(email);
+            if (id != null) {
+                hits.increment();
+                return Optional.of(id);
+            }
+            misses.increment();
+            List<Long> found = jdbcTemplate.queryForList(selectSql, Long.class, email);
+            if (found.isEmpty()) {
+                return Optional.empty();
+            }
+            remember(email, found.get(0));
+            return Optional.of(found.get(0));
+        }
+
+        long resolve(String email) {
+            if (email == null || email.isBlank()) {
+                throw new IllegalArgumentException("An email is required");
+            }
+            Optional<Long> existing = find(email);
+            if (existing.isPresent()) {
+                return existing.get();
+            }
+
+            long id;
+            try {
+                KeyHolder keys = new GeneratedKeyHolder();
+                jdbcTemplate.update(connection -> {
+                    PreparedStatement statement = connection.prepareStatement(
+                            "INSERT INTO " + table + " (email) VALUES (?)", new String[]{"id"});
+                    statement.setString(1, email);
+                    return statement;
+                }, keys);
+                id = keys.getKey().longValue();
+                created.increment();
+            } catch (DuplicateKeyException e) {
+                // Created concurrently and committed; a locking read sees it past this transaction's snapshot
+                return remember(email, jdbcTemplate.queryForObject(selectSql + " FOR UPDATE", Long.class, email));
+            }
+
+            if (TransactionSynchronizationManager.isSynchronizationActive()) {
+                TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                    @Override
+                    public void afterCommit() {
+                        remember(email, id);
+                    }
+                });
+            } else {
+                remember(email, id);
+            }
+            return id;
+        }
+
+        private long remember(String email, long id) {
+            int max = Math.max(1, properties.getCacheMaxEntries());
+            if (ids.size() >= max) {
+                // Drop an arbitrary tenth; a dropped email costs one indexed lookup to bring back
+                Iterator<String> iterator = ids.keySet().iterator();
+                for (int i = 0; i < Math.max(1, max / 10) && iterator.hasNext(); i++) {
+                    iterator.next();
+                    iterator.remove();
+                }
+            }
+            ids.put(email, id);
+            return id;
+        }
+
+        Map<String, Object> stats() {
+            Map<String, Object> stats = new LinkedHashMap<>();
+            stats.put("cached", ids.size());
+            stats.put("hits", hits.sum());
+            stats.put("misses", misses.sum());
+            stats.put("created", created.sum());
+            return stats;
+        }
+    }
+}
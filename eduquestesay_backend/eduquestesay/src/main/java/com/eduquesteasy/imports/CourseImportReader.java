@@ -0,0 +1,16 @@
+package com.eduquesteasy.imports;
+
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * Reads an upload one course at a time. Row-level problems come back as failed
+ * items; an IOException means the rest of the upload cannot be read.
+ */
+interface CourseImportReader extends Closeable {
+
+    /**
+     * The next course, or null at the end of the upload.
+     */
+    ImportItem next() throws IOException;
+}
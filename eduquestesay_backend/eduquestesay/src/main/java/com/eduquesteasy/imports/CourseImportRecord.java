@@ -0,0 +1,34 @@
+package com.eduquesteasy.imports;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * One imported course with its lessons, as read from the upload. Numbers are
+ * boxed so an absent value can be told from zero.
+ */
+@Data
+public class CourseImportRecord {
+
+    private String title;
+    private String description;
+    private String category;
+    private String imageUrl;
+    private String level;
+    private Integer duration;
+    private String teacherEmail;
+    private List<LessonRecord> lessons = new ArrayList<>();
+
+    @Data
+    public static class LessonRecord {
+
+        private String title;
+        private String content;
+        private String videoUrl;
+        private String pdfFile;
+        // Position in the upload when absent
+        private Integer orderIndex;
+    }
+}
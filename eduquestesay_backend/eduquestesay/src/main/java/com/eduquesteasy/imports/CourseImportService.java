@@ -0,0 +1,352 @@
+package com.eduquesteasy.imports;
+
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.models.Lesson;
+import com.eduquesteasy.services.CourseService;
+import com.eduquesteasy.services.LessonOrderPlanner;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.NestedExceptionUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.FilterInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Bulk import of courses with their lessons from JSON or CSV uploads.
+ *
+ * The upload is copied to a spool file as it arrives and the request returns
+ * with a job id; a worker then parses the file one course at a time and writes
+ * the courses through CourseService, a chunk of rows per transaction, so the
+ * catalog versions, caches, leaderboards and facets see them like any other
+ * course. A course that fails validation or its insert is reported with its
+ * position and skipped; nothing but the current chunk is held in memory.
+ */
+@Slf4j
+@Service
+public class CourseImportService {
+
+    private static final int MAX_TEXT = 255;
+
+    private final CourseService courseService;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final ImportProperties properties;
+
+    private final Map<String, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final Semaphore slots;
+    private final ExecutorService workers;
+
+    public CourseImportService(CourseService courseService, ObjectMapper objectMapper,
+                               PlatformTransactionManager transactionManager, ImportProperties properties) {
+        this.courseService = courseService;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.properties = properties;
+
+        int concurrency = Math.max(1, properties.getMaxConcurrentJobs());
+        this.slots = new Semaphore(concurrency);
+        AtomicInteger threads = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "course-import-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Spool the upload and queue it for import. Throws IllegalStateException when
+     * the maximum number of imports is already running, and UploadTooLargeException
+     * once the upload passes the configured size.
+     */
+    public ImportJob start(String teacherEmail, ImportFormat format, InputStream upload) throws IOException {
+        if (!slots.tryAcquire()) {
+            throw new IllegalStateException("Too many imports in progress, try again later");
+        }
+        Path spool = null;
+        try {
+            spool = Files.createTempFile(spoolDirectory(), "course-import-", "." + format.name().toLowerCase(Locale.ROOT));
+            long size = Files.copy(new CountingInputStream(upload, properties.getMaxUploadBytes()), spool,
+                    StandardCopyOption.REPLACE_EXISTING);
+
+            ImportJob job = new ImportJob(teacherEmail, format, size, properties.getMaxErrors());
+            register(job);
+            Path file = spool;
+            workers.execute(() -> {
+                try {
+                    run(job, file);
+                } finally {
+                    slots.release();
+                }
+            });
+            return job;
+        } catch (IOException | RuntimeException e) {
+            slots.release();
+            if (spool != null) {
+                Files.deleteIfExists(spool);
+            }
+            throw e;
+        }
+    }
+
+    public Optional<ImportJob> getJob(String jobId) {
+        return Optional.ofNullable(jobs.get(jobId));
+    }
+
+    public List<ImportJob> getJobsByTeacher(String teacherEmail) {
+        return jobs.values().stream()
+                .filter(job -> job.getTeacherEmail().equalsIgnoreCase(teacherEmail))
+                .toList();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        workers.shutdownNow();
+    }
+
+    private void run(ImportJob job, Path file) {
+        job.started();
+        long started = System.nanoTime();
+        int chunkSize = Math.max(1, properties.getChunkSize());
+        List<ImportItem> chunk = new ArrayList<>();
+        try (CountingInputStream in = new CountingInputStream(Files.newInputStream(file));
+             CourseImportReader reader = openReader(job, in)) {
+
+            int chunkRows = 0;
+            ImportItem item;
+            while ((item = reader.next()) != null) {
+                job.read();
+                String error = item.error() != null ? item.error() : validate(item.course(), job.getTeacherEmail());
+                if (error != null) {
+                    job.courseFailed(item, error);
+                } else {
+                    chunk.add(item);
+                    chunkRows += item.rows();
+                }
+                if (chunkRows >= chunkSize) {
+                    writeChunk(job, chunk);
+                    chunk.clear();
+                    chunkRows = 0;
+                }
+                job.progress(in.count());
+            }
+            writeChunk(job, chunk);
+            job.completed();
+            log.info("Course import {} for {} finished in {} ms: {}", job.getId(), job.getTeacherEmail(),
+                    (System.nanoTime() - started) / 1_000_000, job.snapshot(false));
+        } catch (Exception e) {
+            // Everything read before the unreadable part is kept; the job says how far it got
+            writeChunk(job, chunk);
+            job.failed(NestedExceptionUtils.getMostSpecificCause(e).getMessage());
+            log.warn("Course import {} for {} failed: {}", job.getId(), job.getTeacherEmail(), e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(file);
+            } catch (IOException e) {
+                log.warn("Could not delete import spool file {}: {}", file, e.getMessage());
+            }
+        }
+    }
+
+    private CourseImportReader openReader(ImportJob job, InputStream in) throws IOException {
+        return job.getFormat() == ImportFormat.CSV
+                ? new CsvCourseImportReader(in, properties.getMaxLessonsPerCourse())
+                : new JsonCourseImportReader(objectMapper, in);
+    }
+
+    /**
+     * Insert a chunk in one transaction. When that fails, the chunk is retried
+     * one course per transaction so only the offending courses are rejected.
+     */
+    private void writeChunk(ImportJob job, List<ImportItem> chunk) {
+        if (chunk.isEmpty()) {
+            return;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> chunk.forEach(item -> save(item, job)));
+            job.chunkCommitted(chunk.size(), lessonCount(chunk));
+        } catch (RuntimeException e) {
+            log.debug("Import chunk of {} courses failed, retrying one by one: {}", chunk.size(), e.getMessage());
+            for (ImportItem item : chunk) {
+                try {
+                    transactionTemplate.executeWithoutResult(status -> save(item, job));
+                    job.chunkCommitted(1, item.course().getLessons().size());
+                } catch (RuntimeException rowFailure) {
+                    job.courseFailed(item, NestedExceptionUtils.getMostSpecificCause(rowFailure).getMessage());
+                }
+            }
+        }
+    }
+
+    private void save(ImportItem item, ImportJob job) {
+        CourseImportRecord record = item.course();
+        Course course = new Course();
+        course.setTitle(record.getTitle());
+        course.setDescription(record.getDescription());
+        course.setCategory(record.getCategory());
+        course.setImageUrl(record.getImageUrl());
+        course.setLevel(record.getLevel());
+        course.setDuration(record.getDuration() == null ? 0 : record.getDuration());
+        course.setTeacherEmail(job.getTeacherEmail());
+
+        List<Lesson> lessons = new ArrayList<>(record.getLessons().size());
+        int position = 0;
+        for (CourseImportRecord.LessonRecord lessonRecord : record.getLessons()) {
+            position++;
+            Lesson lesson = new Lesson();
+            lesson.setTitle(lessonRecord.getTitle());
+            lesson.setContent(lessonRecord.getContent());
+            lesson.setVideoUrl(lessonRecord.getVideoUrl());
+            lesson.setPdfFile(lessonRecord.getPdfFile());
+            lesson.setOrderIndex(lessonRecord.getOrderIndex() == null
+                    ? position * LessonOrderPlanner.GAP : lessonRecord.getOrderIndex());
+            lesson.setCourse(course);
+            lessons.add(lesson);
+        }
+        // Persisted with the course through the cascade
+        course.setLessons(lessons);
+        courseService.saveCourse(course);
+    }
+
+    private String validate(CourseImportRecord course, String teacherEmail) {
+        if (course.getTitle() == null || course.getTitle().isBlank()) {
+            return "title is required";
+        }
+        String tooLong = tooLong("title", course.getTitle(), "description", course.getDescription(),
+                "category", course.getCategory(), "imageUrl", course.getImageUrl(), "level", course.getLevel());
+        if (tooLong != null) {
+            return tooLong;
+        }
+        if (course.getDuration() != null && course.getDuration() < 0) {
+            return "duration must not be negative";
+        }
+        if (course.getTeacherEmail() != null && !course.getTeacherEmail().equalsIgnoreCase(teacherEmail)) {
+            return "teacherEmail " + course.getTeacherEmail() + " is not the importing teacher";
+        }
+        if (course.getLessons() == null) {
+            course.setLessons(new ArrayList<>());
+        }
+        if (course.getLessons().size() > properties.getMaxLessonsPerCourse()) {
+            return "more than " + properties.getMaxLessonsPerCourse() + " lessons";
+        }
+        for (int i = 0; i < course.getLessons().size(); i++) {
+            CourseImportRecord.LessonRecord lesson = course.getLessons().get(i);
+            if (lesson == null || lesson.getTitle() == null || lesson.getTitle().isBlank()) {
+                return "lesson " + (i + 1) + ": title is required";
+            }
+            tooLong = tooLong("title", lesson.getTitle(), "content", lesson.getContent(),
+                    "videoUrl", lesson.getVideoUrl(), "pdfFile", lesson.getPdfFile());
+            if (tooLong != null) {
+                return "lesson " + (i + 1) + ": " + tooLong;
+            }
+        }
+        return null;
+    }
+
+    // Fields alternate name, value; the columns are VARCHAR(255)
+    private static String tooLong(String... fields) {
+        for (int i = 0; i < fields.length; i += 2) {
+            if (fields[i + 1] != null && fields[i + 1].length() > MAX_TEXT) {
+                return fields[i] + " is longer than " + MAX_TEXT + " characters";
+            }
+        }
+        return null;
+    }
+
+    private static long lessonCount(List<ImportItem> chunk) {
+        return chunk.stream().mapToLong(item -> item.course().getLessons().size()).sum();
+    }
+
+    private void register(ImportJob job) {
+        jobs.put(job.getId(), job);
+        int retained = Math.max(1, properties.getRetainedJobs());
+        List<ImportJob> finished = jobs.values().stream().filter(ImportJob::isFinished).toList();
+        if (finished.size() > retained) {
+            finished.stream()
+                    .sorted(Comparator.comparing(ImportJob::getFinishedAt))
+                    .limit(finished.size() - retained)
+                    .forEach(old -> jobs.remove(old.getId()));
+        }
+    }
+
+    private Path spoolDirectory() throws IOException {
+        String configured = properties.getSpoolDirectory();
+        Path directory = configured == null || configured.isBlank()
+                ? Path.of(System.getProperty("java.io.tmpdir"))
+                : Path.of(configured);
+        return Files.createDirectories(directory);
+    }
+
+    /**
+     * Bytes consumed so far by the parser, for progress.
+     */
+    private static class CountingInputStream extends FilterInputStream {
+
+        private final long limit;
+        private long count;
+
+        CountingInputStream(InputStream in) {
+            this(in, Long.MAX_VALUE);
+        }
+
+        // Fails the read that takes the count past limit
+        CountingInputStream(InputStream in, long limit) {
+            super(in);
+            this.limit = limit;
+        }
+
+        @Override
+        public int read() throws IOException {
+            int b = super.read();
+            if (b >= 0) {
+                counted(1);
+            }
+            return b;
+        }
+
+        @Override
+        public int read(byte[] buffer, int offset, int length) throws IOException {
+            int read = super.read(buffer, offset, length);
+            if (read > 0) {
+                counted(read);
+            }
+            return read;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long skipped = super.skip(n);
+            counted(skipped);
+            return skipped;
+        }
+
+        private void counted(long n) throws UploadTooLargeException {
+            count += n;
+            if (count > limit) {
+                throw new UploadTooLargeException(limit);
+            }
+        }
+
+        long count() {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.eduquesteasy.imports;
+
+import com.fasterxml.jackson.databind.MappingIterator;
+import com.fasterxml.jackson.dataformat.csv.CsvMapper;
+import com.fasterxml.jackson.dataformat.csv.CsvSchema;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Streams courses out of a CSV upload with a header row, one lesson per row:
+ *
+ * <pre>
+ * course_ref,title,description,category,image_url,level,duration,teacher_email,
+ * lesson_title,lesson_content,lesson_video_url,lesson_pdf_file,lesson_order_index
+ * </pre>
+ *
+ * Adjacent rows with the same course_ref (the title when there is no
+ * course_ref) are one course, whose fields come from its first row; a row with
+ * no lesson columns is a course without lessons. Header names may also be
+ * camelCase. Rows are read one at a time with a single row of lookahead.
+ */
+class CsvCourseImportReader implements CourseImportReader {
+
+    private final MappingIterator<Map<String, String>> rows;
+    private final int maxLessonsPerCourse;
+
+    private Map<String, String> pending;
+    private long pendingLine;
+    private long record;
+
+    CsvCourseImportReader(InputStream in, int maxLessonsPerCourse) throws IOException {
+        this.rows = new CsvMapper()
+                .readerForMapOf(String.class)
+                .with(CsvSchema.emptySchema().withHeader())
+                .readValues(in);
+        this.maxLessonsPerCourse = maxLessonsPerCourse;
+    }
+
+    @Override
+    public ImportItem next() throws IOException {
+        Map<String, String> first = pending;
+        long line = pendingLine;
+        pending = null;
+        if (first == null) {
+            line = nextLine();
+            first = read();
+            if (first == null) {
+                return null;
+            }
+        }
+        record++;
+
+        CourseImportRecord course = new CourseImportRecord();
+        String error = null;
+        try {
+            course.setTitle(text(first, "title"));
+            course.setDescription(text(first, "description"));
+            course.setCategory(text(first, "category"));
+            course.setImageUrl(text(first, "imageurl"));
+            course.setLevel(text(first, "level"));
+            course.setDuration(number(first, "duration", Integer::valueOf));
+            course.setTeacherEmail(text(first, "teacheremail"));
+        } catch (IllegalArgumentException e) {
+            error = e.getMessage();
+        }
+
+        String key = groupKey(first);
+        Map<String, String> row = first;
+        long lessonLine = line;
+        while (row != null) {
+            if (error == null) {
+                error = addLesson(course, row, lessonLine);
+            }
+            lessonLine = nextLine();
+            row = read();
+            if (row != null && (key == null || !key.equals(groupKey(row)))) {
+                pending = row;
+                pendingLine = lessonLine;
+                break;
+            }
+        }
+
+        if (error != null) {
+            // The remaining rows of the course were still consumed, so the next one starts cleanly
+            return ImportItem.failed(record, line, course.getTitle(), error);
+        }
+        return ImportItem.of(record, line, course);
+    }
+
+    @Override
+    public void close() throws IOException {
+        rows.close();
+    }
+
+    private String addLesson(CourseImportRecord course, Map<String, String> row, long line) {
+        String title = text(row, "lessontitle");
+        String content = text(row, "lessoncontent");
+        String videoUrl = text(row, "lessonvideourl");
+        String pdfFile = text(row, "lessonpdffile");
+        String orderIndex = text(row, "lessonorderindex");
+        if (title == null && content == null && videoUrl == null && pdfFile == null && orderIndex == null) {
+            return null;
+        }
+        if (course.getLessons().size() >= maxLessonsPerCourse) {
+            return "more than " + maxLessonsPerCourse + " lessons";
+        }
+
+        CourseImportRecord.LessonRecord lesson = new CourseImportRecord.LessonRecord();
+        lesson.setTitle(title);
+        lesson.setContent(content);
+        lesson.setVideoUrl(videoUrl);
+        lesson.setPdfFile(pdfFile);
+        try {
+            lesson.setOrderIndex(number(row, "lessonorderindex", Integer::valueOf));
+        } catch (IllegalArgumentException e) {
+            return "line " + line + ": " + e.getMessage();
+        }
+        course.getLessons().add(lesson);
+        return null;
+    }
+
+    private Map<String, String> read() throws IOException {
+        if (!rows.hasNextValue()) {
+            return null;
+        }
+        Map<String, String> row = new HashMap<>();
+        rows.nextValue().forEach((column, value) -> row.put(normalize(column), value));
+        return row;
+    }
+
+    // Line the next row starts on (rows with quoted line breaks span several);
+    // the parser has already consumed the line break ending the previous row
+    private long nextLine() {
+        return rows.getCurrentLocation().getLineNr();
+    }
+
+    private static String groupKey(Map<String, String> row) {
+        String ref = text(row, "courseref");
+        return ref != null ? ref : text(row, "title");
+    }
+
+    private static String normalize(String column) {
+        return column.replace("_", "").replace("-", "").trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static String text(Map<String, String> row, String column) {
+        String value = row.get(column);
+        return value == null || value.isBlank() ? null : value.trim();
+    }
+
+    private static <T> T number(Map<String, String> row, String column, Function<String, T> parse) {
+        String value = text(row, column);
+        if (value == null) {
+            return null;
+        }
+        try {
+            return parse.apply(value);
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException(column + " is not a number: " + value);
+        }
+    }
+}
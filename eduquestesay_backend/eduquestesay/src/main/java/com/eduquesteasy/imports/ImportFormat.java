@@ -0,0 +1,27 @@
+package com.eduquesteasy.imports;
+
+import org.springframework.http.MediaType;
+
+import java.util.Locale;
+
+public enum ImportFormat {
+    JSON,
+    CSV;
+
+    /**
+     * The explicit format parameter when given, else the upload's content type (JSON by default).
+     */
+    public static ImportFormat resolve(String format, String contentType) {
+        if (format != null && !format.isBlank()) {
+            try {
+                return valueOf(format.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException e) {
+                throw new IllegalArgumentException("Unknown import format " + format + ", expected json or csv");
+            }
+        }
+        if (contentType != null && MediaType.parseMediaType(contentType).getSubtype().toLowerCase(Locale.ROOT).contains("csv")) {
+            return CSV;
+        }
+        return JSON;
+    }
+}
@@ -0,0 +1,23 @@
+package com.eduquesteasy.imports;
+
+/**
+ * A course read from an upload, or why it could not be read.
+ *
+ * @param record 1-based position of the course in the upload
+ * @param line   line of the upload the course starts on
+ * @param title  course title when known, to make errors recognizable
+ */
+record ImportItem(long record, long line, String title, CourseImportRecord course, String error) {
+
+    static ImportItem of(long record, long line, CourseImportRecord course) {
+        return new ImportItem(record, line, course.getTitle(), course, null);
+    }
+
+    static ImportItem failed(long record, long line, String title, String error) {
+        return new ImportItem(record, line, title, null, error);
+    }
+
+    int rows() {
+        return 1 + (course == null ? 0 : course.getLessons().size());
+    }
+}
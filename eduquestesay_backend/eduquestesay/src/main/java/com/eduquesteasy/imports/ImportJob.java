@@ -0,0 +1,143 @@
+package com.eduquesteasy.imports;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Progress of one bulk import. Written by the worker running it, read by
+ * progress requests at any time.
+ */
+public class ImportJob {
+
+    public enum Status { QUEUED, RUNNING, COMPLETED, FAILED }
+
+    private final String id = UUID.randomUUID().toString();
+    private final String teacherEmail;
+    private final ImportFormat format;
+    private final long totalBytes;
+    private final int maxErrors;
+    private final LocalDateTime createdAt = LocalDateTime.now();
+
+    private final List<Map<String, Object>> errors = new ArrayList<>();
+
+    private volatile Status status = Status.QUEUED;
+    private volatile long bytesRead;
+    private volatile long coursesRead;
+    private volatile long coursesImported;
+    private volatile long lessonsImported;
+    private volatile long coursesFailed;
+    private volatile long chunksCommitted;
+    private volatile String failure;
+    private volatile LocalDateTime startedAt;
+    private volatile LocalDateTime finishedAt;
+
+    ImportJob(String teacherEmail, ImportFormat format, long totalBytes, int maxErrors) {
+        this.teacherEmail = teacherEmail;
+        this.format = format;
+        this.totalBytes = totalBytes;
+        this.maxErrors = maxErrors;
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getTeacherEmail() {
+        return teacherEmail;
+    }
+
+    public ImportFormat getFormat() {
+        return format;
+    }
+
+    public LocalDateTime getFinishedAt() {
+        return finishedAt;
+    }
+
+    public Status getStatus() {
+        return status;
+    }
+
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED;
+    }
+
+    void started() {
+        startedAt = LocalDateTime.now();
+        status = Status.RUNNING;
+    }
+
+    void progress(long bytesRead) {
+        this.bytesRead = bytesRead;
+    }
+
+    void read() {
+        coursesRead++;
+    }
+
+    void chunkCommitted(long courses, long lessons) {
+        coursesImported += courses;
+        lessonsImported += lessons;
+        chunksCommitted++;
+    }
+
+    void courseFailed(ImportItem item, String message) {
+        coursesFailed++;
+        synchronized (errors) {
+            if (errors.size() < maxErrors) {
+                Map<String, Object> error = new LinkedHashMap<>();
+                error.put("record", item.record());
+                error.put("line", item.line());
+                error.put("title", item.title() == null || item.title().length() <= 80
+                        ? item.title() : item.title().substring(0, 80) + "…");
+                error.put("error", message);
+                errors.add(error);
+            }
+        }
+    }
+
+    void completed() {
+        bytesRead = totalBytes;
+        finishedAt = LocalDateTime.now();
+        status = Status.COMPLETED;
+    }
+
+    void failed(String message) {
+        failure = message;
+        finishedAt = LocalDateTime.now();
+        status = Status.FAILED;
+    }
+
+    public Map<String, Object> snapshot(boolean withErrors) {
+        Map<String, Object> snapshot = new LinkedHashMap<>();
+        snapshot.put("id", id);
+        snapshot.put("teacherEmail", teacherEmail);
+        snapshot.put("format", format);
+        snapshot.put("status", status);
+        snapshot.put("totalBytes", totalBytes);
+        snapshot.put("bytesRead", bytesRead);
+        snapshot.put("percent", totalBytes == 0 ? 100.0 : Math.round(bytesRead * 1_000.0 / totalBytes) / 10.0);
+        snapshot.put("coursesRead", coursesRead);
+        snapshot.put("coursesImported", coursesImported);
+        snapshot.put("lessonsImported", lessonsImported);
+        snapshot.put("coursesFailed", coursesFailed);
+        snapshot.put("chunksCommitted", chunksCommitted);
+        snapshot.put("createdAt", createdAt.toString());
+        snapshot.put("startedAt", startedAt == null ? null : startedAt.toString());
+        snapshot.put("finishedAt", finishedAt == null ? null : finishedAt.toString());
+        if (failure != null) {
+            snapshot.put("failure", failure);
+        }
+        if (withErrors) {
+            synchronized (errors) {
+                snapshot.put("errors", new ArrayList<>(errors));
+                snapshot.put("errorsTruncated", coursesFailed > errors.size());
+            }
+        }
+        return snapshot;
+    }
+}
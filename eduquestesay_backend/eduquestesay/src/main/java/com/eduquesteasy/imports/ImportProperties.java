@@ -0,0 +1,34 @@
+package com.eduquesteasy.imports;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Bulk course import settings (prefix {@code eduquest.import}).
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.import")
+public class ImportProperties {
+
+    // Courses plus lessons written per transaction
+    private int chunkSize = 500;
+
+    // Imports processed at once; further uploads are refused until one finishes
+    private int maxConcurrentJobs = 2;
+
+    // Row errors kept per job; the count goes on past this
+    private int maxErrors = 1_000;
+
+    private int maxLessonsPerCourse = 2_000;
+
+    // Finished jobs whose progress can still be fetched
+    private int retainedJobs = 100;
+
+    // Largest upload accepted; a bigger one is cut off and its spool file deleted
+    private long maxUploadBytes = 100L * 1024 * 1024;
+
+    // Where uploads are spooled before parsing; empty for the system temp directory
+    private String spoolDirectory = "";
+}
@@ -0,0 +1,86 @@
+package com.eduquesteasy.imports;
+
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Streams courses out of a JSON upload: either a top-level array of courses or
+ * an object with a "courses" array. The parser walks the document token by
+ * token and only one course at a time is materialized, so memory is bounded by
+ * the largest course, not by the upload.
+ */
+class JsonCourseImportReader implements CourseImportReader {
+
+    private final ObjectMapper objectMapper;
+    private final JsonParser parser;
+
+    private boolean positioned;
+    private boolean finished;
+    private long record;
+
+    JsonCourseImportReader(ObjectMapper objectMapper, InputStream in) throws IOException {
+        this.objectMapper = objectMapper;
+        this.parser = objectMapper.createParser(in);
+    }
+
+    @Override
+    public ImportItem next() throws IOException {
+        if (!positioned) {
+            positionAtCourses();
+            positioned = true;
+        }
+        if (finished) {
+            return null;
+        }
+
+        JsonToken token = parser.nextToken();
+        if (token == null || token == JsonToken.END_ARRAY) {
+            finished = true;
+            return null;
+        }
+        record++;
+        long line = parser.currentTokenLocation().getLineNr();
+        if (token != JsonToken.START_OBJECT) {
+            parser.skipChildren();
+            return ImportItem.failed(record, line, null, "expected a course object, found " + token.asString());
+        }
+
+        // A syntax error here ends the import; a course that does not bind only fails itself
+        JsonNode node = parser.readValueAsTree();
+        String title = node.path("title").isTextual() ? node.path("title").asText() : null;
+        try {
+            return ImportItem.of(record, line, objectMapper.treeToValue(node, CourseImportRecord.class));
+        } catch (JsonProcessingException e) {
+            return ImportItem.failed(record, line, title, e.getOriginalMessage());
+        }
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+
+    private void positionAtCourses() throws IOException {
+        JsonToken token = parser.nextToken();
+        if (token == JsonToken.START_ARRAY) {
+            return;
+        }
+        if (token == JsonToken.START_OBJECT) {
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                if (parser.nextToken() == JsonToken.START_ARRAY && "courses".equals(field)) {
+                    return;
+                }
+                parser.skipChildren();
+            }
+        }
+        throw new JsonParseException(parser, "expected an array of courses or an object with a \"courses\" array");
+    }
+}
@@ -0,0 +1,13 @@
+package com.eduquesteasy.imports;
+
+import java.io.IOException;
+
+/**
+ * An import upload went past {@code eduquest.import.max-upload-bytes}.
+ */
+public class UploadTooLargeException extends IOException {
+
+    public UploadTooLargeException(long maxBytes) {
+        super("Upload is larger than " + maxBytes + " bytes");
+    }
+}
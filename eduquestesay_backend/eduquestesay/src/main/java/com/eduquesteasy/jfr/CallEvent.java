@@ -0,0 +1,35 @@
+package com.eduquesteasy.jfr;
+
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.StackTrace;
+
+/**
+ * Fields shared by the service and repository call events. Identifiers are
+ * taken from arguments named teacherEmail, courseId and studentEmail (or email).
+ */
+@StackTrace(false)
+abstract class CallEvent extends jdk.jfr.Event {
+
+    @Label("Component")
+    String component;
+
+    @Label("Method")
+    String method;
+
+    @Label("Teacher")
+    String teacherEmail;
+
+    @Label("Student")
+    String studentEmail;
+
+    @Label("Course Id")
+    long courseId;
+
+    @Label("Rows")
+    @Description("Elements returned, or rows changed by a modifying query; -1 when not a row result")
+    long rowCount = -1;
+
+    @Label("Exception")
+    String exception;
+}
@@ -0,0 +1,134 @@
+package com.eduquesteasy.jfr;
+
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import javax.management.ObjectName;
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Stream;
+
+/**
+ * Keeps a continuous flight recording running: the JDK's low-overhead settings
+ * plus the request, service and repository events, bounded by age and size on
+ * disk. {@link #dump(int)} writes the last minutes of it to a file, so a slow
+ * dashboard can be looked at in JDK Mission Control without restarting.
+ */
+@Slf4j
+@Service
+public class FlightRecorderService {
+
+    private static final String RECORDING_NAME = "eduquest-continuous";
+
+    private final JfrProperties properties;
+    private volatile Recording recording;
+
+    public FlightRecorderService(JfrProperties properties) {
+        this.properties = properties;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public synchronized void start() {
+        if (!properties.isEnabled() || recording != null) {
+            return;
+        }
+        try {
+            Recording continuous = new Recording(Configuration.getConfiguration(properties.getSettings()));
+            continuous.setName(RECORDING_NAME);
+            continuous.setToDisk(true);
+            continuous.setMaxAge(Duration.ofMinutes(properties.getMaxAgeMinutes()));
+            continuous.setMaxSize(properties.getMaxSizeMb() * 1024 * 1024);
+            continuous.enable(RequestEvent.class).withThreshold(Duration.ofMillis(properties.getRequestThresholdMs()));
+            continuous.enable(ServiceCallEvent.class).withThreshold(Duration.ofMillis(properties.getServiceThresholdMs()));
+            continuous.enable(RepositoryCallEvent.class).withThreshold(Duration.ofMillis(properties.getRepositoryThresholdMs()));
+            continuous.start();
+            recording = continuous;
+            log.info("Continuous flight recording started ({} settings, {} min / {} MB)",
+                    properties.getSettings(), properties.getMaxAgeMinutes(), properties.getMaxSizeMb());
+        } catch (Exception e) {
+            log.warn("Could not start the continuous flight recording: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public synchronized void stop() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+
+    /**
+     * Write the last {@code minutes} of the recording to a new file in the dump
+     * directory and return it. Older dumps beyond the configured count are removed.
+     */
+    public synchronized Path dump(int minutes) throws Exception {
+        if (recording == null) {
+            throw new IllegalStateException("The continuous flight recording is not running");
+        }
+        int span = Math.max(1, Math.min(minutes, properties.getMaxAgeMinutes()));
+        Path directory = Files.createDirectories(Path.of(properties.getDumpDirectory()));
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = directory.resolve("eduquest-" + stamp + "-last" + span + "m.jfr").toAbsolutePath();
+
+        // JFR.dump is the one public way to cut a time range out of a running recording
+        ManagementFactory.getPlatformMBeanServer().invoke(
+                new ObjectName("com.sun.management:type=DiagnosticCommand"), "jfrDump",
+                new Object[]{new String[]{"name=" + RECORDING_NAME, "filename=" + file, "begin=-" + span + "m"}},
+                new String[]{String[].class.getName()});
+        if (!Files.exists(file)) {
+            throw new IOException("JFR.dump did not write " + file);
+        }
+        pruneDumps(directory);
+        log.info("Flight recording of the last {} min dumped to {} ({} bytes)", span, file, Files.size(file));
+        return file;
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        Recording current = recording;
+        status.put("enabled", properties.isEnabled());
+        status.put("running", current != null);
+        status.put("settings", properties.getSettings());
+        status.put("maxAgeMinutes", properties.getMaxAgeMinutes());
+        status.put("maxSizeMb", properties.getMaxSizeMb());
+        if (current != null) {
+            status.put("startedAt", String.valueOf(current.getStartTime()));
+            status.put("bytesOnDisk", current.getSize());
+        }
+        Map<String, Long> thresholds = new LinkedHashMap<>();
+        thresholds.put("request", properties.getRequestThresholdMs());
+        thresholds.put("service", properties.getServiceThresholdMs());
+        thresholds.put("repository", properties.getRepositoryThresholdMs());
+        status.put("thresholdsMs", thresholds);
+        status.put("dumpDirectory", Path.of(properties.getDumpDirectory()).toAbsolutePath().toString());
+        status.put("dumpsEnabled", !properties.getDumpToken().isBlank());
+        return status;
+    }
+
+    private void pruneDumps(Path directory) throws IOException {
+        List<Path> dumps;
+        try (Stream<Path> files = Files.list(directory)) {
+            dumps = files.filter(path -> path.getFileName().toString().endsWith(".jfr"))
+                    .sorted(Comparator.comparing(path -> path.toFile().lastModified()))
+                    .toList();
+        }
+        for (int i = 0; i < dumps.size() - Math.max(1, properties.getMaxDumpFiles()); i++) {
+            Files.deleteIfExists(dumps.get(i));
+        }
+    }
+}
@@ -0,0 +1,152 @@
+package com.eduquesteasy.jfr;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.Repository;
+import org.springframework.util.ClassUtils;
+
+import java.lang.reflect.Array;
+import java.lang.reflect.Method;
+import java.util.Collection;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records a JFR event for each call of a service or repository method. Only
+ * timestamps are taken on the way through; names, identifiers and row counts
+ * are filled in for calls over the threshold the recording will keep.
+ */
+class JfrCallInterceptor implements MethodInterceptor {
+
+    private static final ParameterNameDiscoverer PARAMETER_NAMES = new DefaultParameterNameDiscoverer();
+
+    private final boolean repository;
+    // Keyed by proxy class too: inherited methods such as findAll are shared by all repositories
+    private final Map<SiteKey, CallSite> sites = new ConcurrentHashMap<>();
+
+    JfrCallInterceptor(boolean repository) {
+        this.repository = repository;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        CallEvent event = repository ? new RepositoryCallEvent() : new ServiceCallEvent();
+        if (!event.isEnabled()) {
+            return invocation.proceed();
+        }
+
+        event.begin();
+        Object result = null;
+        Throwable failure = null;
+        try {
+            result = invocation.proceed();
+            return result;
+        } catch (Throwable t) {
+            failure = t;
+            throw t;
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                Object proxy = invocation instanceof ProxyMethodInvocation proxied ? proxied.getProxy() : invocation.getThis();
+                CallSite site = sites.computeIfAbsent(new SiteKey(proxy == null ? null : proxy.getClass(), invocation.getMethod()),
+                        key -> CallSite.of(key.method(), invocation));
+                site.describe(event, invocation.getArguments(), result);
+                if (failure != null) {
+                    event.exception = failure.getClass().getName();
+                }
+                event.commit();
+            }
+        }
+    }
+
+    private record SiteKey(Class<?> proxyClass, Method method) {
+    }
+
+    /**
+     * What is known about a method once: its display names and which arguments are identifiers.
+     */
+    private record CallSite(String component, String method, int teacherEmail, int studentEmail,
+                            int courseId, boolean modifying) {
+
+        static CallSite of(Method method, MethodInvocation invocation) {
+            Class<?> targetClass = invocation.getThis() != null
+                    ? AopUtils.getTargetClass(invocation.getThis())
+                    : method.getDeclaringClass();
+            String component = componentName(invocation, targetClass);
+
+            int teacherEmail = -1, studentEmail = -1, courseId = -1;
+            String[] names = PARAMETER_NAMES.getParameterNames(AopUtils.getMostSpecificMethod(method, targetClass));
+            for (int i = 0; names != null && i < names.length; i++) {
+                switch (names[i]) {
+                    case "teacherEmail" -> teacherEmail = i;
+                    case "studentEmail", "email" -> studentEmail = i;
+                    case "courseId" -> courseId = i;
+                    default -> { }
+                }
+            }
+            boolean modifying = AnnotatedElementUtils.hasAnnotation(method, Modifying.class);
+            return new CallSite(component, method.getName(), teacherEmail, studentEmail, courseId, modifying);
+        }
+
+        void describe(CallEvent event, Object[] arguments, Object result) {
+            event.component = component;
+            event.method = method;
+            if (teacherEmail >= 0) {
+                event.teacherEmail = String.valueOf(arguments[teacherEmail]);
+            }
+            if (studentEmail >= 0) {
+                event.studentEmail = String.valueOf(arguments[studentEmail]);
+            }
+            if (courseId >= 0 && arguments[courseId] instanceof Number id) {
+                event.courseId = id.longValue();
+            }
+            event.rowCount = rowCount(result);
+        }
+
+        private long rowCount(Object result) {
+            if (result instanceof Collection<?> collection) {
+                return collection.size();
+            }
+            if (result instanceof Slice<?> slice) {
+                return slice.getNumberOfElements();
+            }
+            if (result instanceof Optional<?> optional) {
+                return optional.isPresent() ? 1 : 0;
+            }
+            if (result != null && result.getClass().isArray()) {
+                return Array.getLength(result);
+            }
+            if (modifying && result instanceof Number rows) {
+                return rows.longValue();
+            }
+            return -1;
+        }
+
+        // The repository interface for Spring Data proxies, else the bean class
+        private static String componentName(MethodInvocation invocation, Class<?> targetClass) {
+            Object[] candidates = {
+                    invocation instanceof ProxyMethodInvocation proxied ? proxied.getProxy() : null,
+                    invocation.getThis()
+            };
+            for (Object candidate : candidates) {
+                if (candidate == null) {
+                    continue;
+                }
+                for (Class<?> type : ClassUtils.getAllInterfaces(candidate)) {
+                    if (Repository.class.isAssignableFrom(type) && type.getName().startsWith("com.eduquesteasy.")) {
+                        return type.getSimpleName();
+                    }
+                }
+            }
+            return ClassUtils.getUserClass(targetClass).getSimpleName();
+        }
+    }
+}
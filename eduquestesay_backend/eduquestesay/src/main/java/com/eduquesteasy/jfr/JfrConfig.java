@@ -0,0 +1,56 @@
+package com.eduquesteasy.jfr;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.ClassFilter;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.RootClassFilter;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.Repository;
+import org.springframework.stereotype.Service;
+
+/**
+ * JFR instrumentation of requests, services and repositories. The events cost
+ * two timestamps when no recording wants them; disable the instrumentation
+ * entirely with {@code eduquest.jfr.enabled=false}.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "eduquest.jfr", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class JfrConfig {
+
+    @Bean
+    public FilterRegistrationBean<JfrRequestFilter> jfrRequestFilter() {
+        FilterRegistrationBean<JfrRequestFilter> registration = new FilterRegistrationBean<>(new JfrRequestFilter());
+        registration.addUrlPatterns("/api/*");
+        // Outermost, so time spent waiting in admission control is part of the request
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor jfrServiceAdvisor() {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new AnnotationMatchingPointcut(Service.class, true), new JfrCallInterceptor(false));
+        // Outside single-flight and the transaction, so waiting on either is part of the call
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 40);
+        return advisor;
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor jfrRepositoryAdvisor() {
+        ClassFilter repositories = new RootClassFilter(Repository.class);
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                new ComposablePointcut(repositories), new JfrCallInterceptor(true));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 40);
+        return advisor;
+    }
+}
@@ -0,0 +1,36 @@
+package com.eduquesteasy.jfr;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Continuous flight recording settings (prefix {@code eduquest.jfr}).
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.jfr")
+public class JfrProperties {
+
+    private boolean enabled = true;
+
+    // JDK settings file: "default" (about 1% overhead) or "profile"
+    private String settings = "default";
+
+    // How much history the recording keeps on disk, whichever limit is hit first
+    private int maxAgeMinutes = 60;
+    private long maxSizeMb = 250;
+
+    // Shorter calls are not recorded; requests are recorded whatever their duration
+    private long requestThresholdMs = 0;
+    private long serviceThresholdMs = 1;
+    private long repositoryThresholdMs = 1;
+
+    private String dumpDirectory = "jfr";
+
+    // Older dump files are deleted beyond this many
+    private int maxDumpFiles = 10;
+
+    // Required in the X-Admin-Token header of dump requests; dumps are refused while empty
+    private String dumpToken = "";
+}
@@ -0,0 +1,71 @@
+package com.eduquesteasy.jfr;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+
+/**
+ * Records a JFR event per API request with the matched handler pattern and the
+ * teacher, student and course it was about (from path variables or parameters).
+ */
+public class JfrRequestFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response,
+                                    FilterChain filterChain) throws ServletException, IOException {
+        RequestEvent event = new RequestEvent();
+        if (!event.isEnabled()) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        event.begin();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            event.end();
+            if (event.shouldCommit()) {
+                describe(event, request, response);
+                event.commit();
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void describe(RequestEvent event, HttpServletRequest request, HttpServletResponse response) {
+        event.method = request.getMethod();
+        event.path = request.getRequestURI();
+        event.status = response.getStatus();
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        event.pattern = pattern == null ? null : pattern.toString();
+
+        Map<String, String> variables =
+                (Map<String, String>) request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+        event.teacherEmail = value(request, variables, "teacherEmail");
+        event.studentEmail = value(request, variables, "studentEmail");
+        if (event.studentEmail == null) {
+            event.studentEmail = value(request, variables, "email");
+        }
+        String courseId = value(request, variables, "courseId");
+        if (courseId != null) {
+            try {
+                event.courseId = Long.parseLong(courseId);
+            } catch (NumberFormatException e) {
+                // Not a course id after all; left at 0
+            }
+        }
+    }
+
+    private static String value(HttpServletRequest request, Map<String, String> variables, String name) {
+        if (variables != null && variables.containsKey(name)) {
+            return variables.get(name);
+        }
+        return request.getParameter(name);
+    }
+}
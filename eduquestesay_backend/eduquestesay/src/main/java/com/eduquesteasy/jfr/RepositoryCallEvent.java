@@ -0,0 +1,11 @@
+package com.eduquesteasy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+@Name("com.eduquesteasy.RepositoryCall")
+@Label("Repository Call")
+@Category({"EduQuest", "Repository"})
+class RepositoryCallEvent extends CallEvent {
+}
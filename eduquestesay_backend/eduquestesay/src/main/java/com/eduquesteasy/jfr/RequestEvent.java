@@ -0,0 +1,36 @@
+package com.eduquesteasy.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+@Name("com.eduquesteasy.Request")
+@Label("API Request")
+@Category({"EduQuest", "Web"})
+@Description("One /api request, from the first filter to the response")
+@StackTrace(false)
+class RequestEvent extends jdk.jfr.Event {
+
+    @Label("Method")
+    String method;
+
+    @Label("Path")
+    String path;
+
+    @Label("Handler Pattern")
+    String pattern;
+
+    @Label("Status")
+    int status;
+
+    @Label("Teacher")
+    String teacherEmail;
+
+    @Label("Student")
+    String studentEmail;
+
+    @Label("Course Id")
+    long courseId;
+}
@@ -0,0 +1,51 @@
+package com.eduquesteasy.leaderboard;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Live counters of one course. LongAdder spreads concurrent increments over
+ * per-thread cells, so a burst of enrollments in one popular course does not turn
+ * into a CAS retry loop on a single word.
+ */
+public class CourseCounters {
+
+    final long courseId;
+    final LongAdder enrollments = new LongAdder();
+    final LongAdder completions = new LongAdder();
+    final LongAdder trending = new LongAdder();
+
+    // Outbox events applied since the last reconcile, in whatever order they arrived
+    final Set<Long> appliedEvents = ConcurrentHashMap.newKeySet();
+
+    // Descriptive fields, refreshed from course saves and on reconcile
+    volatile String title;
+    volatile String category;
+    volatile String level;
+
+    CourseCounters(long courseId) {
+        this.courseId = courseId;
+    }
+
+    long get(LeaderboardMetric metric) {
+        return switch (metric) {
+            case POPULAR -> enrollments.sum();
+            case COMPLETIONS -> completions.sum();
+            case TRENDING -> trending.sum();
+        };
+    }
+
+    /**
+     * Moves a counter to the reconciled value and tells whether it had to. Increments
+     * racing with the correction may be lost or counted twice; the next reconcile
+     * corrects them again.
+     */
+    static boolean correct(LongAdder adder, long actual) {
+        long delta = actual - adder.sum();
+        if (delta != 0) {
+            adder.add(delta);
+        }
+        return delta != 0;
+    }
+}
@@ -0,0 +1,16 @@
+package com.eduquesteasy.leaderboard;
+
+/**
+ * One ranked course in a leaderboard snapshot.
+ */
+public record LeaderboardEntry(long courseId, String title, String category, String level,
+                               long enrollments, long completions, long trending) {
+
+    long get(LeaderboardMetric metric) {
+        return switch (metric) {
+            case POPULAR -> enrollments;
+            case COMPLETIONS -> completions;
+            case TRENDING -> trending;
+        };
+    }
+}
@@ -0,0 +1,13 @@
+package com.eduquesteasy.leaderboard;
+
+/**
+ * What a leaderboard ranks courses by.
+ */
+public enum LeaderboardMetric {
+    // Current enrollments
+    POPULAR,
+    // Enrollments at 100% progress
+    COMPLETIONS,
+    // Enrollments within the trending window
+    TRENDING
+}
@@ -0,0 +1,47 @@
+package com.eduquesteasy.leaderboard;
+
+import com.eduquesteasy.datasource.Workload;
+import com.eduquesteasy.datasource.WorkloadType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Reads the authoritative per-course counts in one grouped scan, archived
+ * enrollments included. Columns: id, title, category, level, enrollments, completions, trending.
+ */
+@Component
+public class LeaderboardReconciler {
+
+    private static final String COUNTS_SQL = """
+            SELECT c.id, c.title, cat.name, lvl.name,
+                   COUNT(e.id),
+                   COALESCE(SUM(CASE WHEN e.progress >= 100 THEN 1 ELSE 0 END), 0),
+                   COALESCE(SUM(CASE WHEN e.enrollment_date >= ? THEN 1 ELSE 0 END), 0)
+            FROM courses c
+            LEFT JOIN (
+                SELECT id, course_id, progress, enrollment_date FROM enrollments
+                UNION ALL
+                SELECT id, course_id, progress, enrollment_date FROM enrollments_archive
+            ) e ON e.course_id = c.id
+            LEFT JOIN course_categories cat ON cat.id = c.category_id
+            LEFT JOIN course_levels lvl ON lvl.id = c.level_id
+            GROUP BY c.id, c.title, cat.name, lvl.name
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public LeaderboardReconciler(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Workload(WorkloadType.ANALYTICS)
+    @Transactional(readOnly = true)
+    public void forEachCourseCount(LocalDateTime trendingSince, RowCallbackHandler handler) {
+        jdbcTemplate.query(COUNTS_SQL, handler, Timestamp.valueOf(trendingSince));
+    }
+}
@@ -0,0 +1,353 @@
+package com.eduquesteasy.leaderboard;
+
+import com.eduquesteasy.events.EnrollmentEvent;
+import com.eduquesteasy.events.EnrollmentEventSubscriber;
+import com.eduquesteasy.models.Course;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Popular, most-completed and trending course leaderboards.
+ *
+ * Enrollment events from the outbox bump per-course counters and mark the
+ * course as touched. A scheduled refresh re-ranks only the touched courses into
+ * the current top-K views (overall, per category, per level) and publishes them
+ * as one immutable snapshot, so reads are a map lookup; when nothing was touched
+ * it does nothing. Each course remembers the ids of the events applied since
+ * its last reconcile and skips any that come again, whatever order they arrive
+ * in. Counters are periodically reconciled with the database, which also ages
+ * enrollments out of the trending window and repairs anything the counters
+ * missed.
+ */
+@Slf4j
+@Service
+public class LeaderboardService implements EnrollmentEventSubscriber {
+
+    private static final String CATEGORY = "category";
+    private static final String LEVEL = "level";
+
+    private final LeaderboardReconciler reconciler;
+    private final Map<Long, CourseCounters> counters = new ConcurrentHashMap<>();
+    // Courses whose counters or details changed since the last refresh
+    private final Set<Long> touched = ConcurrentHashMap.newKeySet();
+    private volatile LeaderboardSnapshot snapshot = LeaderboardSnapshot.EMPTY;
+
+    @Value("${eduquest.leaderboard.top-k:50}")
+    private int topK;
+
+    @Value("${eduquest.leaderboard.trending-window-hours:24}")
+    private int trendingWindowHours;
+
+    public LeaderboardService(LeaderboardReconciler reconciler) {
+        this.reconciler = reconciler;
+    }
+
+    // 🔹 Enrollment events, delivered by the outbox dispatcher
+
+    @Override
+    public void onEvents(List<EnrollmentEvent> events) {
+        for (EnrollmentEvent event : events) {
+            // Courses not on the board yet are picked up by the next reconcile
+            CourseCounters c = event.courseId() == null ? null : counters.get(event.courseId());
+            if (c == null) {
+                continue;
+            }
+            // Already applied, e.g. again one by one after a batch failed part way
+            if (!c.appliedEvents.add(event.id())) {
+                continue;
+            }
+            switch (event.type()) {
+                case ENROLLED -> {
+                    c.enrollments.increment();
+                    if (isTrending(event.enrollmentDate())) {
+                        c.trending.increment();
+                    }
+                    if (isCompleted(event.newProgress())) {
+                        c.completions.increment();
+                    }
+                }
+                case WITHDRAWN -> {
+                    c.enrollments.decrement();
+                    if (isCompleted(event.oldProgress())) {
+                        c.completions.decrement();
+                    }
+                    if (isTrending(event.enrollmentDate())) {
+                        c.trending.decrement();
+                    }
+                }
+                case PROGRESS_CHANGED -> {
+                    boolean wasCompleted = isCompleted(event.oldProgress());
+                    boolean isCompleted = isCompleted(event.newProgress());
+                    if (wasCompleted != isCompleted) {
+                        c.completions.add(isCompleted ? 1 : -1);
+                    }
+                }
+                case COURSE_DELETED -> counters.remove(event.courseId());
+            }
+            touched.add(event.courseId());
+        }
+    }
+
+    // 🔹 Course metadata (applied once the surrounding transaction commits)
+
+    public void courseSaved(Course course) {
+        afterCommit(() -> {
+            countersFor(course);
+            touched.add(course.getId());
+        });
+    }
+
+    // 🔹 Reads
+
+    public List<LeaderboardEntry> getTop(LeaderboardMetric metric, String category, String level, int limit) {
+        LeaderboardSnapshot current = snapshot;
+        List<LeaderboardEntry> view;
+        if (category != null) {
+            view = current.view(metric, CATEGORY, category);
+        } else if (level != null) {
+            view = current.view(metric, LEVEL, level);
+        } else {
+            view = current.view(metric, null, null);
+        }
+        return view.size() <= limit ? view : view.subList(0, limit);
+    }
+
+    public Instant getGeneratedAt() {
+        return snapshot.generatedAt();
+    }
+
+    public int getTopK() {
+        return topK;
+    }
+
+    // 🔹 Ranking
+
+    @Scheduled(fixedDelayString = "${eduquest.leaderboard.refresh-interval-ms:1000}")
+    public synchronized void refresh() {
+        if (touched.isEmpty()) {
+            return;
+        }
+        // Removed before the counters are read, so a change racing with this refresh is picked up by the next one
+        Set<Long> changed = new HashSet<>(touched);
+        touched.removeAll(changed);
+
+        Map<String, List<LeaderboardEntry>> views = null;
+        // Re-ranking a large share of the courses costs as much as ranking them all
+        if (changed.size() * 4 < counters.size()) {
+            views = rerank(snapshot.views(), changed);
+        }
+        snapshot = new LeaderboardSnapshot(Instant.now(), views != null ? views : rankAll());
+    }
+
+    private Map<String, List<LeaderboardEntry>> rankAll() {
+        Map<String, PriorityQueue<LeaderboardEntry>> heaps = new HashMap<>();
+        for (CourseCounters c : counters.values()) {
+            LeaderboardEntry entry = entry(c);
+            for (String key : keys(entry)) {
+                offer(heaps, key, metricOf(key), entry);
+            }
+        }
+
+        Map<String, List<LeaderboardEntry>> views = new HashMap<>(heaps.size() * 2);
+        heaps.forEach((key, heap) -> {
+            List<LeaderboardEntry> ranked = new ArrayList<>(heap);
+            ranked.sort(ranking(metricOf(key)).reversed());
+            views.put(key, List.copyOf(ranked));
+        });
+        return views;
+    }
+
+    /**
+     * Re-ranks the changed courses within the current views. Returns null when a
+     * full view lost ground it cannot refill, i.e. a course outside the top K may
+     * now belong in it.
+     */
+    private Map<String, List<LeaderboardEntry>> rerank(Map<String, List<LeaderboardEntry>> current,
+                                                       Set<Long> changed) {
+        Map<String, List<LeaderboardEntry>> offered = new HashMap<>();
+        for (Long courseId : changed) {
+            CourseCounters c = counters.get(courseId);
+            if (c == null) {
+                continue;
+            }
+            LeaderboardEntry entry = entry(c);
+            for (String key : keys(entry)) {
+                offered.computeIfAbsent(key, k -> new ArrayList<>()).add(entry);
+            }
+        }
+
+        Map<String, List<LeaderboardEntry>> views = new HashMap<>(current);
+        Set<String> affected = new HashSet<>(offered.keySet());
+        current.forEach((key, view) -> {
+            if (view.stream().anyMatch(e -> changed.contains(e.courseId()))) {
+                affected.add(key);
+            }
+        });
+        for (String key : affected) {
+            Comparator<LeaderboardEntry> ranking = ranking(metricOf(key)).reversed();
+            List<LeaderboardEntry> before = current.getOrDefault(key, List.of());
+            List<LeaderboardEntry> ranked = new ArrayList<>(before.size() + 1);
+            for (LeaderboardEntry e : before) {
+                if (!changed.contains(e.courseId())) {
+                    ranked.add(e);
+                }
+            }
+            ranked.addAll(offered.getOrDefault(key, List.of()));
+            ranked.sort(ranking);
+            if (ranked.size() > topK) {
+                ranked.subList(topK, ranked.size()).clear();
+            }
+            // A full view ranked every course outside it at or below its weakest entry; anything weaker now may be wrong
+            if (before.size() >= topK && (ranked.size() < topK
+                    || ranking.compare(ranked.get(ranked.size() - 1), before.get(before.size() - 1)) > 0)) {
+                return null;
+            }
+            if (ranked.isEmpty()) {
+                views.remove(key);
+            } else {
+                views.put(key, List.copyOf(ranked));
+            }
+        }
+        return views;
+    }
+
+    private static LeaderboardEntry entry(CourseCounters c) {
+        return new LeaderboardEntry(c.courseId, c.title, c.category, c.level,
+                c.enrollments.sum(), c.completions.sum(), c.trending.sum());
+    }
+
+    // The views an entry is ranked in: those of every metric it has a positive count for
+    private static List<String> keys(LeaderboardEntry entry) {
+        List<String> keys = new ArrayList<>(9);
+        for (LeaderboardMetric metric : LeaderboardMetric.values()) {
+            if (entry.get(metric) <= 0) {
+                continue;
+            }
+            keys.add(LeaderboardSnapshot.key(metric, null, null));
+            if (entry.category() != null) {
+                keys.add(LeaderboardSnapshot.key(metric, CATEGORY, entry.category()));
+            }
+            if (entry.level() != null) {
+                keys.add(LeaderboardSnapshot.key(metric, LEVEL, entry.level()));
+            }
+        }
+        return keys;
+    }
+
+    private static LeaderboardMetric metricOf(String key) {
+        return LeaderboardMetric.valueOf(key.split("\\|", 2)[0]);
+    }
+
+    private void offer(Map<String, PriorityQueue<LeaderboardEntry>> heaps, String key,
+                       LeaderboardMetric metric, LeaderboardEntry entry) {
+        // Min-heap of at most topK entries: the root is the weakest entry still ranked
+        PriorityQueue<LeaderboardEntry> heap =
+                heaps.computeIfAbsent(key, k -> new PriorityQueue<>(topK + 1, ranking(metric)));
+        if (heap.size() < topK) {
+            heap.add(entry);
+        } else if (ranking(metric).compare(entry, heap.peek()) > 0) {
+            heap.poll();
+            heap.add(entry);
+        }
+    }
+
+    private static Comparator<LeaderboardEntry> ranking(LeaderboardMetric metric) {
+        // Ties go to the older (lower id) course
+        return Comparator.<LeaderboardEntry>comparingLong(e -> e.get(metric))
+                .thenComparing(Comparator.comparingLong(LeaderboardEntry::courseId).reversed());
+    }
+
+    // 🔹 Reconciliation
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void initialLoad() {
+        reconcile();
+        refresh();
+    }
+
+    @Scheduled(initialDelayString = "${eduquest.leaderboard.reconcile-interval-ms:300000}",
+            fixedDelayString = "${eduquest.leaderboard.reconcile-interval-ms:300000}")
+    public void reconcile() {
+        long started = System.nanoTime();
+        Set<Long> seen = new HashSet<>();
+        long[] drift = new long[1];
+        try {
+            reconciler.forEachCourseCount(trendingSince(), rs -> {
+                long courseId = rs.getLong(1);
+                seen.add(courseId);
+                CourseCounters c = counters.computeIfAbsent(courseId, CourseCounters::new);
+                // The counts read here stand in for everything applied so far
+                c.appliedEvents.clear();
+                boolean changed = !Objects.equals(c.title, rs.getString(2))
+                        || !Objects.equals(c.category, rs.getString(3))
+                        || !Objects.equals(c.level, rs.getString(4));
+                c.title = rs.getString(2);
+                c.category = rs.getString(3);
+                c.level = rs.getString(4);
+                drift[0] += Math.abs(rs.getLong(5) - c.enrollments.sum());
+                changed |= CourseCounters.correct(c.enrollments, rs.getLong(5));
+                changed |= CourseCounters.correct(c.completions, rs.getLong(6));
+                changed |= CourseCounters.correct(c.trending, rs.getLong(7));
+                if (changed) {
+                    touched.add(courseId);
+                }
+            });
+        } catch (Exception e) {
+            log.warn("Leaderboard reconcile failed: {}", e.getMessage());
+            return;
+        }
+        for (Iterator<Long> it = counters.keySet().iterator(); it.hasNext(); ) {
+            Long courseId = it.next();
+            if (!seen.contains(courseId)) {
+                it.remove();
+                touched.add(courseId);
+            }
+        }
+        log.debug("Leaderboard reconciled {} courses in {} ms (enrollment drift {})",
+                seen.size(), (System.nanoTime() - started) / 1_000_000, drift[0]);
+    }
+
+    private CourseCounters countersFor(Course course) {
+        CourseCounters c = counters.computeIfAbsent(course.getId(), CourseCounters::new);
+        c.title = course.getTitle();
+        c.category = course.getCategory();
+        c.level = course.getLevel();
+        return c;
+    }
+
+    private boolean isTrending(LocalDateTime enrollmentDate) {
+        return enrollmentDate != null && enrollmentDate.isAfter(trendingSince());
+    }
+
+    private LocalDateTime trendingSince() {
+        return LocalDateTime.now().minusHours(trendingWindowHours);
+    }
+
+    private static boolean isCompleted(Double progress) {
+        return progress != null && progress >= 100.0;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
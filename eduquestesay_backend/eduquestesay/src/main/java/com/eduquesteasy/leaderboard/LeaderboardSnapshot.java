@@ -0,0 +1,22 @@
+package com.eduquesteasy.leaderboard;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Immutable top-K rankings, rebuilt periodically and swapped in as a whole.
+ * Views are keyed by {@link #key(LeaderboardMetric, String, String)}.
+ */
+public record LeaderboardSnapshot(Instant generatedAt, Map<String, List<LeaderboardEntry>> views) {
+
+    static final LeaderboardSnapshot EMPTY = new LeaderboardSnapshot(Instant.EPOCH, Map.of());
+
+    static String key(LeaderboardMetric metric, String dimension, String value) {
+        return dimension == null ? metric.name() : metric.name() + "|" + dimension + "|" + value;
+    }
+
+    public List<LeaderboardEntry> view(LeaderboardMetric metric, String dimension, String value) {
+        return views.getOrDefault(key(metric, dimension, value), List.of());
+    }
+}
@@ -0,0 +1,260 @@
+package com.eduquesteasy.loadtest;
+
+import com.eduquesteasy.config.JacksonConfig;
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.models.Lesson;
+import com.eduquesteasy.responsecache.JsonResponseCache;
+import com.eduquesteasy.services.CourseFetchPlan;
+import com.eduquesteasy.services.CourseService;
+import com.eduquesteasy.services.LessonService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.ByteArrayHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Compares three ways of writing the hot catalog responses: the
+ * MappingJackson2HttpMessageConverter path every endpoint used before, the same
+ * converter with Blackbird, and the pre-serialized body from JsonResponseCache
+ * written through ByteArrayHttpMessageConverter. Each variant writes into an
+ * in-memory response for a fixed time; the report has time and heap allocated
+ * per response. Activated by the {@code jsonbench} profile.
+ */
+@Slf4j
+@Component
+@Profile("jsonbench")
+public class JsonSerializationBenchmark {
+
+    private final CourseService courseService;
+    private final LessonService lessonService;
+    private final MappingJackson2HttpMessageConverter jsonMessageConverter;
+    private final JsonResponseCache jsonResponseCache;
+    private final TransactionTemplate readOnlyTransaction;
+
+    @Value("${eduquest.jsonbench.warmup-ms:2000}")
+    private long warmupMs;
+
+    @Value("${eduquest.jsonbench.measure-ms:5000}")
+    private long measureMs;
+
+    @Value("${eduquest.jsonbench.report-directory:target/jsonbench}")
+    private String reportDirectory;
+
+    @Value("${eduquest.jsonbench.exit-on-finish:true}")
+    private boolean exitOnFinish;
+
+    public JsonSerializationBenchmark(CourseService courseService, LessonService lessonService,
+                                      MappingJackson2HttpMessageConverter jsonMessageConverter,
+                                      JsonResponseCache jsonResponseCache,
+                                      PlatformTransactionManager transactionManager) {
+        this.courseService = courseService;
+        this.lessonService = lessonService;
+        this.jsonMessageConverter = jsonMessageConverter;
+        this.jsonResponseCache = jsonResponseCache;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        Thread thread = new Thread(() -> runAndReport(event.getApplicationContext()), "jsonbench");
+        thread.setDaemon(false);
+        thread.start();
+    }
+
+    private void runAndReport(ApplicationContext context) {
+        int exitCode = 0;
+        try {
+            Map<String, Object> report = run();
+            Path file = writeReport(report);
+            log.info("JSON benchmark report written to {}", file.toAbsolutePath());
+        } catch (Exception e) {
+            exitCode = 1;
+            log.error("JSON benchmark failed", e);
+        }
+        if (exitOnFinish) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private Map<String, Object> run() throws Exception {
+        List<Payload> payloads = loadPayloads();
+        MappingJackson2HttpMessageConverter blackbirdConverter =
+                new MappingJackson2HttpMessageConverter(JacksonConfig.responseObjectMapper(true));
+        ByteArrayHttpMessageConverter bytesConverter = new ByteArrayHttpMessageConverter();
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (Payload payload : payloads) {
+            BufferedResponse response = new BufferedResponse();
+
+            jsonMessageConverter.write(payload.value(), MediaType.APPLICATION_JSON, response);
+            byte[] expected = response.bytes();
+            ResponseEntity<byte[]> cached = jsonResponseCache.get(payload.group(), payload.key(), payload::value);
+
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("payload", payload.name());
+            row.put("responseBytes", expected.length);
+            row.put("cachedBodyIdentical", Arrays.equals(expected, cached.getBody()));
+
+            Map<String, Object> variants = new LinkedHashMap<>();
+            variants.put("jacksonConverter", measure(response,
+                    out -> jsonMessageConverter.write(payload.value(), MediaType.APPLICATION_JSON, out)));
+            variants.put("jacksonConverterBlackbird", measure(response,
+                    out -> blackbirdConverter.write(payload.value(), MediaType.APPLICATION_JSON, out)));
+            variants.put("preSerializedCache", measure(response, out -> {
+                ResponseEntity<byte[]> entity = jsonResponseCache.get(payload.group(), payload.key(), payload::value);
+                bytesConverter.write(entity.getBody(), entity.getHeaders().getContentType(), out);
+            }));
+            row.put("variants", variants);
+
+            rows.add(row);
+            log.info("{}", row);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("warmupMs", warmupMs);
+        report.put("measureMs", measureMs);
+        report.put("jsonCache", jsonResponseCache.stats());
+        report.put("payloads", rows);
+        return report;
+    }
+
+    /**
+     * The bodies of GET /api/courses?include=lessons, the largest category with
+     * lessons and the longest lesson list. Everything is loaded up front so only
+     * serialization is measured.
+     */
+    private List<Payload> loadPayloads() {
+        return readOnlyTransaction.execute(status -> {
+            CourseFetchPlan plan = CourseFetchPlan.WITH_LESSONS;
+            List<Course> allCourses = courseService.getAllCourses(plan);
+
+            Map<String, Integer> categorySizes = new LinkedHashMap<>();
+            allCourses.forEach(course -> categorySizes.merge(String.valueOf(course.getCategory()), 1, Integer::sum));
+            String category = categorySizes.entrySet().stream()
+                    .max(Map.Entry.comparingByValue())
+                    .map(Map.Entry::getKey)
+                    .orElse("");
+            List<Course> categoryCourses = courseService.getCoursesByCategory(category, plan);
+
+            Long courseId = allCourses.stream()
+                    .max(Comparator.comparingInt(course -> course.getLessons().size()))
+                    .map(Course::getId)
+                    .orElse(0L);
+            List<Lesson> lessons = lessonService.getLessonsByCourse(courseId);
+
+            List<Payload> payloads = new ArrayList<>();
+            payloads.add(new Payload("lessons:course:" + courseId, JsonResponseCache.LESSONS,
+                    "lessons:course:" + courseId, lessons));
+            String categoryKey = plan.cacheKey("courses:category:" + category);
+            payloads.add(new Payload(categoryKey, JsonResponseCache.COURSES, categoryKey, categoryCourses));
+            payloads.add(new Payload(plan.cacheKey("courses"), JsonResponseCache.COURSES,
+                    plan.cacheKey("courses"), allCourses));
+            return payloads;
+        });
+    }
+
+    private Map<String, Object> measure(BufferedResponse response, ResponseWriter writer) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        long warmupEnd = System.nanoTime() + warmupMs * 1_000_000;
+        while (System.nanoTime() < warmupEnd) {
+            response.reset();
+            writer.write(response);
+        }
+
+        long operations = 0;
+        long allocatedBefore = threads.getCurrentThreadAllocatedBytes();
+        long started = System.nanoTime();
+        long deadline = started + measureMs * 1_000_000;
+        long now = started;
+        while (now < deadline) {
+            response.reset();
+            writer.write(response);
+            operations++;
+            now = System.nanoTime();
+        }
+        long elapsedNs = now - started;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - allocatedBefore;
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("operations", operations);
+        result.put("microsPerOp", Math.round(elapsedNs / 1_000.0 / operations * 100.0) / 100.0);
+        result.put("opsPerSecond", Math.round(operations * 1e9 / elapsedNs));
+        result.put("allocatedBytesPerOp", allocated / operations);
+        return result;
+    }
+
+    private Path writeReport(Map<String, Object> report) throws Exception {
+        Path directory = Path.of(reportDirectory);
+        Files.createDirectories(directory);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = directory.resolve("jsonbench-" + stamp + ".json");
+        jsonMessageConverter.getObjectMapper().writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        return file;
+    }
+
+    private record Payload(String name, String group, String key, Object value) {
+    }
+
+    @FunctionalInterface
+    private interface ResponseWriter {
+        void write(HttpOutputMessage response) throws Exception;
+    }
+
+    /**
+     * Response body kept in memory and reused between writes, standing in for the servlet stream.
+     */
+    private static class BufferedResponse implements HttpOutputMessage {
+
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream(1 << 16);
+
+        @Override
+        public OutputStream getBody() {
+            return body;
+        }
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        byte[] bytes() {
+            return body.toByteArray();
+        }
+
+        void reset() {
+            headers.clear();
+            body.reset();
+        }
+    }
+}
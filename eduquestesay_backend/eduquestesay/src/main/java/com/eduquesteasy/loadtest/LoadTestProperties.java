@@ -0,0 +1,39 @@
+package com.eduquesteasy.loadtest;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Load test settings (prefix {@code eduquest.loadtest}). Rates are open-model
+ * arrivals per second, independent of how fast the server answers.
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.loadtest")
+public class LoadTestProperties {
+
+    // Empty means "this application", on its own server port
+    private String baseUrl = "";
+
+    private int warmupSeconds = 10;
+    private int durationSeconds = 60;
+
+    // Scenario name -> arrivals per second
+    private Map<String, Double> rates = new LinkedHashMap<>();
+
+    // Enroll bursts: every burstPeriodSeconds the enroll rate is multiplied for burstLengthSeconds
+    private int burstPeriodSeconds = 10;
+    private int burstLengthSeconds = 2;
+    private double burstMultiplier = 10.0;
+
+    // Arrivals beyond this many outstanding requests are counted as dropped
+    private int maxInFlight = 2_000;
+    private int requestTimeoutMs = 10_000;
+
+    private String reportDirectory = "target/loadtest";
+    private boolean exitOnFinish = true;
+}
@@ -0,0 +1,121 @@
+package com.eduquesteasy.loadtest;
+
+import com.eduquesteasy.datagen.DataGeneratorProperties;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Profile;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.net.http.HttpClient;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Runs the scripted load scenarios once the application (and the synthetic
+ * dataset) is ready, then writes a JSON report that can be compared across
+ * builds. Activated by the {@code loadtest} profile.
+ */
+@Slf4j
+@Component
+@Profile("loadtest")
+public class LoadTestRunner {
+
+    private final LoadTestProperties settings;
+    private final DataGeneratorProperties data;
+    private final ObjectMapper objectMapper;
+    private final Environment environment;
+
+    public LoadTestRunner(LoadTestProperties settings, DataGeneratorProperties data,
+                          ObjectMapper objectMapper, Environment environment) {
+        this.settings = settings;
+        this.data = data;
+        this.objectMapper = objectMapper;
+        this.environment = environment;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady(ApplicationReadyEvent event) {
+        Thread thread = new Thread(() -> runAndReport(event.getApplicationContext()), "loadtest");
+        thread.setDaemon(false);
+        thread.start();
+    }
+
+    private void runAndReport(ApplicationContext context) {
+        int exitCode = 0;
+        try {
+            Map<String, Object> report = run();
+            Path file = writeReport(report);
+            log.info("Load test report written to {}", file.toAbsolutePath());
+        } catch (Exception e) {
+            exitCode = 1;
+            log.error("Load test failed", e);
+        }
+        if (settings.isExitOnFinish()) {
+            int code = exitCode;
+            System.exit(SpringApplication.exit(context, () -> code));
+        }
+    }
+
+    private Map<String, Object> run() throws Exception {
+        String baseUrl = settings.getBaseUrl().isBlank()
+                ? "http://localhost:" + environment.getProperty("local.server.port", "8099")
+                : settings.getBaseUrl();
+        HttpClient client = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(settings.getRequestTimeoutMs()))
+                .build();
+
+        ScenarioCatalog catalog = new ScenarioCatalog(baseUrl, data, settings);
+        catalog.prepare(client, objectMapper, 100);
+        List<Scenario> scenarios = catalog.scenarios();
+        List<Double> rates = new ArrayList<>(settings.getRates().values());
+
+        OpenModelLoadGenerator generator = new OpenModelLoadGenerator(client, settings.getMaxInFlight());
+        if (settings.getWarmupSeconds() > 0) {
+            log.info("Warming up for {} s against {}", settings.getWarmupSeconds(), baseUrl);
+            generator.run(scenarios, rates, settings.getWarmupSeconds() * 1000L, data.getSeed() + 1);
+        }
+
+        log.info("Running load for {} s: {}", settings.getDurationSeconds(), settings.getRates());
+        long started = System.nanoTime();
+        List<ScenarioStats> stats = generator.run(scenarios, rates, settings.getDurationSeconds() * 1000L, data.getSeed());
+        double seconds = (System.nanoTime() - started) / 1e9;
+
+        List<Map<String, Object>> rows = new ArrayList<>();
+        for (ScenarioStats scenarioStats : stats) {
+            Map<String, Object> row = scenarioStats.report(seconds);
+            rows.add(row);
+            log.info("{}", row);
+        }
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("timestamp", LocalDateTime.now().toString());
+        report.put("baseUrl", baseUrl);
+        report.put("durationSeconds", Math.round(seconds * 100.0) / 100.0);
+        report.put("rates", settings.getRates());
+        report.put("dataset", data);
+        report.put("scenarios", rows);
+        return report;
+    }
+
+    private Path writeReport(Map<String, Object> report) throws Exception {
+        Path directory = Path.of(settings.getReportDirectory());
+        Files.createDirectories(directory);
+        String stamp = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss"));
+        Path file = directory.resolve("loadtest-" + stamp + ".json");
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), report);
+        return file;
+    }
+}
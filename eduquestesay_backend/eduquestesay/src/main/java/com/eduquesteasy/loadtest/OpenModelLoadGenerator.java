@@ -0,0 +1,105 @@
+package com.eduquesteasy.loadtest;
+
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model load: requests are issued on schedule whether or not earlier ones
+ * have completed, so a slow server sees a growing queue instead of a politely
+ * slowing client. Latency is measured from the intended send time, which keeps
+ * coordinated omission out of the percentiles.
+ *
+ * Requests are sent with the non-blocking HttpClient API, so one scheduling
+ * thread can sustain thousands of outstanding requests.
+ */
+class OpenModelLoadGenerator {
+
+    private static final long TICK_NANOS = TimeUnit.MILLISECONDS.toNanos(2);
+
+    private final HttpClient client;
+    private final int maxInFlight;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    OpenModelLoadGenerator(HttpClient client, int maxInFlight) {
+        this.client = client;
+        this.maxInFlight = maxInFlight;
+    }
+
+    List<ScenarioStats> run(List<Scenario> scenarios, List<Double> rates, long durationMillis, long seed) {
+        List<ScenarioStats> stats = new ArrayList<>();
+        double[] issued = new double[scenarios.size()];
+        double[] due = new double[scenarios.size()];
+        for (Scenario scenario : scenarios) {
+            stats.add(new ScenarioStats(scenario.name()));
+        }
+
+        SplittableRandom random = new SplittableRandom(seed);
+        long start = System.nanoTime();
+        long end = start + TimeUnit.MILLISECONDS.toNanos(durationMillis);
+        long previous = start;
+
+        while (true) {
+            long now = System.nanoTime();
+            if (now >= end) {
+                break;
+            }
+            double elapsedSeconds = (now - previous) / 1e9;
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(now - start);
+            previous = now;
+
+            for (int i = 0; i < scenarios.size(); i++) {
+                Scenario scenario = scenarios.get(i);
+                due[i] += rates.get(i) * scenario.rateMultiplier(elapsedMillis) * elapsedSeconds;
+                while (issued[i] + 1 <= due[i]) {
+                    issued[i]++;
+                    fire(scenario.nextRequest(random), stats.get(i), now);
+                }
+            }
+            LockSupport.parkNanos(TICK_NANOS);
+        }
+
+        awaitInFlight(TimeUnit.SECONDS.toNanos(30));
+        return stats;
+    }
+
+    private void fire(HttpRequest request, ScenarioStats stats, long intendedNanos) {
+        if (inFlight.get() >= maxInFlight) {
+            stats.recordDropped();
+            return;
+        }
+        inFlight.incrementAndGet();
+        client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                .whenComplete((response, error) -> {
+                    long micros = TimeUnit.NANOSECONDS.toMicros(System.nanoTime() - intendedNanos);
+                    if (error != null) {
+                        stats.recordFailure(micros, describe(error));
+                    } else if (response.statusCode() >= 400) {
+                        stats.recordFailure(micros, "HTTP " + response.statusCode());
+                    } else {
+                        stats.recordSuccess(micros);
+                    }
+                    inFlight.decrementAndGet();
+                });
+    }
+
+    private void awaitInFlight(long maxWaitNanos) {
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (inFlight.get() > 0 && System.nanoTime() < deadline) {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(10));
+        }
+    }
+
+    private static String describe(Throwable error) {
+        Throwable cause = error instanceof CompletionException && error.getCause() != null ? error.getCause() : error;
+        return cause instanceof HttpTimeoutException ? "timeout" : cause.getClass().getSimpleName();
+    }
+}
@@ -0,0 +1,19 @@
+package com.eduquesteasy.loadtest;
+
+import java.net.http.HttpRequest;
+import java.util.SplittableRandom;
+
+/**
+ * One kind of user traffic: builds the next request to send.
+ */
+interface Scenario {
+
+    String name();
+
+    HttpRequest nextRequest(SplittableRandom random);
+
+    // Arrival rate multiplier at the given offset into the run (1.0 = steady)
+    default double rateMultiplier(long elapsedMillis) {
+        return 1.0;
+    }
+}
@@ -0,0 +1,184 @@
+package com.eduquesteasy.loadtest;
+
+import com.eduquesteasy.datagen.DataGeneratorProperties;
+import com.eduquesteasy.datagen.SyntheticDataGenerator;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.net.URI;
+import java.net.URLEncoder;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The scripted scenarios, driven against a dataset produced by the
+ * {@code datagen} profile (ids and emails follow its naming scheme).
+ */
+@Slf4j
+class ScenarioCatalog {
+
+    private final String baseUrl;
+    private final DataGeneratorProperties data;
+    private final LoadTestProperties settings;
+    private final Duration timeout;
+
+    // (studentEmail, courseId) pairs that exist, for progress pings
+    private final List<String[]> enrollmentPairs = new ArrayList<>();
+    private final AtomicLong newStudents = new AtomicLong();
+
+    ScenarioCatalog(String baseUrl, DataGeneratorProperties data, LoadTestProperties settings) {
+        this.baseUrl = baseUrl;
+        this.data = data;
+        this.settings = settings;
+        this.timeout = Duration.ofMillis(settings.getRequestTimeoutMs());
+    }
+
+    /**
+     * Samples existing enrollments so progress pings hit real rows.
+     */
+    void prepare(HttpClient client, ObjectMapper objectMapper, int studentsToSample) throws Exception {
+        SplittableRandom random = new SplittableRandom(data.getSeed());
+        for (int i = 0; i < studentsToSample && enrollmentPairs.size() < 5_000; i++) {
+            String email = SyntheticDataGenerator.studentEmail(1 + random.nextInt(data.getStudents()));
+            HttpResponse<String> response = client.send(
+                    get("/api/courses/get/enrollment/courses/" + encode(email)), HttpResponse.BodyHandlers.ofString());
+            if (response.statusCode() != 200) {
+                continue;
+            }
+            for (JsonNode course : objectMapper.readTree(response.body())) {
+                enrollmentPairs.add(new String[]{email, course.path("id").asText()});
+            }
+        }
+        log.info("Load test prepared with {} sampled enrollments", enrollmentPairs.size());
+    }
+
+    List<Scenario> scenarios() {
+        List<Scenario> scenarios = new ArrayList<>();
+        for (Map.Entry<String, Double> entry : settings.getRates().entrySet()) {
+            scenarios.add(switch (entry.getKey()) {
+                case "student-browsing" -> scenario("student-browsing", this::studentBrowsing);
+                case "enroll-burst" -> burstScenario("enroll-burst", this::enroll);
+                case "progress-ping-storm" -> scenario("progress-ping-storm", this::progressPing);
+                case "teacher-dashboard" -> scenario("teacher-dashboard", this::teacherDashboard);
+                default -> throw new IllegalArgumentException("Unknown load test scenario: " + entry.getKey());
+            });
+        }
+        return scenarios;
+    }
+
+    // -----------------------
+    // SCENARIOS
+    // -----------------------
+
+    private HttpRequest studentBrowsing(SplittableRandom random) {
+        int pick = random.nextInt(100);
+        if (pick < 40) {
+            return get("/api/courses/" + randomCourse(random));
+        }
+        if (pick < 65) {
+            return get("/api/lessons/course/" + randomCourse(random));
+        }
+        if (pick < 85) {
+            String category = SyntheticDataGenerator.CATEGORIES.get(random.nextInt(SyntheticDataGenerator.CATEGORIES.size()));
+            return get("/api/courses/category/" + encode(category));
+        }
+        if (pick < 98) {
+            return get("/api/courses/search?title=" + encode("Course #" + random.nextInt(100)));
+        }
+        return get("/api/courses");
+    }
+
+    private HttpRequest enroll(SplittableRandom random) {
+        String email = "loadtest" + newStudents.incrementAndGet() + "@loadtest.eduquest.com";
+        return send("POST", "/api/enrollments/enroll?studentEmail=" + encode(email)
+                + "&courseId=" + randomCourse(random));
+    }
+
+    private HttpRequest progressPing(SplittableRandom random) {
+        if (enrollmentPairs.isEmpty()) {
+            return get("/api/enrollments/student/" + encode(SyntheticDataGenerator.studentEmail(1)));
+        }
+        String[] pair = enrollmentPairs.get(random.nextInt(enrollmentPairs.size()));
+        return send("PUT", "/api/enrollments/progress?studentEmail=" + encode(pair[0])
+                + "&courseId=" + pair[1] + "&progress=" + random.nextInt(101));
+    }
+
+    private HttpRequest teacherDashboard(SplittableRandom random) {
+        String teacher = encode(SyntheticDataGenerator.teacherEmail(1 + random.nextInt(data.getTeachers())));
+        return random.nextInt(3) == 0
+                ? get("/api/teacher/" + teacher + "/analytics")
+                : get("/api/teacher/dashboard/" + teacher);
+    }
+
+    // -----------------------
+    // HELPERS
+    // -----------------------
+
+    private int randomCourse(SplittableRandom random) {
+        return 1 + random.nextInt(data.getCourses());
+    }
+
+    private HttpRequest get(String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path)).timeout(timeout).GET().build();
+    }
+
+    private HttpRequest send(String method, String path) {
+        return HttpRequest.newBuilder(URI.create(baseUrl + path))
+                .timeout(timeout)
+                .method(method, HttpRequest.BodyPublishers.noBody())
+                .build();
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    private interface RequestFactory {
+        HttpRequest next(SplittableRandom random);
+    }
+
+    private static Scenario scenario(String name, RequestFactory factory) {
+        return new Scenario() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public HttpRequest nextRequest(SplittableRandom random) {
+                return factory.next(random);
+            }
+        };
+    }
+
+    private Scenario burstScenario(String name, RequestFactory factory) {
+        long periodMs = settings.getBurstPeriodSeconds() * 1000L;
+        long burstMs = settings.getBurstLengthSeconds() * 1000L;
+        double multiplier = settings.getBurstMultiplier();
+        return new Scenario() {
+            @Override
+            public String name() {
+                return name;
+            }
+
+            @Override
+            public HttpRequest nextRequest(SplittableRandom random) {
+                return factory.next(random);
+            }
+
+            @Override
+            public double rateMultiplier(long elapsedMillis) {
+                return periodMs > 0 && elapsedMillis % periodMs < burstMs ? multiplier : 1.0;
+            }
+        };
+    }
+}
@@ -0,0 +1,76 @@
+package com.eduquesteasy.loadtest;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Outcome counters and latency histogram for one scenario.
+ */
+class ScenarioStats {
+
+    private final String name;
+    private final LatencyHistogram latency = new LatencyHistogram();
+    private final LongAdder succeeded = new LongAdder();
+    private final LongAdder failed = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final Map<String, LongAdder> failures = new ConcurrentHashMap<>();
+
+    ScenarioStats(String name) {
+        this.name = name;
+    }
+
+    String name() {
+        return name;
+    }
+
+    void recordSuccess(long micros) {
+        latency.record(micros);
+        succeeded.increment();
+    }
+
+    void recordFailure(long micros, String reason) {
+        latency.record(micros);
+        failed.increment();
+        failures.computeIfAbsent(reason, k -> new LongAdder()).increment();
+    }
+
+    void recordDropped() {
+        dropped.increment();
+    }
+
+    Map<String, Object> report(double seconds) {
+        long ok = succeeded.sum();
+        long errors = failed.sum() + dropped.sum();
+        long attempted = ok + errors;
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("scenario", name);
+        report.put("requests", attempted);
+        report.put("throughputPerSecond", round(ok / Math.max(seconds, 1e-3)));
+        report.put("errors", errors);
+        report.put("dropped", dropped.sum());
+        report.put("errorRate", attempted == 0 ? 0.0 : round(errors * 100.0 / attempted));
+        report.put("meanMs", round(latency.meanMicros() / 1000.0));
+        report.put("p50Ms", millis(latency.percentileMicros(50)));
+        report.put("p90Ms", millis(latency.percentileMicros(90)));
+        report.put("p99Ms", millis(latency.percentileMicros(99)));
+        report.put("p999Ms", millis(latency.percentileMicros(99.9)));
+        report.put("maxMs", millis(latency.percentileMicros(100)));
+
+        Map<String, Long> reasons = new TreeMap<>();
+        failures.forEach((reason, count) -> reasons.put(reason, count.sum()));
+        report.put("failures", reasons);
+        return report;
+    }
+
+    private static double millis(long micros) {
+        return round(micros / 1000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
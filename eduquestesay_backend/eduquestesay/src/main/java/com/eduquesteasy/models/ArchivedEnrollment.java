@@ -0,0 +1,39 @@
+package com.eduquesteasy.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+
+/**
+ * A cold enrollment moved out of the hot table by the archiver. Rows keep the
+ * id they had in enrollments and are read-only; the archiver moves them back
+ * when the student touches the enrollment again.
+ */
+@Data
+@Entity
+@Immutable
+@Table(name = "enrollments_archive", indexes = {
+        @Index(name = "idx_enrollments_archive_student", columnList = "student_id, course_id"),
+        @Index(name = "idx_enrollments_archive_course", columnList = "course_id")
+})
+public class ArchivedEnrollment {
+
+    @Id
+    private Long id;
+
+    private Long courseId;
+
+    private String studentEmail;
+
+    private Long studentId;
+
+    private LocalDateTime enrollmentDate;
+
+    private Double progress;
+
+    private long version;
+
+    private LocalDateTime archivedAt;
+}
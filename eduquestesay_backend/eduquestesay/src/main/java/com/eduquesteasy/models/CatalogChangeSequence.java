@@ -0,0 +1,22 @@
+package com.eduquesteasy.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * Single-row counter behind catalog change versions. Writers lock the row, so
+ * versions become visible in the order they were handed out.
+ */
+@Data
+@Entity
+@Table(name = "catalog_change_seq")
+public class CatalogChangeSequence {
+
+    @Id
+    private Integer id;
+
+    private long currentVersion;
+
+    // Tombstones up to this version have been purged
+    private long purgedThrough;
+}
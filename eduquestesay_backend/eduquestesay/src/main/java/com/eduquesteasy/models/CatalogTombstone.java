@@ -0,0 +1,30 @@
+package com.eduquesteasy.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * Marks a deleted course, lesson or news item so delta sync clients can drop it.
+ */
+@Data
+@Entity
+@Table(name = "catalog_tombstones", indexes = {
+        @Index(name = "idx_tombstones_change_version", columnList = "change_version")
+})
+public class CatalogTombstone {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(length = 16, nullable = false)
+    private String entityType;
+
+    private long entityId;
+
+    private long changeVersion;
+
+    private LocalDateTime deletedAt;
+}
@@ -1,14 +1,35 @@
 package com.eduquesteasy.models;
 
+import com.eduquesteasy.dimensions.CategoryConverter;
+import com.eduquesteasy.dimensions.DimensionListener;
+import com.eduquesteasy.dimensions.LevelConverter;
+import com.eduquesteasy.identity.IdentityListener;
+import com.eduquesteasy.ratings.RatingListener;
+import com.eduquesteasy.responsecache.JsonCacheInvalidationListener;
+import com.eduquesteasy.sync.CatalogVersionListener;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
 import com.fasterxml.jackson.annotation.JsonManagedReference;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.Cache;
+import org.hibernate.annotations.CacheConcurrencyStrategy;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.util.List;
 
 @Data
 @Entity
-@Table(name = "courses")
+@Cacheable
+@Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+@Table(name = "courses", indexes = {
+        @Index(name = "idx_courses_change_version", columnList = "change_version"),
+        @Index(name = "idx_courses_teacher", columnList = "teacher_id"),
+        @Index(name = "idx_courses_category", columnList = "category_id"),
+        @Index(name = "idx_courses_level", columnList = "level_id")
+})
+@EntityListeners({IdentityListener.class, DimensionListener.class, RatingListener.class,
+        CatalogVersionListener.class, JsonCacheInvalidationListener.class})
 @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 
 public class Course {
@@ -18,14 +39,83 @@ public class Course {
 
     private String title;
     private String description;
+
+    // Stored as dimension ids, exposed as names; see CourseDimensions
+    @Convert(converter = CategoryConverter.class)
+    @Column(name = "category_id")
     private String category;
+
     private String imageUrl;
+
+    @Convert(converter = LevelConverter.class)
+    @Column(name = "level_id")
     private String level;
+
+    // Average of the student ratings with their count, sum and per-star distribution;
+    // maintained by CourseRatingService, never written through the entity
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
     private double rating;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long ratingCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private long ratingSum;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_1", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private long rating1;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_2", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private long rating2;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_3", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private long rating3;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_4", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private long rating4;
+
+    @ColumnDefault("0")
+    @Column(name = "rating_5", nullable = false, insertable = false, updatable = false)
+    @JsonIgnore
+    private long rating5;
+
     private int duration;
     private String teacherEmail;
 
+    // Set from teacherEmail on every write; the key every teacher lookup uses
+    @Column(name = "teacher_id")
+    private Long teacherId;
+
+    // teacherId as last read from or written to the database; see RatingListener
+    @Transient
+    @JsonIgnore
+    private Long storedTeacherId;
+
+    // Bumped on every write; see CatalogVersionListener
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeVersion;
+
+    // Optimistic lock, exposed to clients as the ETag of update endpoints
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @OneToMany(mappedBy = "course", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
     @JsonManagedReference
 
     private List<Lesson> lessons;
@@ -0,0 +1,22 @@
+package com.eduquesteasy.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A course category, stored once and referenced from courses by its id. Course
+ * keeps exposing the name; see CourseDimensions for the dictionary in between.
+ */
+@Data
+@Entity
+@Table(name = "course_categories", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_categories_name", columnNames = "name")
+})
+public class CourseCategory {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String name;
+}
@@ -0,0 +1,21 @@
+package com.eduquesteasy.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * A course level such as Beginner or Advanced; courses hold its id.
+ */
+@Data
+@Entity
+@Table(name = "course_levels", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_levels_name", columnNames = "name")
+})
+public class CourseLevel {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Integer id;
+
+    @Column(nullable = false)
+    private String name;
+}
@@ -0,0 +1,37 @@
+package com.eduquesteasy.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+import java.time.LocalDateTime;
+
+/**
+ * One student's star rating of a course; a student rates a course once and may
+ * change the rating later. Written only through CourseRatingService, which keeps
+ * the aggregates on courses and teachers in step with these rows.
+ */
+@Data
+@Entity
+@Table(name = "course_ratings", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_course_ratings_course_student", columnNames = {"course_id", "student_id"})
+}, indexes = {
+        @Index(name = "idx_course_ratings_student", columnList = "student_id")
+})
+public class CourseRating {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "course_id", nullable = false)
+    private Long courseId;
+
+    @Column(name = "student_id", nullable = false)
+    private Long studentId;
+
+    // 1 to 5
+    @Column(nullable = false)
+    private int stars;
+
+    private LocalDateTime ratedAt;
+}
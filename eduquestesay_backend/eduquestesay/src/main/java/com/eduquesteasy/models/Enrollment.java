@@ -1,13 +1,20 @@
 package com.eduquesteasy.models;
 
+import com.eduquesteasy.identity.IdentityListener;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "enrollments") // Add table name
+@Table(name = "enrollments", indexes = {
+        @Index(name = "idx_enrollments_student", columnList = "student_id, course_id"),
+        @Index(name = "idx_enrollments_course", columnList = "course_id")
+})
+@EntityListeners(IdentityListener.class)
 public class Enrollment {
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
@@ -17,9 +24,21 @@ public class Enrollment {
     private Double progress = 0.0;
 
     @ManyToOne(fetch = FetchType.LAZY)
-    @JoinColumn(name = "course_id")
+    // No foreign key: MySQL partitioned tables cannot have one (see the mysql V6 migration)
+    @JoinColumn(name = "course_id", foreignKey = @ForeignKey(ConstraintMode.NO_CONSTRAINT))
     @JsonIgnore
     private Course course;
 
     private String studentEmail;
+
+    // Set from studentEmail on every write; the key every student lookup uses.
+    // No foreign key to students, for the same reason as course_id.
+    @Column(name = "student_id")
+    private Long studentId;
+
+    // Optimistic lock, exposed to clients as the ETag of update endpoints
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
 }
\ No newline at end of file
@@ -1,15 +1,26 @@
     package com.eduquesteasy.models;
 
+    import com.eduquesteasy.responsecache.JsonCacheInvalidationListener;
+    import com.eduquesteasy.sync.CatalogVersionListener;
     import com.fasterxml.jackson.annotation.JsonBackReference;
     import com.fasterxml.jackson.annotation.JsonIgnore;
     import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
     import com.fasterxml.jackson.annotation.JsonManagedReference;
     import jakarta.persistence.*;
     import lombok.Data;
+    import org.hibernate.annotations.Cache;
+    import org.hibernate.annotations.CacheConcurrencyStrategy;
+    import org.hibernate.annotations.ColumnDefault;
 
     @Data
     @Entity
-    @Table(name = "lessons")
+    @Cacheable
+    @Cache(usage = CacheConcurrencyStrategy.READ_WRITE)
+    @Table(name = "lessons", indexes = {
+            @Index(name = "idx_lessons_change_version", columnList = "change_version"),
+            @Index(name = "idx_lessons_course_order", columnList = "course_id, order_index")
+    })
+    @EntityListeners({CatalogVersionListener.class, JsonCacheInvalidationListener.class})
     @JsonIgnoreProperties({"hibernateLazyInitializer", "handler"})
 
     public class    Lesson {
@@ -22,8 +33,14 @@
         private String content;
         private String videoUrl;
         private String pdfFile;
+        // Sparse, so a lesson can move between two others; see LessonOrderPlanner
         private int orderIndex;
 
+        // Bumped on every write; see CatalogVersionListener
+        @ColumnDefault("0")
+        @Column(nullable = false)
+        private long changeVersion;
+
         @ManyToOne
         @JoinColumn(name = "course_id")
         @JsonIgnore
@@ -1,13 +1,18 @@
 package com.eduquesteasy.models;
 
+import com.eduquesteasy.sync.CatalogVersionListener;
 import jakarta.persistence.*;
 import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
 
 import java.time.LocalDateTime;
 
 @Data
 @Entity
-@Table(name = "news")
+@Table(name = "news", indexes = {
+        @Index(name = "idx_news_change_version", columnList = "change_version")
+})
+@EntityListeners(CatalogVersionListener.class)
 public class News {
 
     @Id
@@ -26,6 +31,17 @@ public class News {
 
     private String category ;
 
+    // Bumped on every write; see CatalogVersionListener
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long changeVersion;
+
+    // Optimistic lock, exposed to clients as the ETag of update endpoints
+    @Version
+    @ColumnDefault("0")
+    @Column(nullable = false)
+    private long version;
+
     @PrePersist
     public void prePersist() {
         createdAt = LocalDateTime.now();
@@ -0,0 +1,63 @@
+package com.eduquesteasy.models;
+
+import com.eduquesteasy.events.EnrollmentEventType;
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
+
+import java.time.LocalDateTime;
+
+/**
+ * A domain event written in the same transaction as the change it describes and
+ * delivered to in-process subscribers by the outbox dispatcher afterwards.
+ */
+@Data
+@Entity
+@Table(name = "outbox_events", indexes = {
+        @Index(name = "idx_outbox_pending", columnList = "dispatched_at, failed_at, id")
+})
+public class OutboxEvent {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    // Plain varchar rather than a MySQL enum, so new event types need no migration
+    @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.VARCHAR)
+    @Column(length = 32, nullable = false)
+    private EnrollmentEventType type;
+
+    private Long courseId;
+
+    private Long enrollmentId;
+
+    private String studentEmail;
+
+    private Double oldProgress;
+
+    private Double newProgress;
+
+    private LocalDateTime enrollmentDate;
+
+    private LocalDateTime occurredAt;
+
+    private LocalDateTime dispatchedAt;
+
+    private LocalDateTime failedAt;
+
+    private int attempts;
+
+    @Column(length = 500)
+    private String lastError;
+
+    // Subscribers that already accepted a parked event; a retry skips them
+    @Column(length = 500)
+    private String deliveredTo;
+
+    @PrePersist
+    public void prePersist() {
+        occurredAt = LocalDateTime.now();
+    }
+}
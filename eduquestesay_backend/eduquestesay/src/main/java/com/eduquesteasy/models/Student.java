@@ -0,0 +1,22 @@
+package com.eduquesteasy.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+
+/**
+ * The numeric identity of a student. Enrollments are keyed by this id; the email
+ * stays the public handle and is resolved through IdentityResolver.
+ */
+@Data
+@Entity
+@Table(name = "students", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_students_email", columnNames = "email")
+})
+public class Student {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+}
@@ -0,0 +1,32 @@
+package com.eduquesteasy.models;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import org.hibernate.annotations.ColumnDefault;
+
+/**
+ * The numeric identity of a teacher. Courses are keyed by this id; the email
+ * stays the public handle and is resolved through IdentityResolver.
+ */
+@Data
+@Entity
+@Table(name = "teachers", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_teachers_email", columnNames = "email")
+})
+public class Teacher {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(nullable = false)
+    private String email;
+
+    // Student ratings over all of the teacher's courses, maintained by CourseRatingService
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long ratingCount;
+
+    @ColumnDefault("0")
+    @Column(nullable = false, insertable = false, updatable = false)
+    private long ratingSum;
+}
@@ -0,0 +1,274 @@
+package com.eduquesteasy.ratings;
+
+import com.eduquesteasy.facets.CourseFacetService;
+import com.eduquesteasy.identity.IdentityResolver;
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.repositories.ArchivedEnrollmentRepository;
+import com.eduquesteasy.repositories.EnrollmentRepository;
+import com.eduquesteasy.responsecache.JsonResponseCache;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * Student ratings of courses. Every rating write updates, in its own
+ * transaction, the rating row, the course's count, sum, per-star distribution
+ * and average, and its teacher's count and sum, each with a single relative
+ * UPDATE. Reads of a rating and sorting by rating therefore only ever look at
+ * the courses and teachers rows, never at course_ratings.
+ *
+ * Locks are taken in the order rating row, course row, teacher row. The course
+ * aggregate columns are read-only to JPA, so saving a course never overwrites
+ * them; the rating's change is not a catalog change and leaves the course's
+ * change version alone.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class CourseRatingService {
+
+    public static final int MIN_STARS = 1;
+    public static final int MAX_STARS = 5;
+
+    private static final String AGGREGATE_SQL = "SELECT id, teacher_id, rating, rating_count, "
+            + "rating_1, rating_2, rating_3, rating_4, rating_5 FROM courses WHERE id = ?";
+
+    private static final RowMapper<CourseAggregate> AGGREGATE_MAPPER = (rs, rowNum) -> {
+        Map<Integer, Long> distribution = new LinkedHashMap<>();
+        for (int stars = MIN_STARS; stars <= MAX_STARS; stars++) {
+            distribution.put(stars, rs.getLong(4 + stars));
+        }
+        long teacherId = rs.getLong(2);
+        return new CourseAggregate(rs.wasNull() ? null : teacherId,
+                new RatingSummary(rs.getLong(1), rs.getLong(4), rs.getDouble(3), distribution));
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+    private final IdentityResolver identityResolver;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ArchivedEnrollmentRepository archivedEnrollmentRepository;
+    private final CourseFacetService courseFacetService;
+    private final JsonResponseCache jsonResponseCache;
+    private final EntityManagerFactory entityManagerFactory;
+
+    public CourseRatingService(JdbcTemplate jdbcTemplate, IdentityResolver identityResolver,
+                               EnrollmentRepository enrollmentRepository,
+                               ArchivedEnrollmentRepository archivedEnrollmentRepository,
+                               CourseFacetService courseFacetService, JsonResponseCache jsonResponseCache,
+                               EntityManagerFactory entityManagerFactory) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.identityResolver = identityResolver;
+        this.enrollmentRepository = enrollmentRepository;
+        this.archivedEnrollmentRepository = archivedEnrollmentRepository;
+        this.courseFacetService = courseFacetService;
+        this.jsonResponseCache = jsonResponseCache;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    /**
+     * The rating aggregate of a course, or empty if there is no such course.
+     */
+    public Optional<RatingSummary> getCourseRating(Long courseId) {
+        return jdbcTemplate.query(AGGREGATE_SQL, AGGREGATE_MAPPER, courseId).stream()
+                .findFirst()
+                .map(CourseAggregate::summary);
+    }
+
+    /**
+     * Ratings over all of a teacher's courses: their count and average (no distribution).
+     */
+    public RatingSummary getTeacherRating(Long teacherId) {
+        List<RatingSummary> found = jdbcTemplate.query(
+                "SELECT rating_count, rating_sum FROM teachers WHERE id = ?",
+                (rs, rowNum) -> {
+                    long count = rs.getLong(1);
+                    return new RatingSummary(0, count, count == 0 ? 0.0 : (double) rs.getLong(2) / count, Map.of());
+                }, teacherId);
+        return found.isEmpty() ? new RatingSummary(0, 0, 0.0, Map.of()) : found.get(0);
+    }
+
+    /**
+     * Record a student's rating of a course, replacing their earlier one, and return
+     * the course's new aggregate; empty if there is no such course. Only students
+     * enrolled in the course, now or in the archive, can rate it.
+     */
+    @Transactional
+    public Optional<RatingSummary> rate(Long courseId, String studentEmail, int stars) {
+        if (stars < MIN_STARS || stars > MAX_STARS) {
+            throw new IllegalArgumentException("stars must be between " + MIN_STARS + " and " + MAX_STARS);
+        }
+        Integer courses = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM courses WHERE id = ?", Integer.class, courseId);
+        if (courses == null || courses == 0) {
+            return Optional.empty();
+        }
+        long studentId = identityResolver.findStudentId(studentEmail)
+                .filter(id -> enrollmentRepository.existsByStudentIdAndCourseId(id, courseId)
+                        || archivedEnrollmentRepository.existsByStudentIdAndCourseId(id, courseId))
+                .orElseThrow(() -> new IllegalArgumentException(
+                        "Only students enrolled in course " + courseId + " can rate it"));
+
+        Integer previous = saveRating(courseId, studentId, stars);
+        if (previous != null && previous == stars) {
+            return getCourseRating(courseId);
+        }
+
+        long countDelta = previous == null ? 1 : 0;
+        long sumDelta = stars - (previous == null ? 0 : previous);
+        // The average comes first: MySQL assigns left to right, so later assignments would see the new counts
+        int updated = jdbcTemplate.update("UPDATE courses SET "
+                        + "rating = (rating_sum + ?) * 1.0 / (rating_count + ?), "
+                        + "rating_count = rating_count + ?, rating_sum = rating_sum + ?, "
+                        + starColumn(stars) + " = " + starColumn(stars) + " + 1"
+                        + (previous == null ? "" : ", " + starColumn(previous) + " = " + starColumn(previous) + " - 1")
+                        + " WHERE id = ?",
+                sumDelta, countDelta, countDelta, sumDelta, courseId);
+        if (updated == 0) {
+            throw new IllegalStateException("Course " + courseId + " was deleted while it was being rated");
+        }
+
+        // Locking read: sees the teacher the course has now, even past this transaction's snapshot
+        CourseAggregate aggregate = jdbcTemplate.queryForObject(AGGREGATE_SQL + " FOR UPDATE", AGGREGATE_MAPPER, courseId);
+        if (aggregate.teacherId() != null) {
+            addToTeacher(aggregate.teacherId(), countDelta, sumDelta);
+        }
+
+        RatingSummary summary = aggregate.summary();
+        courseFacetService.courseRated(courseId);
+        jsonResponseCache.invalidate(JsonResponseCache.COURSES);
+        evictCourseAfterCommit(courseId);
+        return Optional.of(summary);
+    }
+
+    /**
+     * Move a course's ratings to its new teacher when the course changes hands.
+     * Called while the course is flushed, before its row is updated, and only
+     * when its teacher id differs from the one it was read with.
+     */
+    @Transactional
+    public void courseUpdated(Long courseId, Long teacherId) {
+        if (courseId == null) {
+            return;
+        }
+        jdbcTemplate.query("SELECT teacher_id, rating_count, rating_sum FROM courses WHERE id = ? FOR UPDATE", rs -> {
+            long previousTeacher = rs.getLong(1);
+            boolean hadTeacher = !rs.wasNull();
+            long count = rs.getLong(2);
+            long sum = rs.getLong(3);
+            if (count == 0 || (hadTeacher && Objects.equals(previousTeacher, teacherId))) {
+                return;
+            }
+            if (hadTeacher) {
+                addToTeacher(previousTeacher, -count, -sum);
+            }
+            if (teacherId != null) {
+                addToTeacher(teacherId, count, sum);
+            }
+        }, courseId);
+    }
+
+    /**
+     * Drop a course's ratings and take them out of its teacher's aggregate.
+     * Called when the course is removed, before its row is deleted.
+     */
+    @Transactional
+    public void courseDeleted(Long courseId) {
+        jdbcTemplate.query("SELECT teacher_id, rating_count, rating_sum FROM courses WHERE id = ? FOR UPDATE", rs -> {
+            long teacherId = rs.getLong(1);
+            if (!rs.wasNull() && rs.getLong(2) > 0) {
+                addToTeacher(teacherId, -rs.getLong(2), -rs.getLong(3));
+            }
+        }, courseId);
+        jdbcTemplate.update("DELETE FROM course_ratings WHERE course_id = ?", courseId);
+    }
+
+    /**
+     * Recompute every course and teacher aggregate from course_ratings, for rows
+     * written behind this service's back (bulk loads). Scans the whole table.
+     */
+    @Transactional
+    public void rebuildAggregates() {
+        StringBuilder courses = new StringBuilder("UPDATE courses SET "
+                + "rating_count = (SELECT COUNT(*) FROM course_ratings r WHERE r.course_id = courses.id), "
+                + "rating_sum = (SELECT COALESCE(SUM(r.stars), 0) FROM course_ratings r WHERE r.course_id = courses.id)");
+        for (int stars = MIN_STARS; stars <= MAX_STARS; stars++) {
+            courses.append(", ").append(starColumn(stars))
+                    .append(" = (SELECT COUNT(*) FROM course_ratings r WHERE r.course_id = courses.id AND r.stars = ")
+                    .append(stars).append(')');
+        }
+        jdbcTemplate.update(courses.toString());
+        jdbcTemplate.update("UPDATE courses SET rating = CASE WHEN rating_count = 0 THEN 0 "
+                + "ELSE rating_sum * 1.0 / rating_count END");
+        jdbcTemplate.update("UPDATE teachers SET "
+                + "rating_count = (SELECT COALESCE(SUM(c.rating_count), 0) FROM courses c WHERE c.teacher_id = teachers.id), "
+                + "rating_sum = (SELECT COALESCE(SUM(c.rating_sum), 0) FROM courses c WHERE c.teacher_id = teachers.id)");
+        log.info("Rebuilt course and teacher rating aggregates");
+    }
+
+    // Inserts or replaces the student's rating and returns the stars it had before, if any
+    private Integer saveRating(long courseId, long studentId, int stars) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        Integer previous = lockedStars(courseId, studentId);
+        if (previous == null) {
+            try {
+                jdbcTemplate.update("INSERT INTO course_ratings (course_id, student_id, stars, rated_at) VALUES (?, ?, ?, ?)",
+                        courseId, studentId, stars, now);
+                return null;
+            } catch (DuplicateKeyException e) {
+                // Rated concurrently and committed; a locking read sees it past this transaction's snapshot
+                previous = lockedStars(courseId, studentId);
+                if (previous == null) {
+                    throw e;
+                }
+            }
+        }
+        if (previous != stars) {
+            jdbcTemplate.update("UPDATE course_ratings SET stars = ?, rated_at = ? WHERE course_id = ? AND student_id = ?",
+                    stars, now, courseId, studentId);
+        }
+        return previous;
+    }
+
+    private Integer lockedStars(long courseId, long studentId) {
+        List<Integer> found = jdbcTemplate.queryForList(
+                "SELECT stars FROM course_ratings WHERE course_id = ? AND student_id = ? FOR UPDATE",
+                Integer.class, courseId, studentId);
+        return found.isEmpty() ? null : found.get(0);
+    }
+
+    private void addToTeacher(long teacherId, long count, long sum) {
+        jdbcTemplate.update("UPDATE teachers SET rating_count = rating_count + ?, rating_sum = rating_sum + ? WHERE id = ?",
+                count, sum, teacherId);
+    }
+
+    // Written behind JPA's back, so the second-level cache forgets the course once the change is visible
+    private void evictCourseAfterCommit(Long courseId) {
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                entityManagerFactory.getCache().evict(Course.class, courseId);
+            }
+        });
+    }
+
+    // Validated stars only, so the column name is never built from input
+    private static String starColumn(int stars) {
+        return "rating_" + stars;
+    }
+
+    private record CourseAggregate(Long teacherId, RatingSummary summary) {
+    }
+}
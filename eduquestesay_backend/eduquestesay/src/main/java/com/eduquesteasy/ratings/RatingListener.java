@@ -0,0 +1,47 @@
+package com.eduquesteasy.ratings;
+
+import com.eduquesteasy.models.Course;
+import jakarta.persistence.PostLoad;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostUpdate;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.Objects;
+
+/**
+ * Keeps the teacher rating aggregates right when a course changes teacher or is
+ * deleted. Listed after IdentityListener, so the course's teacher id is current.
+ * The teacher id the row holds is remembered on the entity, so an update that
+ * keeps the teacher costs no query.
+ * Instantiated by Hibernate through Spring, which is why the service is looked
+ * up lazily.
+ */
+public class RatingListener {
+
+    private final ObjectProvider<CourseRatingService> ratings;
+
+    public RatingListener(ObjectProvider<CourseRatingService> ratings) {
+        this.ratings = ratings;
+    }
+
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    public void stored(Course course) {
+        course.setStoredTeacherId(course.getTeacherId());
+    }
+
+    @PreUpdate
+    public void updated(Course course) {
+        if (!Objects.equals(course.getStoredTeacherId(), course.getTeacherId())) {
+            ratings.getObject().courseUpdated(course.getId(), course.getTeacherId());
+        }
+    }
+
+    @PreRemove
+    public void removed(Course course) {
+        ratings.getObject().courseDeleted(course.getId());
+    }
+}
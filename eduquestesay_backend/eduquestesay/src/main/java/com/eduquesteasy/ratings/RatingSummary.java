@@ -0,0 +1,10 @@
+package com.eduquesteasy.ratings;
+
+import java.util.Map;
+
+/**
+ * The rating aggregate of a course: how many students rated it, their average
+ * and how many gave each number of stars, 1 to 5.
+ */
+public record RatingSummary(long courseId, long count, double average, Map<Integer, Long> distribution) {
+}
@@ -0,0 +1,338 @@
+package com.eduquesteasy.recommendations;
+
+import java.util.*;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Sparse item-item co-occurrence matrix over enrollments: for every pair of courses
+ * taken by the same student, how many students took both. Each enrollment adds the
+ * student's other k courses to two rows, so maintenance is O(k) per event instead of
+ * a scan over the enrollments table.
+ *
+ * Enroll and withdraw are idempotent (the student's course set is kept here), which
+ * lets the initial load overlap with live events. Reads share a read lock, so
+ * recommendations never see a row mid-update.
+ */
+public class CoEnrollmentIndex {
+
+    private static final long[] NO_COURSES = new long[0];
+
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // courseId -> (other courseId -> students enrolled in both)
+    private final LongObjectHashMap<LongIntHashMap> cooccurrence = new LongObjectHashMap<>(1024);
+    // courseId -> students enrolled
+    private final LongIntHashMap courseCounts = new LongIntHashMap(1024);
+    // studentId -> sorted course ids
+    private final LongObjectHashMap<long[]> studentCourses = new LongObjectHashMap<>(1024);
+
+    public boolean enroll(long student, long courseId) {
+        lock.writeLock().lock();
+        try {
+            return addEnrollment(student, courseId);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    public boolean withdraw(long student, long courseId) {
+        lock.writeLock().lock();
+        try {
+            long[] courses = coursesOf(student);
+            int index = Arrays.binarySearch(courses, courseId);
+            if (index < 0) {
+                return false;
+            }
+            long[] remaining = without(courses, index);
+            for (long other : remaining) {
+                addPair(courseId, other, -1);
+                addPair(other, courseId, -1);
+            }
+            courseCounts.addTo(courseId, -1);
+            if (remaining.length == 0) {
+                studentCourses.remove(student);
+            } else {
+                studentCourses.put(student, remaining);
+            }
+            return true;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Applies a batch of (student, course) rows from the bulk load under one lock acquisition.
+     */
+    public void enrollAll(long[] studentIds, long[] courseIds, int count) {
+        lock.writeLock().lock();
+        try {
+            for (int i = 0; i < count; i++) {
+                addEnrollment(studentIds[i], courseIds[i]);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Drops a deleted course from every row and every student.
+     */
+    public void removeCourse(long courseId) {
+        lock.writeLock().lock();
+        try {
+            LongIntHashMap row = cooccurrence.get(courseId);
+            if (row != null) {
+                row.forEach((other, count) -> {
+                    LongIntHashMap otherRow = cooccurrence.get(other);
+                    if (otherRow != null) {
+                        otherRow.remove(courseId);
+                    }
+                });
+                cooccurrence.remove(courseId);
+            }
+            courseCounts.remove(courseId);
+            // Replacing a value in place is safe while iterating; removals wait until after
+            List<Long> emptied = new ArrayList<>();
+            studentCourses.forEach((student, courses) -> {
+                int index = Arrays.binarySearch(courses, courseId);
+                if (index < 0) {
+                    return;
+                }
+                if (courses.length == 1) {
+                    emptied.add(student);
+                } else {
+                    studentCourses.put(student, without(courses, index));
+                }
+            });
+            for (long student : emptied) {
+                studentCourses.remove(student);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Courses most often taken together with {@code courseId}, scored by cosine
+     * similarity so that globally popular courses do not dominate every list.
+     */
+    public List<CourseRecommendation> similarCourses(long courseId, int limit) {
+        lock.readLock().lock();
+        try {
+            LongIntHashMap row = cooccurrence.get(courseId);
+            int sourceCount = courseCounts.get(courseId);
+            if (row == null || sourceCount == 0) {
+                return List.of();
+            }
+            TopN top = new TopN(limit);
+            row.forEach((other, together) -> {
+                int otherCount = courseCounts.get(other);
+                if (otherCount > 0) {
+                    top.offer(other, together / Math.sqrt((double) sourceCount * otherCount), together);
+                }
+            });
+            return top.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Courses the student has not taken, by how often they were taken together with
+     * the student's courses, normalized by their overall popularity.
+     */
+    public List<CourseRecommendation> forStudent(long student, int limit) {
+        lock.readLock().lock();
+        try {
+            long[] courses = studentCourses.get(student);
+            if (courses == null) {
+                return List.of();
+            }
+            LongIntHashMap candidates = new LongIntHashMap(64);
+            for (long course : courses) {
+                LongIntHashMap row = cooccurrence.get(course);
+                if (row != null) {
+                    row.forEach((other, together) -> {
+                        if (Arrays.binarySearch(courses, other) < 0) {
+                            candidates.addTo(other, together);
+                        }
+                    });
+                }
+            }
+            TopN top = new TopN(limit);
+            candidates.forEach((other, together) -> {
+                int otherCount = courseCounts.get(other);
+                if (otherCount > 0) {
+                    top.offer(other, together / Math.sqrt(otherCount), together);
+                }
+            });
+            return top.toList();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Drops empty rows and shrinks rows whose tables outgrew their entries after
+     * withdrawals. Works in batches so writers are never blocked for long.
+     *
+     * @return {rows removed, rows shrunk}
+     */
+    public int[] compact(int batchSize) {
+        long[] courseIds;
+        lock.readLock().lock();
+        try {
+            courseIds = cooccurrence.keys();
+        } finally {
+            lock.readLock().unlock();
+        }
+
+        int removed = 0;
+        int shrunk = 0;
+        for (int start = 0; start < courseIds.length; start += batchSize) {
+            lock.writeLock().lock();
+            try {
+                for (int i = start; i < Math.min(start + batchSize, courseIds.length); i++) {
+                    LongIntHashMap row = cooccurrence.get(courseIds[i]);
+                    if (row == null) {
+                        continue;
+                    }
+                    if (row.size() == 0) {
+                        cooccurrence.remove(courseIds[i]);
+                        removed++;
+                    } else if (row.trim()) {
+                        shrunk++;
+                    }
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        lock.writeLock().lock();
+        try {
+            cooccurrence.trim();
+            courseCounts.trim();
+        } finally {
+            lock.writeLock().unlock();
+        }
+        return new int[]{removed, shrunk};
+    }
+
+    /**
+     * Approximate heap usage of the index, assuming compressed object pointers.
+     */
+    public Map<String, Object> memoryReport() {
+        lock.readLock().lock();
+        try {
+            long[] rowBytes = new long[1];
+            long[] entries = new long[1];
+            long[] slots = new long[1];
+            cooccurrence.forEach((courseId, row) -> {
+                rowBytes[0] += row.estimatedBytes();
+                entries[0] += row.size();
+                slots[0] += row.capacity();
+            });
+
+            long[] studentBytes = {studentCourses.estimatedBytes()};
+            long[] studentEnrollments = new long[1];
+            studentCourses.forEach((student, courses) -> {
+                studentBytes[0] += 16 + 8L * courses.length;
+                studentEnrollments[0] += courses.length;
+            });
+
+            long matrixBytes = cooccurrence.estimatedBytes() + rowBytes[0];
+            Map<String, Object> report = new LinkedHashMap<>();
+            report.put("courses", cooccurrence.size());
+            report.put("pairEntries", entries[0]);
+            report.put("pairSlots", slots[0]);
+            report.put("rowLoadFactor", slots[0] == 0 ? 0.0 : Math.round(entries[0] * 1000.0 / slots[0]) / 1000.0);
+            report.put("students", studentCourses.size());
+            report.put("enrollments", studentEnrollments[0]);
+            report.put("matrixBytes", matrixBytes);
+            report.put("courseCountBytes", courseCounts.estimatedBytes());
+            report.put("studentIndexBytes", studentBytes[0]);
+            report.put("totalBytes", matrixBytes + courseCounts.estimatedBytes() + studentBytes[0]);
+            return report;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    private boolean addEnrollment(long student, long courseId) {
+        long[] courses = coursesOf(student);
+        int index = Arrays.binarySearch(courses, courseId);
+        if (index >= 0) {
+            return false;
+        }
+        for (long other : courses) {
+            addPair(courseId, other, 1);
+            addPair(other, courseId, 1);
+        }
+        courseCounts.addTo(courseId, 1);
+
+        int insertAt = -index - 1;
+        long[] updated = new long[courses.length + 1];
+        System.arraycopy(courses, 0, updated, 0, insertAt);
+        updated[insertAt] = courseId;
+        System.arraycopy(courses, insertAt, updated, insertAt + 1, courses.length - insertAt);
+        studentCourses.put(student, updated);
+        return true;
+    }
+
+    private long[] coursesOf(long student) {
+        long[] courses = studentCourses.get(student);
+        return courses != null ? courses : NO_COURSES;
+    }
+
+    private static long[] without(long[] courses, int index) {
+        long[] remaining = new long[courses.length - 1];
+        System.arraycopy(courses, 0, remaining, 0, index);
+        System.arraycopy(courses, index + 1, remaining, index, remaining.length - index);
+        return remaining;
+    }
+
+    private void addPair(long courseId, long other, int delta) {
+        LongIntHashMap row = cooccurrence.get(courseId);
+        if (row == null) {
+            if (delta < 0) {
+                return;
+            }
+            row = new LongIntHashMap();
+            cooccurrence.put(courseId, row);
+        }
+        row.addTo(other, delta);
+    }
+
+    /**
+     * Keeps the best {@code limit} candidates in a min-heap.
+     */
+    private static final class TopN {
+        private final int limit;
+        private final PriorityQueue<CourseRecommendation> heap;
+
+        TopN(int limit) {
+            this.limit = limit;
+            this.heap = new PriorityQueue<>(Math.max(1, limit + 1), Comparator.comparingDouble(CourseRecommendation::score));
+        }
+
+        void offer(long courseId, double score, int together) {
+            if (limit <= 0) {
+                return;
+            }
+            if (heap.size() < limit) {
+                heap.add(new CourseRecommendation(courseId, score, together));
+            } else if (score > heap.peek().score()) {
+                heap.poll();
+                heap.add(new CourseRecommendation(courseId, score, together));
+            }
+        }
+
+        List<CourseRecommendation> toList() {
+            List<CourseRecommendation> result = new ArrayList<>(heap);
+            result.sort(Comparator.comparingDouble(CourseRecommendation::score).reversed()
+                    .thenComparingLong(CourseRecommendation::courseId));
+            return result;
+        }
+    }
+}
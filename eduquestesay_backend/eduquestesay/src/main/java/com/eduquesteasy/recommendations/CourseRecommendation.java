@@ -0,0 +1,8 @@
+package com.eduquesteasy.recommendations;
+
+/**
+ * A recommended course. {@code coEnrollments} is the number of students who took it
+ * together with the source course (or, per student, with any of the student's courses).
+ */
+public record CourseRecommendation(long courseId, double score, int coEnrollments) {
+}
@@ -0,0 +1,177 @@
+package com.eduquesteasy.recommendations;
+
+import com.eduquesteasy.events.EnrollmentEvent;
+import com.eduquesteasy.events.EnrollmentEventSubscriber;
+import com.eduquesteasy.events.EnrollmentEventType;
+import com.eduquesteasy.identity.IdentityResolver;
+import com.eduquesteasy.repositories.CourseRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.*;
+
+/**
+ * "Students also took" recommendations from the {@link CoEnrollmentIndex}.
+ *
+ * The index is loaded from the enrollments table in the background once the
+ * application is ready and kept current by enrollment events from the outbox.
+ * Events seen during the load are replayed at the end in the order they arrived,
+ * since the load may have read a row before it was deleted or re-created; the
+ * last event for a student and course wins.
+ */
+@Slf4j
+@Service
+public class CourseRecommendationService implements EnrollmentEventSubscriber {
+
+    private final CoEnrollmentIndex index = new CoEnrollmentIndex();
+    private final EnrollmentPairLoader loader;
+    private final CourseRepository courseRepository;
+    private final IdentityResolver identityResolver;
+
+    @Value("${eduquest.recommendations.load-batch-size:1000}")
+    private int loadBatchSize;
+
+    @Value("${eduquest.recommendations.compaction-batch-size:256}")
+    private int compactionBatchSize;
+
+    private volatile boolean ready;
+
+    // Guarded by eventsDuringLoad
+    private boolean loading = true;
+    private final List<EnrollmentEvent> eventsDuringLoad = new ArrayList<>();
+
+    public CourseRecommendationService(EnrollmentPairLoader loader, CourseRepository courseRepository,
+                                       IdentityResolver identityResolver) {
+        this.loader = loader;
+        this.courseRepository = courseRepository;
+        this.identityResolver = identityResolver;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void loadInBackground() {
+        Thread thread = new Thread(this::load, "recommendations-loader");
+        thread.setDaemon(true);
+        thread.start();
+    }
+
+    private void load() {
+        long started = System.nanoTime();
+        long[] studentIds = new long[loadBatchSize];
+        long[] courseIds = new long[loadBatchSize];
+        int[] batched = new int[1];
+        long[] rows = new long[1];
+        try {
+            loader.forEachEnrollment(rs -> {
+                studentIds[batched[0]] = rs.getLong(1);
+                courseIds[batched[0]] = rs.getLong(2);
+                if (++batched[0] == loadBatchSize) {
+                    index.enrollAll(studentIds, courseIds, batched[0]);
+                    rows[0] += batched[0];
+                    batched[0] = 0;
+                }
+            });
+            index.enrollAll(studentIds, courseIds, batched[0]);
+            rows[0] += batched[0];
+        } catch (Exception e) {
+            log.error("Loading co-enrollment index failed; recommendations stay unavailable", e);
+            synchronized (eventsDuringLoad) {
+                loading = false;
+                eventsDuringLoad.clear();
+            }
+            return;
+        }
+
+        synchronized (eventsDuringLoad) {
+            loading = false;
+            eventsDuringLoad.forEach(this::apply);
+            eventsDuringLoad.clear();
+        }
+        ready = true;
+        log.info("Co-enrollment index loaded: {} enrollments in {} ms, {}", rows[0],
+                (System.nanoTime() - started) / 1_000_000, index.memoryReport());
+    }
+
+    /**
+     * Apply enrollment events delivered by the outbox dispatcher. Enrolling and
+     * withdrawing are idempotent in the index, so redelivery is harmless.
+     */
+    @Override
+    public void onEvents(List<EnrollmentEvent> events) {
+        for (EnrollmentEvent event : events) {
+            if (event.type() == EnrollmentEventType.PROGRESS_CHANGED) {
+                continue;
+            }
+            // Recorded in the order they arrive, so the replay repeats what was applied live
+            synchronized (eventsDuringLoad) {
+                if (loading) {
+                    eventsDuringLoad.add(event);
+                }
+            }
+            apply(event);
+        }
+    }
+
+    private void apply(EnrollmentEvent event) {
+        switch (event.type()) {
+            // The enrollment created the student's id, so it is there to find
+            case ENROLLED -> identityResolver.findStudentId(event.studentEmail())
+                    .ifPresent(studentId -> index.enroll(studentId, event.courseId()));
+            case WITHDRAWN -> identityResolver.findStudentId(event.studentEmail())
+                    .ifPresent(studentId -> index.withdraw(studentId, event.courseId()));
+            case COURSE_DELETED -> index.removeCourse(event.courseId());
+            case PROGRESS_CHANGED -> {
+            }
+        }
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public List<Map<String, Object>> similarCourses(Long courseId, int limit) {
+        return describe(index.similarCourses(courseId, limit));
+    }
+
+    public List<Map<String, Object>> recommendForStudent(String studentEmail, int limit) {
+        return identityResolver.findStudentId(studentEmail)
+                .map(studentId -> describe(index.forStudent(studentId, limit)))
+                .orElse(List.of());
+    }
+
+    public Map<String, Object> memoryReport() {
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("ready", ready);
+        report.putAll(index.memoryReport());
+        return report;
+    }
+
+    @Scheduled(fixedDelayString = "${eduquest.recommendations.compaction-interval-ms:600000}")
+    public void compact() {
+        if (!ready) {
+            return;
+        }
+        long started = System.nanoTime();
+        int[] result = index.compact(compactionBatchSize);
+        log.debug("Co-enrollment index compacted in {} ms: {} empty rows removed, {} rows shrunk",
+                (System.nanoTime() - started) / 1_000_000, result[0], result[1]);
+    }
+
+    private List<Map<String, Object>> describe(List<CourseRecommendation> recommendations) {
+        List<Map<String, Object>> result = new ArrayList<>(recommendations.size());
+        for (CourseRecommendation recommendation : recommendations) {
+            Map<String, Object> row = new LinkedHashMap<>();
+            row.put("courseId", recommendation.courseId());
+            // Served from the second-level cache
+            courseRepository.findById(recommendation.courseId())
+                    .ifPresent(course -> row.put("title", course.getTitle()));
+            row.put("score", Math.round(recommendation.score() * 10_000.0) / 10_000.0);
+            row.put("coEnrollments", recommendation.coEnrollments());
+            result.add(row);
+        }
+        return result;
+    }
+}
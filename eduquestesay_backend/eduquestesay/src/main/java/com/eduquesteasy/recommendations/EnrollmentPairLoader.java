@@ -0,0 +1,35 @@
+package com.eduquesteasy.recommendations;
+
+import com.eduquesteasy.datasource.Workload;
+import com.eduquesteasy.datasource.WorkloadType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+/**
+ * Streams every (student id, course) enrollment for the initial index build,
+ * archived ones included. Rows not yet given their student id are left to the
+ * identity backfill and to live events.
+ */
+@Component
+public class EnrollmentPairLoader {
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public EnrollmentPairLoader(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Workload(WorkloadType.ANALYTICS)
+    @Transactional(readOnly = true)
+    public void forEachEnrollment(RowCallbackHandler handler) {
+        jdbcTemplate.query("""
+                SELECT student_id, course_id FROM enrollments
+                 WHERE student_id IS NOT NULL AND course_id IS NOT NULL
+                UNION ALL
+                SELECT student_id, course_id FROM enrollments_archive
+                 WHERE student_id IS NOT NULL AND course_id IS NOT NULL
+                """, handler);
+    }
+}
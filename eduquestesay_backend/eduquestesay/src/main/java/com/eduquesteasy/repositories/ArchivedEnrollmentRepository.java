@@ -0,0 +1,15 @@
+package com.eduquesteasy.repositories;
+
+import com.eduquesteasy.models.ArchivedEnrollment;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.util.List;
+
+public interface ArchivedEnrollmentRepository extends JpaRepository<ArchivedEnrollment, Long> {
+
+    List<ArchivedEnrollment> findByStudentIdOrderByEnrollmentDateDesc(Long studentId);
+
+    List<ArchivedEnrollment> findByCourseIdOrderByEnrollmentDateDesc(Long courseId);
+
+    boolean existsByStudentIdAndCourseId(Long studentId, Long courseId);
+}
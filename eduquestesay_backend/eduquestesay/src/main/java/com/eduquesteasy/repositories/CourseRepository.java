@@ -2,23 +2,36 @@ package com.eduquesteasy.repositories;
 
 import com.eduquesteasy.models.Course;
 import com.eduquesteasy.services.CourseService;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface CourseRepository extends JpaRepository<Course, Long> {
 
-    // 🔹 Find courses by category
+    // 🔹 Find courses by category (query cache, invalidated on any course write)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Course> findByCategory(String category);
 
-    // 🔹 Find courses by level
+    // 🔹 Find courses by level (query cache, invalidated on any course write)
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Course> findByLevel(String level);
 
-    // 🔹 Find courses by teacher email
-    List<Course> findByTeacherEmail(String teacherEmail);
+    // 🔹 Courses per category and per level, grouped on the dimension ids
+    @Query("SELECT c.category AS name, COUNT(c) AS courses FROM Course c WHERE c.category IS NOT NULL GROUP BY c.category")
+    List<DimensionCountView> countPerCategory();
+
+    @Query("SELECT c.level AS name, COUNT(c) AS courses FROM Course c WHERE c.level IS NOT NULL GROUP BY c.level")
+    List<DimensionCountView> countPerLevel();
+
+    // 🔹 Find courses by teacher id (see IdentityResolver for the email)
+    List<Course> findByTeacherId(Long teacherId);
 
     // 🔹 Search by title (contains)
     List<Course> findByTitleContainingIgnoreCase(String title);
@@ -26,8 +39,18 @@ public interface CourseRepository extends JpaRepository<Course, Long> {
     @Query("""
        SELECT e.course
        FROM Enrollment e
-       WHERE e.studentEmail = :studentEmail
+       WHERE e.studentId = :studentId
+       """)
+    List<Course> findEnrollmentCoursesByStudentId(@Param("studentId") Long studentId);
+
+    // 🔹 Load the lessons of courses already read in this transaction, in one query
+    //    (fills their lazy collections in place; see CourseFetchPlan)
+    @Query("""
+       SELECT c
+       FROM Course c LEFT JOIN FETCH c.lessons l
+       WHERE c.id IN :ids
+       ORDER BY c.id, l.orderIndex
        """)
-    List<Course> findEnrollmentCoursesByStudentEmail(@Param("studentEmail") String studentEmail);
+    List<Course> fetchLessons(@Param("ids") Collection<Long> ids);
 
 }
@@ -0,0 +1,11 @@
+package com.eduquesteasy.repositories;
+
+/**
+ * A category or level name with the number of courses that have it.
+ */
+public interface DimensionCountView {
+
+    String getName();
+
+    Long getCourses();
+}
@@ -2,17 +2,65 @@ package com.eduquesteasy.repositories;
 
 import com.eduquesteasy.models.Enrollment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
 import java.util.List;
 import java.util.Optional;
 
 public interface EnrollmentRepository extends JpaRepository<Enrollment, Long> {
 
-    List<Enrollment> findByStudentEmail(String studentEmail);
+    // A student's enrollments, by the id IdentityResolver gives the email
+    List<Enrollment> findByStudentId(Long studentId);
 
     // Get all enrollments of a course
     List<Enrollment> findByCourseId(Long courseId);
 
     // Check if a student is already enrolled in a course
-    Optional<Enrollment> findByStudentEmailAndCourseId(String studentEmail, Long courseId);
+    Optional<Enrollment> findByStudentIdAndCourseId(Long studentId, Long courseId);
+
+    boolean existsByStudentIdAndCourseId(Long studentId, Long courseId);
+
+    // Raise progress to the given value if it is higher; never lowers it, whatever was written in between.
+    // Returns 0 when the stored progress is already at or above it
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("""
+       UPDATE Enrollment e
+       SET e.progress = GREATEST(COALESCE(e.progress, 0), :progress), e.version = e.version + 1
+       WHERE e.id = :id AND COALESCE(e.progress, 0) < :progress
+       """)
+    int raiseProgress(@Param("id") Long id, @Param("progress") double progress);
+
+    // Distinct students across all courses of a teacher
+    @Query("""
+       SELECT COUNT(DISTINCT e.studentId)
+       FROM Enrollment e
+       WHERE e.course.teacherId = :teacherId
+       """)
+    long countDistinctStudentsByTeacherId(@Param("teacherId") Long teacherId);
+
+    // Progress counters across all courses of a teacher
+    @Query("""
+       SELECT COUNT(e) AS total,
+              COALESCE(AVG(e.progress), 0) AS averageProgress,
+              COALESCE(SUM(CASE WHEN e.progress >= 100 THEN 1 ELSE 0 END), 0) AS completed,
+              COALESCE(SUM(CASE WHEN e.progress > 0 AND e.progress < 100 THEN 1 ELSE 0 END), 0) AS active,
+              COALESCE(SUM(CASE WHEN e.progress = 0 THEN 1 ELSE 0 END), 0) AS notStarted
+       FROM Enrollment e
+       WHERE e.course.teacherId = :teacherId
+       """)
+    EnrollmentStatsView getStatsByTeacherId(@Param("teacherId") Long teacherId);
+
+    // Progress counters for a single course
+    @Query("""
+       SELECT COUNT(e) AS total,
+              COALESCE(AVG(e.progress), 0) AS averageProgress,
+              COALESCE(SUM(CASE WHEN e.progress >= 100 THEN 1 ELSE 0 END), 0) AS completed,
+              COALESCE(SUM(CASE WHEN e.progress > 0 AND e.progress < 100 THEN 1 ELSE 0 END), 0) AS active,
+              COALESCE(SUM(CASE WHEN e.progress = 0 THEN 1 ELSE 0 END), 0) AS notStarted
+       FROM Enrollment e
+       WHERE e.course.id = :courseId
+       """)
+    EnrollmentStatsView getStatsByCourseId(@Param("courseId") Long courseId);
 }
@@ -0,0 +1,18 @@
+package com.eduquesteasy.repositories;
+
+/**
+ * Aggregated enrollment counters computed in the database
+ * (one row per course or per teacher).
+ */
+public interface EnrollmentStatsView {
+
+    Long getTotal();
+
+    Double getAverageProgress();
+
+    Long getCompleted();
+
+    Long getActive();
+
+    Long getNotStarted();
+}
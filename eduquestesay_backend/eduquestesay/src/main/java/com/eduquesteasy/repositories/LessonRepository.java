@@ -11,7 +11,7 @@ public interface LessonRepository extends JpaRepository<Lesson, Long> {
     // 🔹 Find lessons belonging to a course
     List<Lesson> findByCourseId(Long courseId);
 
-    // 🔹 Find lessons ordered by their index within a course
-    List<Lesson> findByCourseIdOrderByOrderIndexAsc(Long courseId);
+    // 🔹 Find lessons ordered by their index within a course, ties by id
+    List<Lesson> findByCourseIdOrderByOrderIndexAscIdAsc(Long courseId);
     List<Lesson>  findByCourseIdAndTitle(Long Id , String title);
 }
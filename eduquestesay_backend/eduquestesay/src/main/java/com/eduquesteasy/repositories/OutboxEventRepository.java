@@ -0,0 +1,9 @@
+package com.eduquesteasy.repositories;
+
+import com.eduquesteasy.models.OutboxEvent;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+}
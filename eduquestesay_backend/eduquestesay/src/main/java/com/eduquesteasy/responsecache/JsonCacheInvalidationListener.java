@@ -0,0 +1,33 @@
+package com.eduquesteasy.responsecache;
+
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.models.Lesson;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Invalidates pre-serialized catalog responses on every course and lesson write,
+ * wherever in the code it happens. Instantiated by Hibernate through Spring,
+ * which is why the cache is looked up lazily.
+ */
+public class JsonCacheInvalidationListener {
+
+    private final ObjectProvider<JsonResponseCache> cache;
+
+    public JsonCacheInvalidationListener(ObjectProvider<JsonResponseCache> cache) {
+        this.cache = cache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void invalidate(Object entity) {
+        if (entity instanceof Course) {
+            cache.getObject().invalidate(JsonResponseCache.COURSES);
+        } else if (entity instanceof Lesson) {
+            cache.getObject().invalidate(JsonResponseCache.COURSES, JsonResponseCache.LESSONS);
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.eduquesteasy.responsecache;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+
+/**
+ * Pre-serialized catalog response cache settings (prefix {@code eduquest.json-cache}).
+ */
+@Data
+@Component
+@ConfigurationProperties("eduquest.json-cache")
+public class JsonCacheProperties {
+
+    private boolean enabled = true;
+
+    // Distinct cached bodies (list keys include free-form categories, so this is a hard cap)
+    private int maxEntries = 1_000;
+
+    // Bodies larger than this are served but not kept
+    private int maxBodyBytes = 16 * 1024 * 1024;
+}
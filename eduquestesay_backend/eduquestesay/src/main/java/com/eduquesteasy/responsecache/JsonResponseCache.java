@@ -0,0 +1,204 @@
+package com.eduquesteasy.responsecache;
+
+import com.eduquesteasy.datasource.ReplicaLagMonitor;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * UTF-8 JSON bodies of hot catalog reads, encoded once and then written to the
+ * response as they are, without going through Jackson again.
+ *
+ * Every key belongs to an invalidation group. Writes bump the group's generation
+ * after they commit, and a body is served only while the generation it was
+ * loaded under is still current, so a load that raced a write is never served.
+ * When reads may go to a replica the group is bumped once more after the
+ * replica's allowed lag, which drops bodies loaded from a replica that had not
+ * caught up yet.
+ */
+@Slf4j
+@Component
+public class JsonResponseCache {
+
+    // Course lists embed their lessons, so lesson writes invalidate them too
+    public static final String COURSES = "courses";
+    // Lesson lists of every course; a lesson update can move it to another course
+    public static final String LESSONS = "lessons";
+
+    private final ObjectMapper objectMapper;
+    private final JsonCacheProperties properties;
+    private final ScheduledExecutorService delayedInvalidations;
+    private final long replicaMaxLagMs;
+
+    private final Map<String, AtomicLong> generations = new ConcurrentHashMap<>();
+    private final Map<String, CachedBody> bodies = new ConcurrentHashMap<>();
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder invalidations = new LongAdder();
+    private final LongAdder rejected = new LongAdder();
+
+    public JsonResponseCache(MappingJackson2HttpMessageConverter jsonMessageConverter,
+                             JsonCacheProperties properties,
+                             ObjectProvider<ReplicaLagMonitor> replicaLagMonitor) {
+        // Same mapper as the converter, so a cached body equals what it would have written
+        this.objectMapper = jsonMessageConverter.getObjectMapper();
+        this.properties = properties;
+
+        ReplicaLagMonitor monitor = replicaLagMonitor.getIfAvailable();
+        if (monitor != null) {
+            this.replicaMaxLagMs = monitor.getMaxLagMs();
+            this.delayedInvalidations = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "json-cache-invalidation");
+                thread.setDaemon(true);
+                return thread;
+            });
+        } else {
+            this.replicaMaxLagMs = 0;
+            this.delayedInvalidations = null;
+        }
+    }
+
+    /**
+     * The cached body for key, or the loader's result encoded (and cached) now.
+     */
+    public ResponseEntity<byte[]> get(String group, String key, Supplier<?> loader) {
+        if (!properties.isEnabled()) {
+            return json(serialize(loader.get()));
+        }
+
+        // Read the generation before loading; a write committing meanwhile makes the result stale
+        long generation = generation(group).get();
+        CachedBody cached = bodies.get(key);
+        if (cached != null && cached.generation() == generation) {
+            hits.increment();
+            return json(cached.body());
+        }
+
+        misses.increment();
+        byte[] body = serialize(loader.get());
+        store(key, new CachedBody(group, generation, body));
+        return json(body);
+    }
+
+    /**
+     * Invalidate groups once the current transaction commits, or right away outside one.
+     */
+    public void invalidate(String... groups) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    bump(groups);
+                }
+            });
+        } else {
+            bump(groups);
+        }
+    }
+
+    /**
+     * Drop everything, for rows written behind Hibernate's back.
+     */
+    public void invalidateAll() {
+        generations.values().forEach(AtomicLong::incrementAndGet);
+        invalidations.increment();
+        bodies.clear();
+    }
+
+    public Map<String, Object> stats() {
+        long hitCount = hits.sum();
+        long missCount = misses.sum();
+        long bytes = 0;
+        for (CachedBody body : bodies.values()) {
+            bytes += body.body().length;
+        }
+
+        Map<String, Object> stats = new LinkedHashMap<>();
+        stats.put("enabled", properties.isEnabled());
+        stats.put("entries", bodies.size());
+        stats.put("bytes", bytes);
+        stats.put("hits", hitCount);
+        stats.put("misses", missCount);
+        stats.put("hitRatio", hitCount + missCount == 0 ? 0.0
+                : Math.round(hitCount * 10_000.0 / (hitCount + missCount)) / 10_000.0);
+        stats.put("invalidations", invalidations.sum());
+        stats.put("rejected", rejected.sum());
+        stats.put("replicaRecheckMs", replicaMaxLagMs);
+        Map<String, Long> groupGenerations = new LinkedHashMap<>();
+        generations.forEach((group, generation) -> groupGenerations.put(group, generation.get()));
+        stats.put("generations", groupGenerations);
+        return stats;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (delayedInvalidations != null) {
+            delayedInvalidations.shutdownNow();
+        }
+    }
+
+    private void bump(String... groups) {
+        for (String group : groups) {
+            long current = generation(group).incrementAndGet();
+            invalidations.increment();
+            bodies.values().removeIf(body -> body.group().equals(group) && body.generation() < current);
+        }
+        if (delayedInvalidations != null) {
+            delayedInvalidations.schedule(() -> {
+                for (String group : groups) {
+                    long current = generation(group).incrementAndGet();
+                    bodies.values().removeIf(body -> body.group().equals(group) && body.generation() < current);
+                }
+            }, replicaMaxLagMs, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private void store(String key, CachedBody body) {
+        if (body.body().length > properties.getMaxBodyBytes()
+                || (bodies.size() >= properties.getMaxEntries() && !bodies.containsKey(key))) {
+            rejected.increment();
+            return;
+        }
+        // A slower load of an older generation must not replace a newer body
+        bodies.merge(key, body, (old, loaded) -> loaded.generation() >= old.generation() ? loaded : old);
+    }
+
+    private AtomicLong generation(String group) {
+        return generations.computeIfAbsent(group, k -> new AtomicLong());
+    }
+
+    private byte[] serialize(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (JsonProcessingException e) {
+            throw new HttpMessageNotWritableException("Could not write JSON: " + e.getOriginalMessage(), e);
+        }
+    }
+
+    private static ResponseEntity<byte[]> json(byte[] body) {
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    private record CachedBody(String group, long generation, byte[] body) {
+    }
+}
@@ -0,0 +1,34 @@
+package com.eduquesteasy.services;
+
+import java.util.Arrays;
+import java.util.Locale;
+
+/**
+ * What a course read loads besides the course row. Lessons are only fetched
+ * when asked for ({@code include=lessons}); otherwise the lazy collection is
+ * left alone and serialized as null.
+ */
+public enum CourseFetchPlan {
+    SUMMARY,
+    WITH_LESSONS;
+
+    /**
+     * The plan for an {@code include} request parameter (comma-separated; unknown parts are ignored).
+     */
+    public static CourseFetchPlan fromInclude(String include) {
+        if (include == null) {
+            return SUMMARY;
+        }
+        boolean lessons = Arrays.stream(include.split(","))
+                .map(part -> part.trim().toLowerCase(Locale.ROOT))
+                .anyMatch("lessons"::equals);
+        return lessons ? WITH_LESSONS : SUMMARY;
+    }
+
+    /**
+     * A response cache key for a list read with this plan (a prefix, since keys end in free-form values).
+     */
+    public String cacheKey(String key) {
+        return this == WITH_LESSONS ? "lessons+" + key : key;
+    }
+}
@@ -1,27 +1,72 @@
 package com.eduquesteasy.services;
 
+import com.eduquesteasy.archive.EnrollmentArchiver;
+import com.eduquesteasy.events.EnrollmentEventPublisher;
+import com.eduquesteasy.facets.CourseFacet;
+import com.eduquesteasy.facets.CourseFacetService;
+import com.eduquesteasy.identity.IdentityResolver;
+import com.eduquesteasy.leaderboard.LeaderboardService;
 import com.eduquesteasy.models.Course;
+import com.eduquesteasy.models.Enrollment;
+import com.eduquesteasy.models.Lesson;
 import com.eduquesteasy.repositories.CourseRepository;
+import com.eduquesteasy.repositories.DimensionCountView;
+import com.eduquesteasy.repositories.EnrollmentRepository;
+import com.eduquesteasy.repositories.LessonRepository;
+import com.eduquesteasy.singleflight.SingleFlight;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Comparator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
+@Transactional(readOnly = true)
 public class CourseService {
 
+    // Course ids per lesson fetch query
+    private static final int LESSON_FETCH_BATCH = 1000;
+
     @Autowired
     private CourseRepository courseRepository;
 
+    @Autowired
+    private EnrollmentRepository enrollmentRepository;
+
+    @Autowired
+    private LessonRepository lessonRepository;
+
+    @Autowired
+    private EnrollmentEventPublisher eventPublisher;
+
+    @Autowired
+    private LeaderboardService leaderboardService;
+
+    @Autowired
+    private CourseFacetService courseFacetService;
+
+    @Autowired
+    private EnrollmentArchiver enrollmentArchiver;
+
+    @Autowired
+    private IdentityResolver identityResolver;
+
     // Create or update a course
+    @Transactional
     public Course saveCourse(Course course) {
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        leaderboardService.courseSaved(saved);
+        courseFacetService.courseSaved(saved);
+        return saved;
     }
 
     //  Get all courses
-    public List<Course> getAllCourses() {
-        return courseRepository.findAll();
+    public List<Course> getAllCourses(CourseFetchPlan plan) {
+        return fetch(courseRepository.findAll(), plan);
     }
 
     //  Get a course by ID
@@ -29,33 +74,91 @@ public class CourseService {
         return courseRepository.findById(id);
     }
 
-    //  Delete a course
+    public Optional<Course> getCourseById(Long id, CourseFetchPlan plan) {
+        return courseRepository.findById(id).map(course -> {
+            fetch(List.of(course), plan);
+            return course;
+        });
+    }
+
+    //  Delete a course with its lessons and enrollments; nothing in the database cascades to enrollments
+    @Transactional
     public void deleteCourse(Long id) {
+        List<Lesson> lessons = lessonRepository.findByCourseId(id);
+        lessonRepository.deleteAll(lessons);
+
+        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(id);
+        enrollmentRepository.deleteAll(enrollments);
+
         courseRepository.deleteById(id);
+        eventPublisher.courseDeleted(id);
+        courseFacetService.courseDeleted(id);
+        enrollmentArchiver.courseDeleted(id);
     }
 
     //  Find courses by category
-    public List<Course> getCoursesByCategory(String category) {
-        return courseRepository.findByCategory(category);
+    @SingleFlight
+    public List<Course> getCoursesByCategory(String category, CourseFetchPlan plan) {
+        // Shared with coalesced callers, so whatever the response includes is loaded here
+        return fetch(courseRepository.findByCategory(category), plan);
     }
 
     //  Find courses by level
-    public List<Course> getCoursesByLevel(String level) {
-        return courseRepository.findByLevel(level);
+    public List<Course> getCoursesByLevel(String level, CourseFetchPlan plan) {
+        return fetch(courseRepository.findByLevel(level), plan);
     }
 
     //  Find courses by teacher email
-    public List<Course> getCoursesByTeacherEmail(String teacherEmail) {
-        return courseRepository.findByTeacherEmail(teacherEmail);
+    public List<Course> getCoursesByTeacherEmail(String teacherEmail, CourseFetchPlan plan) {
+        return identityResolver.findTeacherId(teacherEmail)
+                .map(teacherId -> fetch(courseRepository.findByTeacherId(teacherId), plan))
+                .orElse(List.of());
+    }
+
+    //  Categories with their number of courses, most used first; from memory once the facet index is loaded
+    public Map<String, Integer> getCategoryCounts() {
+        return courseFacetService.isReady()
+                ? courseFacetService.valueCounts(CourseFacet.CATEGORY)
+                : sorted(courseRepository.countPerCategory());
+    }
+
+    //  Levels with their number of courses, most used first
+    public Map<String, Integer> getLevelCounts() {
+        return courseFacetService.isReady()
+                ? courseFacetService.valueCounts(CourseFacet.LEVEL)
+                : sorted(courseRepository.countPerLevel());
     }
 
     //  Search courses by title (contains keyword)
-    public List<Course> searchCoursesByTitle(String title) {
-        return courseRepository.findByTitleContainingIgnoreCase(title);
+    public List<Course> searchCoursesByTitle(String title, CourseFetchPlan plan) {
+        return fetch(courseRepository.findByTitleContainingIgnoreCase(title), plan);
+    }
+
+    public List<Course> getEnrollmentCousesByStudentEmail(String  studentEmail, CourseFetchPlan plan) {
+
+        return identityResolver.findStudentId(studentEmail)
+                .map(studentId -> fetch(courseRepository.findEnrollmentCoursesByStudentId(studentId), plan))
+                .orElse(List.of());
     }
 
-    public List<Course> getEnrollmentCousesByStudentEmail(String  studentEmail) {
+    // Same order as the facet index: by count, then by name
+    private static Map<String, Integer> sorted(List<DimensionCountView> rows) {
+        Map<String, Integer> counts = new LinkedHashMap<>();
+        rows.stream()
+                .sorted(Comparator.comparing(DimensionCountView::getCourses).reversed()
+                        .thenComparing(DimensionCountView::getName))
+                .forEach(row -> counts.put(row.getName(), row.getCourses().intValue()));
+        return counts;
+    }
 
-        return   courseRepository.findEnrollmentCoursesByStudentEmail(studentEmail);
+    // Load what the plan includes for a page of courses, a batch of courses per query
+    private List<Course> fetch(List<Course> courses, CourseFetchPlan plan) {
+        if (plan == CourseFetchPlan.WITH_LESSONS && !courses.isEmpty()) {
+            List<Long> ids = courses.stream().map(Course::getId).distinct().toList();
+            for (int from = 0; from < ids.size(); from += LESSON_FETCH_BATCH) {
+                courseRepository.fetchLessons(ids.subList(from, Math.min(ids.size(), from + LESSON_FETCH_BATCH)));
+            }
+        }
+        return courses;
     }
 }
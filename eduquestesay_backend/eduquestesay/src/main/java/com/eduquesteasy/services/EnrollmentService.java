@@ -1,48 +1,85 @@
 package com.eduquesteasy.services;
 
+import com.eduquesteasy.archive.EnrollmentArchiver;
+import com.eduquesteasy.concurrency.PreconditionFailedException;
+import com.eduquesteasy.events.EnrollmentEventPublisher;
+import com.eduquesteasy.identity.IdentityResolver;
+import com.eduquesteasy.models.ArchivedEnrollment;
 import com.eduquesteasy.models.Course;
 import com.eduquesteasy.models.Enrollment;
+import com.eduquesteasy.repositories.ArchivedEnrollmentRepository;
 import com.eduquesteasy.repositories.CourseRepository;
 import com.eduquesteasy.repositories.EnrollmentRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @Service
+@Transactional(readOnly = true)
 public class EnrollmentService {
 
     private final EnrollmentRepository enrollmentRepository;
     private final CourseRepository courseRepository;
+    private final EnrollmentEventPublisher eventPublisher;
+    private final ArchivedEnrollmentRepository archivedEnrollmentRepository;
+    private final EnrollmentArchiver enrollmentArchiver;
+    private final IdentityResolver identityResolver;
 
     public EnrollmentService(
             EnrollmentRepository enrollmentRepository,
-            CourseRepository courseRepository
+            CourseRepository courseRepository,
+            EnrollmentEventPublisher eventPublisher,
+            ArchivedEnrollmentRepository archivedEnrollmentRepository,
+            EnrollmentArchiver enrollmentArchiver,
+            IdentityResolver identityResolver
     ) {
         this.enrollmentRepository = enrollmentRepository;
         this.courseRepository = courseRepository;
+        this.eventPublisher = eventPublisher;
+        this.archivedEnrollmentRepository = archivedEnrollmentRepository;
+        this.enrollmentArchiver = enrollmentArchiver;
+        this.identityResolver = identityResolver;
     }
 
     /**
      * Enroll a student (by email) in a course
      */
+    @Transactional
     public Enrollment enrollUser(String studentEmail, Long courseId) {
 
         // Check if course exists
         Course course = courseRepository.findById(courseId)
                 .orElseThrow(() -> new RuntimeException("Course not found"));
 
+        // First enrollment of a new student creates their identity
+        long studentId = identityResolver.studentId(studentEmail);
+
         // Check if already enrolled
-        enrollmentRepository.findByStudentEmailAndCourseId(studentEmail, courseId)
+        enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
                 .ifPresent(e -> {
                     throw new RuntimeException("Student already enrolled in this course");
                 });
 
+        // An archived enrollment is still the student's enrollment: bring it back
+        if (enrollmentArchiver.restore(studentId, List.of(courseId)) > 0) {
+            return enrollmentRepository.findByStudentIdAndCourseId(studentId, courseId)
+                    .orElseThrow(() -> new RuntimeException("Enrollment not found"));
+        }
+
         // Create new enrollment
         Enrollment enrollment = new Enrollment();
         enrollment.setStudentEmail(studentEmail);
+        enrollment.setStudentId(studentId);
         enrollment.setCourse(course);
 
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        eventPublisher.enrolled(saved);
+        return saved;
     }
 
     /**
@@ -56,7 +93,29 @@ public class EnrollmentService {
      * Get all enrollments for a specific student
      */
     public List<Enrollment> getEnrollmentsByStudent(String studentEmail) {
-        return enrollmentRepository.findByStudentEmail(studentEmail);
+        return identityResolver.findStudentId(studentEmail)
+                .map(enrollmentRepository::findByStudentId)
+                .orElse(List.of());
+    }
+
+    /**
+     * A student's enrollments including archived ones; slower, reads the archive table too
+     */
+    public Map<String, Object> getEnrollmentHistoryByStudent(String studentEmail) {
+        Optional<Long> studentId = identityResolver.findStudentId(studentEmail);
+        if (studentId.isEmpty()) {
+            return history(List.of(), List.of());
+        }
+        return history(enrollmentRepository.findByStudentId(studentId.get()),
+                archivedEnrollmentRepository.findByStudentIdOrderByEnrollmentDateDesc(studentId.get()));
+    }
+
+    /**
+     * A course's enrollments including archived ones; slower, reads the archive table too
+     */
+    public Map<String, Object> getEnrollmentHistoryByCourse(Long courseId) {
+        return history(enrollmentRepository.findByCourseId(courseId),
+                archivedEnrollmentRepository.findByCourseIdOrderByEnrollmentDateDesc(courseId));
     }
 
     /**
@@ -69,29 +128,82 @@ public class EnrollmentService {
     /**
      * Withdraw student from course
      */
+    @Transactional
     public void withdraw(String studentEmail, Long courseId) {
-        Enrollment enrollment = enrollmentRepository
-                .findByStudentEmailAndCourseId(studentEmail, courseId)
+        Enrollment enrollment = findOrRestore(studentEmail, courseId)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found"));
 
         enrollmentRepository.delete(enrollment);
+        eventPublisher.withdrawn(enrollment);
     }
 
     /**
-     * Update progress of a student in a course
+     * Update progress of a student in a course.
+     *
+     * Without an expected version progress only moves forward: the write is a
+     * single GREATEST update that keeps the highest value, so concurrent updates
+     * from several devices never lose each other or conflict. It only matches
+     * while the stored value is lower, so a raise that changes nothing publishes
+     * no event; no row is locked before the update. With an
+     * expected version (If-Match) the value is set exactly, lower or not, and
+     * fails if the enrollment changed since the client read it.
      */
-    public Enrollment updateProgress(String studentEmail, Long courseId, double progress) {
+    @Transactional
+    public Enrollment updateProgress(String studentEmail, Long courseId, double progress, Long expectedVersion) {
 
         if (progress < 0 || progress > 100) {
             throw new RuntimeException("Progress must be between 0 and 100");
         }
 
-        Enrollment enrollment = enrollmentRepository
-                .findByStudentEmailAndCourseId(studentEmail, courseId)
+        Enrollment enrollment = findOrRestore(studentEmail, courseId)
                 .orElseThrow(() -> new RuntimeException("Enrollment not found"));
 
-        enrollment.setProgress(progress);
+        if (expectedVersion != null) {
+            PreconditionFailedException.check("Enrollment", expectedVersion, enrollment.getVersion());
+
+            Double previousProgress = enrollment.getProgress();
+            enrollment.setProgress(progress);
 
-        return enrollmentRepository.save(enrollment);
+            // Flush now so a concurrent writer surfaces as a conflict here, not at commit
+            Enrollment saved = enrollmentRepository.saveAndFlush(enrollment);
+            if (!Objects.equals(previousProgress, saved.getProgress())) {
+                eventPublisher.progressChanged(saved, previousProgress);
+            }
+            return saved;
+        }
+
+        // Plain read, only for the event payload; the update itself decides whether anything changes
+        Double previousProgress = enrollment.getProgress();
+        if (enrollmentRepository.raiseProgress(enrollment.getId(), progress) == 0) {
+            return enrollment;
+        }
+        Enrollment saved = reload(enrollment.getId());
+        eventPublisher.progressChanged(saved, previousProgress);
+        return saved;
+    }
+
+    // Cold enrollments move back to the hot table as soon as the student touches them
+    private Optional<Enrollment> findOrRestore(String studentEmail, Long courseId) {
+        Optional<Long> studentId = identityResolver.findStudentId(studentEmail);
+        if (studentId.isEmpty()) {
+            return Optional.empty();
+        }
+        Optional<Enrollment> enrollment = enrollmentRepository.findByStudentIdAndCourseId(studentId.get(), courseId);
+        if (enrollment.isEmpty() && enrollmentArchiver.restore(studentId.get(), List.of(courseId)) > 0) {
+            enrollment = enrollmentRepository.findByStudentIdAndCourseId(studentId.get(), courseId);
+        }
+        return enrollment;
+    }
+
+    private static Map<String, Object> history(List<Enrollment> active, List<ArchivedEnrollment> archived) {
+        Map<String, Object> history = new LinkedHashMap<>();
+        history.put("active", active);
+        history.put("archived", archived);
+        return history;
+    }
+
+    private Enrollment reload(Long enrollmentId) {
+        return enrollmentRepository.findById(enrollmentId)
+                .orElseThrow(() -> new RuntimeException("Enrollment not found"));
     }
 }
@@ -0,0 +1,120 @@
+package com.eduquesteasy.services;
+
+/**
+ * Works out new order_index values for a course whose lessons are put in a new
+ * order, changing as few rows as possible.
+ *
+ * The longest run of lessons that is already in increasing order keeps its
+ * values; every other lesson gets a value spaced evenly between its kept
+ * neighbours. Values are spread {@link #GAP} apart, so moving one lesson usually
+ * rewrites that lesson alone. Only when two neighbours have no room left between
+ * them is the whole course renumbered.
+ */
+public final class LessonOrderPlanner {
+
+    public static final int GAP = 1024;
+
+    private LessonOrderPlanner() {
+    }
+
+    /**
+     * @param current the lessons' current order_index values, in the desired order
+     * @return the new values, position for position
+     */
+    static int[] plan(int[] current) {
+        int n = current.length;
+        boolean[] kept = longestIncreasing(current);
+        long[] target = new long[n];
+        for (int i = 0; i < n; i++) {
+            target[i] = current[i];
+        }
+
+        int i = 0;
+        while (i < n) {
+            if (kept[i]) {
+                i++;
+                continue;
+            }
+            int start = i;
+            while (i < n && !kept[i]) {
+                i++;
+            }
+            int moved = i - start;
+            if (!spread(target, start, moved, start > 0, i < n)) {
+                return renumbered(n);
+            }
+        }
+
+        int[] planned = new int[n];
+        for (int j = 0; j < n; j++) {
+            planned[j] = (int) target[j];
+        }
+        return planned;
+    }
+
+    // Fills target[start, start + moved) between its neighbours; false when they leave no room
+    private static boolean spread(long[] target, int start, int moved, boolean hasLower, boolean hasUpper) {
+        long lower;
+        long step;
+        if (hasLower && hasUpper) {
+            lower = target[start - 1];
+            step = (target[start + moved] - lower) / (moved + 1);
+            if (step < 1) {
+                return false;
+            }
+        } else if (hasUpper) {
+            lower = target[start + moved] - (long) (moved + 1) * GAP;
+            step = GAP;
+        } else {
+            lower = target[start - 1];
+            step = GAP;
+        }
+        for (int j = 0; j < moved; j++) {
+            long value = lower + (j + 1) * step;
+            if (value < Integer.MIN_VALUE || value > Integer.MAX_VALUE) {
+                return false;
+            }
+            target[start + j] = value;
+        }
+        return true;
+    }
+
+    private static int[] renumbered(int n) {
+        int[] planned = new int[n];
+        for (int i = 0; i < n; i++) {
+            planned[i] = (i + 1) * GAP;
+        }
+        return planned;
+    }
+
+    // Marks one longest strictly increasing subsequence (patience sorting, O(n log n))
+    private static boolean[] longestIncreasing(int[] values) {
+        int n = values.length;
+        int[] tails = new int[n];
+        int[] previous = new int[n];
+        int length = 0;
+        for (int i = 0; i < n; i++) {
+            int low = 0;
+            int high = length;
+            while (low < high) {
+                int mid = (low + high) >>> 1;
+                if (values[tails[mid]] < values[i]) {
+                    low = mid + 1;
+                } else {
+                    high = mid;
+                }
+            }
+            previous[i] = low > 0 ? tails[low - 1] : -1;
+            tails[low] = i;
+            if (low == length) {
+                length++;
+            }
+        }
+
+        boolean[] kept = new boolean[n];
+        for (int i = length > 0 ? tails[length - 1] : -1; i >= 0; i = previous[i]) {
+            kept[i] = true;
+        }
+        return kept;
+    }
+}
@@ -1,24 +1,81 @@
 package com.eduquesteasy.services;
 
+import com.eduquesteasy.models.Course;
 import com.eduquesteasy.models.Lesson;
+import com.eduquesteasy.repositories.CourseRepository;
 import com.eduquesteasy.repositories.LessonRepository;
+import com.eduquesteasy.responsecache.JsonResponseCache;
+import com.eduquesteasy.sync.CatalogVersionAllocator;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jdbc.core.JdbcTemplate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 @Service
+@Transactional(readOnly = true)
 public class LessonService {
 
     @Autowired
     private LessonRepository lessonRepository;
 
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CatalogVersionAllocator catalogVersionAllocator;
+
+    @Autowired
+    private JsonResponseCache jsonResponseCache;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
     // 🔹 Create or update a lesson
+    @Transactional
     public Lesson saveLesson(Lesson lesson) {
         return lessonRepository.save(lesson);
     }
 
+    // 🔹 Create a lesson, in a course when courseId is given (empty if that course does not exist).
+    //    Without a position it goes after the course's last lesson, a full gap past it.
+    @Transactional
+    public Optional<Lesson> createLesson(Lesson lesson, Long courseId) {
+        if (courseId != null) {
+            Optional<Course> course = courseRepository.findById(courseId);
+            if (course.isEmpty()) {
+                return Optional.empty();
+            }
+            lesson.setCourse(course.get());
+            if (lesson.getOrderIndex() <= 0) {
+                lesson.setOrderIndex(nextOrderIndex(courseId));
+            }
+        }
+        return Optional.of(lessonRepository.save(lesson));
+    }
+
+    // Two lessons appended at once may share a value; the order breaks ties by id and a reorder spreads them
+    public int nextOrderIndex(Long courseId) {
+        Integer last = jdbcTemplate.queryForObject("SELECT MAX(order_index) FROM lessons WHERE course_id = ?",
+                Integer.class, courseId);
+        long next = (last == null ? 0L : last) + LessonOrderPlanner.GAP;
+        return (int) Math.min(next, Integer.MAX_VALUE);
+    }
+
     // 🔹 Get all lessons
     public List<Lesson> getAllLessons() {
         return lessonRepository.findAll();
@@ -30,12 +87,67 @@ public class LessonService {
     }
 
     // 🔹 Delete a lesson
+    @Transactional
     public void deleteLesson(Long id) {
         lessonRepository.deleteById(id);
     }
 
     // 🔹 Get all lessons for a specific course
     public List<Lesson> getLessonsByCourse(Long courseId) {
-        return lessonRepository.findByCourseIdOrderByOrderIndexAsc(courseId);
+        return lessonRepository.findByCourseIdOrderByOrderIndexAscIdAsc(courseId);
+    }
+
+    // 🔹 Put the lessons of a course in the given order with one batched UPDATE.
+    //    Returns the number of lessons whose order_index changed, or empty if the course does not exist;
+    //    the ids must list every lesson of the course exactly once.
+    @Transactional
+    public Optional<Integer> reorderLessons(Long courseId, List<Long> lessonIds) {
+        if (!courseRepository.existsById(courseId)) {
+            return Optional.empty();
+        }
+
+        // Locked so concurrent reorders of the same course plan against each other's result
+        Map<Long, Integer> current = new LinkedHashMap<>();
+        jdbcTemplate.query("SELECT id, order_index FROM lessons WHERE course_id = ? ORDER BY order_index, id FOR UPDATE",
+                rs -> {
+                    current.put(rs.getLong(1), rs.getInt(2));
+                }, courseId);
+        if (lessonIds == null || lessonIds.size() != current.size()
+                || !new HashSet<>(lessonIds).equals(current.keySet())) {
+            throw new IllegalArgumentException("The order must list every lesson of course " + courseId + " exactly once");
+        }
+
+        int[] existing = lessonIds.stream().mapToInt(current::get).toArray();
+        int[] planned = LessonOrderPlanner.plan(existing);
+        List<Long> changed = new ArrayList<>();
+        List<Object[]> updates = new ArrayList<>();
+        for (int i = 0; i < planned.length; i++) {
+            if (planned[i] != existing[i]) {
+                changed.add(lessonIds.get(i));
+                updates.add(new Object[]{planned[i], 0L, lessonIds.get(i)});
+            }
+        }
+        if (changed.isEmpty()) {
+            return Optional.of(0);
+        }
+
+        // A version per row, as catalog sync pages by change_version
+        long version = catalogVersionAllocator.reserve(changed.size());
+        for (Object[] update : updates) {
+            update[1] = version++;
+        }
+        jdbcTemplate.batchUpdate("UPDATE lessons SET order_index = ?, change_version = ? WHERE id = ?", updates);
+
+        // Written behind JPA's back, so the second-level cache forgets the rows once they are visible
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+                changed.forEach(id -> cache.evictEntityData(Lesson.class, id));
+                cache.evictCollectionData(Course.class.getName() + ".lessons", courseId);
+            }
+        });
+        jsonResponseCache.invalidate(JsonResponseCache.COURSES, JsonResponseCache.LESSONS);
+        return Optional.of(changed.size());
     }
 }
@@ -1,12 +1,15 @@
 package com.eduquesteasy.services;
 
+import com.eduquesteasy.concurrency.PreconditionFailedException;
 import com.eduquesteasy.models.News;
 import com.eduquesteasy.repositories.NewsRepository;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 @Service
+@Transactional(readOnly = true)
 public class NewsService {
 
     private final NewsRepository newsRepository;
@@ -19,13 +22,16 @@ public class NewsService {
         return newsRepository.findAll();
     }
 
+    @Transactional
     public News addNews(News news) {
         return newsRepository.save(news);
     }
 
-    public News updateNews(Long id, News newsDetails) {
+    @Transactional
+    public News updateNews(Long id, News newsDetails, Long expectedVersion) {
         News news = newsRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("News not found"));
+        PreconditionFailedException.check("News", expectedVersion, news.getVersion());
         news.setTitle(newsDetails.getTitle());
         news.setDescription(newsDetails.getDescription());
         news.setImageUrl(newsDetails.getImageUrl());
@@ -33,6 +39,7 @@ public class NewsService {
         return newsRepository.save(news);
     }
 
+    @Transactional
     public void deleteNews(Long id) {
         newsRepository.deleteById(id);
     }
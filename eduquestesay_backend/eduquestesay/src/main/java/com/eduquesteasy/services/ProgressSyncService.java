@@ -0,0 +1,223 @@
+package com.eduquesteasy.services;
+
+import com.eduquesteasy.Request.ProgressSyncRequest;
+import com.eduquesteasy.Request.ProgressSyncRequest.ProgressEvent;
+import com.eduquesteasy.archive.EnrollmentArchiver;
+import com.eduquesteasy.events.EnrollmentEventPublisher;
+import com.eduquesteasy.identity.IdentityResolver;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+
+/**
+ * Applies progress recorded offline by the mobile app in one round trip.
+ *
+ * Progress only ever moves forward: the highest value per course wins, both
+ * within a batch and against what the server already has. That makes the sync
+ * idempotent, so a client that lost the response simply sends the batch again.
+ * No row is locked: each raise is one conditional update, and only rows it
+ * actually changed publish an event.
+ */
+@Service
+@Transactional(readOnly = true)
+public class ProgressSyncService {
+
+    private static final String ENROLLMENTS_SQL = """
+            SELECT id, course_id, progress, enrollment_date, version
+            FROM enrollments
+            WHERE student_id = :studentId AND course_id IN (:courseIds)
+            """;
+
+    // Matches only while the stored progress is lower, so a concurrent higher write makes it a no-op.
+    // Bumps the optimistic lock version too, so If-Match holders see the change
+    private static final String RAISE_PROGRESS_SQL = "UPDATE enrollments "
+            + "SET progress = GREATEST(COALESCE(progress, 0), ?), version = version + 1 "
+            + "WHERE id = ? AND COALESCE(progress, 0) < ?";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final EnrollmentEventPublisher eventPublisher;
+    private final EnrollmentArchiver enrollmentArchiver;
+    private final IdentityResolver identityResolver;
+
+    @Value("${eduquest.sync.max-events:500}")
+    private int maxEvents;
+
+    @Value("${eduquest.sync.clock-skew-ms:300000}")
+    private long clockSkewMs;
+
+    public ProgressSyncService(NamedParameterJdbcTemplate jdbcTemplate, EnrollmentEventPublisher eventPublisher,
+                               EnrollmentArchiver enrollmentArchiver, IdentityResolver identityResolver) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.eventPublisher = eventPublisher;
+        this.enrollmentArchiver = enrollmentArchiver;
+        this.identityResolver = identityResolver;
+    }
+
+    @Transactional
+    public Map<String, Object> sync(ProgressSyncRequest request) {
+        String studentEmail = request.getStudentEmail();
+        List<ProgressEvent> events = request.getEvents() == null ? List.of() : request.getEvents();
+        if (studentEmail == null || studentEmail.isBlank()) {
+            throw new IllegalArgumentException("studentEmail is required");
+        }
+        if (events.size() > maxEvents) {
+            throw new IllegalArgumentException("At most " + maxEvents + " events per sync");
+        }
+
+        List<Map<String, Object>> rejected = new ArrayList<>();
+        List<ProgressEvent> valid = new ArrayList<>(events.size());
+        long acknowledgedSequence = 0;
+        for (ProgressEvent event : events) {
+            // Everything in the batch is acknowledged: sending a rejected event again won't help
+            acknowledgedSequence = Math.max(acknowledgedSequence, event.getSequence());
+            if (event.getCourseId() == null || event.getProgress() == null
+                    || event.getProgress() < 0 || event.getProgress() > 100) {
+                rejected.add(rejection(event, "Progress must be between 0 and 100"));
+            } else {
+                valid.add(event);
+            }
+        }
+
+        Map<Long, EnrollmentRow> enrollments = loadEnrollments(studentEmail, valid);
+
+        // Collapse to the highest progress per course, dropping replays of the same event
+        Set<String> seen = new HashSet<>();
+        Map<Long, Double> target = new LinkedHashMap<>();
+        int duplicates = 0;
+        for (ProgressEvent event : valid) {
+            if (!seen.add(event.getCourseId() + ":" + event.getSequence())) {
+                duplicates++;
+                continue;
+            }
+            EnrollmentRow enrollment = enrollments.get(event.getCourseId());
+            if (enrollment == null) {
+                rejected.add(rejection(event, "Not enrolled in this course"));
+            } else if (recordedBefore(event, enrollment)) {
+                // Left over from an earlier enrollment the student withdrew from
+                rejected.add(rejection(event, "Recorded before the current enrollment"));
+            } else {
+                target.merge(event.getCourseId(), event.getProgress(), Math::max);
+            }
+        }
+
+        List<EnrollmentRow> candidates = new ArrayList<>();
+        for (Map.Entry<Long, Double> entry : target.entrySet()) {
+            EnrollmentRow enrollment = enrollments.get(entry.getKey());
+            if (entry.getValue() > enrollment.progressOrZero()) {
+                candidates.add(enrollment.withTarget(entry.getValue()));
+            }
+        }
+        List<EnrollmentRow> raised = new ArrayList<>(candidates.size());
+        if (!candidates.isEmpty()) {
+            int[][] counts = jdbcTemplate.getJdbcTemplate().batchUpdate(RAISE_PROGRESS_SQL, candidates,
+                    candidates.size(), (ps, row) -> {
+                        ps.setDouble(1, row.target());
+                        ps.setLong(2, row.id());
+                        ps.setDouble(3, row.target());
+                    });
+            // 0 rows: someone raised it at least as far in the meantime. A driver that cannot
+            // report the count (SUCCESS_NO_INFO) is taken as changed
+            for (int i = 0; i < candidates.size(); i++) {
+                if (counts[0][i] != 0) {
+                    raised.add(candidates.get(i));
+                }
+            }
+            for (EnrollmentRow row : raised) {
+                eventPublisher.progressChanged(row.id(), row.courseId(), studentEmail, row.enrollmentDate(),
+                        row.progress(), row.target());
+                enrollments.put(row.courseId(), row);
+            }
+        }
+
+        Set<Long> raisedCourses = new HashSet<>();
+        raised.forEach(row -> raisedCourses.add(row.courseId()));
+        List<Map<String, Object>> state = new ArrayList<>();
+        for (EnrollmentRow row : enrollments.values()) {
+            Map<String, Object> enrollment = new LinkedHashMap<>();
+            enrollment.put("enrollmentId", row.id());
+            enrollment.put("courseId", row.courseId());
+            enrollment.put("progress", row.target() != null ? row.target() : row.progressOrZero());
+            enrollment.put("enrollmentDate", row.enrollmentDate());
+            enrollment.put("version", row.target() != null ? row.version() + 1 : row.version());
+            enrollment.put("updated", raisedCourses.contains(row.courseId()));
+            state.add(enrollment);
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("studentEmail", studentEmail);
+        response.put("received", events.size());
+        response.put("applied", raised.size());
+        response.put("duplicates", duplicates);
+        response.put("acknowledgedSequence", acknowledgedSequence);
+        response.put("enrollments", state);
+        response.put("rejected", rejected);
+        return response;
+    }
+
+    private Map<Long, EnrollmentRow> loadEnrollments(String studentEmail, List<ProgressEvent> events) {
+        Set<Long> courseIds = new TreeSet<>();
+        events.forEach(event -> courseIds.add(event.getCourseId()));
+        // A student never seen before has no enrollments
+        Optional<Long> studentId = identityResolver.findStudentId(studentEmail);
+        if (courseIds.isEmpty() || studentId.isEmpty()) {
+            return new LinkedHashMap<>();
+        }
+        Map<Long, EnrollmentRow> enrollments = new LinkedHashMap<>();
+        loadEnrollments(studentId.get(), courseIds, enrollments);
+
+        // Courses without a hot enrollment may have an archived one; bring those back and read them too
+        Set<Long> missing = new TreeSet<>(courseIds);
+        missing.removeAll(enrollments.keySet());
+        if (!missing.isEmpty() && enrollmentArchiver.restore(studentId.get(), missing) > 0) {
+            loadEnrollments(studentId.get(), missing, enrollments);
+        }
+        return enrollments;
+    }
+
+    private void loadEnrollments(long studentId, Set<Long> courseIds, Map<Long, EnrollmentRow> enrollments) {
+        jdbcTemplate.query(ENROLLMENTS_SQL,
+                Map.of("studentId", studentId, "courseIds", courseIds),
+                rs -> {
+                    Timestamp enrollmentDate = rs.getTimestamp(4);
+                    EnrollmentRow row = new EnrollmentRow(rs.getLong(1), rs.getLong(2),
+                            rs.getObject(3, Double.class),
+                            enrollmentDate == null ? null : enrollmentDate.toLocalDateTime(), rs.getLong(5), null);
+                    enrollments.put(row.courseId(), row);
+                });
+    }
+
+    private boolean recordedBefore(ProgressEvent event, EnrollmentRow enrollment) {
+        if (event.getClientTimestamp() == null || enrollment.enrollmentDate() == null) {
+            return false;
+        }
+        Instant enrolledAt = enrollment.enrollmentDate().atZone(ZoneId.systemDefault()).toInstant();
+        return event.getClientTimestamp().plusMillis(clockSkewMs).isBefore(enrolledAt);
+    }
+
+    private static Map<String, Object> rejection(ProgressEvent event, String reason) {
+        Map<String, Object> rejection = new LinkedHashMap<>();
+        rejection.put("courseId", event.getCourseId());
+        rejection.put("sequence", event.getSequence());
+        rejection.put("reason", reason);
+        return rejection;
+    }
+
+    private record EnrollmentRow(long id, long courseId, Double progress, LocalDateTime enrollmentDate,
+                                 long version, Double target) {
+
+        double progressOrZero() {
+            return progress == null ? 0.0 : progress;
+        }
+
+        EnrollmentRow withTarget(double target) {
+            return new EnrollmentRow(id, courseId, progress, enrollmentDate, version, target);
+        }
+    }
+}
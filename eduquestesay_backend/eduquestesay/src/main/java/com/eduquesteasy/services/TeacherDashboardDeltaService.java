@@ -0,0 +1,208 @@
+package com.eduquesteasy.services;
+
+import com.eduquesteasy.datasource.Workload;
+import com.eduquesteasy.datasource.WorkloadType;
+import com.eduquesteasy.events.EnrollmentEvent;
+import com.eduquesteasy.events.EnrollmentEventSubscriber;
+import com.eduquesteasy.events.EnrollmentEventType;
+import com.eduquesteasy.identity.IdentityResolver;
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.repositories.CourseRepository;
+import com.eduquesteasy.repositories.EnrollmentRepository;
+import com.eduquesteasy.repositories.EnrollmentStatsView;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Pushes incremental teacher dashboard updates over WebSocket.
+ *
+ * Enrollment events from the outbox only mark the touched course; a scheduled
+ * flush coalesces everything marked within the window into one message per
+ * teacher that carries the counters that changed and the affected course rows.
+ */
+@Slf4j
+@Service
+public class TeacherDashboardDeltaService implements EnrollmentEventSubscriber {
+
+    private final CourseRepository courseRepository;
+    private final EnrollmentRepository enrollmentRepository;
+    private final ObjectMapper objectMapper;
+    private final IdentityResolver identityResolver;
+
+    @Value("${eduquest.dashboard.delta.send-time-limit-ms:2000}")
+    private int sendTimeLimitMs;
+
+    @Value("${eduquest.dashboard.delta.buffer-size-limit:65536}")
+    private int bufferSizeLimit;
+
+    // teacherEmail -> open dashboard sessions
+    private final Map<String, Set<WebSocketSession>> sessions = new ConcurrentHashMap<>();
+
+    // teacherEmail -> counters last pushed, used to send only what changed
+    private final Map<String, Map<String, Object>> lastCounters = new ConcurrentHashMap<>();
+
+    // courses touched since the last flush
+    private final Set<Long> pendingCourses = ConcurrentHashMap.newKeySet();
+
+    public TeacherDashboardDeltaService(
+            CourseRepository courseRepository,
+            EnrollmentRepository enrollmentRepository,
+            ObjectMapper objectMapper,
+            IdentityResolver identityResolver
+    ) {
+        this.courseRepository = courseRepository;
+        this.enrollmentRepository = enrollmentRepository;
+        this.objectMapper = objectMapper;
+        this.identityResolver = identityResolver;
+    }
+
+    public void subscribe(String teacherEmail, WebSocketSession session) {
+        WebSocketSession safe = new ConcurrentWebSocketSessionDecorator(session, sendTimeLimitMs, bufferSizeLimit);
+        sessions.computeIfAbsent(teacherEmail, k -> ConcurrentHashMap.newKeySet()).add(safe);
+    }
+
+    public void unsubscribe(String teacherEmail, WebSocketSession session) {
+        sessions.computeIfPresent(teacherEmail, (k, set) -> {
+            set.removeIf(s -> s.getId().equals(session.getId()));
+            return set.isEmpty() ? null : set;
+        });
+        if (!sessions.containsKey(teacherEmail)) {
+            lastCounters.remove(teacherEmail);
+        }
+    }
+
+    /**
+     * Mark the courses of committed enrollment events as changed. Cheap and
+     * non-blocking; the actual push happens on the next flush.
+     */
+    @Override
+    public void onEvents(List<EnrollmentEvent> events) {
+        if (sessions.isEmpty()) {
+            return;
+        }
+        for (EnrollmentEvent event : events) {
+            if (event.courseId() != null && event.type() != EnrollmentEventType.COURSE_DELETED) {
+                pendingCourses.add(event.courseId());
+            }
+        }
+    }
+
+    @Workload(WorkloadType.ANALYTICS)
+    @Scheduled(fixedDelayString = "${eduquest.dashboard.delta.coalesce-window-ms:250}")
+    public void flush() {
+        if (pendingCourses.isEmpty()) {
+            return;
+        }
+
+        // Group touched courses by teacher, skipping teachers nobody is watching
+        Map<String, List<Course>> coursesByTeacher = new HashMap<>();
+        for (Iterator<Long> it = pendingCourses.iterator(); it.hasNext(); ) {
+            Long courseId = it.next();
+            it.remove();
+            courseRepository.findById(courseId)
+                    .filter(course -> sessions.containsKey(course.getTeacherEmail()))
+                    .ifPresent(course -> coursesByTeacher
+                            .computeIfAbsent(course.getTeacherEmail(), k -> new ArrayList<>())
+                            .add(course));
+        }
+
+        coursesByTeacher.forEach((teacherEmail, courses) -> {
+            try {
+                pushDelta(teacherEmail, courses);
+            } catch (Exception e) {
+                log.warn("Failed to push dashboard delta to {}: {}", teacherEmail, e.getMessage());
+            }
+        });
+    }
+
+    private void pushDelta(String teacherEmail, List<Course> courses) throws IOException {
+        Map<String, Object> counters = computeCounters(teacherEmail);
+        Map<String, Object> previous = lastCounters.put(teacherEmail, counters);
+
+        Map<String, Object> changedCounters = new LinkedHashMap<>();
+        counters.forEach((key, value) -> {
+            if (previous == null || !Objects.equals(previous.get(key), value)) {
+                changedCounters.put(key, value);
+            }
+        });
+
+        List<Map<String, Object>> courseRows = courses.stream()
+                .map(this::computeCourseRow)
+                .toList();
+
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("type", "dashboardDelta");
+        delta.put("teacherEmail", teacherEmail);
+        delta.put("counters", changedCounters);
+        delta.put("courses", courseRows);
+
+        TextMessage message = new TextMessage(objectMapper.writeValueAsString(delta));
+        for (WebSocketSession session : sessions.getOrDefault(teacherEmail, Set.of())) {
+            if (!session.isOpen()) {
+                unsubscribe(teacherEmail, session);
+                continue;
+            }
+            try {
+                session.sendMessage(message);
+            } catch (Exception e) {
+                // Slow or dead consumer: drop it rather than stall the flush
+                log.debug("Dropping dashboard session {}: {}", session.getId(), e.getMessage());
+                unsubscribe(teacherEmail, session);
+            }
+        }
+    }
+
+    private Map<String, Object> computeCounters(String teacherEmail) {
+        // An unknown teacher has no id; comparing with null matches no enrollment
+        Long teacherId = identityResolver.findTeacherId(teacherEmail).orElse(null);
+        EnrollmentStatsView stats = enrollmentRepository.getStatsByTeacherId(teacherId);
+
+        Map<String, Object> counters = new LinkedHashMap<>();
+        counters.put("totalStudents", enrollmentRepository.countDistinctStudentsByTeacherId(teacherId));
+        counters.put("totalEnrollments", stats.getTotal());
+        counters.put("averageProgress", round(stats.getAverageProgress()));
+        counters.put("completedStudents", stats.getCompleted());
+        counters.put("activeStudents", stats.getActive());
+        counters.put("notStartedStudents", stats.getNotStarted());
+        return counters;
+    }
+
+    private Map<String, Object> computeCourseRow(Course course) {
+        EnrollmentStatsView stats = enrollmentRepository.getStatsByCourseId(course.getId());
+        long totalStudents = stats.getTotal();
+        long completedStudents = stats.getCompleted();
+
+        // Same shape as TeacherDashboardService.getCoursePerformance rows
+        Map<String, Object> row = new HashMap<>();
+        row.put("courseId", course.getId());
+        row.put("courseTitle", course.getTitle());
+        row.put("totalStudents", totalStudents);
+        row.put("completedStudents", completedStudents);
+        row.put("averageProgress", round(stats.getAverageProgress()));
+        row.put("rating", course.getRating());
+        row.put("completionRate", totalStudents > 0 ?
+                Math.round((completedStudents * 100.0 / totalStudents) * 100.0) / 100.0 : 0.0);
+        return row;
+    }
+
+    private static double round(Double value) {
+        return value == null ? 0.0 : Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -1,68 +1,87 @@
 package com.eduquesteasy.services;
 
+import com.eduquesteasy.archive.EnrollmentArchiver;
+import com.eduquesteasy.concurrency.PreconditionFailedException;
+import com.eduquesteasy.datasource.Workload;
+import com.eduquesteasy.datasource.WorkloadType;
 import com.eduquesteasy.models.Course;
 import com.eduquesteasy.models.Enrollment;
 import com.eduquesteasy.models.Lesson;
+import com.eduquesteasy.events.EnrollmentEventPublisher;
+import com.eduquesteasy.facets.CourseFacetService;
+import com.eduquesteasy.identity.IdentityResolver;
+import com.eduquesteasy.leaderboard.LeaderboardService;
+import com.eduquesteasy.ratings.CourseRatingService;
+import com.eduquesteasy.ratings.RatingSummary;
 import com.eduquesteasy.repositories.CourseRepository;
 import com.eduquesteasy.repositories.EnrollmentRepository;
 import com.eduquesteasy.repositories.LessonRepository;
+import com.eduquesteasy.singleflight.SingleFlight;
 import lombok.RequiredArgsConstructor;
+import org.hibernate.Hibernate;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Transactional(readOnly = true)
 public class TeacherDashboardService {
 
     private final CourseRepository courseRepository;
     private final EnrollmentRepository enrollmentRepository;
     private final LessonRepository lessonRepository;
+    private final EnrollmentEventPublisher eventPublisher;
+    private final LeaderboardService leaderboardService;
+    private final CourseFacetService courseFacetService;
+    private final EnrollmentArchiver enrollmentArchiver;
+    private final IdentityResolver identityResolver;
+    private final CourseRatingService courseRatingService;
+    private final LessonService lessonService;
+    private final CourseService courseService;
 
     // Dashboard Statistics
     public long countCoursesByTeacher(String teacherEmail) {
-        return courseRepository.findByTeacherEmail(teacherEmail).size();
+        return coursesOf(teacherEmail).size();
     }
 
+    @Workload(WorkloadType.ANALYTICS)
     public long countStudentsByTeacher(String teacherEmail) {
-        // Get all courses by teacher, then count unique students across all enrollments
-        List<Course> teacherCourses = courseRepository.findByTeacherEmail(teacherEmail);
-        return teacherCourses.stream()
-                .flatMap(course -> enrollmentRepository.findByCourseId(course.getId()).stream())
-                .map(Enrollment::getStudentEmail)
-                .distinct()
-                .count();
+        // Unique students across all of the teacher's courses, counted on student ids in the database
+        return identityResolver.findTeacherId(teacherEmail)
+                .map(enrollmentRepository::countDistinctStudentsByTeacherId)
+                .orElse(0L);
     }
 
+    @Workload(WorkloadType.ANALYTICS)
     public long countLessonsByTeacher(String teacherEmail) {
         // Get all courses by teacher, then sum lessons count
-        List<Course> teacherCourses = courseRepository.findByTeacherEmail(teacherEmail);
+        List<Course> teacherCourses = coursesOf(teacherEmail);
         return teacherCourses.stream()
                 .mapToLong(course -> lessonRepository.findByCourseId(course.getId()).size())
                 .sum();
     }
 
-    public double getAverageRatingByTeacher(String teacherEmail) {
-        List<Course> teacherCourses = courseRepository.findByTeacherEmail(teacherEmail);
-        if (teacherCourses.isEmpty()) {
-            return 0.0;
-        }
-        return teacherCourses.stream()
-                .mapToDouble(Course::getRating)
-                .average()
-                .orElse(0.0);
+    // Average over every student rating of the teacher's courses, from the teacher's running aggregate
+    public RatingSummary getRatingByTeacher(String teacherEmail) {
+        return identityResolver.findTeacherId(teacherEmail)
+                .map(courseRatingService::getTeacherRating)
+                .orElse(new RatingSummary(0, 0, 0.0, Map.of()));
     }
 
     // Course Management
     public List<Course> getCoursesByTeacher(String teacherEmail) {
-        return courseRepository.findByTeacherEmail(teacherEmail);
+        return coursesOf(teacherEmail);
     }
 
     public List<Course> getRecentCoursesByTeacher(String teacherEmail, int limit) {
-        List<Course> allCourses = courseRepository.findByTeacherEmail(teacherEmail);
+        List<Course> allCourses = coursesOf(teacherEmail);
         // Assuming courses have createdAt field, sort by ID for simplicity
         return allCourses.stream()
                 .sorted((c1, c2) -> c2.getId().compareTo(c1.getId())) // Recent first
@@ -75,12 +94,18 @@ public class TeacherDashboardService {
                 .orElseThrow(() -> new RuntimeException("Course not found with id: " + courseId));
     }
 
+    @Transactional
     public Course createCourse(Course course) {
-        return courseRepository.save(course);
+        Course saved = courseRepository.save(course);
+        leaderboardService.courseSaved(saved);
+        courseFacetService.courseSaved(saved);
+        return saved;
     }
 
-    public Course updateCourse(Long courseId, Course course) {
+    @Transactional
+    public Course updateCourse(Long courseId, Course course, Long expectedVersion) {
         Course existingCourse = getCourseById(courseId);
+        PreconditionFailedException.check("Course", expectedVersion, existingCourse.getVersion());
 
         // Update fields
         existingCourse.setTitle(course.getTitle());
@@ -88,24 +113,18 @@ public class TeacherDashboardService {
         existingCourse.setCategory(course.getCategory());
         existingCourse.setImageUrl(course.getImageUrl());
         existingCourse.setLevel(course.getLevel());
-        existingCourse.setRating(course.getRating());
         existingCourse.setDuration(course.getDuration());
         existingCourse.setTeacherEmail(course.getTeacherEmail());
 
-        return courseRepository.save(existingCourse);
+        Course saved = courseRepository.save(existingCourse);
+        leaderboardService.courseSaved(saved);
+        courseFacetService.courseSaved(saved);
+        return saved;
     }
 
+    @Transactional
     public void deleteCourse(Long courseId) {
-        // First delete all lessons associated with the course
-        List<Lesson> lessons = lessonRepository.findByCourseId(courseId);
-        lessonRepository.deleteAll(lessons);
-
-        // Then delete all enrollments
-        List<Enrollment> enrollments = enrollmentRepository.findByCourseId(courseId);
-        enrollmentRepository.deleteAll(enrollments);
-
-        // Finally delete the course
-        courseRepository.deleteById(courseId);
+        courseService.deleteCourse(courseId);
     }
 
     // Enrollment Management
@@ -113,34 +132,90 @@ public class TeacherDashboardService {
         return enrollmentRepository.findByCourseId(courseId);
     }
 
+    @Workload(WorkloadType.ANALYTICS)
     public List<Enrollment> getEnrollmentsByTeacher(String teacherEmail) {
         // Get all courses by teacher, then get enrollments for each course
-        List<Course> teacherCourses = courseRepository.findByTeacherEmail(teacherEmail);
+        List<Course> teacherCourses = coursesOf(teacherEmail);
         return teacherCourses.stream()
                 .flatMap(course -> enrollmentRepository.findByCourseId(course.getId()).stream())
                 .collect(Collectors.toList());
     }
 
-    public Enrollment updateStudentProgress(Long enrollmentId, Double progress) {
+    @Transactional
+    public Enrollment updateStudentProgress(Long enrollmentId, Double progress, Long expectedVersion) {
+        // An archived enrollment moves back to the hot table first
         Enrollment enrollment = enrollmentRepository.findById(enrollmentId)
+                .or(() -> enrollmentArchiver.restore(enrollmentId)
+                        ? enrollmentRepository.findById(enrollmentId) : Optional.empty())
                 .orElseThrow(() -> new RuntimeException("Enrollment not found with id: " + enrollmentId));
+        PreconditionFailedException.check("Enrollment", expectedVersion, enrollment.getVersion());
 
+        Double previousProgress = enrollment.getProgress();
         enrollment.setProgress(progress);
-        return enrollmentRepository.save(enrollment);
+        Enrollment saved = enrollmentRepository.save(enrollment);
+        if (!Objects.equals(previousProgress, saved.getProgress())) {
+            eventPublisher.progressChanged(saved, previousProgress);
+        }
+        return saved;
     }
 
     // Lesson Management
     public List<Lesson> getLessonsByCourse(Long courseId) {
-        return lessonRepository.findByCourseIdOrderByOrderIndexAsc(courseId);
+        return lessonRepository.findByCourseIdOrderByOrderIndexAscIdAsc(courseId);
     }
 
+    @Transactional
     public Lesson addLessonToCourse(Long courseId, Lesson lesson) {
         Course course = getCourseById(courseId);
         lesson.setCourse(course);
+        // Without a position it goes after the course's last lesson, a full gap past it
+        if (lesson.getOrderIndex() <= 0) {
+            lesson.setOrderIndex(lessonService.nextOrderIndex(courseId));
+        }
         return lessonRepository.save(lesson);
     }
 
+    // Course details: the course with its lessons, enrollments and average progress
+    @SingleFlight(key = "#courseId")
+    @Workload(WorkloadType.ANALYTICS)
+    public Map<String, Object> getCourseDetails(Long courseId) {
+        Map<String, Object> courseDetails = new HashMap<>();
+
+        Course course = getCourseById(courseId);
+        // Shared with coalesced callers, so nothing may be left to load lazily
+        Hibernate.initialize(course.getLessons());
+        List<Enrollment> enrollments = getEnrollmentsByCourse(courseId);
+        List<Lesson> lessons = getLessonsByCourse(courseId);
+
+        // Calculate course statistics
+        double averageProgress = enrollments.stream()
+                .mapToDouble(Enrollment::getProgress)
+                .average()
+                .orElse(0.0);
+
+        courseDetails.put("course", course);
+        courseDetails.put("enrollments", enrollments);
+        courseDetails.put("lessons", lessons);
+        courseDetails.put("totalStudents", enrollments.size());
+        courseDetails.put("averageProgress", averageProgress);
+
+        return courseDetails;
+    }
+
     // Analytics
+    @SingleFlight(key = "#teacherEmail")
+    @Workload(WorkloadType.ANALYTICS)
+    public Map<String, Object> getTeacherAnalytics(String teacherEmail) {
+        Map<String, Object> analytics = new HashMap<>();
+
+        analytics.put("coursePerformance", getCoursePerformance(teacherEmail));
+        analytics.put("engagementStats", getStudentEngagementStats(teacherEmail));
+        analytics.put("progressTrends", getProgressTrends(teacherEmail));
+
+        return analytics;
+    }
+
+    @Workload(WorkloadType.ANALYTICS)
     public Map<String, Object> getStudentProgressSummary(String teacherEmail) {
         Map<String, Object> summary = new HashMap<>();
 
@@ -172,6 +247,7 @@ public class TeacherDashboardService {
         return summary;
     }
 
+    @Workload(WorkloadType.ANALYTICS)
     public List<Map<String, Object>> getCoursePerformance(String teacherEmail) {
         List<Course> courses = getCoursesByTeacher(teacherEmail);
 
@@ -202,6 +278,7 @@ public class TeacherDashboardService {
         }).collect(Collectors.toList());
     }
 
+    @Workload(WorkloadType.ANALYTICS)
     public Map<String, Object> getStudentEngagementStats(String teacherEmail) {
         Map<String, Object> engagement = new HashMap<>();
 
@@ -243,6 +320,7 @@ public class TeacherDashboardService {
         return engagement;
     }
 
+    @Workload(WorkloadType.ANALYTICS)
     public List<Map<String, Object>> getProgressTrends(String teacherEmail) {
         // For simplicity, return progress trends by course
         // In a real implementation, you might track progress over time
@@ -266,4 +344,11 @@ public class TeacherDashboardService {
             return trend;
         }).collect(Collectors.toList());
     }
-}
\ No newline at end of file
+
+    // A teacher's courses by id; an email no course was ever saved with has none
+    private List<Course> coursesOf(String teacherEmail) {
+        return identityResolver.findTeacherId(teacherEmail)
+                .map(courseRepository::findByTeacherId)
+                .orElse(List.of());
+    }
+}
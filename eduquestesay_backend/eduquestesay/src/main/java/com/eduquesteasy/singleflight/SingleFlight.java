@@ -0,0 +1,28 @@
+package com.eduquesteasy.singleflight;
+
+import java.lang.annotation.*;
+
+/**
+ * Coalesces concurrent calls of a service method that share the same key: the first
+ * caller computes the result, callers arriving while it runs wait for it, and callers
+ * arriving within {@link #lingerMs()} after it finished get it too.
+ *
+ * The result object is handed to every caller, so it must be fully initialized
+ * (no lazy associations left to load) and must not be modified by callers.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface SingleFlight {
+
+    /**
+     * SpEL expression over the method arguments ({@code #name} or {@code #p0}).
+     * Empty means all arguments.
+     */
+    String key() default "";
+
+    /**
+     * How long a finished result keeps being served; -1 uses {@code eduquest.singleflight.linger-ms}.
+     */
+    long lingerMs() default -1;
+}
@@ -0,0 +1,33 @@
+package com.eduquesteasy.singleflight;
+
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class SingleFlightConfig {
+
+    @Bean
+    public SingleFlightGroup singleFlightGroup() {
+        return new SingleFlightGroup();
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor singleFlightAdvisor(@Lazy SingleFlightGroup singleFlightGroup,
+                                              @Value("${eduquest.singleflight.linger-ms:200}") long lingerMs) {
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(SingleFlight.class),
+                new SingleFlightInterceptor(singleFlightGroup, lingerMs));
+        // Outermost: followers must not open a transaction or take a connection
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 50);
+        return advisor;
+    }
+}
@@ -0,0 +1,119 @@
+package com.eduquesteasy.singleflight;
+
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-flight and lingering computations by key. The leader for a key is whoever
+ * installs its flight first through {@code putIfAbsent}; everyone else joins that flight.
+ */
+public class SingleFlightGroup {
+
+    private final Map<FlightKey, Flight> flights = new ConcurrentHashMap<>();
+    private final Map<String, FlightStats> stats = new ConcurrentHashMap<>();
+
+    public Object execute(String name, Object key, long lingerMs, Computation computation) throws Throwable {
+        FlightKey flightKey = new FlightKey(name, key);
+        FlightStats flightStats = stats.computeIfAbsent(name, n -> new FlightStats());
+
+        while (true) {
+            Flight existing = flights.get(flightKey);
+            if (existing != null) {
+                if (existing.isExpired(System.nanoTime())) {
+                    flights.remove(flightKey, existing);
+                    continue;
+                }
+                (existing.future.isDone() ? flightStats.lingerHits : flightStats.joined).increment();
+                return await(existing.future);
+            }
+
+            Flight flight = new Flight();
+            if (flights.putIfAbsent(flightKey, flight) != null) {
+                continue;
+            }
+            flightStats.computed.increment();
+            try {
+                Object result = computation.compute();
+                flight.finish(lingerMs);
+                flight.future.complete(result);
+                if (lingerMs <= 0) {
+                    flights.remove(flightKey, flight);
+                }
+                return result;
+            } catch (Throwable e) {
+                // Failures are shared with the callers already waiting, never lingered
+                flights.remove(flightKey, flight);
+                flight.future.completeExceptionally(e);
+                throw e;
+            }
+        }
+    }
+
+    private static Object await(CompletableFuture<Object> future) throws Throwable {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            throw e.getCause() != null ? e.getCause() : e;
+        }
+    }
+
+    @Scheduled(fixedDelay = 10_000)
+    public void purgeExpired() {
+        long now = System.nanoTime();
+        flights.values().removeIf(flight -> flight.isExpired(now));
+    }
+
+    public Map<String, FlightStats> getStats() {
+        return stats;
+    }
+
+    public int getActiveFlights() {
+        return flights.size();
+    }
+
+    @FunctionalInterface
+    public interface Computation {
+        Object compute() throws Throwable;
+    }
+
+    private record FlightKey(String name, Object key) {
+    }
+
+    private static class Flight {
+        final CompletableFuture<Object> future = new CompletableFuture<>();
+        // System.nanoTime() after which the finished result is no longer served; 0 while running
+        volatile long expiresAt;
+
+        void finish(long lingerMs) {
+            expiresAt = Math.max(1L, System.nanoTime() + lingerMs * 1_000_000L);
+        }
+
+        boolean isExpired(long now) {
+            long deadline = expiresAt;
+            return deadline != 0 && deadline - now <= 0;
+        }
+    }
+
+    public static class FlightStats {
+        final LongAdder computed = new LongAdder();
+        final LongAdder joined = new LongAdder();
+        final LongAdder lingerHits = new LongAdder();
+
+        public long getComputed() {
+            return computed.sum();
+        }
+
+        public long getJoined() {
+            return joined.sum();
+        }
+
+        public long getLingerHits() {
+            return lingerHits.sum();
+        }
+    }
+}
@@ -0,0 +1,64 @@
+package com.eduquesteasy.singleflight;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.context.expression.MethodBasedEvaluationContext;
+import org.springframework.core.DefaultParameterNameDiscoverer;
+import org.springframework.core.ParameterNameDiscoverer;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.expression.Expression;
+import org.springframework.expression.spel.standard.SpelExpressionParser;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs {@link SingleFlight} methods through the {@link SingleFlightGroup}, keyed by
+ * the declaring class, the method name and the evaluated key expression.
+ */
+public class SingleFlightInterceptor implements MethodInterceptor {
+
+    private final SingleFlightGroup group;
+    private final long defaultLingerMs;
+
+    private final SpelExpressionParser parser = new SpelExpressionParser();
+    private final ParameterNameDiscoverer parameterNames = new DefaultParameterNameDiscoverer();
+    private final Map<Method, Expression> keyExpressions = new ConcurrentHashMap<>();
+
+    public SingleFlightInterceptor(SingleFlightGroup group, long defaultLingerMs) {
+        this.group = group;
+        this.defaultLingerMs = defaultLingerMs;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+        SingleFlight singleFlight = AnnotatedElementUtils.findMergedAnnotation(method, SingleFlight.class);
+        if (singleFlight == null) {
+            return invocation.proceed();
+        }
+
+        String name = targetClass.getSimpleName() + "." + method.getName();
+        Object key = resolveKey(singleFlight, method, invocation.getArguments());
+        long lingerMs = singleFlight.lingerMs() >= 0 ? singleFlight.lingerMs() : defaultLingerMs;
+        return group.execute(name, key, lingerMs, invocation::proceed);
+    }
+
+    private Object resolveKey(SingleFlight singleFlight, Method method, Object[] args) {
+        if (singleFlight.key().isEmpty()) {
+            return List.of(Arrays.stream(args).map(arg -> arg == null ? "null" : arg).toArray());
+        }
+        Expression expression = keyExpressions.computeIfAbsent(method,
+                m -> parser.parseExpression(singleFlight.key()));
+        MethodBasedEvaluationContext context =
+                new MethodBasedEvaluationContext(null, method, args, parameterNames);
+        return expression.getValue(context);
+    }
+}
@@ -0,0 +1,100 @@
+package com.eduquesteasy.startup;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.*;
+
+/**
+ * Logs where startup time went once the application is ready: wall time per
+ * startup phase (step name) and the slowest beans by self time, i.e. excluding
+ * the time spent creating their own dependencies.
+ * Needs the {@link BufferingApplicationStartup} installed in main().
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "eduquest.startup.report.enabled", havingValue = "true", matchIfMissing = true)
+public class StartupReport {
+
+    private static final String BEAN_STEP = "spring.beans.instantiate";
+
+    @Value("${eduquest.startup.report.top:15}")
+    private int top;
+
+    @EventListener
+    public void onReady(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            log.info("Startup report skipped: no BufferingApplicationStartup configured");
+            return;
+        }
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        List<StartupTimeline.TimelineEvent> events = timeline.getEvents();
+
+        // 🔹 Self time = own duration minus the duration of direct child steps
+        Map<Long, Long> childNanos = new HashMap<>();
+        for (StartupTimeline.TimelineEvent e : events) {
+            Long parentId = e.getStartupStep().getParentId();
+            if (parentId != null) {
+                childNanos.merge(parentId, e.getDuration().toNanos(), Long::sum);
+            }
+        }
+
+        Map<String, long[]> phases = new HashMap<>();   // name -> {count, selfNanos}
+        List<BeanTiming> beans = new ArrayList<>();
+        for (StartupTimeline.TimelineEvent e : events) {
+            StartupStep step = e.getStartupStep();
+            long total = e.getDuration().toNanos();
+            long self = Math.max(0, total - childNanos.getOrDefault(step.getId(), 0L));
+
+            long[] phase = phases.computeIfAbsent(step.getName(), n -> new long[2]);
+            phase[0]++;
+            phase[1] += self;
+
+            if (BEAN_STEP.equals(step.getName())) {
+                beans.add(new BeanTiming(tag(step, "beanName"), total, self));
+            }
+        }
+
+        StringBuilder report = new StringBuilder();
+        Duration wall = Duration.between(timeline.getStartTime(), Instant.now());
+        report.append(String.format("Startup report: ready after %d ms (%d recorded steps)%n",
+                wall.toMillis(), events.size()));
+
+        report.append("Phases by self time:\n");
+        phases.entrySet().stream()
+                .sorted((a, b) -> Long.compare(b.getValue()[1], a.getValue()[1]))
+                .limit(top)
+                .forEach(p -> report.append(String.format("  %8.1f ms  x%-5d %s%n",
+                        p.getValue()[1] / 1e6, p.getValue()[0], p.getKey())));
+
+        report.append("Slowest beans by self time (total incl. dependencies):\n");
+        beans.stream()
+                .sorted(Comparator.comparingLong(BeanTiming::selfNanos).reversed())
+                .limit(top)
+                .forEach(b -> report.append(String.format("  %8.1f ms  (%8.1f ms)  %s%n",
+                        b.selfNanos() / 1e6, b.totalNanos() / 1e6, b.name())));
+
+        log.info(report.toString().stripTrailing());
+    }
+
+    private static String tag(StartupStep step, String key) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if (key.equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return "?";
+    }
+
+    private record BeanTiming(String name, long totalNanos, long selfNanos) {
+    }
+}
@@ -0,0 +1,150 @@
+package com.eduquesteasy.sync;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.util.*;
+
+/**
+ * Delta catalog sync: everything created, updated or deleted after a client's last
+ * seen change version, oldest first. Each table is read through its
+ * change_version index, and the results are merged into one page.
+ */
+@Service
+@Transactional(readOnly = true)
+public class CatalogSyncService {
+
+    public static final String COURSE = "course";
+    public static final String LESSON = "lesson";
+    public static final String NEWS = "news";
+
+    private static final String COURSES_SQL = "SELECT c.id, c.title, c.description, cat.name AS category, c.image_url, "
+            + "lvl.name AS level, c.rating, c.duration, c.teacher_email, c.change_version FROM courses c "
+            + "LEFT JOIN course_categories cat ON cat.id = c.category_id "
+            + "LEFT JOIN course_levels lvl ON lvl.id = c.level_id "
+            + "WHERE c.change_version > ? ORDER BY c.change_version LIMIT ?";
+
+    private static final String LESSONS_SQL = "SELECT id, course_id, title, content, video_url, pdf_file, "
+            + "order_index, change_version FROM lessons "
+            + "WHERE change_version > ? ORDER BY change_version LIMIT ?";
+
+    private static final String NEWS_SQL = "SELECT id, title, description, image_url, link, created_at, category, "
+            + "change_version FROM news "
+            + "WHERE change_version > ? ORDER BY change_version LIMIT ?";
+
+    private static final String TOMBSTONES_SQL = "SELECT entity_type, entity_id, change_version "
+            + "FROM catalog_tombstones WHERE change_version > ? ORDER BY change_version LIMIT ?";
+
+    private static final RowMapper<Change> COURSE_MAPPER = (rs, rowNum) -> {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", rs.getLong("id"));
+        row.put("title", rs.getString("title"));
+        row.put("description", rs.getString("description"));
+        row.put("category", rs.getString("category"));
+        row.put("imageUrl", rs.getString("image_url"));
+        row.put("level", rs.getString("level"));
+        row.put("rating", rs.getDouble("rating"));
+        row.put("duration", rs.getInt("duration"));
+        row.put("teacherEmail", rs.getString("teacher_email"));
+        return new Change(COURSE, rs.getLong("change_version"), row);
+    };
+
+    private static final RowMapper<Change> LESSON_MAPPER = (rs, rowNum) -> {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("id", rs.getLong("id"));
+        row.put("courseId", rs.getObject("course_id", Long.class));
+        row.put("title", rs.getString("title"));
+        row.put("content", rs.getString("content"));
+        row.put("videoUrl", rs.getString("video_url"));
+        row.put("pdfFile", rs.getString("pdf_file"));
+        row.put("orderIndex", rs.getInt("order_index"));
+        return new Change(LESSON, rs.getLong("change_version"), row);
+    };
+
+    private static final RowMapper<Change> NEWS_MAPPER = (rs, rowNum) -> {
+        Map<String, Object> row = new LinkedHashMap<>();
+        Timestamp createdAt = rs.getTimestamp("created_at");
+        row.put("id", rs.getLong("id"));
+        row.put("title", rs.getString("title"));
+        row.put("description", rs.getString("description"));
+        row.put("imageUrl", rs.getString("image_url"));
+        row.put("link", rs.getString("link"));
+        row.put("createdAt", createdAt == null ? null : createdAt.toLocalDateTime().toString());
+        row.put("category", rs.getString("category"));
+        return new Change(NEWS, rs.getLong("change_version"), row);
+    };
+
+    private static final RowMapper<Change> TOMBSTONE_MAPPER = (rs, rowNum) -> {
+        Map<String, Object> row = new LinkedHashMap<>();
+        row.put("type", rs.getString("entity_type"));
+        row.put("id", rs.getLong("entity_id"));
+        return new Change(null, rs.getLong("change_version"), row);
+    };
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogSyncService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public Map<String, Object> changesSince(long since, int limit) {
+        long purgedThrough = 0;
+        long currentVersion = 0;
+        List<Map<String, Object>> sequence = jdbcTemplate.queryForList(
+                "SELECT current_version, purged_through FROM catalog_change_seq WHERE id = 1");
+        if (!sequence.isEmpty()) {
+            currentVersion = ((Number) sequence.get(0).get("current_version")).longValue();
+            purgedThrough = ((Number) sequence.get(0).get("purged_through")).longValue();
+        }
+
+        // Deletions after the cursor may have been purged: start over from an empty cache
+        boolean reset = since > 0 && since < purgedThrough;
+        long from = reset ? 0 : since;
+
+        // One extra row per source tells whether anything is left after this page
+        List<Change> changes = new ArrayList<>();
+        changes.addAll(jdbcTemplate.query(COURSES_SQL, COURSE_MAPPER, from, limit + 1));
+        changes.addAll(jdbcTemplate.query(LESSONS_SQL, LESSON_MAPPER, from, limit + 1));
+        changes.addAll(jdbcTemplate.query(NEWS_SQL, NEWS_MAPPER, from, limit + 1));
+        changes.addAll(jdbcTemplate.query(TOMBSTONES_SQL, TOMBSTONE_MAPPER, from, limit + 1));
+        changes.sort(Comparator.comparingLong(Change::version));
+
+        boolean hasMore = changes.size() > limit;
+        List<Change> page = hasMore ? changes.subList(0, limit) : changes;
+
+        Map<String, List<Map<String, Object>>> upserts = new LinkedHashMap<>();
+        upserts.put(COURSE, new ArrayList<>());
+        upserts.put(LESSON, new ArrayList<>());
+        upserts.put(NEWS, new ArrayList<>());
+        List<Map<String, Object>> deleted = new ArrayList<>();
+        long nextSince = from;
+        for (Change change : page) {
+            change.row().put("changeVersion", change.version());
+            if (change.type() == null) {
+                deleted.add(change.row());
+            } else {
+                upserts.get(change.type()).add(change.row());
+            }
+            nextSince = change.version();
+        }
+
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("since", since);
+        response.put("reset", reset);
+        response.put("nextSince", nextSince);
+        response.put("hasMore", hasMore);
+        response.put("currentVersion", currentVersion);
+        response.put("courses", upserts.get(COURSE));
+        response.put("lessons", upserts.get(LESSON));
+        response.put("news", upserts.get(NEWS));
+        response.put("deleted", deleted);
+        return response;
+    }
+
+    // type is null for tombstones
+    private record Change(String type, long version, Map<String, Object> row) {
+    }
+}
@@ -0,0 +1,147 @@
+package com.eduquesteasy.sync;
+
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.models.Lesson;
+import com.eduquesteasy.models.News;
+import com.eduquesteasy.responsecache.JsonResponseCache;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Hands out catalog change versions from the catalog_change_seq row.
+ *
+ * The row stays locked until the writing transaction ends, so catalog writes are
+ * serialized and a version only becomes visible after every lower one has. A
+ * client that has seen version V can therefore never later miss a change at or
+ * below V. Catalog writes are rare (teachers editing content), which is what
+ * makes the single counter affordable.
+ */
+@Slf4j
+@Component
+public class CatalogVersionAllocator {
+
+    private static final String[] VERSIONED_TABLES = {"courses", "lessons", "news"};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final EntityManagerFactory entityManagerFactory;
+    private final JsonResponseCache jsonResponseCache;
+
+    @Value("${eduquest.sync.tombstone-retention-days:90}")
+    private int tombstoneRetentionDays;
+
+    public CatalogVersionAllocator(JdbcTemplate jdbcTemplate, EntityManagerFactory entityManagerFactory,
+                                   JsonResponseCache jsonResponseCache) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.entityManagerFactory = entityManagerFactory;
+        this.jsonResponseCache = jsonResponseCache;
+    }
+
+    @PostConstruct
+    void ensureSequence() {
+        Integer rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM catalog_change_seq WHERE id = 1", Integer.class);
+        if (rows != null && rows > 0) {
+            return;
+        }
+        long highest = 0;
+        for (String table : VERSIONED_TABLES) {
+            Long max = jdbcTemplate.queryForObject("SELECT MAX(change_version) FROM " + table, Long.class);
+            highest = Math.max(highest, max == null ? 0 : max);
+        }
+        try {
+            jdbcTemplate.update("INSERT INTO catalog_change_seq (id, current_version, purged_through) VALUES (1, ?, 0)",
+                    highest);
+        } catch (DuplicateKeyException e) {
+            // Created concurrently by another instance
+        }
+    }
+
+    /**
+     * Next change version; must be called inside the writing transaction.
+     */
+    public long next() {
+        return reserve(1);
+    }
+
+    /**
+     * Reserve {@code count} consecutive change versions for a bulk write and return
+     * the first; must be called inside the writing transaction.
+     */
+    public long reserve(int count) {
+        long first = lockCurrentVersion() + 1;
+        jdbcTemplate.update("UPDATE catalog_change_seq SET current_version = ? WHERE id = 1", first + count - 1);
+        return first;
+    }
+
+    public void recordDeletion(String entityType, long entityId) {
+        jdbcTemplate.update("INSERT INTO catalog_tombstones (entity_type, entity_id, change_version, deleted_at) "
+                + "VALUES (?, ?, ?, ?)", entityType, entityId, next(), Timestamp.valueOf(LocalDateTime.now()));
+    }
+
+    /**
+     * Give rows written behind JPA's back (bulk loads, rows predating change
+     * versions) a distinct version each. Run once the startup data loaders are done.
+     */
+    @Transactional
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillUnversioned() {
+        long version = lockCurrentVersion();
+        long assigned = 0;
+        for (String table : VERSIONED_TABLES) {
+            Long maxId = jdbcTemplate.queryForObject(
+                    "SELECT MAX(id) FROM " + table + " WHERE change_version = 0", Long.class);
+            if (maxId == null) {
+                continue;
+            }
+            // id + offset keeps versions distinct within the table, and the offset moves past them for the next one
+            assigned += jdbcTemplate.update(
+                    "UPDATE " + table + " SET change_version = id + ? WHERE change_version = 0", version);
+            version += maxId;
+        }
+        if (assigned > 0) {
+            jdbcTemplate.update("UPDATE catalog_change_seq SET current_version = ? WHERE id = 1", version);
+            entityManagerFactory.getCache().evict(Course.class);
+            entityManagerFactory.getCache().evict(Lesson.class);
+            entityManagerFactory.getCache().evict(News.class);
+            jsonResponseCache.invalidate(JsonResponseCache.COURSES, JsonResponseCache.LESSONS);
+            log.info("Assigned catalog change versions to {} unversioned rows", assigned);
+        }
+    }
+
+    /**
+     * Drop old tombstones. Clients whose cursor is older than the purged range are
+     * told to resync from scratch.
+     */
+    @Transactional
+    @Scheduled(fixedDelayString = "${eduquest.sync.tombstone-purge-interval-ms:86400000}")
+    public void purgeTombstones() {
+        Timestamp cutoff = Timestamp.valueOf(LocalDateTime.now().minusDays(tombstoneRetentionDays));
+        Long through = jdbcTemplate.queryForObject(
+                "SELECT MAX(change_version) FROM catalog_tombstones WHERE deleted_at < ?", Long.class, cutoff);
+        if (through == null) {
+            return;
+        }
+        lockCurrentVersion();
+        int purged = jdbcTemplate.update("DELETE FROM catalog_tombstones WHERE change_version <= ?", through);
+        jdbcTemplate.update("UPDATE catalog_change_seq SET purged_through = ? WHERE id = 1 AND purged_through < ?",
+                through, through);
+        log.debug("Purged {} catalog tombstones through version {}", purged, through);
+    }
+
+    private long lockCurrentVersion() {
+        Long current = jdbcTemplate.queryForObject(
+                "SELECT current_version FROM catalog_change_seq WHERE id = 1 FOR UPDATE", Long.class);
+        return current == null ? 0 : current;
+    }
+}
@@ -0,0 +1,47 @@
+package com.eduquesteasy.sync;
+
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.models.Lesson;
+import com.eduquesteasy.models.News;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreRemove;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Stamps catalog entities with a fresh change version on every insert and update,
+ * and leaves a tombstone when one is deleted. Instantiated by Hibernate through
+ * Spring, which is why the allocator is looked up lazily.
+ */
+public class CatalogVersionListener {
+
+    private final ObjectProvider<CatalogVersionAllocator> allocator;
+
+    public CatalogVersionListener(ObjectProvider<CatalogVersionAllocator> allocator) {
+        this.allocator = allocator;
+    }
+
+    @PrePersist
+    @PreUpdate
+    public void stamp(Object entity) {
+        long version = allocator.getObject().next();
+        if (entity instanceof Course course) {
+            course.setChangeVersion(version);
+        } else if (entity instanceof Lesson lesson) {
+            lesson.setChangeVersion(version);
+        } else if (entity instanceof News news) {
+            news.setChangeVersion(version);
+        }
+    }
+
+    @PreRemove
+    public void tombstone(Object entity) {
+        if (entity instanceof Course course) {
+            allocator.getObject().recordDeletion(CatalogSyncService.COURSE, course.getId());
+        } else if (entity instanceof Lesson lesson) {
+            allocator.getObject().recordDeletion(CatalogSyncService.LESSON, lesson.getId());
+        } else if (entity instanceof News news) {
+            allocator.getObject().recordDeletion(CatalogSyncService.NEWS, news.getId());
+        }
+    }
+}
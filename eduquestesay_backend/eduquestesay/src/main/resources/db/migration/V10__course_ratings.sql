@@ -0,0 +1,42 @@
+-- Courses are rated by their students. course_ratings holds one row per student
+-- and course; courses and teachers carry running aggregates that
+-- CourseRatingService updates in the same transaction as each rating, so reads
+-- and sorting never aggregate course_ratings.
+--
+-- courses.rating becomes the students' average. The values teachers typed in
+-- are not ratings by anyone, so every course starts unrated.
+
+create table course_ratings (
+    id bigint not null auto_increment,
+    course_id bigint not null,
+    student_id bigint not null,
+    stars integer not null,
+    rated_at datetime(6),
+    primary key (id)
+) engine=InnoDB;
+
+alter table course_ratings
+   add constraint uk_course_ratings_course_student unique (course_id, student_id);
+
+create index idx_course_ratings_student
+   on course_ratings (student_id);
+
+alter table course_ratings
+   add constraint fk_course_ratings_course foreign key (course_id) references courses (id);
+
+alter table course_ratings
+   add constraint fk_course_ratings_student foreign key (student_id) references students (id);
+
+alter table courses alter column rating set default 0;
+update courses set rating = 0;
+
+alter table courses add column rating_count bigint default 0 not null;
+alter table courses add column rating_sum bigint default 0 not null;
+alter table courses add column rating_1 bigint default 0 not null;
+alter table courses add column rating_2 bigint default 0 not null;
+alter table courses add column rating_3 bigint default 0 not null;
+alter table courses add column rating_4 bigint default 0 not null;
+alter table courses add column rating_5 bigint default 0 not null;
+
+alter table teachers add column rating_count bigint default 0 not null;
+alter table teachers add column rating_sum bigint default 0 not null;
@@ -0,0 +1,5 @@
+-- Subscribers that accepted a parked event, so a retry delivers it only to the
+-- subscribers that failed.
+
+alter table outbox_events
+   add column delivered_to varchar(500);
@@ -0,0 +1,58 @@
+-- Baseline schema, matching what ddl-auto=create produced for the entities.
+-- Databases created before migrations were introduced are adopted through
+-- spring.flyway.baseline-on-migrate (baseline version 1), so this script only
+-- runs against empty schemas.
+
+create table courses (
+    duration integer not null,
+    rating float(53) not null,
+    id bigint not null auto_increment,
+    category varchar(255),
+    description varchar(255),
+    image_url varchar(255),
+    level varchar(255),
+    teacher_email varchar(255),
+    title varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table enrollments (
+    progress float(53),
+    course_id bigint,
+    enrollment_date datetime(6),
+    id bigint not null auto_increment,
+    student_email varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table lessons (
+    order_index integer not null,
+    course_id bigint,
+    id bigint not null auto_increment,
+    content varchar(255),
+    pdf_file varchar(255),
+    title varchar(255),
+    video_url varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create table news (
+    created_at datetime(6),
+    id bigint not null auto_increment,
+    category varchar(255),
+    description varchar(255),
+    image_url varchar(255),
+    link varchar(255),
+    title varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+alter table enrollments
+   add constraint FKho8mcicp4196ebpltdn9wl6co
+   foreign key (course_id)
+   references courses (id);
+
+alter table lessons
+   add constraint FK17ucc7gjfjddsyi0gvstkqeat
+   foreign key (course_id)
+   references courses (id);
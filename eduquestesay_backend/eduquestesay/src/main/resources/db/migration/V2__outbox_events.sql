@@ -0,0 +1,22 @@
+-- Transactional outbox for enrollment events, written in the same transaction as
+-- the enrollment change and delivered to in-process subscribers afterwards.
+
+create table outbox_events (
+    attempts integer not null,
+    new_progress float(53),
+    old_progress float(53),
+    course_id bigint,
+    dispatched_at datetime(6),
+    enrollment_date datetime(6),
+    enrollment_id bigint,
+    failed_at datetime(6),
+    id bigint not null auto_increment,
+    occurred_at datetime(6),
+    last_error varchar(500),
+    student_email varchar(255),
+    type varchar(32) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_outbox_pending
+   on outbox_events (dispatched_at, failed_at, id);
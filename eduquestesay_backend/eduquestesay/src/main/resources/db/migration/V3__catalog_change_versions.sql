@@ -0,0 +1,34 @@
+-- Change versions for delta catalog sync. Existing rows keep version 0 until the
+-- application assigns them distinct versions at startup.
+
+alter table courses add column change_version bigint default 0 not null;
+alter table lessons add column change_version bigint default 0 not null;
+alter table news add column change_version bigint default 0 not null;
+
+create index idx_courses_change_version
+   on courses (change_version);
+
+create index idx_lessons_change_version
+   on lessons (change_version);
+
+create index idx_news_change_version
+   on news (change_version);
+
+create table catalog_change_seq (
+    id integer not null,
+    current_version bigint not null,
+    purged_through bigint not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table catalog_tombstones (
+    change_version bigint not null,
+    deleted_at datetime(6),
+    entity_id bigint not null,
+    id bigint not null auto_increment,
+    entity_type varchar(16) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_tombstones_change_version
+   on catalog_tombstones (change_version);
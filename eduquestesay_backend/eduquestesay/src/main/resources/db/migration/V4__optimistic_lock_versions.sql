@@ -0,0 +1,6 @@
+-- Optimistic lock versions for conditional (If-Match) updates. Existing rows
+-- start at version 0.
+
+alter table courses add column version bigint default 0 not null;
+alter table enrollments add column version bigint default 0 not null;
+alter table news add column version bigint default 0 not null;
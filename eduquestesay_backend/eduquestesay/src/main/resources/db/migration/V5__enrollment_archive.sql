@@ -0,0 +1,25 @@
+-- Cold enrollments are moved to enrollments_archive by the archiver and keep
+-- their id there. The hot table gets the indexes its lookups need.
+
+create table enrollments_archive (
+    progress float(53),
+    archived_at datetime(6),
+    course_id bigint,
+    enrollment_date datetime(6),
+    id bigint not null,
+    version bigint not null,
+    student_email varchar(255),
+    primary key (id)
+) engine=InnoDB;
+
+create index idx_enrollments_student
+   on enrollments (student_email, course_id);
+
+create index idx_enrollments_course
+   on enrollments (course_id);
+
+create index idx_enrollments_archive_student
+   on enrollments_archive (student_email, course_id);
+
+create index idx_enrollments_archive_course
+   on enrollments_archive (course_id);
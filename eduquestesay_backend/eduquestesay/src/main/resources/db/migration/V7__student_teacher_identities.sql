@@ -0,0 +1,64 @@
+-- Numeric identities for students and teachers. Courses and enrollments keep
+-- their email columns (the API still speaks emails) and gain the id every
+-- lookup now uses. IdentityBackfill runs the same backfill for rows written
+-- by instances still on the previous version during the deploy.
+--
+-- Only courses get a foreign key: enrollments is partitioned on MySQL (see the
+-- mysql V6 migration) and the archive follows it.
+
+create table students (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table teachers (
+    id bigint not null auto_increment,
+    email varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table students
+   add constraint uk_students_email unique (email);
+
+alter table teachers
+   add constraint uk_teachers_email unique (email);
+
+alter table courses add column teacher_id bigint;
+alter table enrollments add column student_id bigint;
+alter table enrollments_archive add column student_id bigint;
+
+insert into teachers (email)
+select distinct teacher_email from courses where teacher_email is not null;
+
+insert into students (email)
+select student_email from enrollments where student_email is not null
+union
+select student_email from enrollments_archive where student_email is not null;
+
+update courses
+   set teacher_id = (select t.id from teachers t where t.email = courses.teacher_email)
+ where teacher_email is not null;
+
+update enrollments
+   set student_id = (select s.id from students s where s.email = enrollments.student_email)
+ where student_email is not null;
+
+update enrollments_archive
+   set student_id = (select s.id from students s where s.email = enrollments_archive.student_email)
+ where student_email is not null;
+
+create index idx_courses_teacher
+   on courses (teacher_id);
+
+alter table courses
+   add constraint fk_courses_teacher foreign key (teacher_id) references teachers (id);
+
+-- Student lookups move from the email to the id
+drop index idx_enrollments_student on enrollments;
+create index idx_enrollments_student
+   on enrollments (student_id, course_id);
+
+drop index idx_enrollments_archive_student on enrollments_archive;
+create index idx_enrollments_archive_student
+   on enrollments_archive (student_id, course_id);
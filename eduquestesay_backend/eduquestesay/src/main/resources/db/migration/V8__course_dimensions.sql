@@ -0,0 +1,50 @@
+-- Course categories and levels become dimension tables. Courses keep a small
+-- integer id instead of repeating the name on every row; the application maps
+-- ids and names through an in-memory dictionary (CourseDimensions).
+-- Names compare case-insensitively, so 'design' and 'Design' become one row.
+
+create table course_categories (
+    id integer not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+create table course_levels (
+    id integer not null auto_increment,
+    name varchar(255) not null,
+    primary key (id)
+) engine=InnoDB;
+
+alter table course_categories
+   add constraint uk_course_categories_name unique (name);
+
+alter table course_levels
+   add constraint uk_course_levels_name unique (name);
+
+insert into course_categories (name)
+select distinct category from courses where category is not null;
+
+insert into course_levels (name)
+select distinct level from courses where level is not null;
+
+alter table courses
+    add column category_id integer,
+    add column level_id integer;
+
+update courses
+   set category_id = (select cat.id from course_categories cat where cat.name = courses.category),
+       level_id = (select lvl.id from course_levels lvl where lvl.name = courses.level);
+
+create index idx_courses_category
+   on courses (category_id);
+
+create index idx_courses_level
+   on courses (level_id);
+
+alter table courses
+    add constraint fk_courses_category foreign key (category_id) references course_categories (id),
+    add constraint fk_courses_level foreign key (level_id) references course_levels (id);
+
+alter table courses
+    drop column category,
+    drop column level;
@@ -0,0 +1,6 @@
+-- Lessons of a course are read and reordered by (course_id, order_index).
+-- Existing order_index values are left as they are: a course is respaced with
+-- gaps the first time a reorder finds no room between its neighbours.
+
+create index idx_lessons_course_order
+   on lessons (course_id, order_index);
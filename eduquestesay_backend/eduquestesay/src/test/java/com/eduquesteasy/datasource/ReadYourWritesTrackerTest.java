@@ -0,0 +1,53 @@
+package com.eduquesteasy.datasource;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionSynchronizationUtils;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ReadYourWritesTrackerTest {
+
+    private final ReadYourWritesTracker tracker = new ReadYourWritesTracker(5_000);
+
+    @BeforeEach
+    void beginTransaction() {
+        tracker.bindCurrentClient("student@test.eduquest.com");
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+    }
+
+    @AfterEach
+    void endTransaction() {
+        TransactionSynchronizationManager.clear();
+        tracker.clearCurrentClient();
+    }
+
+    @Test
+    void writeCountsOnceTheTransactionCommits() {
+        tracker.registerWrite();
+        tracker.registerWrite();
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+        assertFalse(tracker.isCurrentClientSticky());
+
+        TransactionSynchronizationUtils.triggerAfterCommit();
+
+        // Still inside the request: its next reads go to the primary
+        assertTrue(tracker.isCurrentClientSticky());
+    }
+
+    @Test
+    void rolledBackWriteDoesNotCount() {
+        tracker.registerWrite();
+
+        TransactionSynchronizationUtils.triggerAfterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK);
+
+        assertFalse(tracker.isCurrentClientSticky());
+        assertEquals(0, tracker.getStickyClientCount());
+    }
+}
@@ -0,0 +1,52 @@
+package com.eduquesteasy.facets;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CourseFacetIndexTest {
+
+    private CourseFacetIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new CourseFacetIndex();
+        index.upsert(course(1, "Java", 0, 0));
+        index.upsert(course(2, "Python", 0, 0));
+    }
+
+    @Test
+    void courseSaveKeepsTheIndexedRating() {
+        index.updateRating(1, 4.5, 2);
+        // Saved from an entity read before the rating committed
+        index.upsert(course(1, "Java 21", 0, 0));
+
+        CourseSummary indexed = byRating().get(0);
+        assertEquals("Java 21", indexed.title());
+        assertEquals(4.5, indexed.rating());
+        assertEquals(2, indexed.ratingCount());
+    }
+
+    @Test
+    void ratingUpdatesReorderTheRatingSort() {
+        index.updateRating(1, 3.0, 1);
+        index.updateRating(2, 5.0, 1);
+        assertEquals(List.of(2L, 1L), byRating().stream().map(CourseSummary::id).toList());
+
+        index.updateRating(1, 5.0, 3);
+        assertEquals(List.of(1L, 2L), byRating().stream().map(CourseSummary::id).toList());
+    }
+
+    private List<CourseSummary> byRating() {
+        return index.search(new FacetQuery(Map.of(), CourseSort.RATING, 0, 10, 10)).courses();
+    }
+
+    private static CourseSummary course(long id, String title, double rating, long ratingCount) {
+        return new CourseSummary(id, title, "Programming", "Beginner", "teacher@test.eduquest.com",
+                rating, ratingCount, 10, null);
+    }
+}
@@ -0,0 +1,158 @@
+package com.eduquesteasy.leaderboard;
+
+import com.eduquesteasy.events.EnrollmentEvent;
+import com.eduquesteasy.events.EnrollmentEventType;
+import com.eduquesteasy.models.Course;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class LeaderboardServiceTest {
+
+    private LeaderboardService leaderboard;
+    private long nextEventId = 1;
+
+    @BeforeEach
+    void setUp() {
+        leaderboard = new LeaderboardService(null);
+        ReflectionTestUtils.setField(leaderboard, "topK", 10);
+        ReflectionTestUtils.setField(leaderboard, "trendingWindowHours", 24);
+        Course course = new Course();
+        course.setId(1L);
+        course.setTitle("Java");
+        leaderboard.courseSaved(course);
+    }
+
+    @Test
+    void redeliveredEventsAreCountedOnce() {
+        EnrollmentEvent first = enrolled(10);
+        EnrollmentEvent second = enrolled(11);
+        leaderboard.onEvents(List.of(first, second));
+        // A retry after another subscriber failed hands the same events over again
+        leaderboard.onEvents(List.of(first));
+        leaderboard.onEvents(List.of(first, second));
+        leaderboard.refresh();
+
+        assertEquals(2, popularity());
+    }
+
+    @Test
+    void laterEventsAreStillApplied() {
+        leaderboard.onEvents(List.of(enrolled(10)));
+        leaderboard.onEvents(List.of(enrolled(12), withdrawn(13)));
+        leaderboard.refresh();
+
+        assertEquals(1, popularity());
+    }
+
+    @Test
+    void eventsArrivingOutOfIdOrderAreAllApplied() {
+        // The higher id committed first; the lower one, or a parked one being retried, comes later
+        leaderboard.onEvents(List.of(enrolled(12)));
+        leaderboard.onEvents(List.of(enrolled(10), enrolled(11)));
+        leaderboard.refresh();
+
+        assertEquals(3, popularity());
+    }
+
+    @Test
+    void refreshWithoutChangesKeepsTheSnapshot() {
+        leaderboard.onEvents(List.of(enrolled(10)));
+        leaderboard.refresh();
+        var generatedAt = leaderboard.getGeneratedAt();
+
+        leaderboard.refresh();
+        assertEquals(generatedAt, leaderboard.getGeneratedAt());
+    }
+
+    @Test
+    void rerankingTouchedCoursesMatchesAFullRanking() {
+        ReflectionTestUtils.setField(leaderboard, "topK", 5);
+        String[] categories = {"Programming", "Design", "Data"};
+        Map<Long, Long> enrollments = new HashMap<>();
+        for (long id = 2; id <= 60; id++) {
+            Course course = new Course();
+            course.setId(id);
+            course.setTitle("Course " + id);
+            course.setCategory(categories[(int) (id % categories.length)]);
+            leaderboard.courseSaved(course);
+        }
+        enrollments.put(1L, 0L);
+        for (long id = 2; id <= 60; id++) {
+            enrollments.put(id, 0L);
+        }
+
+        Random random = new Random(42);
+        for (int round = 0; round < 200; round++) {
+            List<EnrollmentEvent> events = new ArrayList<>();
+            // A few courses per round, so refresh re-ranks rather than rebuilding
+            for (int i = 0; i < 3; i++) {
+                long courseId = 1 + random.nextInt(60);
+                long count = enrollments.get(courseId);
+                if (count > 0 && random.nextInt(3) == 0) {
+                    events.add(event(EnrollmentEventType.WITHDRAWN, courseId));
+                    enrollments.put(courseId, count - 1);
+                } else {
+                    events.add(event(EnrollmentEventType.ENROLLED, courseId));
+                    enrollments.put(courseId, count + 1);
+                }
+            }
+            leaderboard.onEvents(events);
+            leaderboard.refresh();
+
+            assertEquals(expectedTop(enrollments, null, categories), ids(null), "round " + round);
+            for (String category : categories) {
+                assertEquals(expectedTop(enrollments, category, categories), ids(category), "round " + round);
+            }
+        }
+    }
+
+    private List<Long> ids(String category) {
+        return leaderboard.getTop(LeaderboardMetric.POPULAR, category, null, 5).stream()
+                .map(LeaderboardEntry::courseId)
+                .toList();
+    }
+
+    private static List<Long> expectedTop(Map<Long, Long> enrollments, String category, String[] categories) {
+        return enrollments.entrySet().stream()
+                .filter(e -> e.getValue() > 0)
+                // Course 1 comes from setUp without a category
+                .filter(e -> category == null
+                        || (e.getKey() != 1 && categories[(int) (e.getKey() % categories.length)].equals(category)))
+                .sorted(Map.Entry.<Long, Long>comparingByValue().reversed()
+                        .thenComparing(Map.Entry.comparingByKey()))
+                .limit(5)
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toList());
+    }
+
+    private EnrollmentEvent event(EnrollmentEventType type, long courseId) {
+        long id = nextEventId++;
+        return new EnrollmentEvent(id, type, courseId, id, "student" + id + "@test.eduquest.com",
+                0.0, 0.0, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    private long popularity() {
+        return leaderboard.getTop(LeaderboardMetric.POPULAR, null, null, 10).get(0).enrollments();
+    }
+
+    private static EnrollmentEvent enrolled(long id) {
+        return new EnrollmentEvent(id, EnrollmentEventType.ENROLLED, 1L, id, "student" + id + "@test.eduquest.com",
+                null, 0.0, LocalDateTime.now(), LocalDateTime.now());
+    }
+
+    private static EnrollmentEvent withdrawn(long id) {
+        return new EnrollmentEvent(id, EnrollmentEventType.WITHDRAWN, 1L, id, "student" + id + "@test.eduquest.com",
+                0.0, null, LocalDateTime.now(), LocalDateTime.now());
+    }
+}
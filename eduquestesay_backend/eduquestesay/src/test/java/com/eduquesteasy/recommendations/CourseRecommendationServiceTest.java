@@ -0,0 +1,99 @@
+package com.eduquesteasy.recommendations;
+
+import com.eduquesteasy.events.EnrollmentEvent;
+import com.eduquesteasy.events.EnrollmentEventType;
+import com.eduquesteasy.identity.IdentityResolver;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CourseRecommendationServiceTest {
+
+    private static final String STUDENT = "student@test.eduquest.com";
+    private static final long STUDENT_ID = 7L;
+
+    @Test
+    void reEnrollmentDuringTheLoadOutlivesTheEarlierWithdrawal() throws Exception {
+        CourseRecommendationService[] service = new CourseRecommendationService[1];
+        EnrollmentPairLoader loader = new EnrollmentPairLoader(null) {
+            @Override
+            public void forEachEnrollment(RowCallbackHandler handler) {
+                // The student withdraws from course 1 and enrolls again while the load runs;
+                // the load then reads the re-created row
+                service[0].onEvents(List.of(event(1, EnrollmentEventType.WITHDRAWN, 1L),
+                        event(2, EnrollmentEventType.ENROLLED, 1L)));
+                row(handler, 1L);
+                row(handler, 2L);
+            }
+        };
+        service[0] = new CourseRecommendationService(loader, null, identities());
+        ReflectionTestUtils.setField(service[0], "loadBatchSize", 10);
+
+        CoEnrollmentIndex index = load(service[0]);
+
+        List<CourseRecommendation> similar = index.similarCourses(1L, 10);
+        assertEquals(1, similar.size());
+        assertEquals(2L, similar.get(0).courseId());
+    }
+
+    @Test
+    void withdrawalDuringTheLoadRemovesTheRowTheLoadRead() throws Exception {
+        CourseRecommendationService[] service = new CourseRecommendationService[1];
+        EnrollmentPairLoader loader = new EnrollmentPairLoader(null) {
+            @Override
+            public void forEachEnrollment(RowCallbackHandler handler) {
+                row(handler, 1L);
+                row(handler, 2L);
+                service[0].onEvents(List.of(event(1, EnrollmentEventType.WITHDRAWN, 1L)));
+            }
+        };
+        service[0] = new CourseRecommendationService(loader, null, identities());
+        ReflectionTestUtils.setField(service[0], "loadBatchSize", 10);
+
+        CoEnrollmentIndex index = load(service[0]);
+
+        assertTrue(index.similarCourses(1L, 10).isEmpty());
+    }
+
+    private static CoEnrollmentIndex load(CourseRecommendationService service) throws InterruptedException {
+        service.loadInBackground();
+        for (int i = 0; i < 500 && !service.isReady(); i++) {
+            Thread.sleep(10);
+        }
+        assertTrue(service.isReady());
+        return (CoEnrollmentIndex) ReflectionTestUtils.getField(service, "index");
+    }
+
+    private static void row(RowCallbackHandler handler, long courseId) {
+        try {
+            ResultSet rs = mock(ResultSet.class);
+            when(rs.getLong(1)).thenReturn(STUDENT_ID);
+            when(rs.getLong(2)).thenReturn(courseId);
+            handler.processRow(rs);
+        } catch (SQLException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static IdentityResolver identities() {
+        IdentityResolver resolver = mock(IdentityResolver.class);
+        when(resolver.findStudentId(STUDENT)).thenReturn(Optional.of(STUDENT_ID));
+        return resolver;
+    }
+
+    private static EnrollmentEvent event(long id, EnrollmentEventType type, long courseId) {
+        return new EnrollmentEvent(id, type, courseId, id, STUDENT, null, null,
+                LocalDateTime.now(), LocalDateTime.now());
+    }
+}
@@ -0,0 +1,94 @@
+package com.eduquesteasy.services;
+
+import com.eduquesteasy.models.Course;
+import com.eduquesteasy.models.Enrollment;
+import com.eduquesteasy.repositories.CourseRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+class EnrollmentServiceProgressTest {
+
+    @Autowired
+    private EnrollmentService enrollmentService;
+
+    @Autowired
+    private CourseRepository courseRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    void concurrentRaisesKeepTheHighestProgressWithoutConflicts() throws Exception {
+        Course course = courseRepository.findAll().get(0);
+        String student = "concurrent-raise@test.eduquest.com";
+        enrollmentService.enrollUser(student, course.getId());
+
+        List<Double> values = new ArrayList<>();
+        for (int i = 1; i <= 16; i++) {
+            values.add(i * 5.0);
+        }
+        Collections.shuffle(values);
+
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        try {
+            List<Future<?>> raises = new ArrayList<>();
+            for (double value : values) {
+                raises.add(executor.submit(() -> {
+                    start.await();
+                    return enrollmentService.updateProgress(student, course.getId(), value, null);
+                }));
+            }
+            start.countDown();
+            // Any conflict surfaces here as an ExecutionException
+            for (Future<?> raise : raises) {
+                raise.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Enrollment enrollment = enrollmentService.getEnrollmentsByStudent(student).get(0);
+        assertEquals(80.0, enrollment.getProgress());
+        // Every published change was a real raise, so there are at most as many as values
+        assertTrue(progressEvents(enrollment.getId()) <= values.size());
+    }
+
+    @Test
+    void lowerProgressWithoutVersionLeavesItAlone() {
+        Course course = courseRepository.findAll().get(0);
+        String student = "lower-progress@test.eduquest.com";
+        enrollmentService.enrollUser(student, course.getId());
+
+        enrollmentService.updateProgress(student, course.getId(), 60.0, null);
+        enrollmentService.updateProgress(student, course.getId(), 30.0, null);
+        enrollmentService.updateProgress(student, course.getId(), 60.0, null);
+
+        Enrollment enrollment = enrollmentService.getEnrollmentsByStudent(student).get(0);
+        assertEquals(60.0, enrollment.getProgress());
+        // Neither the lower nor the repeated value changed anything, so only the first raise is published
+        assertEquals(1, progressEvents(enrollment.getId()));
+    }
+
+    private long progressEvents(Long enrollmentId) {
+        return jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM outbox_events WHERE type = 'PROGRESS_CHANGED' AND enrollment_id = ?",
+                Long.class, enrollmentId);
+    }
+}
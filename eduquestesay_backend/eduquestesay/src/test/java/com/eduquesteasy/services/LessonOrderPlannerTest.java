@@ -0,0 +1,87 @@
+package com.eduquesteasy.services;
+
+import org.junit.jupiter.api.Test;
+
+import static com.eduquesteasy.services.LessonOrderPlanner.GAP;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LessonOrderPlannerTest {
+
+    @Test
+    void unchangedOrderKeepsEveryValue() {
+        int[] current = {GAP, 2 * GAP, 3 * GAP};
+        assertArrayEquals(current, LessonOrderPlanner.plan(current));
+    }
+
+    @Test
+    void moveToFrontRewritesOnlyTheMovedLesson() {
+        // The last lesson moved to the front
+        int[] current = {4 * GAP, GAP, 2 * GAP, 3 * GAP};
+        int[] planned = LessonOrderPlanner.plan(current);
+
+        assertIncreasing(planned);
+        assertEquals(1, changed(current, planned));
+        assertEquals(0, planned[0]);
+    }
+
+    @Test
+    void moveToEndRewritesOnlyTheMovedLesson() {
+        // The first lesson moved to the end
+        int[] current = {2 * GAP, 3 * GAP, 4 * GAP, GAP};
+        int[] planned = LessonOrderPlanner.plan(current);
+
+        assertIncreasing(planned);
+        assertEquals(1, changed(current, planned));
+        assertEquals(5 * GAP, planned[3]);
+    }
+
+    @Test
+    void moveBetweenNeighboursTakesTheMiddleOfTheGap() {
+        int[] current = {GAP, 3 * GAP, 2 * GAP};
+        int[] planned = LessonOrderPlanner.plan(current);
+
+        assertIncreasing(planned);
+        assertEquals(1, changed(current, planned));
+    }
+
+    @Test
+    void noRoomBetweenNeighboursRenumbersTheCourse() {
+        // Dense values leave nothing between 1 and 2 for the lesson moved there
+        int[] current = {1, 3, 2};
+        assertArrayEquals(new int[]{GAP, 2 * GAP, 3 * GAP}, LessonOrderPlanner.plan(current));
+    }
+
+    @Test
+    void duplicateValuesAreSpreadApart() {
+        int[] current = {GAP, GAP, GAP, 2 * GAP};
+        int[] planned = LessonOrderPlanner.plan(current);
+
+        assertIncreasing(planned);
+        assertEquals(2, changed(current, planned));
+    }
+
+    @Test
+    void overflowRenumbersTheCourse() {
+        // Appending after the largest int has nowhere to go
+        int[] current = {GAP, Integer.MAX_VALUE, GAP / 2};
+        assertArrayEquals(new int[]{GAP, 2 * GAP, 3 * GAP}, LessonOrderPlanner.plan(current));
+    }
+
+    private static void assertIncreasing(int[] values) {
+        for (int i = 1; i < values.length; i++) {
+            assertTrue(values[i - 1] < values[i], "not increasing at " + i);
+        }
+    }
+
+    private static int changed(int[] current, int[] planned) {
+        int changed = 0;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] != planned[i]) {
+                changed++;
+            }
+        }
+        return changed;
+    }
+}